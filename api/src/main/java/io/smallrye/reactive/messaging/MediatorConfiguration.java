@@ -2,6 +2,7 @@ package io.smallrye.reactive.messaging;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.List;
 
 import jakarta.enterprise.inject.spi.Bean;
@@ -52,6 +53,47 @@ public interface MediatorConfiguration {
 
     boolean isBlockingExecutionOrdered();
 
+    /**
+     * @return {@code true} if the method is annotated with {@code @RunOnVirtualThread}, and so each invocation runs on
+     *         a new virtual thread instead of a worker thread. Such methods are also {@link #isBlocking() blocking}.
+     */
+    default boolean isRunOnVirtualThread() {
+        return false;
+    }
+
+    /**
+     * @return the class of the {@link KeyValueExtractor} extracting the key the concurrent invocations are ordered by,
+     *         {@link KeyValueExtractor} itself if it must be looked up, {@code null} if the invocations are not ordered by
+     *         key.
+     * @see io.smallrye.reactive.messaging.keyed.KeyOrdered
+     */
+    default Class<? extends KeyValueExtractor> getKeyOrdered() {
+        return null;
+    }
+
+    /**
+     * @return the maximum number of messages of a batch, {@code 0} if the method is not
+     *         {@link io.smallrye.reactive.messaging.annotations.Batched batched}.
+     */
+    default int getBatchSize() {
+        return 0;
+    }
+
+    /**
+     * @return the maximum time to wait for a batch to be complete, {@code null} if the method is not batched.
+     */
+    default Duration getBatchLinger() {
+        return null;
+    }
+
+    /**
+     * @return the type of the items of the batches, the incoming payloads being converted to this type before being
+     *         batched. {@code null} if the method is not batched, or the type cannot be extracted.
+     */
+    default Type getBatchItemType() {
+        return null;
+    }
+
     /**
      * Implementation of the {@link Invoker} interface that can be used to invoke the method described by this configuration
      * The invoker class can either have a no-arg constructor in which case it's expected to be look up the bean
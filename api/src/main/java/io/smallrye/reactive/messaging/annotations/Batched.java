@@ -0,0 +1,36 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import io.smallrye.common.annotation.Experimental;
+
+/**
+ * Indicates that the annotated method receives the incoming messages in batches, whatever the connector.
+ * <p>
+ * The method must consume a {@code List<T>} or a {@code Message<List<T>>}, and is invoked with up to {@link #size()}
+ * payloads, or with the payloads received so far once {@link #lingerMs()} has elapsed.
+ * The incoming payloads are converted to {@code T} before being batched.
+ * <p>
+ * The batch is acknowledged once processed: acknowledging it acknowledges all the messages of the batch, and
+ * negatively acknowledging it negatively acknowledges all of them.
+ */
+@Experimental("SmallRye only feature")
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Batched {
+
+    /**
+     * @return the maximum number of messages of a batch, must be strictly positive.
+     */
+    int size() default 100;
+
+    /**
+     * @return the maximum time, in milliseconds, to wait for the batch to be complete before delivering a smaller one,
+     *         must be strictly positive.
+     */
+    long lingerMs() default 1000;
+
+}
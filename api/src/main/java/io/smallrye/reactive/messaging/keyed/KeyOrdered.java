@@ -0,0 +1,36 @@
+package io.smallrye.reactive.messaging.keyed;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Type;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.common.annotation.Experimental;
+
+/**
+ * Indicates that the concurrent invocations of a method annotated with
+ * {@link io.smallrye.reactive.messaging.annotations.Blocking Blocking(ordered = false)} or
+ * {@code RunOnVirtualThread} must be ordered per key.
+ * <p>
+ * Messages with different keys are processed concurrently, while a message is only processed (including its
+ * acknowledgement) once the previous messages with the same key have been processed.
+ * <p>
+ * The key is extracted with a {@link KeyValueExtractor}, looked up with
+ * {@link KeyValueExtractor#canExtract(Message, Type, Type)} and {@link jakarta.enterprise.inject.spi.Prioritized}
+ * (for an {@code Object} key type), unless {@link #value()} is set.
+ * Messages whose key cannot be extracted are processed in order with each other.
+ */
+@Experimental("SmallRye only feature")
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface KeyOrdered {
+
+    /**
+     * @return the class of the {@link KeyValueExtractor} to use, {@link KeyValueExtractor} itself to look it up.
+     */
+    Class<? extends KeyValueExtractor> value() default KeyValueExtractor.class;
+
+}
@@ -20,17 +20,46 @@ import io.smallrye.common.annotation.Experimental;
 @Experimental("metadata propagation is a SmallRye-specific feature")
 public class Metadata implements Iterable<Object> {
 
+    /**
+     * Up to this number of entries, the metadata are stored in a flat array and retrieved by a linear scan comparing
+     * the classes, which is cheaper to copy and to search than a map for the few entries messages usually carry.
+     */
+    static final int MAX_COMPACT_SIZE = 8;
+
+    private static final Object[] NO_ITEMS = new Object[0];
+
+    /**
+     * The entries of a compact instance, in insertion order, {@code null} if backed by a map.
+     * Never modified once the instance is created, so derived instances can share it.
+     */
+    private final Object[] items;
+
+    /**
+     * The entries of a large instance, indexed by class, {@code null} if compact.
+     */
     private final Map<Class<?>, Object> backend;
 
-    private static final Metadata EMPTY = new Metadata(Collections.emptyMap());
+    private static final Metadata EMPTY = new Metadata(NO_ITEMS, null);
 
     /**
      * {@link Metadata} instances must be created using the static factory methods.
      *
-     * @param backend the backend, must not be {@code null}, must be immutable.
+     * @param items the entries, {@code null} if backed by a map, must not be modified afterwards
+     * @param backend the backend, {@code null} if compact, must not be modified afterwards
+     */
+    private Metadata(Object[] items, Map<Class<?>, Object> backend) {
+        this.items = items;
+        this.backend = backend;
+    }
+
+    /**
+     * Constructor for specialised implementations, backed by another data structure than a map, such as a connector
+     * record creating its metadata on demand.
+     * Subclasses must override {@link #get(Class)}, {@link #with(Object)}, {@link #without(Class)}, {@link #copy()}
+     * and {@link #iterator()}, and must be immutable.
      */
-    private Metadata(Map<Class<?>, Object> backend) {
-        this.backend = Collections.unmodifiableMap(backend);
+    protected Metadata() {
+        this(NO_ITEMS, null);
     }
 
     /**
@@ -53,7 +82,7 @@ public class Metadata implements Iterable<Object> {
             throw new IllegalArgumentException("`metadata` must not be `null`");
         }
 
-        return new Metadata(Collections.singletonMap(metadata.getClass(), metadata));
+        return new Metadata(new Object[] { metadata }, null);
     }
 
     /**
@@ -68,8 +97,7 @@ public class Metadata implements Iterable<Object> {
             throw new IllegalArgumentException("`metadata` must not be `null`");
         }
 
-        Map<Class<?>, Object> map = createBackingMap(Arrays.asList(metadata));
-        return new Metadata(map);
+        return create(Arrays.asList(metadata));
     }
 
     /**
@@ -87,24 +115,54 @@ public class Metadata implements Iterable<Object> {
             return (Metadata) metadata;
         }
 
-        Map<Class<?>, Object> map = createBackingMap(metadata);
-        if (map.isEmpty()) {
-            return Metadata.empty();
-        }
-        return new Metadata(map);
+        return create(metadata);
     }
 
-    private static Map<Class<?>, Object> createBackingMap(Iterable<Object> metadata) {
-        Map<Class<?>, Object> map = new HashMap<>();
+    private static Metadata create(Iterable<Object> metadata) {
+        Object[] items = new Object[MAX_COMPACT_SIZE];
+        int size = 0;
+        Map<Class<?>, Object> map = null;
         for (Object item : metadata) {
             if (item == null) {
                 throw new IllegalArgumentException("One of the metadata items is `null`");
             }
-            // Ensure that the class is not used.
-            if (map.containsKey(item.getClass())) {
+            if (map == null) {
+                // Ensure that the class is not used.
+                if (indexOf(items, size, item.getClass()) >= 0) {
+                    throw new IllegalArgumentException("Duplicate metadata detected: " + item.getClass().getName());
+                }
+                if (size < MAX_COMPACT_SIZE) {
+                    items[size++] = item;
+                    continue;
+                }
+                map = toMap(items, size);
+            }
+            if (map.putIfAbsent(item.getClass(), item) != null) {
                 throw new IllegalArgumentException("Duplicate metadata detected: " + item.getClass().getName());
             }
-            map.put(item.getClass(), item);
+        }
+        if (map != null) {
+            return new Metadata(null, map);
+        }
+        if (size == 0) {
+            return Metadata.empty();
+        }
+        return new Metadata(Arrays.copyOf(items, size), null);
+    }
+
+    private static int indexOf(Object[] items, int size, Class<?> clazz) {
+        for (int i = 0; i < size; i++) {
+            if (items[i].getClass() == clazz) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Map<Class<?>, Object> toMap(Object[] items, int size) {
+        Map<Class<?>, Object> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(items[i].getClass(), items[i]);
         }
         return map;
     }
@@ -121,9 +179,25 @@ public class Metadata implements Iterable<Object> {
         if (item == null) {
             throw new IllegalArgumentException("`item` must not be `null`");
         }
-        Map<Class<?>, Object> copy = new HashMap<>(backend);
-        copy.put(item.getClass(), item);
-        return new Metadata(copy);
+        if (backend != null) {
+            Map<Class<?>, Object> copy = new HashMap<>(backend);
+            copy.put(item.getClass(), item);
+            return new Metadata(null, copy);
+        }
+        int index = indexOf(items, items.length, item.getClass());
+        if (index >= 0) {
+            Object[] copy = items.clone();
+            copy[index] = item;
+            return new Metadata(copy, null);
+        }
+        if (items.length < MAX_COMPACT_SIZE) {
+            Object[] copy = Arrays.copyOf(items, items.length + 1);
+            copy[items.length] = item;
+            return new Metadata(copy, null);
+        }
+        Map<Class<?>, Object> map = toMap(items, items.length);
+        map.put(item.getClass(), item);
+        return new Metadata(null, map);
     }
 
     /**
@@ -138,9 +212,29 @@ public class Metadata implements Iterable<Object> {
         if (clazz == null) {
             throw new IllegalArgumentException("`clazz` must not be `null`");
         }
-        Map<Class<?>, Object> copy = new HashMap<>(backend);
-        copy.remove(clazz);
-        return new Metadata(copy);
+        if (backend != null) {
+            if (!backend.containsKey(clazz)) {
+                return this;
+            }
+            Map<Class<?>, Object> copy = new HashMap<>(backend);
+            copy.remove(clazz);
+            if (copy.size() <= MAX_COMPACT_SIZE) {
+                return new Metadata(copy.values().toArray(), null);
+            }
+            return new Metadata(null, copy);
+        }
+        int index = indexOf(items, items.length, clazz);
+        if (index < 0) {
+            // immutable, so there is no need to copy
+            return this;
+        }
+        if (items.length == 1) {
+            return Metadata.empty();
+        }
+        Object[] copy = new Object[items.length - 1];
+        System.arraycopy(items, 0, copy, 0, index);
+        System.arraycopy(items, index + 1, copy, index, items.length - index - 1);
+        return new Metadata(copy, null);
     }
 
     /**
@@ -149,8 +243,8 @@ public class Metadata implements Iterable<Object> {
      * @return the new instance.
      */
     public Metadata copy() {
-        Map<Class<?>, Object> copy = new HashMap<>(backend);
-        return new Metadata(copy);
+        // the entries are never modified, so they can be shared
+        return new Metadata(items, backend);
     }
 
     /**
@@ -163,7 +257,11 @@ public class Metadata implements Iterable<Object> {
         if (clazz == null) {
             throw new IllegalArgumentException("`clazz` must not be `null`");
         }
-        return Optional.ofNullable(clazz.cast(backend.get(clazz)));
+        if (backend != null) {
+            return Optional.ofNullable(clazz.cast(backend.get(clazz)));
+        }
+        int index = indexOf(items, items.length, clazz);
+        return index < 0 ? Optional.empty() : Optional.of(clazz.cast(items[index]));
     }
 
     /**
@@ -171,6 +269,35 @@ public class Metadata implements Iterable<Object> {
      */
     @Override
     public Iterator<Object> iterator() {
-        return backend.values().iterator();
+        if (backend != null) {
+            return Collections.unmodifiableCollection(backend.values()).iterator();
+        }
+        if (items.length == 0) {
+            return Collections.emptyIterator();
+        }
+        return new ItemIterator(items);
+    }
+
+    private static final class ItemIterator implements Iterator<Object> {
+
+        private final Object[] items;
+        private int index;
+
+        private ItemIterator(Object[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < items.length;
+        }
+
+        @Override
+        public Object next() {
+            if (index >= items.length) {
+                throw new NoSuchElementException();
+            }
+            return items[index++];
+        }
     }
 }
@@ -87,6 +87,36 @@ class MetadataTest {
         assertThat(Metadata.from(Collections.emptyList())).isEqualTo(metadata);
     }
 
+    @Test
+    void testWithAndWithoutAcrossCompactSize() {
+        List<Object> values = List.of("a", 1, 2L, 3.0, 4.0f, (short) 5, (byte) 6, 'c', new Meta1("m1"), new Meta2(2));
+        Metadata metadata = Metadata.empty();
+        for (Object value : values) {
+            metadata = metadata.with(value);
+        }
+        assertThat(metadata).hasSize(10).containsExactlyInAnyOrderElementsOf(values);
+        assertThat(Metadata.from(values)).containsExactlyInAnyOrderElementsOf(values);
+        assertThat(metadata.get(Meta2.class).map(m -> m.count)).hasValue(2);
+        assertThat(metadata.with(new Meta2(3)).get(Meta2.class).map(m -> m.count)).hasValue(3);
+
+        Metadata removed = metadata.without(Meta1.class).without(Meta2.class).without(String.class);
+        assertThat(removed).hasSize(7).doesNotContain("a");
+        assertThat(removed.get(Integer.class)).hasValue(1);
+        assertThat(removed.without(Meta3.class)).isSameAs(removed);
+        assertThat(removed.copy()).containsExactlyInAnyOrderElementsOf(removed);
+
+        Meta1 meta1 = new Meta1("x");
+        Meta2 meta2 = new Meta2(1);
+        Meta3 meta3 = new Meta3(3);
+        Metadata small = Metadata.of(meta1, meta2);
+        assertThat(small.with(meta3)).containsExactly(meta1, meta2, meta3);
+        assertThat(small.without(Meta1.class).without(Meta2.class)).isSameAs(Metadata.empty());
+        assertThatThrownBy(() -> Metadata.from(List.of("a", 1, 2L, 3.0, 4.0f, (short) 5, (byte) 6, 'c', "d")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> small.iterator().remove())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
     static class Meta1 {
         final String value;
 
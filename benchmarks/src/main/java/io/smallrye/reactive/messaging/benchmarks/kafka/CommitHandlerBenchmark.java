@@ -0,0 +1,131 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
+import io.smallrye.reactive.messaging.kafka.commit.ContextHolder;
+import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
+import io.smallrye.reactive.messaging.kafka.commit.KafkaLatestCommit;
+import io.smallrye.reactive.messaging.kafka.commit.KafkaThrottledLatestProcessedCommit;
+import io.smallrye.reactive.messaging.kafka.impl.ReactiveKafkaConsumer;
+import io.vertx.core.Context;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * Measures the commit handlers, from the reception of a record to its acknowledgement, with a {@link MockConsumer}
+ * receiving the commits.
+ * <p>
+ * Each invocation receives and acknowledges {@link #BATCH} records of a partition on the event loop of the consumer,
+ * as the {@code KafkaSource} does, and waits for the last acknowledgement. The score is the time per record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommitHandlerBenchmark {
+
+    static final int BATCH = 500;
+    private static final String TOPIC = "topic";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    @Param({ KafkaCommitHandler.Strategy.LATEST, KafkaCommitHandler.Strategy.THROTTLED })
+    String strategy;
+
+    private Vertx vertx;
+    private Context context;
+    private ReactiveKafkaConsumer<String, String> consumer;
+    private KafkaCommitHandler handler;
+    private long offset;
+
+    @Setup
+    public void setup() {
+        vertx = Vertx.vertx();
+        KafkaConnectorIncomingConfiguration config = new KafkaConnectorIncomingConfiguration(new SmallRyeConfigBuilder()
+                .withSources(new PropertiesConfigSource(Map.of(
+                        "channel-name", "channel",
+                        "topic", TOPIC,
+                        "lazy-client", "true",
+                        "graceful-shutdown", "false",
+                        ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092",
+                        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName(),
+                        ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "100"), "benchmark", 500))
+                .build());
+        context = ((VertxInternal) vertx.getDelegate()).createEventLoopContext();
+        consumer = new ReactiveKafkaConsumer<>(config, null, "benchmark", -1, (t, f) -> {
+        }, context, c -> {
+        });
+        MockConsumer<String, String> mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        mock.assign(List.of(PARTITION));
+        mock.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.injectClient(mock);
+
+        if (KafkaCommitHandler.Strategy.LATEST.equals(strategy)) {
+            handler = new KafkaLatestCommit.Factory().create(config, vertx, consumer, (t, f) -> {
+            });
+        } else {
+            handler = new KafkaThrottledLatestProcessedCommit.Factory().create(config, vertx, consumer, (t, f) -> {
+            });
+        }
+        ((ContextHolder) handler).capture(context);
+        handler.partitionsAssigned(List.of(PARTITION));
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.terminate(false);
+        consumer.close();
+        vertx.closeAndAwait();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void receiveAndAcknowledge() throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(BATCH);
+        context.runOnContext(ignored -> {
+            for (int i = 0; i < BATCH; i++) {
+                IncomingKafkaRecord<String, String> record = new IncomingKafkaRecord<>(
+                        new ConsumerRecord<>(TOPIC, 0, offset++, "key", "value"), "channel", -1, handler, null, false,
+                        false);
+                handler.received(record)
+                        .chain(handler::handle)
+                        .subscribe().with(x -> {
+                            if (remaining.decrementAndGet() == 0) {
+                                done.complete(null);
+                            }
+                        }, done::completeExceptionally);
+            }
+        });
+        done.get(10, TimeUnit.SECONDS);
+    }
+}
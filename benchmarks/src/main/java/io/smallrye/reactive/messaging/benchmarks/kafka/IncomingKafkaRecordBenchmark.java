@@ -0,0 +1,80 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
+import io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage;
+
+/**
+ * Compares the metadata created when receiving a Kafka record: the eager creation of the Kafka record metadata (and
+ * its deprecated copy) in a map-backed {@link Metadata}, with the view backed by the record used by
+ * {@link IncomingKafkaRecord}.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IncomingKafkaRecordBenchmark {
+
+    private ConsumerRecord<String, String> record;
+
+    @Setup
+    public void setup() {
+        record = new ConsumerRecord<>("topic", 0, 42L, "key", "value");
+    }
+
+    @Benchmark
+    public Metadata eagerReceive() {
+        return eagerMetadata(record);
+    }
+
+    @Benchmark
+    public Metadata lazyReceive() {
+        return new IncomingKafkaRecord<>(record, "channel", -1, null, null, false, false).getMetadata();
+    }
+
+    @Benchmark
+    public Optional<IncomingKafkaRecordMetadata> eagerReceiveAndLookup() {
+        return eagerMetadata(record).get(IncomingKafkaRecordMetadata.class);
+    }
+
+    @Benchmark
+    public Optional<IncomingKafkaRecordMetadata> lazyReceiveAndLookup() {
+        return new IncomingKafkaRecord<>(record, "channel", -1, null, null, false, false)
+                .getMetadata(IncomingKafkaRecordMetadata.class);
+    }
+
+    /**
+     * The metadata created by {@link IncomingKafkaRecord} before the view backed by the record.
+     */
+    @SuppressWarnings("deprecation")
+    private static Metadata eagerMetadata(ConsumerRecord<String, String> record) {
+        IncomingKafkaRecordMetadata<String, String> kafkaMetadata = new IncomingKafkaRecordMetadata<>(record, "channel",
+                -1);
+        io.smallrye.reactive.messaging.kafka.IncomingKafkaRecordMetadata<String, String> deprecatedKafkaMetadata = new io.smallrye.reactive.messaging.kafka.IncomingKafkaRecordMetadata<>(
+                record, "channel", -1);
+        ArrayList<Object> meta = new ArrayList<>();
+        meta.add(kafkaMetadata);
+        meta.add(deprecatedKafkaMetadata);
+        return ContextAwareMessage.captureContextMetadata(meta);
+    }
+}
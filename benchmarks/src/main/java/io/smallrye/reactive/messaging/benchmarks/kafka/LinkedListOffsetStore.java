@@ -0,0 +1,59 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * The {@code LinkedList}/{@code HashSet} offset tracking previously used by the throttled commit strategy,
+ * kept as baseline.
+ */
+public class LinkedListOffsetStore {
+
+    private final Queue<OffsetReceivedAt> receivedOffsets = new LinkedList<>();
+    private final Set<Long> processedOffsets = new HashSet<>();
+    private long lastProcessedOffset = -1;
+
+    public void received(long offset, long timestamp) {
+        if (offset > lastProcessedOffset) {
+            receivedOffsets.offer(new OffsetReceivedAt(offset, timestamp));
+        }
+    }
+
+    public void processed(long offset) {
+        OffsetReceivedAt received = receivedOffsets.peek();
+        if (received != null && received.offset <= offset) {
+            processedOffsets.add(offset);
+        }
+    }
+
+    public long clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset() {
+        if (!processedOffsets.isEmpty()) {
+            long largestSequentialProcessedOffset = -1;
+            while (!receivedOffsets.isEmpty()) {
+                if (!processedOffsets.remove(receivedOffsets.peek().offset)) {
+                    break;
+                }
+                largestSequentialProcessedOffset = receivedOffsets.poll().offset;
+            }
+            if (largestSequentialProcessedOffset > -1) {
+                lastProcessedOffset = largestSequentialProcessedOffset;
+                receivedOffsets.removeIf(o -> o.offset <= lastProcessedOffset);
+                return largestSequentialProcessedOffset;
+            }
+        }
+        receivedOffsets.removeIf(o -> o.offset <= lastProcessedOffset);
+        return -1;
+    }
+
+    private static class OffsetReceivedAt {
+        private final long offset;
+        private final long receivedAt;
+
+        private OffsetReceivedAt(long offset, long receivedAt) {
+            this.offset = offset;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code ReentrantLock}-guarded {@code ArrayDeque} previously used as record queue by the Kafka connector,
+ * kept as baseline.
+ */
+public class LockedRecordQueue<T> extends ArrayDeque<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LockedRecordQueue(int capacityHint) {
+        super(capacityHint);
+    }
+
+    public void addAll(Iterable<T> iterable) {
+        lock.lock();
+        try {
+            for (T record : iterable) {
+                super.offer(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll() {
+        lock.lock();
+        try {
+            return super.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return super.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
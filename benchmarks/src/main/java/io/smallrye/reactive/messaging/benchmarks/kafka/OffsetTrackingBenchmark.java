@@ -0,0 +1,105 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.smallrye.reactive.messaging.kafka.impl.OffsetWindow;
+
+/**
+ * Compares the offset tracking of the throttled commit strategy, {@link OffsetWindow}, with the previous
+ * {@link LinkedListOffsetStore}.
+ * <p>
+ * Each invocation receives {@code inFlight} records, acknowledges them in a random order, and periodically removes
+ * the sequentially acknowledged offsets, as the commit timer does. The score is the time of a whole round.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OffsetTrackingBenchmark {
+
+    private static final int COMMIT_EVERY = 1000;
+
+    @Param({ "linked-list", "window" })
+    String implementation;
+
+    @Param({ "1000", "100000" })
+    int inFlight;
+
+    private long[] ackOrder;
+    private long base;
+
+    private OffsetWindow window;
+    private LinkedListOffsetStore linkedList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        window = new OffsetWindow(512);
+        linkedList = new LinkedListOffsetStore();
+        ackOrder = new long[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            ackOrder[i] = i;
+        }
+        Random random = new Random(42);
+        for (int i = inFlight - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = ackOrder[i];
+            ackOrder[i] = ackOrder[j];
+            ackOrder[j] = tmp;
+        }
+    }
+
+    @Benchmark
+    public void outOfOrderAcks(Blackhole blackhole) {
+        if ("window".equals(implementation)) {
+            window(blackhole);
+        } else {
+            linkedList(blackhole);
+        }
+        base += inFlight;
+    }
+
+    private void window(Blackhole blackhole) {
+        for (int i = 0; i < inFlight; i++) {
+            window.received(base + i, i);
+        }
+        for (int i = 0; i < inFlight; i++) {
+            window.acknowledged(base + ackOrder[i]);
+            if (i % COMMIT_EVERY == 0) {
+                blackhole.consume(window.removeAcknowledged());
+            }
+        }
+        blackhole.consume(window.removeAcknowledged());
+    }
+
+    private void linkedList(Blackhole blackhole) {
+        LinkedListOffsetStore store = linkedList;
+        for (int i = 0; i < inFlight; i++) {
+            store.received(base + i, i);
+        }
+        for (int i = 0; i < inFlight; i++) {
+            store.processed(base + ackOrder[i]);
+            if (i % COMMIT_EVERY == 0) {
+                blackhole.consume(store.clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset());
+            }
+        }
+        blackhole.consume(store.clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset());
+    }
+}
@@ -0,0 +1,134 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.kafka.commit.BinaryProcessingStateCodec;
+import io.smallrye.reactive.messaging.kafka.commit.ProcessingState;
+import io.smallrye.reactive.messaging.kafka.commit.ProcessingStateCodec;
+import io.smallrye.reactive.messaging.kafka.commit.VertxJsonProcessingStateCodec;
+
+/**
+ * Compares the {@link VertxJsonProcessingStateCodec} with the {@link BinaryProcessingStateCodec}, for a counter and
+ * for a small aggregate.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessingStateCodecBenchmark {
+
+    @Param({ "json", "binary" })
+    String codec;
+
+    @Param({ "counter", "aggregate" })
+    String state;
+
+    private ProcessingStateCodec processingStateCodec;
+    private ProcessingState<?> processingState;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        boolean counter = "counter".equals(state);
+        if ("json".equals(codec)) {
+            processingStateCodec = VertxJsonProcessingStateCodec.INSTANCE;
+        } else if (counter) {
+            processingStateCodec = BinaryProcessingStateCodec.FACTORY.create(Long.class);
+        } else {
+            processingStateCodec = new BinaryProcessingStateCodec<>(new AggregateSchema());
+        }
+        processingState = counter ? new ProcessingState<>(123456789L, 42L)
+                : new ProcessingState<>(new Aggregate(1000, 12345.5, -3.0, 250.25), 42L);
+        encoded = processingStateCodec.encode(processingState);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return processingStateCodec.encode(processingState);
+    }
+
+    @Benchmark
+    public ProcessingState<?> decode() {
+        return processingStateCodec.decode(encoded);
+    }
+
+    public static class Aggregate {
+        private long count;
+        private double sum;
+        private double min;
+        private double max;
+
+        public Aggregate() {
+        }
+
+        public Aggregate(long count, double sum, double min, double max) {
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public void setSum(double sum) {
+            this.sum = sum;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public void setMin(double min) {
+            this.min = min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public void setMax(double max) {
+            this.max = max;
+        }
+    }
+
+    static class AggregateSchema implements BinaryProcessingStateCodec.Schema<Aggregate> {
+
+        @Override
+        public void write(Aggregate state, BinaryProcessingStateCodec.Output output) {
+            output.writeLong(state.count);
+            output.writeDouble(state.sum);
+            output.writeDouble(state.min);
+            output.writeDouble(state.max);
+        }
+
+        @Override
+        public Aggregate read(int version, BinaryProcessingStateCodec.Input input) {
+            return new Aggregate(input.readLong(), input.readDouble(), input.readDouble(), input.readDouble());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.smallrye.reactive.messaging.benchmarks.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.smallrye.reactive.messaging.kafka.impl.RecordQueue;
+
+/**
+ * Compares the lock-free {@link RecordQueue} with the lock-based {@link LockedRecordQueue}.
+ * <p>
+ * The {@code spsc} group reproduces the Kafka consumer usage: the polling thread adds batches of
+ * {@code maxPollRecords} records as long as the queue holds less than {@code 2 * maxPollRecords} records
+ * (pause/resume), while the dispatching thread polls records one by one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RecordQueueBenchmark {
+
+    @Param({ "locked", "spsc" })
+    String implementation;
+
+    @Param({ "500" })
+    int maxPollRecords;
+
+    private Queue queue;
+    private List<Object> batch;
+    private int maxQueueSize;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        maxQueueSize = maxPollRecords * 2;
+        batch = new ArrayList<>(maxPollRecords);
+        for (int i = 0; i < maxPollRecords; i++) {
+            batch.add(new Object());
+        }
+        if ("locked".equals(implementation)) {
+            queue = new Locked(maxQueueSize + maxPollRecords);
+        } else {
+            queue = new Spsc(maxQueueSize + maxPollRecords);
+        }
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean produce() {
+        if (queue.size() < maxQueueSize) {
+            queue.addAll(batch);
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Object consume() {
+        return queue.poll();
+    }
+
+    /**
+     * Adds and polls a batch of {@code maxPollRecords} records from the same thread, measures the uncontended cost.
+     */
+    @Benchmark
+    @Group("single")
+    public void addAllThenPoll(Blackhole blackhole) {
+        queue.addAll(batch);
+        Object item;
+        while ((item = queue.poll()) != null) {
+            blackhole.consume(item);
+        }
+    }
+
+    interface Queue {
+        void addAll(List<Object> items);
+
+        Object poll();
+
+        int size();
+    }
+
+    static class Locked implements Queue {
+        private final LockedRecordQueue<Object> delegate;
+
+        Locked(int capacity) {
+            this.delegate = new LockedRecordQueue<>(capacity);
+        }
+
+        @Override
+        public void addAll(List<Object> items) {
+            delegate.addAll((Iterable<Object>) items);
+        }
+
+        @Override
+        public Object poll() {
+            return delegate.poll();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+    }
+
+    static class Spsc implements Queue {
+        private final RecordQueue<Object> delegate;
+
+        Spsc(int capacity) {
+            this.delegate = new RecordQueue<>(capacity);
+        }
+
+        @Override
+        public void addAll(List<Object> items) {
+            delegate.addAll(items);
+        }
+
+        @Override
+        public Object poll() {
+            return delegate.poll();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+    }
+}
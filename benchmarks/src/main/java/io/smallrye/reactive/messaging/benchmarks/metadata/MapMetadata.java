@@ -0,0 +1,56 @@
+package io.smallrye.reactive.messaging.benchmarks.metadata;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@code HashMap}-backed {@link org.eclipse.microprofile.reactive.messaging.Metadata} implementation used before
+ * the compact representation, kept as baseline.
+ */
+public class MapMetadata implements Iterable<Object> {
+
+    private static final MapMetadata EMPTY = new MapMetadata(Collections.emptyMap());
+
+    private final Map<Class<?>, Object> backend;
+
+    private MapMetadata(Map<Class<?>, Object> backend) {
+        this.backend = Collections.unmodifiableMap(backend);
+    }
+
+    public static MapMetadata empty() {
+        return EMPTY;
+    }
+
+    public MapMetadata with(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("`item` must not be `null`");
+        }
+        Map<Class<?>, Object> copy = new HashMap<>(backend);
+        copy.put(item.getClass(), item);
+        return new MapMetadata(copy);
+    }
+
+    public MapMetadata without(Class<?> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("`clazz` must not be `null`");
+        }
+        Map<Class<?>, Object> copy = new HashMap<>(backend);
+        copy.remove(clazz);
+        return new MapMetadata(copy);
+    }
+
+    public <T> Optional<T> get(Class<T> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("`clazz` must not be `null`");
+        }
+        return Optional.ofNullable(clazz.cast(backend.get(clazz)));
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return backend.values().iterator();
+    }
+}
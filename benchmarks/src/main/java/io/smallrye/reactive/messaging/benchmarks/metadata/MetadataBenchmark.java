@@ -0,0 +1,121 @@
+package io.smallrye.reactive.messaging.benchmarks.metadata;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the compact {@link Metadata} with the {@code HashMap}-backed {@link MapMetadata} when metadata are added
+ * one at a time, as done by the successive hops of a pipeline, then looked up.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetadataBenchmark {
+
+    @Param({ "1", "3", "5" })
+    int size;
+
+    private Object[] items;
+    private Metadata metadata;
+    private MapMetadata mapMetadata;
+    private Message<String> message;
+
+    @Setup
+    public void setup() {
+        Object[] candidates = { new Meta1(), new Meta2(), new Meta3(), new Meta4(), new Meta5() };
+        items = new Object[size];
+        System.arraycopy(candidates, 0, items, 0, size);
+        metadata = Metadata.empty();
+        mapMetadata = MapMetadata.empty();
+        for (Object item : items) {
+            metadata = metadata.with(item);
+            mapMetadata = mapMetadata.with(item);
+        }
+        message = Message.of("payload", metadata);
+    }
+
+    @Benchmark
+    public Metadata compactWith() {
+        Metadata current = Metadata.empty();
+        for (Object item : items) {
+            current = current.with(item);
+        }
+        return current;
+    }
+
+    @Benchmark
+    public MapMetadata mapWith() {
+        MapMetadata current = MapMetadata.empty();
+        for (Object item : items) {
+            current = current.with(item);
+        }
+        return current;
+    }
+
+    @Benchmark
+    public Message<String> compactAddMetadata() {
+        Message<String> current = Message.of("payload");
+        for (Object item : items) {
+            current = current.addMetadata(item);
+        }
+        return current;
+    }
+
+    @Benchmark
+    public Optional<Meta1> compactGet() {
+        return metadata.get(Meta1.class);
+    }
+
+    @Benchmark
+    public Optional<Meta1> mapGet() {
+        return mapMetadata.get(Meta1.class);
+    }
+
+    @Benchmark
+    public Optional<Meta1> compactGetMetadata() {
+        return message.getMetadata(Meta1.class);
+    }
+
+    @Benchmark
+    public Metadata compactWithout() {
+        return metadata.without(Meta1.class);
+    }
+
+    @Benchmark
+    public MapMetadata mapWithout() {
+        return mapMetadata.without(Meta1.class);
+    }
+
+    public static class Meta1 {
+    }
+
+    public static class Meta2 {
+    }
+
+    public static class Meta3 {
+    }
+
+    public static class Meta4 {
+    }
+
+    public static class Meta5 {
+    }
+}
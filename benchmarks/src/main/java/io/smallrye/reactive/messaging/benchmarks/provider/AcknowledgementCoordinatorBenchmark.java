@@ -0,0 +1,77 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.providers.helpers.AcknowledgementCoordinator;
+
+/**
+ * Compares the lock-free {@link AcknowledgementCoordinator} with the lock-based
+ * {@link LockedAcknowledgementCoordinator} when fanning out a message to {@code fanOut} messages, as done by processors
+ * returning a stream of payloads for each incoming payload.
+ * <p>
+ * Each invocation tracks the {@code fanOut} messages, then acks them in order, the last ack acking the input message.
+ * The score is the time per fan-out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AcknowledgementCoordinatorBenchmark {
+
+    @Param({ "locked", "atomic" })
+    String implementation;
+
+    @Param({ "1", "10", "100", "1000", "10000" })
+    int fanOut;
+
+    private Message<String> input;
+    private List<Message<?>> children;
+    private List<Message<?>> tracked;
+    private Function<Message<String>, Function<Message<?>, Message<?>>> coordinator;
+
+    @Setup
+    public void setup() {
+        input = Message.of("input");
+        children = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            children.add(Message.of("child-" + i));
+        }
+        tracked = new ArrayList<>(fanOut);
+        if ("locked".equals(implementation)) {
+            coordinator = message -> new LockedAcknowledgementCoordinator(message)::track;
+        } else {
+            coordinator = message -> new AcknowledgementCoordinator(message)::track;
+        }
+    }
+
+    @Benchmark
+    public List<Message<?>> fanOut() {
+        Function<Message<?>, Message<?>> track = coordinator.apply(input);
+        tracked.clear();
+        for (Message<?> child : children) {
+            tracked.add(track.apply(child));
+        }
+        for (Message<?> message : tracked) {
+            message.ack();
+        }
+        return tracked;
+    }
+}
@@ -0,0 +1,95 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MessageConverter;
+import io.smallrye.reactive.messaging.providers.helpers.ConverterUtils;
+
+/**
+ * Measures {@link ConverterUtils#convert(Multi, Instance, Type)} on a stream of {@link #BATCH} messages:
+ * <ul>
+ * <li>{@code same}: the payload already has the expected type,</li>
+ * <li>{@code assignable}: the payload is assignable to the expected type, the identity converter is used,</li>
+ * <li>{@code converted}: the payload is converted by a {@link MessageConverter} bean.</li>
+ * </ul>
+ * The score is the time per message, the converter lookup is only done for the first message of the stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+
+    static final int BATCH = 1000;
+
+    @Param({ "same", "assignable", "converted" })
+    String conversion;
+
+    private MessagingContainer container;
+    private Instance<MessageConverter> converters;
+    private List<Message<?>> messages;
+    private Type expected;
+
+    @Setup
+    public void setup() {
+        container = MessagingContainer.start(Map.of(), StringBuilderToStringConverter.class);
+        converters = container.instances(MessageConverter.class);
+        expected = "assignable".equals(conversion) ? CharSequence.class : String.class;
+        messages = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            messages.add(Message.of("converted".equals(conversion) ? new StringBuilder("payload") : "payload"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void convert(Blackhole blackhole) {
+        ConverterUtils.convert(Multi.createFrom().iterable(messages), converters, expected)
+                .subscribe().with(blackhole::consume);
+    }
+
+    @ApplicationScoped
+    public static class StringBuilderToStringConverter implements MessageConverter {
+
+        @Override
+        public boolean canConvert(Message<?> in, Type target) {
+            return target == String.class && in.getPayload() instanceof StringBuilder;
+        }
+
+        @Override
+        public Message<?> convert(Message<?> in, Type target) {
+            return in.withPayload(in.getPayload().toString());
+        }
+    }
+}
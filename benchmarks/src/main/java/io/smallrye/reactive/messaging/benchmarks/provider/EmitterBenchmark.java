@@ -0,0 +1,102 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.MutinyEmitter;
+
+/**
+ * Measures {@code AbstractEmitter.emit}, through the {@link Emitter} and {@link MutinyEmitter} send methods, the
+ * emitted messages being consumed by a subscriber method.
+ * <p>
+ * The subscriber acknowledges the messages synchronously, so the completion stages returned by the emitter are
+ * completed when {@code send} returns, and the emitter buffer never fills up.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmitterBenchmark {
+
+    private MessagingContainer container;
+    private Emitters emitters;
+
+    @Setup
+    public void setup() {
+        container = MessagingContainer.start(Map.of(), Emitters.class, Sink.class);
+        emitters = container.get(Emitters.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.close();
+    }
+
+    @Benchmark
+    public CompletionStage<Void> sendPayload() {
+        return emitters.emitter.send("payload");
+    }
+
+    @Benchmark
+    public void sendMessage() {
+        emitters.emitter.send(Message.of("payload"));
+    }
+
+    @Benchmark
+    public void sendAndForget() {
+        emitters.mutinyEmitter.sendAndForget("payload");
+    }
+
+    // not proxied, the emitters are read from the fields
+    @Dependent
+    public static class Emitters {
+
+        @Inject
+        @Channel("emitted")
+        Emitter<String> emitter;
+
+        @Inject
+        @Channel("mutiny-emitted")
+        MutinyEmitter<String> mutinyEmitter;
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+
+        private long count;
+
+        @Incoming("emitted")
+        public void emitted(String payload) {
+            count++;
+        }
+
+        @Incoming("mutiny-emitted")
+        public void mutinyEmitted(String payload) {
+            count++;
+        }
+    }
+}
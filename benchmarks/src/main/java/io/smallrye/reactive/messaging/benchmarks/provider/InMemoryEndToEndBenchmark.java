@@ -0,0 +1,89 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorLiteral;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+
+/**
+ * Measures a message going from an incoming in-memory channel to an outgoing in-memory channel through a processor
+ * method, with the connector, the channel wiring, the decorators and the acknowledgement, without any broker.
+ * <p>
+ * Each invocation sends {@link #BATCH} messages then clears the sink, the score is the time per message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InMemoryEndToEndBenchmark {
+
+    static final int BATCH = 100;
+
+    private MessagingContainer container;
+    private InMemorySource<String> source;
+    private InMemorySink<String> sink;
+
+    @Setup
+    public void setup() {
+        container = MessagingContainer.start(Map.of(
+                "mp.messaging.incoming.in.connector", InMemoryConnector.CONNECTOR,
+                "mp.messaging.outgoing.out.connector", InMemoryConnector.CONNECTOR),
+                Processor.class);
+        InMemoryConnector connector = container.get(InMemoryConnector.class,
+                ConnectorLiteral.of(InMemoryConnector.CONNECTOR));
+        source = connector.source("in");
+        sink = connector.sink("out");
+
+        source.send("check");
+        if (sink.received().size() != 1) {
+            throw new IllegalStateException("The message was not dispatched synchronously");
+        }
+        sink.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void endToEnd() {
+        for (int i = 0; i < BATCH; i++) {
+            source.send("payload");
+        }
+        sink.clear();
+    }
+
+    @ApplicationScoped
+    public static class Processor {
+
+        @Incoming("in")
+        @Outgoing("out")
+        public String process(String payload) {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * The {@code ReentrantLock}-guarded list of trackers previously used by the
+ * {@link io.smallrye.reactive.messaging.providers.helpers.AcknowledgementCoordinator}, kept as baseline.
+ */
+public class LockedAcknowledgementCoordinator {
+
+    private final Message<?> input;
+
+    private volatile boolean done;
+    private final List<Tracker> tracked = new ArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LockedAcknowledgementCoordinator(Message<?> input) {
+        this.input = input;
+    }
+
+    public Message<?> track(Message<?> msg) {
+        lock.lock();
+        try {
+            Tracker tracker = new Tracker();
+            tracked.add(tracker);
+            return msg
+                    .withAck(() -> {
+                        onAck(tracker);
+                        return CompletableFuture.completedFuture(null);
+                    })
+                    .withNack(reason -> {
+                        onNack(reason, tracker);
+                        return CompletableFuture.completedFuture(null);
+                    });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAck(Tracker id) {
+        lock.lock();
+        try {
+            if (done) {
+                return;
+            }
+            if (tracked.remove(id)) {
+                if (tracked.isEmpty() && !done) {
+                    // Done!
+                    done = true;
+                    input.ack();
+                }
+                // Otherwise not done yet.
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Already acked or nack.
+    }
+
+    private void onNack(Throwable reason, Tracker id) {
+        lock.lock();
+        try {
+            if (done) {
+                return;
+            }
+            if (tracked.remove(id)) {
+                done = true;
+                tracked.clear();
+                input.nack(reason);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static class Tracker {
+
+    }
+}
@@ -0,0 +1,151 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorLiteral;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+
+/**
+ * Measures the dispatch of a message through the {@code ProcessorMediator} and {@code SubscriberMediator}, for
+ * methods consuming payloads and messages.
+ * <p>
+ * Messages are sent by in-memory sources, and the whole chain runs on the benchmark thread: the score is the cost of a
+ * message going through the mediators, from the source to the subscriber method.
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MediatorBenchmark {
+
+    private MessagingContainer container;
+    private Sink sink;
+    private InMemorySource<String> payloadProcessor;
+    private InMemorySource<Message<String>> messageProcessor;
+    private InMemorySource<String> payloadSubscriber;
+    private InMemorySource<Message<String>> messageSubscriber;
+
+    @Setup
+    public void setup() {
+        container = MessagingContainer.start(Map.of(
+                "mp.messaging.incoming.payload-processor.connector", InMemoryConnector.CONNECTOR,
+                "mp.messaging.incoming.message-processor.connector", InMemoryConnector.CONNECTOR,
+                "mp.messaging.incoming.payload-subscriber.connector", InMemoryConnector.CONNECTOR,
+                "mp.messaging.incoming.message-subscriber.connector", InMemoryConnector.CONNECTOR),
+                Processors.class, Sink.class);
+        sink = container.get(Sink.class);
+        InMemoryConnector connector = container.get(InMemoryConnector.class,
+                ConnectorLiteral.of(InMemoryConnector.CONNECTOR));
+        payloadProcessor = connector.source("payload-processor");
+        messageProcessor = connector.source("message-processor");
+        payloadSubscriber = connector.source("payload-subscriber");
+        messageSubscriber = connector.source("message-subscriber");
+
+        // the benchmark relies on the synchronous dispatch, it would only measure the source buffer otherwise
+        long before = sink.count();
+        payloadProcessor.send("check");
+        if (sink.count() != before + 1) {
+            throw new IllegalStateException("The message was not dispatched synchronously");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.close();
+    }
+
+    @Benchmark
+    public long processPayload() {
+        payloadProcessor.send("payload");
+        return sink.count();
+    }
+
+    @Benchmark
+    public long processMessage() {
+        messageProcessor.send(Message.of("payload"));
+        return sink.count();
+    }
+
+    @Benchmark
+    public long subscribePayload() {
+        payloadSubscriber.send("payload");
+        return sink.count();
+    }
+
+    @Benchmark
+    public long subscribeMessage() {
+        messageSubscriber.send(Message.of("payload"));
+        return sink.count();
+    }
+
+    @ApplicationScoped
+    public static class Processors {
+
+        @Incoming("payload-processor")
+        @Outgoing("processed-payloads")
+        public String process(String payload) {
+            return payload;
+        }
+
+        @Incoming("message-processor")
+        @Outgoing("processed-messages")
+        public Message<String> process(Message<String> message) {
+            return message;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+
+        private long count;
+
+        @Incoming("processed-payloads")
+        public void processedPayload(String payload) {
+            count++;
+        }
+
+        @Incoming("processed-messages")
+        public CompletionStage<Void> processedMessage(Message<String> message) {
+            count++;
+            return message.ack();
+        }
+
+        @Incoming("payload-subscriber")
+        public void subscribedPayload(String payload) {
+            count++;
+        }
+
+        @Incoming("message-subscriber")
+        public CompletionStage<Void> subscribedMessage(Message<String> message) {
+            count++;
+            return message.ack();
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+}
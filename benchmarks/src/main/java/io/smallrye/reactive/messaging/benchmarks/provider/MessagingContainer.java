@@ -0,0 +1,102 @@
+package io.smallrye.reactive.messaging.benchmarks.provider;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.se.SeContainer;
+import jakarta.enterprise.inject.se.SeContainerInitializer;
+
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.providers.MediatorFactory;
+import io.smallrye.reactive.messaging.providers.OutgoingInterceptorDecorator;
+import io.smallrye.reactive.messaging.providers.connectors.ExecutionHolder;
+import io.smallrye.reactive.messaging.providers.connectors.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.providers.extension.ChannelProducer;
+import io.smallrye.reactive.messaging.providers.extension.EmitterFactoryImpl;
+import io.smallrye.reactive.messaging.providers.extension.HealthCenter;
+import io.smallrye.reactive.messaging.providers.extension.LegacyEmitterFactoryImpl;
+import io.smallrye.reactive.messaging.providers.extension.MediatorManager;
+import io.smallrye.reactive.messaging.providers.extension.MutinyEmitterFactoryImpl;
+import io.smallrye.reactive.messaging.providers.extension.ReactiveMessagingExtension;
+import io.smallrye.reactive.messaging.providers.impl.ConfiguredChannelFactory;
+import io.smallrye.reactive.messaging.providers.impl.ConnectorFactories;
+import io.smallrye.reactive.messaging.providers.impl.InternalChannelRegistry;
+import io.smallrye.reactive.messaging.providers.locals.ContextDecorator;
+import io.smallrye.reactive.messaging.providers.wiring.Wiring;
+
+/**
+ * Runs the provider and the in-memory connector in a Weld SE container, with the beans of a benchmark, as the
+ * provider tests do, without the metrics decorators.
+ * The configuration is registered programmatically rather than written to a {@code microprofile-config.properties}
+ * file.
+ */
+final class MessagingContainer implements AutoCloseable {
+
+    private final SeContainer container;
+    private final SmallRyeConfig config;
+
+    private MessagingContainer(SeContainer container, SmallRyeConfig config) {
+        this.container = container;
+        this.config = config;
+    }
+
+    static MessagingContainer start(Map<String, String> configuration, Class<?>... beans) {
+        ClassLoader classLoader = MessagingContainer.class.getClassLoader();
+        SmallRyeConfig config = new SmallRyeConfigBuilder()
+                .forClassLoader(classLoader)
+                .withSources(new PropertiesConfigSource(configuration, "benchmark", 500))
+                .build();
+        ConfigProviderResolver.instance().registerConfig(config, classLoader);
+
+        SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+        initializer.addBeanClasses(MediatorFactory.class,
+                Wiring.class,
+                ExecutionHolder.class,
+                MediatorManager.class,
+                WorkerPoolRegistry.class,
+                InternalChannelRegistry.class,
+                ChannelProducer.class,
+                ConfiguredChannelFactory.class,
+                ConnectorFactories.class,
+                HealthCenter.class,
+                ContextDecorator.class,
+                EmitterFactoryImpl.class,
+                MutinyEmitterFactoryImpl.class,
+                LegacyEmitterFactoryImpl.class,
+                OutgoingInterceptorDecorator.class,
+                InMemoryConnector.class,
+                io.smallrye.config.inject.ConfigProducer.class);
+        initializer.addBeanClasses(beans);
+        initializer.disableDiscovery();
+        initializer.addExtensions(new ReactiveMessagingExtension());
+        try {
+            return new MessagingContainer(initializer.initialize(), config);
+        } catch (RuntimeException e) {
+            ConfigProviderResolver.instance().releaseConfig(config);
+            throw e;
+        }
+    }
+
+    <T> T get(Class<T> type, Annotation... qualifiers) {
+        return instances(type, qualifiers).get();
+    }
+
+    <T> Instance<T> instances(Class<T> type, Annotation... qualifiers) {
+        return container.select(type, qualifiers);
+    }
+
+    @Override
+    public void close() {
+        try {
+            container.close();
+        } finally {
+            ConfigProviderResolver.instance().releaseConfig(config);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package io.smallrye.reactive.messaging.kafka;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -10,9 +10,9 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Headers;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
-import io.smallrye.reactive.messaging.ce.CloudEventMetadata;
 import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
 import io.smallrye.reactive.messaging.kafka.fault.KafkaFailureHandler;
+import io.smallrye.reactive.messaging.kafka.impl.KafkaRecordMetadataView;
 import io.smallrye.reactive.messaging.kafka.impl.ce.KafkaCloudEventHelper;
 import io.smallrye.reactive.messaging.providers.MetadataInjectableMessage;
 import io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage;
@@ -20,13 +20,12 @@ import io.smallrye.reactive.messaging.providers.locals.ContextAwareMessage;
 public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T>, MetadataInjectableMessage<T> {
 
     private Metadata metadata;
-    // TODO add as a normal import once we have removed IncomingKafkaRecordMetadata in this package
-    private final io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata<K, T> kafkaMetadata;
+    private final KafkaRecordMetadataView<K, T> kafkaMetadata;
+    private final ConsumerRecord<K, T> record;
     private final KafkaCommitHandler commitHandler;
     private final KafkaFailureHandler onNack;
     private final T payload;
 
-    @SuppressWarnings("deprecation")
     public IncomingKafkaRecord(ConsumerRecord<K, T> record,
             String channel,
             int index,
@@ -35,16 +34,11 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T>, MetadataInj
             boolean cloudEventEnabled,
             boolean tracingEnabled) {
         this.commitHandler = commitHandler;
-        this.kafkaMetadata = new io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata<>(record, channel, index);
-        // TODO remove this duplication once we have removed IncomingKafkaRecordMetadata from this package
-        // Duplicate the metadata so old and new copies can both be found
-        IncomingKafkaRecordMetadata<K, T> deprecatedKafkaMetadata = new IncomingKafkaRecordMetadata<>(record, channel, index);
-
-        ArrayList<Object> meta = new ArrayList<>();
-        meta.add(this.kafkaMetadata);
-        meta.add(deprecatedKafkaMetadata);
+        this.record = record;
         T payload = null;
         boolean payloadSet = false;
+        IncomingKafkaCloudEventMetadata<K, T> structuredCloudEvent = null;
+        boolean binaryCloudEvent = false;
         if (cloudEventEnabled) {
             // Cloud Event detection
             KafkaCloudEventHelper.CloudEventMode mode = KafkaCloudEventHelper.getCloudEventMode(record);
@@ -52,19 +46,21 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T>, MetadataInj
                 case NOT_A_CLOUD_EVENT:
                     break;
                 case STRUCTURED:
-                    CloudEventMetadata<T> event = KafkaCloudEventHelper
-                            .createFromStructuredCloudEvent(record);
-                    meta.add(event);
+                    structuredCloudEvent = KafkaCloudEventHelper.createFromStructuredCloudEvent(record);
                     payloadSet = true;
-                    payload = event.getData();
+                    payload = structuredCloudEvent.getData();
                     break;
                 case BINARY:
-                    meta.add(KafkaCloudEventHelper.createFromBinaryCloudEvent(record));
+                    // the metadata is created on first access
+                    binaryCloudEvent = true;
                     break;
             }
         }
 
-        this.metadata = ContextAwareMessage.captureContextMetadata(meta);
+        // Kafka metadata, including the deprecated copy, are created on demand from the record
+        this.kafkaMetadata = new KafkaRecordMetadataView<>(record, channel, index, structuredCloudEvent,
+                binaryCloudEvent, ContextAwareMessage.captureLocalContextMetadata());
+        this.metadata = kafkaMetadata;
         this.onNack = onNack;
         if (payload == null && !payloadSet) {
             this.payload = record.value();
@@ -80,31 +76,39 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T>, MetadataInj
 
     @Override
     public K getKey() {
-        return kafkaMetadata.getKey();
+        return record.key();
     }
 
     @Override
     public String getTopic() {
-        return kafkaMetadata.getTopic();
+        return record.topic();
     }
 
     @Override
     public int getPartition() {
-        return kafkaMetadata.getPartition();
+        return record.partition();
     }
 
     @Override
     public Instant getTimestamp() {
-        return kafkaMetadata.getTimestamp();
+        return Instant.ofEpochMilli(record.timestamp());
+    }
+
+    /**
+     * @return the timestamp of the record in milliseconds since the epoch, as {@link ConsumerRecord#timestamp()},
+     *         without creating an {@link Instant}
+     */
+    public long getTimestampMillis() {
+        return record.timestamp();
     }
 
     @Override
     public Headers getHeaders() {
-        return kafkaMetadata.getHeaders();
+        return kafkaMetadata.kafkaMetadata().getHeaders();
     }
 
     public long getOffset() {
-        return kafkaMetadata.getOffset();
+        return record.offset();
     }
 
     @Override
@@ -112,6 +116,16 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T>, MetadataInj
         return metadata;
     }
 
+    @Override
+    public <M> Optional<M> getMetadata(Class<? extends M> clazz) {
+        Metadata current = metadata;
+        if (current instanceof KafkaRecordMetadataView) {
+            // avoids creating the metadata of other types
+            return ((KafkaRecordMetadataView<?, ?>) current).find(clazz);
+        }
+        return KafkaRecord.super.getMetadata(clazz);
+    }
+
     @Override
     public Supplier<CompletionStage<Void>> getAck() {
         return this::ack;
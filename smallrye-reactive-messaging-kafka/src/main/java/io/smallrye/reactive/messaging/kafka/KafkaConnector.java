@@ -36,6 +36,7 @@ import io.smallrye.reactive.messaging.health.HealthReporter;
 import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
 import io.smallrye.reactive.messaging.kafka.fault.KafkaFailureHandler;
 import io.smallrye.reactive.messaging.kafka.impl.ConfigHelper;
+import io.smallrye.reactive.messaging.kafka.impl.KafkaProducerPool;
 import io.smallrye.reactive.messaging.kafka.impl.KafkaSink;
 import io.smallrye.reactive.messaging.kafka.impl.KafkaSource;
 import io.smallrye.reactive.messaging.kafka.impl.TopicPartitions;
@@ -83,6 +84,7 @@ import io.vertx.mutiny.core.Vertx;
 @ConnectorAttribute(name = "dead-letter-queue.producer-client-id", type = "string", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `dead-letter-queue` indicates what client id the generated producer should use. Defaults is `kafka-dead-letter-topic-producer-$client-id`")
 @ConnectorAttribute(name = "dead-letter-queue.key.serializer", type = "string", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `dead-letter-queue` indicates the key serializer to use. If not set the serializer associated to the key deserializer is used")
 @ConnectorAttribute(name = "dead-letter-queue.value.serializer", type = "string", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `dead-letter-queue` indicates the value serializer to use. If not set the serializer associated to the value deserializer is used")
+@ConnectorAttribute(name = "dead-letter-queue.shared-producer", type = "boolean", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `dead-letter-queue` or `delayed-retry-topic`, whether the producer is shared with the other channels having the same producer configuration, instead of a producer per channel. The shared producer ignores the `dead-letter-queue.producer-client-id` attribute", defaultValue = "false")
 @ConnectorAttribute(name = "delayed-retry-topic.topics", type = "string", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `delayed-retry-topic` indicates topics to use. If not set the source channel name is used, with 10, 20 and 50 seconds delayed topics.")
 @ConnectorAttribute(name = "delayed-retry-topic.max-retries", type = "int", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `delayed-retry-topic` indicates the maximum number of retries. If higher than the number of delayed retry topics, last topic is used.")
 @ConnectorAttribute(name = "delayed-retry-topic.timeout", type = "int", direction = Direction.INCOMING, description = "When the `failure-strategy` is set to `delayed-retry-topic` indicates the global timeout per record.", defaultValue = "120000")
@@ -94,9 +96,16 @@ import io.vertx.mutiny.core.Vertx;
 @ConnectorAttribute(name = "fail-on-deserialization-failure", type = "boolean", direction = INCOMING, description = "When no deserialization failure handler is set and a deserialization failure happens, report the failure and mark the application as unhealthy. If set to `false` and a deserialization failure happens, a `null` value is forwarded.", defaultValue = "true")
 @ConnectorAttribute(name = "graceful-shutdown", type = "boolean", direction = Direction.INCOMING, description = "Whether or not a graceful shutdown should be attempted when the application terminates.", defaultValue = "true")
 @ConnectorAttribute(name = "poll-timeout", type = "int", direction = Direction.INCOMING, description = "The polling timeout in milliseconds. When polling records, the poll will wait at most that duration before returning records. Default is 1000ms", defaultValue = "1000")
+@ConnectorAttribute(name = "poll-idle-strategy", type = "string", direction = Direction.INCOMING, description = "How long the polling loop waits before polling again when a poll returns no records. Values can be `fixed` (waits `poll-idle-min-delay`), `exponential` (starts with `poll-idle-min-delay` and doubles the delay after each consecutive empty poll, up to `poll-timeout`), `long-poll` (polls again immediately, relying on `poll-timeout` to wait for records), or `spin-then-park` (polls again immediately `poll-idle-spins` times, then waits `poll-timeout` between polls). While paused, `poll-idle-min-delay` (at least 1 ms) is always used.", defaultValue = "fixed")
+@ConnectorAttribute(name = "poll-idle-min-delay", type = "int", direction = Direction.INCOMING, description = "The delay in milliseconds before polling again after a poll returning no records. It is the fixed delay of the `fixed` poll idle strategy and the initial delay of the `exponential` one.", defaultValue = "2")
+@ConnectorAttribute(name = "poll-idle-spins", type = "int", direction = Direction.INCOMING, description = "When `poll-idle-strategy` is `spin-then-park`, the number of consecutive empty polls immediately followed by another poll.", defaultValue = "10")
 @ConnectorAttribute(name = "pause-if-no-requests", type = "boolean", direction = Direction.INCOMING, description = "Whether the polling must be paused when the application does not request items and resume when it does. This allows implementing back-pressure based on the application capacity. Note that polling is not stopped, but will not retrieve any records when paused.", defaultValue = "true")
 @ConnectorAttribute(name = "batch", type = "boolean", direction = Direction.INCOMING, description = "Whether the Kafka records are consumed in batch. The channel injection point must consume a compatible type, such as `List<Payload>` or `KafkaRecordBatch<Payload>`.", defaultValue = "false")
 @ConnectorAttribute(name = "max-queue-size-factor", type = "int", direction = Direction.INCOMING, description = "Multiplier factor to determine maximum number of records queued for processing, using `max.poll.records` * `max-queue-size-factor`. Defaults to 2. In `batch` mode `max.poll.records` is considered `1`.", defaultValue = "2")
+@ConnectorAttribute(name = "bulk-drain-size", type = "int", direction = Direction.INCOMING, description = "The maximum number of queued records taken from the internal queue in one operation and then emitted downstream in a tight loop. This reduces the per-record dispatch overhead when `max.poll.records` is large. `0` disables bulk draining and records are taken one at a time.", defaultValue = "0")
+@ConnectorAttribute(name = "deserialization-threads", type = "int", direction = Direction.INCOMING, description = "The number of worker threads deserializing the polled records in parallel, in addition to the polling thread. The Kafka client then polls raw `byte[]` records, and each batch is split in chunks decoded concurrently, preserving the order of the records. The key and value deserializers must be thread-safe. Mostly useful with `batch` and large payloads. `0` lets the Kafka client deserialize the records on the polling thread.", defaultValue = "0")
+@ConnectorAttribute(name = "ordered-lanes", type = "int", direction = Direction.INCOMING, description = "The number of ordered lanes the records are dispatched to, by partition or by key (see `ordered-lanes-by`). A lane emits its next record once the previous one is acknowledged, so the records of a lane are processed in order, while the records of different lanes can be processed concurrently, for example with `@Blocking(ordered = false)`. `0` disables the lanes. Ignored in `batch` mode.", defaultValue = "0")
+@ConnectorAttribute(name = "ordered-lanes-by", type = "string", direction = Direction.INCOMING, description = "How records are assigned to the ordered lanes: `partition` keeps the order of the records of each partition, `key` keeps the order of the records with the same key. Records without key are assigned by partition.", defaultValue = "partition")
 
 @ConnectorAttribute(name = "key.serializer", type = "string", direction = Direction.OUTGOING, description = "The serializer classname used to serialize the record's key", defaultValue = "org.apache.kafka.common.serialization.StringSerializer")
 @ConnectorAttribute(name = "value.serializer", type = "string", direction = Direction.OUTGOING, description = "The serializer classname used to serialize the payload", mandatory = true)
@@ -107,6 +116,11 @@ import io.vertx.mutiny.core.Vertx;
 @ConnectorAttribute(name = "partition", type = "int", direction = Direction.OUTGOING, description = "The target partition id. -1 to let the client determine the partition", defaultValue = "-1")
 @ConnectorAttribute(name = "waitForWriteCompletion", type = "boolean", direction = Direction.OUTGOING, description = "Whether the client waits for Kafka to acknowledge the written record before acknowledging the message", defaultValue = "true")
 @ConnectorAttribute(name = "max-inflight-messages", type = "long", direction = Direction.OUTGOING, description = "The maximum number of messages to be written to Kafka concurrently. It limits the number of messages waiting to be written and acknowledged by the broker. You can set this attribute to `0` remove the limit", defaultValue = "1024")
+@ConnectorAttribute(name = "sending-threads", type = "int", direction = Direction.OUTGOING, description = "The number of threads handing records to the Kafka producer, where keys and values are serialized. Use more than one thread when serialization is expensive. Records with the same key, or without key the same partition, are always sent from the same thread, preserving their order. Ignored for transactional producers", defaultValue = "1")
+@ConnectorAttribute(name = "direct-send", type = "boolean", direction = Direction.OUTGOING, description = "Whether records are handed to the Kafka producer directly from the thread sending the message, once the producer is created and the metadata of the topic is known, instead of going through the sending threads. Serialization then happens on the calling thread, which may be blocked if the producer buffer (`buffer.memory`) is full. Ignored for transactional producers", defaultValue = "false")
+@ConnectorAttribute(name = "transaction-batch-size", type = "int", direction = Direction.OUTGOING, description = "The maximum number of incoming records processed exactly-once in the same Kafka transaction, using `KafkaTransactions#withTransaction(Message, ...)`. Consecutive records are grouped in a transaction, which is committed with the offsets of all of them once this number of records, `transaction-batch-bytes` or `transaction-batch-linger-ms` is reached. When the processing of a record fails, the whole group is aborted and reprocessed. `1` commits a transaction per record or batch", defaultValue = "1")
+@ConnectorAttribute(name = "transaction-batch-bytes", type = "long", direction = Direction.OUTGOING, description = "The maximum size, in serialized key and value bytes, of the incoming records grouped in a Kafka transaction. `0` for no limit. Only used when `transaction-batch-size` is greater than 1", defaultValue = "0")
+@ConnectorAttribute(name = "transaction-batch-linger-ms", type = "int", direction = Direction.OUTGOING, description = "The maximum time in milliseconds a Kafka transaction grouping incoming records stays open waiting for more records. `0` does not wait: the group is committed once the records already joined are processed. Only used when `transaction-batch-size` is greater than 1", defaultValue = "100")
 @ConnectorAttribute(name = "cloud-events-source", type = "string", direction = Direction.OUTGOING, description = "Configure the default `source` attribute of the outgoing Cloud Event. Requires `cloud-events` to be set to `true`. This value is used if the message does not configure the `source` attribute itself", alias = "cloud-events-default-source")
 @ConnectorAttribute(name = "cloud-events-type", type = "string", direction = Direction.OUTGOING, description = "Configure the default `type` attribute of the outgoing Cloud Event. Requires `cloud-events` to be set to `true`. This value is used if the message does not configure the `type` attribute itself", alias = "cloud-events-default-type")
 @ConnectorAttribute(name = "cloud-events-subject", type = "string", direction = Direction.OUTGOING, description = "Configure the default `subject` attribute of the outgoing Cloud Event. Requires `cloud-events` to be set to `true`. This value is used if the message does not configure the `subject` attribute itself", alias = "cloud-events-default-subject")
@@ -170,12 +184,15 @@ public class KafkaConnector implements InboundConnector, OutboundConnector, Heal
     @Any
     Instance<Map<String, Object>> configurations;
 
+    private final KafkaProducerPool producerPool = new KafkaProducerPool();
+
     private Vertx vertx;
 
     public void terminate(
             @Observes(notifyObserver = Reception.IF_EXISTS) @Priority(50) @BeforeDestroyed(ApplicationScoped.class) Object event) {
         sources.forEach(KafkaSource::closeQuietly);
         sinks.forEach(KafkaSink::closeQuietly);
+        producerPool.close();
         TopicPartitions.clearCache();
     }
 
@@ -333,6 +350,20 @@ public class KafkaConnector implements InboundConnector, OutboundConnector, Heal
                 .findFirst().orElse(null);
     }
 
+    public KafkaConnectorOutgoingConfiguration getProducerConfiguration(String channel) {
+        return sinks.stream()
+                .filter(ks -> ks.getChannel().equals(channel))
+                .map(KafkaSink::getConfiguration)
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * @return the pool of the producers shared by the failure handlers of the channels
+     */
+    public KafkaProducerPool getProducerPool() {
+        return producerPool;
+    }
+
     public Set<String> getConsumerChannels() {
         return sources.stream().map(KafkaSource::getChannel).collect(Collectors.toSet());
     }
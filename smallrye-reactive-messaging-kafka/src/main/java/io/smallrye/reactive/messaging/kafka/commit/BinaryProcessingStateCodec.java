@@ -0,0 +1,466 @@
+package io.smallrye.reactive.messaging.kafka.commit;
+
+import static io.smallrye.reactive.messaging.kafka.i18n.KafkaExceptions.ex;
+
+import java.util.Arrays;
+
+/**
+ * Compact binary codec for {@link ProcessingState}, encoding the state with a {@link Schema} instead of reflection.
+ * <p>
+ * An encoded processing state is laid out as follows:
+ *
+ * <pre>
+ * byte   format, always {@link #FORMAT}
+ * int    schema version, as returned by {@link Schema#version()}
+ * long   offset
+ * byte   1 if the state is present, 0 if it is null
+ * ...    the state, as written by {@link Schema#write(Object, Output)}
+ * </pre>
+ *
+ * The schema version is passed to {@link Schema#read(int, Input)}, so a schema can keep reading the states written by
+ * its previous versions.
+ * <p>
+ * Schemas are provided for the common state types ({@link #LONG}, {@link #INTEGER}, {@link #DOUBLE},
+ * {@link #BOOLEAN}, {@link #STRING} and {@link #BYTES}), and {@link #FACTORY} selects them from the state type.
+ * Aggregates are encoded by implementing a {@link Schema} writing their fields one after the other.
+ * <p>
+ * States are encoded into a buffer reused by the calling thread, only the returned array is allocated.
+ *
+ * @param <T> the type of the state
+ */
+public class BinaryProcessingStateCodec<T> implements ProcessingStateCodec {
+
+    public static final byte FORMAT = 1;
+
+    /**
+     * Buffers larger than this size are not kept by the threads.
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<Output> BUFFERS = ThreadLocal.withInitial(() -> new Output(256));
+
+    public static final Schema<Long> LONG = new Schema<>() {
+        @Override
+        public void write(Long state, Output output) {
+            output.writeLong(state);
+        }
+
+        @Override
+        public Long read(int version, Input input) {
+            return input.readLong();
+        }
+    };
+
+    public static final Schema<Integer> INTEGER = new Schema<>() {
+        @Override
+        public void write(Integer state, Output output) {
+            output.writeInt(state);
+        }
+
+        @Override
+        public Integer read(int version, Input input) {
+            return input.readInt();
+        }
+    };
+
+    public static final Schema<Double> DOUBLE = new Schema<>() {
+        @Override
+        public void write(Double state, Output output) {
+            output.writeDouble(state);
+        }
+
+        @Override
+        public Double read(int version, Input input) {
+            return input.readDouble();
+        }
+    };
+
+    public static final Schema<Boolean> BOOLEAN = new Schema<>() {
+        @Override
+        public void write(Boolean state, Output output) {
+            output.writeBoolean(state);
+        }
+
+        @Override
+        public Boolean read(int version, Input input) {
+            return input.readBoolean();
+        }
+    };
+
+    public static final Schema<String> STRING = new Schema<>() {
+        @Override
+        public void write(String state, Output output) {
+            output.writeString(state);
+        }
+
+        @Override
+        public String read(int version, Input input) {
+            return input.readString();
+        }
+    };
+
+    public static final Schema<byte[]> BYTES = new Schema<>() {
+        @Override
+        public void write(byte[] state, Output output) {
+            output.writeBytes(state);
+        }
+
+        @Override
+        public byte[] read(int version, Input input) {
+            return input.readBytes();
+        }
+    };
+
+    /**
+     * Creates binary codecs for the state types having a built-in schema.
+     */
+    public static final ProcessingStateCodec.Factory FACTORY = BinaryProcessingStateCodec::forType;
+
+    private final Schema<T> schema;
+
+    public BinaryProcessingStateCodec(Schema<T> schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @param stateType the state type
+     * @return the codec using the built-in schema of the given type
+     * @throws IllegalArgumentException if there is no built-in schema for this type
+     */
+    public static BinaryProcessingStateCodec<?> forType(Class<?> stateType) {
+        if (stateType == Long.class || stateType == long.class) {
+            return new BinaryProcessingStateCodec<>(LONG);
+        } else if (stateType == Integer.class || stateType == int.class) {
+            return new BinaryProcessingStateCodec<>(INTEGER);
+        } else if (stateType == Double.class || stateType == double.class) {
+            return new BinaryProcessingStateCodec<>(DOUBLE);
+        } else if (stateType == Boolean.class || stateType == boolean.class) {
+            return new BinaryProcessingStateCodec<>(BOOLEAN);
+        } else if (stateType == String.class) {
+            return new BinaryProcessingStateCodec<>(STRING);
+        } else if (stateType == byte[].class) {
+            return new BinaryProcessingStateCodec<>(BYTES);
+        }
+        throw ex.noProcessingStateSchema(stateType);
+    }
+
+    @Override
+    public ProcessingState<?> decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        Input input = new Input(bytes);
+        byte format = input.readByte();
+        if (format != FORMAT) {
+            throw ex.unsupportedProcessingStateFormat(format);
+        }
+        int version = input.readInt();
+        long offset = input.readLong();
+        T state = input.readBoolean() ? schema.read(version, input) : null;
+        return new ProcessingState<>(state, offset);
+    }
+
+    @Override
+    public byte[] encode(ProcessingState<?> object) {
+        Output output = BUFFERS.get();
+        try {
+            encodeTo(object, output);
+            return output.toByteArray();
+        } finally {
+            output.reset();
+        }
+    }
+
+    /**
+     * Encodes the given processing state at the end of the given output.
+     *
+     * @param object the processing state
+     * @param output the output
+     */
+    @SuppressWarnings("unchecked")
+    public void encodeTo(ProcessingState<?> object, Output output) {
+        output.writeByte(FORMAT);
+        output.writeInt(schema.version());
+        output.writeLong(object.getOffset());
+        T state = (T) object.getState();
+        output.writeBoolean(state != null);
+        if (state != null) {
+            schema.write(state, output);
+        }
+    }
+
+    /**
+     * Writes and reads a state type in binary form.
+     *
+     * @param <T> the type of the state
+     */
+    public interface Schema<T> {
+
+        /**
+         * @return the version of this schema, written with each state
+         */
+        default int version() {
+            return 0;
+        }
+
+        /**
+         * Writes a state.
+         *
+         * @param state the state, not {@code null}
+         * @param output the output
+         */
+        void write(T state, Output output);
+
+        /**
+         * Reads a state.
+         *
+         * @param version the version of the schema which wrote the state
+         * @param input the input
+         * @return the state
+         */
+        T read(int version, Input input);
+    }
+
+    /**
+     * Growable big-endian output buffer.
+     */
+    public static final class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        public Output(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        public int size() {
+            return position;
+        }
+
+        /**
+         * @return a copy of the written bytes
+         */
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        /**
+         * Discards the written bytes.
+         */
+        public void reset() {
+            position = 0;
+            if (buffer.length > MAX_POOLED_BUFFER_SIZE) {
+                buffer = new byte[256];
+            }
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        public void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        public void writeShort(int value) {
+            ensureCapacity(2);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        public void writeInt(int value) {
+            ensureCapacity(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        public void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        public void writeFloat(float value) {
+            writeInt(Float.floatToIntBits(value));
+        }
+
+        public void writeDouble(double value) {
+            writeLong(Double.doubleToLongBits(value));
+        }
+
+        /**
+         * Writes a length-prefixed byte array, {@code null} being written as a length of {@code -1}.
+         */
+        public void writeBytes(byte[] value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            writeInt(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        /**
+         * Writes a string as length-prefixed UTF-8, {@code null} being written as a length of {@code -1}.
+         */
+        public void writeString(String value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            int length = value.length();
+            int encodedLength = 0;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    encodedLength++;
+                } else if (c < 0x800) {
+                    encodedLength += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    encodedLength += 4;
+                    i++;
+                } else {
+                    encodedLength += 3;
+                }
+            }
+            writeInt(encodedLength);
+            ensureCapacity(encodedLength);
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // unpaired surrogates are encoded as is, like modified UTF-8
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+    /**
+     * Big-endian input reading a byte array.
+     */
+    public static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        public Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * @return the number of bytes left to read
+         */
+        public int remaining() {
+            return buffer.length - position;
+        }
+
+        private void require(int length) {
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Unexpected end of the processing state, " + length
+                        + " bytes required at position " + position + " of " + buffer.length);
+            }
+        }
+
+        public byte readByte() {
+            require(1);
+            return buffer[position++];
+        }
+
+        public boolean readBoolean() {
+            return readByte() != 0;
+        }
+
+        public short readShort() {
+            require(2);
+            return (short) (((buffer[position++] & 0xFF) << 8) | (buffer[position++] & 0xFF));
+        }
+
+        public int readInt() {
+            require(4);
+            return ((buffer[position++] & 0xFF) << 24)
+                    | ((buffer[position++] & 0xFF) << 16)
+                    | ((buffer[position++] & 0xFF) << 8)
+                    | (buffer[position++] & 0xFF);
+        }
+
+        public long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        public float readFloat() {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        public double readDouble() {
+            return Double.longBitsToDouble(readLong());
+        }
+
+        public byte[] readBytes() {
+            int length = readInt();
+            if (length == -1) {
+                return null;
+            }
+            require(length);
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+
+        public String readString() {
+            int length = readInt();
+            if (length == -1) {
+                return null;
+            }
+            require(length);
+            StringBuilder builder = new StringBuilder(length);
+            int end = position + length;
+            while (position < end) {
+                int b = buffer[position++] & 0xFF;
+                if (b < 0x80) {
+                    builder.append((char) b);
+                } else if (b < 0xE0) {
+                    builder.append((char) (((b & 0x1F) << 6) | (buffer[position++] & 0x3F)));
+                } else if (b < 0xF0) {
+                    builder.append((char) (((b & 0x0F) << 12) | ((buffer[position++] & 0x3F) << 6)
+                            | (buffer[position++] & 0x3F)));
+                } else {
+                    int codePoint = ((b & 0x07) << 18) | ((buffer[position++] & 0x3F) << 12)
+                            | ((buffer[position++] & 0x3F) << 6) | (buffer[position++] & 0x3F);
+                    builder.appendCodePoint(codePoint);
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package io.smallrye.reactive.messaging.kafka.commit;
+
+import static io.smallrye.reactive.messaging.kafka.i18n.KafkaLogging.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Segmented, append-only log of checkpoint records, backed by memory-mapped files.
+ * <p>
+ * Each instance appends to its own segments, named {@code [consumer-group-id]:[instance-id]:[sequence].log}, and
+ * holds a lock on {@code [consumer-group-id]:[instance-id].lock} while open.
+ * The records of an append are written one after the other into the active segment and made durable with a single
+ * {@code force()}.
+ * When the active segment is full, it is sealed and a new one is mapped.
+ * Compaction rewrites the latest record of each partition into a single segment, replacing the sealed segments of
+ * this instance and the segments left by instances which are not running anymore.
+ * <p>
+ * A record is laid out as follows, a size of {@code 0} marking the end of the segment:
+ *
+ * <pre>
+ * int    size of the rest of the record
+ * long   offset
+ * int    partition
+ * short  topic length
+ * byte[] topic, UTF-8 encoded
+ * int    state length
+ * byte[] state
+ * int    CRC32 of the fields from the offset to the state
+ * </pre>
+ *
+ * Reading stops at the first incomplete or corrupted record, so a partially written record is ignored.
+ * When several records exist for a partition, the record with the highest offset wins, the most recently written one
+ * in case of equality.
+ * <p>
+ * This class is thread-safe. Its methods are blocking and must not be called from an event loop.
+ */
+class CheckpointLog implements AutoCloseable {
+
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String LOCK_SUFFIX = ".lock";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final String SEPARATOR = ":";
+
+    /**
+     * size, offset, partition, topic length, state length and CRC.
+     */
+    private static final int RECORD_OVERHEAD = 4 + 8 + 4 + 2 + 4 + 4;
+    private static final int SCAN_ATTEMPTS = 3;
+
+    private final Path directory;
+    private final String groupId;
+    private final String instanceId;
+    private final int segmentSize;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * The latest record written or recovered by this instance, per partition.
+     * Guarded by {@code this}.
+     */
+    private final Map<TopicPartition, Record> latest = new HashMap<>();
+    /**
+     * The sealed segments of this instance, in sequence order.
+     * Guarded by {@code this}.
+     */
+    private final List<Path> sealed = new ArrayList<>();
+    private Segment active;
+    private long sequence;
+    private boolean closed;
+
+    CheckpointLog(Path directory, String groupId, int segmentSize) {
+        this.directory = directory;
+        this.groupId = groupId;
+        this.instanceId = UUID.randomUUID().toString();
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            this.lockChannel = FileChannel.open(directory.resolve(groupId + SEPARATOR + instanceId + LOCK_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.lock = lockChannel.lock();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A checkpoint record.
+     */
+    static class Record {
+        final long offset;
+        final byte[] state;
+
+        Record(long offset, byte[] state) {
+            this.offset = offset;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Reads the latest record of the given partitions, from the segments of all instances.
+     * The returned records become the latest records known by this instance.
+     *
+     * @param partitions the partitions
+     * @return the latest record per partition, partitions without record are absent
+     */
+    Map<TopicPartition, Record> recover(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, Record> result = null;
+        for (int attempt = 0; attempt < SCAN_ATTEMPTS && result == null; attempt++) {
+            // a compaction may delete segments during the scan
+            result = scan(listFiles(SEGMENT_SUFFIX), partitions);
+        }
+        if (result == null) {
+            throw new UncheckedIOException(new IOException("Unable to scan the checkpoint segments in " + directory));
+        }
+        synchronized (this) {
+            for (TopicPartition partition : partitions) {
+                Record own = latest.get(partition);
+                Record recovered = result.get(partition);
+                if (own != null && (recovered == null || own.offset >= recovered.offset)) {
+                    result.put(partition, own);
+                } else if (recovered != null) {
+                    latest.put(partition, recovered);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends the given records, and forces them to the storage device once.
+     * Records with an offset lower than the latest record of their partition are skipped.
+     *
+     * @param records the records to append
+     * @return {@code true} if a segment has been sealed, and compaction should run
+     */
+    synchronized boolean append(Map<TopicPartition, Record> records) {
+        if (closed) {
+            throw new IllegalStateException("The checkpoint log is closed");
+        }
+        boolean sealedSegment = false;
+        Segment touched = null;
+        for (Map.Entry<TopicPartition, Record> entry : records.entrySet()) {
+            TopicPartition partition = entry.getKey();
+            Record record = entry.getValue();
+            Record previous = latest.get(partition);
+            if (previous != null && previous.offset > record.offset) {
+                log.warnf("Skipping persist operation : higher offset found on store %d > %d",
+                        previous.offset, record.offset);
+                continue;
+            }
+            byte[] topic = partition.topic().getBytes(StandardCharsets.UTF_8);
+            int size = RECORD_OVERHEAD + topic.length + record.state.length;
+            if (active == null || active.remaining() < size) {
+                if (active != null) {
+                    // the records already written to the sealed segment must be durable
+                    if (touched == active) {
+                        active.buffer.force();
+                        touched = null;
+                    }
+                    sealed.add(active.path);
+                    sealedSegment = true;
+                }
+                active = newSegment(Math.max(segmentSize, size + 4));
+            }
+            active.write(partition.partition(), topic, record);
+            touched = active;
+            latest.put(partition, record);
+        }
+        if (touched != null) {
+            touched.buffer.force();
+        }
+        return sealedSegment;
+    }
+
+    /**
+     * Rewrites the latest records into a single segment, replacing the sealed segments of this instance and the
+     * segments of instances which are not running anymore.
+     * Appends are not blocked while the compacted segment is written.
+     */
+    void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        List<FileLock> orphanLocks = new ArrayList<>();
+        try {
+            List<Path> orphanSegments = new ArrayList<>();
+            List<Path> orphanLockFiles = new ArrayList<>();
+            for (Path lockFile : listFiles(LOCK_SUFFIX)) {
+                if (lockFile.getFileName().toString().equals(groupId + SEPARATOR + instanceId + LOCK_SUFFIX)) {
+                    continue;
+                }
+                FileLock orphanLock = tryLock(lockFile);
+                if (orphanLock != null) {
+                    orphanLocks.add(orphanLock);
+                    orphanLockFiles.add(lockFile);
+                    String prefix = lockFile.getFileName().toString();
+                    prefix = prefix.substring(0, prefix.length() - LOCK_SUFFIX.length()) + SEPARATOR;
+                    for (Path segment : listFiles(SEGMENT_SUFFIX)) {
+                        if (segment.getFileName().toString().startsWith(prefix)) {
+                            orphanSegments.add(segment);
+                        }
+                    }
+                }
+            }
+            Map<TopicPartition, Record> adopted = orphanSegments.isEmpty() ? Map.of() : scan(orphanSegments, null);
+            if (adopted == null) {
+                return;
+            }
+
+            List<Path> replaced;
+            Map<TopicPartition, Record> snapshot;
+            synchronized (this) {
+                if (closed || (sealed.isEmpty() && orphanSegments.isEmpty())) {
+                    return;
+                }
+                for (Map.Entry<TopicPartition, Record> entry : adopted.entrySet()) {
+                    Record own = latest.get(entry.getKey());
+                    if (own == null || own.offset < entry.getValue().offset) {
+                        latest.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (sealed.isEmpty() && active != null) {
+                    // only orphan segments, seal the active segment so the compacted segment replaces it
+                    sealed.add(active.path);
+                    active = null;
+                }
+                replaced = new ArrayList<>(sealed);
+                snapshot = new HashMap<>(latest);
+            }
+
+            // reuses the sequence number of the most recent sealed segment, lower than the active one
+            Path target = replaced.isEmpty() ? segmentPath(nextSequence()) : replaced.get(replaced.size() - 1);
+            Path tmp = target.resolveSibling(target.getFileName() + TMP_SUFFIX);
+            writeSegment(tmp, snapshot);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (Path path : replaced) {
+                if (!path.equals(target)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            for (FileLock orphanLock : orphanLocks) {
+                orphanLock.channel().close();
+            }
+            orphanLocks.clear();
+            for (Path path : orphanSegments) {
+                Files.deleteIfExists(path);
+            }
+            for (Path path : orphanLockFiles) {
+                Files.deleteIfExists(path);
+            }
+
+            synchronized (this) {
+                sealed.removeAll(replaced);
+                sealed.add(0, target);
+            }
+            log.debugf("Compacted %d checkpoint segments and %d orphan segments into %s", replaced.size(),
+                    orphanSegments.size(), target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (FileLock orphanLock : orphanLocks) {
+                closeQuietly(orphanLock.channel());
+            }
+            compacting.set(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        active = null;
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.debugf(e, "Unable to release the checkpoint log lock");
+        }
+    }
+
+    private Segment newSegment(int size) {
+        Path path = segmentPath(nextSequence());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized long nextSequence() {
+        return sequence++;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%s%s%s%020d%s", groupId, SEPARATOR, instanceId, SEPARATOR, sequence,
+                SEGMENT_SUFFIX));
+    }
+
+    private void writeSegment(Path path, Map<TopicPartition, Record> records) throws IOException {
+        int size = 4;
+        for (Map.Entry<TopicPartition, Record> entry : records.entrySet()) {
+            size += RECORD_OVERHEAD + entry.getKey().topic().getBytes(StandardCharsets.UTF_8).length
+                    + entry.getValue().state.length;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            for (Map.Entry<TopicPartition, Record> entry : records.entrySet()) {
+                segment.write(entry.getKey().partition(), entry.getKey().topic().getBytes(StandardCharsets.UTF_8),
+                        entry.getValue());
+            }
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * @return the latest record per partition, {@code null} if a segment has been deleted during the scan
+     */
+    private Map<TopicPartition, Record> scan(List<Path> segments, Collection<TopicPartition> partitions) {
+        // segments of the same instance must be read in sequence order, so the last written record wins
+        segments.sort(Comparator.comparing(p -> p.getFileName().toString()));
+        Map<TopicPartition, Record> result = new HashMap<>();
+        for (Path segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long length = channel.size();
+                if (length == 0) {
+                    continue;
+                }
+                read(channel.map(FileChannel.MapMode.READ_ONLY, 0, length), partitions, result);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    private static void read(ByteBuffer buffer, Collection<TopicPartition> partitions,
+            Map<TopicPartition, Record> result) {
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 4) {
+            int start = buffer.position();
+            int size = buffer.getInt();
+            if (size < RECORD_OVERHEAD - 4 || size > buffer.remaining()) {
+                return;
+            }
+            ByteBuffer data = buffer.duplicate();
+            data.limit(start + size);
+            crc.reset();
+            crc.update(data);
+            if ((int) crc.getValue() != buffer.getInt(start + size)) {
+                return;
+            }
+            long offset = buffer.getLong();
+            int partition = buffer.getInt();
+            byte[] topic = new byte[buffer.getShort()];
+            buffer.get(topic);
+            byte[] state = new byte[buffer.getInt()];
+            buffer.get(state);
+            buffer.getInt();
+
+            TopicPartition topicPartition = new TopicPartition(new String(topic, StandardCharsets.UTF_8), partition);
+            if (partitions == null || partitions.contains(topicPartition)) {
+                Record previous = result.get(topicPartition);
+                if (previous == null || previous.offset <= offset) {
+                    result.put(topicPartition, new Record(offset, state));
+                }
+            }
+        }
+    }
+
+    private List<Path> listFiles(String suffix) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, groupId + SEPARATOR + "*" + suffix)) {
+            for (Path path : stream) {
+                files.add(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private static FileLock tryLock(Path lockFile) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+            FileLock acquired = channel.tryLock();
+            if (acquired == null) {
+                closeQuietly(channel);
+            }
+            return acquired;
+        } catch (OverlappingFileLockException e) {
+            // held by another instance of this JVM
+            closeQuietly(channel);
+            return null;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            return null;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // ignored
+            }
+        }
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final CRC32 crc = new CRC32();
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            // keeps room for the end marker
+            return buffer.remaining() - 4;
+        }
+
+        void write(int partition, byte[] topic, Record record) {
+            int start = buffer.position();
+            int size = RECORD_OVERHEAD - 4 + topic.length + record.state.length;
+            buffer.position(start + 4);
+            buffer.putLong(record.offset);
+            buffer.putInt(partition);
+            buffer.putShort((short) topic.length);
+            buffer.put(topic);
+            buffer.putInt(record.state.length);
+            buffer.put(record.state);
+            ByteBuffer data = buffer.duplicate();
+            data.position(start + 4);
+            data.limit(buffer.position());
+            crc.reset();
+            crc.update(data);
+            buffer.putInt((int) crc.getValue());
+            // the size is written last, so a partially written record is never read
+            buffer.putInt(start, size);
+        }
+    }
+}
@@ -31,16 +31,28 @@ import io.vertx.mutiny.core.buffer.Buffer;
 public class FileCheckpointStateStore implements CheckpointStateStore {
 
     public static final String STATE_STORE_NAME = "file";
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
     private final Vertx vertx;
     private final File stateDir;
     private final String consumerGroupId;
     private final ProcessingStateCodec codec;
+    private final int maxConcurrency;
 
     public FileCheckpointStateStore(Vertx vertx, String consumerGroupId, File stateDir, ProcessingStateCodec codec) {
+        this(vertx, consumerGroupId, stateDir, codec, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * @param maxConcurrency the maximum number of partition state files read or written concurrently by a bulk
+     *        fetch or persist operation
+     */
+    public FileCheckpointStateStore(Vertx vertx, String consumerGroupId, File stateDir, ProcessingStateCodec codec,
+            int maxConcurrency) {
         this.vertx = vertx;
         this.consumerGroupId = consumerGroupId;
         this.stateDir = stateDir;
         this.codec = codec;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
     }
 
     @ApplicationScoped
@@ -58,9 +70,9 @@ public class FileCheckpointStateStore implements CheckpointStateStore {
         public CheckpointStateStore create(KafkaConnectorIncomingConfiguration config, Vertx vertx,
                 KafkaConsumer<?, ?> consumer, Class<?> stateType) {
             String consumerGroupId = (String) consumer.configuration().get(ConsumerConfig.GROUP_ID_CONFIG);
+            String prefix = KafkaCommitHandler.Strategy.CHECKPOINT + "." + STATE_STORE_NAME + ".";
 
-            Optional<String> dir = config.config().getOptionalValue(
-                    KafkaCommitHandler.Strategy.CHECKPOINT + "." + STATE_STORE_NAME + ".state-dir", String.class);
+            Optional<String> dir = config.config().getOptionalValue(prefix + "state-dir", String.class);
             File stateDir = dir.map(File::new).orElseGet(() -> {
                 try {
                     return Files.createTempDirectory("io.smallrye.reactive.messaging.kafka").toFile();
@@ -69,6 +81,8 @@ public class FileCheckpointStateStore implements CheckpointStateStore {
                     throw new IllegalStateException(e);
                 }
             });
+            int maxConcurrency = config.config().getOptionalValue(prefix + "max-concurrency", Integer.class)
+                    .orElse(DEFAULT_MAX_CONCURRENCY);
 
             ProcessingStateCodec stateCodec = CDIUtils.getInstanceById(stateCodecFactory, config.getChannel(), () -> {
                 if (stateCodecFactory.isUnsatisfied()) {
@@ -77,7 +91,7 @@ public class FileCheckpointStateStore implements CheckpointStateStore {
                     return stateCodecFactory.get();
                 }
             }).create(stateType);
-            return new FileCheckpointStateStore(vertx, consumerGroupId, stateDir, stateCodec);
+            return new FileCheckpointStateStore(vertx, consumerGroupId, stateDir, stateCodec, maxConcurrency);
         }
     }
 
@@ -93,7 +107,7 @@ public class FileCheckpointStateStore implements CheckpointStateStore {
     @Override
     public Uni<Map<TopicPartition, ProcessingState<?>>> fetchProcessingState(Collection<TopicPartition> partitions) {
         return Multi.createFrom().iterable(partitions)
-                .onItem().transformToUniAndConcatenate(p -> fetchProcessingState(p).map(s -> Tuple2.of(p, s)))
+                .onItem().transformToUni(p -> fetchProcessingState(p).map(s -> Tuple2.of(p, s))).merge(maxConcurrency)
                 .filter(t -> t.getItem2() != null)
                 .collect().asMap(Tuple2::getItem1, Tuple2::getItem2);
     }
@@ -117,7 +131,7 @@ public class FileCheckpointStateStore implements CheckpointStateStore {
     @Override
     public Uni<Void> persistProcessingState(Map<TopicPartition, ProcessingState<?>> state) {
         return Multi.createFrom().iterable(state.entrySet())
-                .onItem().transformToUniAndConcatenate(e -> persistProcessingState(e.getKey(), e.getValue()))
+                .onItem().transformToUni(e -> persistProcessingState(e.getKey(), e.getValue())).merge(maxConcurrency)
                 .collect().asList()
                 .replaceWithVoid();
     }
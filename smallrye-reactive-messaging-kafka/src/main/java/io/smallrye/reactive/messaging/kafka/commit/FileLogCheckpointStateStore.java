@@ -0,0 +1,157 @@
+package io.smallrye.reactive.messaging.kafka.commit;
+
+import static io.smallrye.reactive.messaging.kafka.i18n.KafkaLogging.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
+import io.smallrye.reactive.messaging.providers.helpers.CDIUtils;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * State store persisting the processing states in a segmented, append-only log of memory-mapped files.
+ * <p>
+ * Unlike {@link FileCheckpointStateStore}, which writes one file per partition, the states of all the partitions of a
+ * persist operation are appended to the log and forced to the storage device at once.
+ * Sealed segments are compacted in the background.
+ * On fetch, the latest state of each partition is recovered from the segments of every consumer of the group sharing
+ * the state directory.
+ */
+public class FileLogCheckpointStateStore implements CheckpointStateStore {
+
+    public static final String STATE_STORE_NAME = "file-log";
+    public static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private final Vertx vertx;
+    private final File stateDir;
+    private final ProcessingStateCodec codec;
+    private final CheckpointLog checkpointLog;
+    private volatile boolean recovered;
+
+    public FileLogCheckpointStateStore(Vertx vertx, String consumerGroupId, File stateDir, int segmentSize,
+            ProcessingStateCodec codec) {
+        this.vertx = vertx;
+        this.stateDir = stateDir;
+        this.codec = codec;
+        this.checkpointLog = new CheckpointLog(stateDir.toPath(), consumerGroupId, segmentSize);
+    }
+
+    @ApplicationScoped
+    @Identifier(STATE_STORE_NAME)
+    public static class Factory implements CheckpointStateStore.Factory {
+
+        private final Instance<ProcessingStateCodec.Factory> stateCodecFactory;
+
+        @Inject
+        public Factory(@Any Instance<ProcessingStateCodec.Factory> stateCodecFactory) {
+            this.stateCodecFactory = stateCodecFactory;
+        }
+
+        @Override
+        public CheckpointStateStore create(KafkaConnectorIncomingConfiguration config, Vertx vertx,
+                KafkaConsumer<?, ?> consumer, Class<?> stateType) {
+            String consumerGroupId = (String) consumer.configuration().get(ConsumerConfig.GROUP_ID_CONFIG);
+            String prefix = KafkaCommitHandler.Strategy.CHECKPOINT + "." + STATE_STORE_NAME + ".";
+
+            Optional<String> dir = config.config().getOptionalValue(prefix + "state-dir", String.class);
+            File stateDir = dir.map(File::new).orElseGet(() -> {
+                try {
+                    return Files.createTempDirectory("io.smallrye.reactive.messaging.kafka").toFile();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            int segmentSize = config.config().getOptionalValue(prefix + "segment-size", Integer.class)
+                    .orElse(DEFAULT_SEGMENT_SIZE);
+
+            ProcessingStateCodec stateCodec = CDIUtils.getInstanceById(stateCodecFactory, config.getChannel(), () -> {
+                if (stateCodecFactory.isUnsatisfied()) {
+                    return VertxJsonProcessingStateCodec.FACTORY;
+                } else {
+                    return stateCodecFactory.get();
+                }
+            }).create(stateType);
+            return new FileLogCheckpointStateStore(vertx, consumerGroupId, stateDir, segmentSize, stateCodec);
+        }
+    }
+
+    public File getStateDir() {
+        return stateDir;
+    }
+
+    @Override
+    public Uni<Map<TopicPartition, ProcessingState<?>>> fetchProcessingState(Collection<TopicPartition> partitions) {
+        return vertx.executeBlocking(Uni.createFrom().item(() -> checkpointLog.recover(partitions)), false)
+                .map(records -> {
+                    Map<TopicPartition, ProcessingState<?>> states = new HashMap<>();
+                    for (Map.Entry<TopicPartition, CheckpointLog.Record> entry : records.entrySet()) {
+                        states.put(entry.getKey(), codec.decode(entry.getValue().state));
+                    }
+                    return states;
+                })
+                .onFailure().invoke(t -> log.errorf(t, "Error fetching processing state for partitions %s", partitions))
+                .onItem().invoke(r -> {
+                    log.debugf("Fetched state for partitions %s : %s", partitions, r);
+                    if (!recovered) {
+                        recovered = true;
+                        // reclaims the segments left by previous runs
+                        compactInBackground();
+                    }
+                });
+    }
+
+    @Override
+    public Uni<Void> persistProcessingState(Map<TopicPartition, ProcessingState<?>> state) {
+        Map<TopicPartition, CheckpointLog.Record> records = new HashMap<>();
+        for (Map.Entry<TopicPartition, ProcessingState<?>> entry : state.entrySet()) {
+            ProcessingState<?> processingState = entry.getValue();
+            if (processingState != null) {
+                records.put(entry.getKey(),
+                        new CheckpointLog.Record(processingState.getOffset(), codec.encode(processingState)));
+            }
+        }
+        if (records.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return vertx.executeBlocking(Uni.createFrom().item(() -> checkpointLog.append(records)), false)
+                .onItem().invoke(sealed -> {
+                    if (sealed) {
+                        compactInBackground();
+                    }
+                })
+                .onFailure().invoke(t -> log.errorf(t, "Error persisting processing state `%s`", state))
+                .onItem().invoke(() -> log.debugf("Persisted state : %s", state))
+                .replaceWithVoid();
+    }
+
+    private void compactInBackground() {
+        vertx.executeBlocking(Uni.createFrom().item(() -> {
+            checkpointLog.compact();
+            return null;
+        }), false).subscribe().with(x -> {
+        }, t -> log.errorf(t, "Error compacting the checkpoint log in %s", stateDir));
+    }
+
+    @Override
+    public void close() {
+        checkpointLog.close();
+    }
+
+}
@@ -3,8 +3,10 @@ package io.smallrye.reactive.messaging.kafka.commit;
 import static io.smallrye.reactive.messaging.kafka.i18n.KafkaLogging.log;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -51,6 +53,15 @@ public class KafkaCheckpointCommit extends ContextHolder implements KafkaCommitH
 
     private final Map<TopicPartition, CheckpointState<?>> checkpointStateMap = new ConcurrentHashMap<>();
 
+    /**
+     * Last persisted states of the partitions revoked since the previous assignment, accessed on the captured context.
+     * <p>
+     * A partition revoked and assigned back in the same rebalance has not been consumed by another member in between,
+     * so its state is restored from this map instead of the state store.
+     * Entries are discarded on the next assignment, after which the partition may have been consumed elsewhere.
+     */
+    private final Map<TopicPartition, ProcessingState<?>> revokedStates = new HashMap<>();
+
     private volatile long timerId = -1;
 
     private final int autoCommitInterval;
@@ -269,11 +280,12 @@ public class KafkaCheckpointCommit extends ContextHolder implements KafkaCommitH
     public void partitionsAssigned(Collection<TopicPartition> partitions) {
         stopFlushAndCheckHealthTimer();
         if (partitions.isEmpty()) {
+            runOnContext(revokedStates::clear);
             return;
         }
 
         Map<TopicPartition, ProcessingState<?>> fetchedStates = Uni.createFrom()
-                .deferred(() -> stateStore.fetchProcessingState(partitions)
+                .deferred(() -> fetchProcessingState(partitions)
                         .onItem()
                         .invoke(fetched -> log.checkpointPartitionsAssigned(consumerId, partitions, fetched.toString()))
                         .onFailure().invoke(f -> log.failedCheckpointPartitionsAssigned(consumerId, partitions, f))
@@ -294,13 +306,45 @@ public class KafkaCheckpointCommit extends ContextHolder implements KafkaCommitH
         }
     }
 
+    /**
+     * Fetches the states of the assigned partitions, only the partitions not revoked during the current rebalance are
+     * fetched from the state store.
+     * Must be called on the captured context.
+     */
+    private Uni<Map<TopicPartition, ProcessingState<?>>> fetchProcessingState(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, ProcessingState<?>> states = new HashMap<>();
+        List<TopicPartition> toFetch = new ArrayList<>();
+        for (TopicPartition tp : partitions) {
+            ProcessingState<?> state = revokedStates.get(tp);
+            if (state != null) {
+                states.put(tp, state);
+            } else {
+                toFetch.add(tp);
+            }
+        }
+        revokedStates.clear();
+        if (toFetch.isEmpty()) {
+            return Uni.createFrom().item(states);
+        }
+        return stateStore.fetchProcessingState(toFetch)
+                .map(fetched -> {
+                    states.putAll(fetched);
+                    return states;
+                });
+    }
+
     private Uni<Map<TopicPartition, CheckpointState<?>>> removeFromState(Collection<TopicPartition> partitions) {
         return Uni.createFrom().emitter(e -> {
             stopFlushAndCheckHealthTimer();
-            Map<TopicPartition, CheckpointState<?>> toRemove = new HashMap<>(checkpointStateMap);
-            checkpointStateMap.keySet().removeAll(partitions);
-            toRemove.keySet().removeAll(partitions);
-            e.complete(toRemove);
+            Map<TopicPartition, CheckpointState<?>> removed = new HashMap<>();
+            // partitions may be a view of the state map
+            for (TopicPartition tp : new ArrayList<>(partitions)) {
+                CheckpointState<?> state = checkpointStateMap.remove(tp);
+                if (state != null) {
+                    removed.put(tp, state);
+                }
+            }
+            e.complete(removed);
         });
     }
 
@@ -312,7 +356,8 @@ public class KafkaCheckpointCommit extends ContextHolder implements KafkaCommitH
     public void partitionsRevoked(Collection<TopicPartition> partitions) {
         removeFromState(partitions)
                 .invoke(revoked -> log.checkpointPartitionsRevoked(consumerId, partitions, revoked.toString()))
-                .chain(this::persistProcessingState)
+                .chain(revoked -> persistProcessingState(revoked)
+                        .invoke(() -> revoked.forEach((tp, state) -> revokedStates.put(tp, state.getProcessingState()))))
                 .invoke(this::startFlushAndCheckHealthTimer)
                 .runSubscriptionOn(this::runOnContext)
                 .await().atMost(Duration.ofMillis(getTimeoutInMillis()));
@@ -5,7 +5,6 @@ import static io.smallrye.reactive.messaging.kafka.impl.TopicPartitions.getTopic
 
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -20,6 +19,8 @@ import io.smallrye.mutiny.tuples.Tuple2;
 import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
 import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
 import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
+import io.smallrye.reactive.messaging.kafka.impl.KafkaMetrics;
+import io.smallrye.reactive.messaging.kafka.impl.OffsetWindow;
 import io.smallrye.reactive.messaging.providers.helpers.VertxContext;
 import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.mutiny.core.Vertx;
@@ -39,18 +40,42 @@ import io.vertx.mutiny.core.Vertx;
  * This strategy guarantees at-least-once delivery even if the channel performs
  * asynchronous processing.
  * <p>
+ * Offsets are tracked per topic-partition. Partitions receiving acknowledgements are marked as dirty, and each
+ * periodic flush only visits the dirty partitions and asynchronously commits the partitions whose committable
+ * offset has moved since their last successful commit.
+ * The health check only visits the stores once the oldest record waiting for its acknowledgement may have exceeded
+ * its maximum age.
+ * <p>
  * To use set `commit-strategy` to `throttled`.
  */
 public class KafkaThrottledLatestProcessedCommit extends ContextHolder implements KafkaCommitHandler {
 
+    private static final int INITIAL_WINDOW_CAPACITY = 512;
+
     private final Map<TopicPartition, OffsetStore> offsetStores = new HashMap<>();
+    /**
+     * Stores acknowledged since the last flush, each store is present at most once.
+     */
+    private final Queue<OffsetStore> dirtyStores = new ArrayDeque<>();
+    /**
+     * Whether a store may have been created for a partition not assigned to the consumer.
+     */
+    private boolean unassignedStores;
 
     private final String groupId;
+    private final String channel;
+    private final String clientId;
     private final KafkaConsumer<?, ?> consumer;
     private final BiConsumer<Throwable, Boolean> reportFailure;
     private final int unprocessedRecordMaxAge;
     private final int autoCommitInterval;
     private volatile long timerId = -1;
+    /**
+     * The earliest time at which a record waiting for its acknowledgement may exceed the maximum age, the stores are not
+     * visited by the health check before. Receive times only grow, so it is lowered when a store receives a record
+     * while it has none waiting, and recomputed by the health check.
+     */
+    private long nextHealthCheck = Long.MAX_VALUE;
     private final Collection<TopicPartition> assignments = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     @ApplicationScoped
@@ -77,13 +102,14 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
             } else {
                 log.setThrottledCommitStrategyReceivedRecordMaxAge(groupId, unprocessedRecordMaxAge);
             }
-            return new KafkaThrottledLatestProcessedCommit(groupId, vertx, consumer, reportFailure, unprocessedRecordMaxAge,
-                    autoCommitInterval, defaultTimeout);
+            return new KafkaThrottledLatestProcessedCommit(groupId, config.getChannel(), vertx, consumer, reportFailure,
+                    unprocessedRecordMaxAge, autoCommitInterval, defaultTimeout);
         }
     }
 
     private KafkaThrottledLatestProcessedCommit(
             String groupId,
+            String channel,
             Vertx vertx,
             KafkaConsumer<?, ?> consumer,
             BiConsumer<Throwable, Boolean> reportFailure,
@@ -92,6 +118,8 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
             int defaultTimeout) {
         super(vertx, defaultTimeout);
         this.groupId = groupId;
+        this.channel = channel;
+        this.clientId = String.valueOf(consumer.configuration().get(ConsumerConfig.CLIENT_ID_CONFIG));
         this.consumer = consumer;
         this.reportFailure = reportFailure;
         this.unprocessedRecordMaxAge = unprocessedRecordMaxAge;
@@ -135,9 +163,11 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
                 if (!assignments.contains(partition)) { // revoked partition - remove and compute last commit
                     OffsetStore store = offsetStores.remove(partition);
                     if (store != null) {
-
-                        long largestOffset = store.clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset();
-                        if (largestOffset > -1) {
+                        store.close();
+                        store.clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset();
+                        // includes offsets whose asynchronous commit failed
+                        if (store.hasUncommittedOffset()) {
+                            long largestOffset = store.getLastProcessedOffset();
                             toCommit.put(partition, new OffsetAndMetadata(largestOffset + 1L, null));
                             log.partitionRevokedCollectingRecordsToCommit(partition, largestOffset + 1);
                         }
@@ -199,6 +229,9 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
                         OffsetStore store = new OffsetStore(recordsTopicPartition, unprocessedRecordMaxAge,
                                 lastCommitted == null ? -1 : lastCommitted.offset() - 1);
                         offsetStores.put(recordsTopicPartition, store);
+                        if (!assignments.contains(recordsTopicPartition)) {
+                            unassignedStores = true;
+                        }
                         return store;
                     });
         } else {
@@ -216,6 +249,7 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
     }
 
     /**
+     * Only visits the stores acknowledged since the last call.
      * Must be called from the event loop.
      *
      * @return the map of partition -> offset that can be committed.
@@ -224,12 +258,15 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
         cleanupPartitionOffsetStore();
 
         Map<TopicPartition, Long> offsetsMapping = new HashMap<>();
-        for (Map.Entry<TopicPartition, OffsetStore> entry : new HashSet<>(offsetStores.entrySet())) {
-            if (assignments.contains(entry.getKey())) {
-                long offset = entry.getValue()
-                        .clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset();
-                if (offset > -1) {
-                    offsetsMapping.put(entry.getKey(), offset);
+        OffsetStore store;
+        while ((store = dirtyStores.poll()) != null) {
+            store.dirty = false;
+            TopicPartition partition = store.topicPartition;
+            // skip stores removed since they have been acknowledged
+            if (offsetStores.get(partition) == store && assignments.contains(partition)) {
+                store.clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset();
+                if (store.hasUncommittedOffset()) {
+                    offsetsMapping.put(partition, store.getLastProcessedOffset());
                 }
             }
         }
@@ -237,6 +274,39 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
         return offsetsMapping;
     }
 
+    /**
+     * Records the successful commit of the given offsets.
+     * Must be called from the event loop.
+     */
+    private void committed(Map<TopicPartition, Long> offsetsMapping) {
+        for (Map.Entry<TopicPartition, Long> entry : offsetsMapping.entrySet()) {
+            OffsetStore store = offsetStores.get(entry.getKey());
+            if (store != null) {
+                store.committed(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Marks the stores of the given offsets as dirty, so the next flush commits them again.
+     * Must be called from the event loop.
+     */
+    private void failedToCommit(Map<TopicPartition, Long> offsetsMapping) {
+        for (TopicPartition partition : offsetsMapping.keySet()) {
+            OffsetStore store = offsetStores.get(partition);
+            if (store != null) {
+                markDirty(store);
+            }
+        }
+    }
+
+    private void markDirty(OffsetStore store) {
+        if (!store.dirty) {
+            store.dirty = true;
+            dirtyStores.offer(store);
+        }
+    }
+
     /**
      * A message has been acknowledged.
      * This method is NOT necessarily called on an event loop.
@@ -259,7 +329,9 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
              * do but ignore the message. There likely will be a duplicate consumption.
              */
             if (store != null) {
-                store.processed(record.getOffset());
+                if (store.processed(record.getOffset())) {
+                    markDirty(store);
+                }
             } else {
                 log.acknowledgementFromRevokedTopicPartition(
                         record.getOffset(), topicPartition, groupId, assignments);
@@ -278,77 +350,91 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
         Map<TopicPartition, Long> offsetsMapping = clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffsetMapping();
         if (!offsetsMapping.isEmpty()) {
             Map<TopicPartition, OffsetAndMetadata> offsets = getOffsets(offsetsMapping);
-            consumer.commit(offsets)
+            consumer.commitAsync(offsets)
                     .subscribe().with(
                             a -> {
                                 log.committed(offsets);
-                                this.startFlushAndCheckHealthTimer();
+                                runOnContext(() -> {
+                                    committed(offsetsMapping);
+                                    this.startFlushAndCheckHealthTimer();
+                                });
                             },
                             f -> {
                                 log.failedToCommit(offsets, f);
-                                this.startFlushAndCheckHealthTimer();
+                                runOnContext(() -> {
+                                    failedToCommit(offsetsMapping);
+                                    this.startFlushAndCheckHealthTimer();
+                                });
                             });
         } else {
             this.startFlushAndCheckHealthTimer();
         }
 
         if (this.unprocessedRecordMaxAge > 0) {
-            for (OffsetStore store : offsetStores.values()) {
-                long millis = store.hasTooManyMessagesWithoutAck();
-                if (millis != -1) {
-                    OffsetReceivedAt received = store.receivedOffsets.peek();
-                    if (received != null) {
-                        long lastOffset = store.getLastProcessedOffset();
-                        TooManyMessagesWithoutAckException exception = new TooManyMessagesWithoutAckException(
-                                store.topicPartition,
-                                received.offset,
-                                millis / 1000,
-                                store.receivedOffsets.size(),
-                                lastOffset);
-                        this.reportFailure.accept(exception, true);
-                    }
-                }
-            }
+            checkHealth();
         }
 
     }
 
-    private static class OffsetReceivedAt {
-        private final long offset;
-        private final long receivedAt;
-
-        private OffsetReceivedAt(long offset, long receivedAt) {
-            this.offset = offset;
-            this.receivedAt = receivedAt;
-        }
-
-        static OffsetReceivedAt received(long offset) {
-            return new OffsetReceivedAt(offset, System.currentTimeMillis());
-        }
-
-        public long getOffset() {
-            return offset;
+    /**
+     * Reports the records waiting too long for their acknowledgement.
+     * Must be called from the event loop.
+     */
+    private void checkHealth() {
+        long now = System.currentTimeMillis();
+        if (now < nextHealthCheck) {
+            return;
         }
-
-        public long getReceivedAt() {
-            return receivedAt;
+        long next = Long.MAX_VALUE;
+        for (OffsetStore store : offsetStores.values()) {
+            long millis = store.hasTooManyMessagesWithoutAck(now);
+            if (millis != -1) {
+                long lastOffset = store.getLastProcessedOffset();
+                TooManyMessagesWithoutAckException exception = new TooManyMessagesWithoutAckException(
+                        store.topicPartition,
+                        store.receivedOffsets.firstOffset(),
+                        millis / 1000,
+                        store.receivedOffsets.size(),
+                        lastOffset);
+                this.reportFailure.accept(exception, true);
+            }
+            if (!store.receivedOffsets.isEmpty()) {
+                next = Math.min(next, store.receivedOffsets.firstReceivedAt() + unprocessedRecordMaxAge);
+            }
         }
+        nextHealthCheck = next;
     }
 
     private class OffsetStore {
 
         private final TopicPartition topicPartition;
-        private final Queue<OffsetReceivedAt> receivedOffsets = new LinkedList<>();
-        private final Set<Long> processedOffsets = new HashSet<>();
+        private final OffsetWindow receivedOffsets = new OffsetWindow(INITIAL_WINDOW_CAPACITY);
         private final int unprocessedRecordMaxAge;
-        private final AtomicLong unProcessedTotal = new AtomicLong();
+        private final Runnable unacknowledgedGauge;
         private long lastProcessedOffset;
+        private long lastCommittedOffset;
+        /**
+         * Whether the store is in the dirty stores queue.
+         */
+        private boolean dirty;
 
         OffsetStore(TopicPartition topicPartition, int unprocessedRecordMaxAge, long lastProcessedOffset) {
             this.topicPartition = topicPartition;
             this.unprocessedRecordMaxAge = unprocessedRecordMaxAge;
             log.initializeStoreAtPosition(topicPartition, lastProcessedOffset);
             this.lastProcessedOffset = lastProcessedOffset;
+            this.lastCommittedOffset = lastProcessedOffset;
+            this.unacknowledgedGauge = KafkaMetrics.gauge("kafka.consumer.partition.unacknowledged",
+                    "The number of records received from the partition and not acknowledged yet", "records",
+                    receivedOffsets, OffsetWindow::unacknowledged,
+                    KafkaMetrics.TAG_CHANNEL, channel,
+                    KafkaMetrics.TAG_CLIENT_ID, clientId,
+                    KafkaMetrics.TAG_TOPIC, topicPartition.topic(),
+                    KafkaMetrics.TAG_PARTITION, Integer.toString(topicPartition.partition()));
+        }
+
+        void close() {
+            unacknowledgedGauge.run();
         }
 
         long getLastProcessedOffset() {
@@ -357,66 +443,47 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
 
         void received(long offset) {
             if (offset > lastProcessedOffset) {
-                this.receivedOffsets.offer(OffsetReceivedAt.received(offset));
-                unProcessedTotal.incrementAndGet();
+                long now = System.currentTimeMillis();
+                if (unprocessedRecordMaxAge > 0 && receivedOffsets.isEmpty()) {
+                    nextHealthCheck = Math.min(nextHealthCheck, now + unprocessedRecordMaxAge);
+                }
+                this.receivedOffsets.received(offset, now);
             } else {
                 log.receivedOutdatedOffset(topicPartition, offset, lastProcessedOffset);
             }
         }
 
-        void processed(long offset) {
-            final OffsetReceivedAt received = this.receivedOffsets.peek();
-            if (received != null && received.getOffset() <= offset) {
-                processedOffsets.add(offset);
-            }
+        boolean processed(long offset) {
+            return receivedOffsets.acknowledged(offset);
         }
 
-        long clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset() {
-            if (!processedOffsets.isEmpty()) {
-                long largestSequentialProcessedOffset = -1;
-
-                while (!receivedOffsets.isEmpty()) {
-                    if (!processedOffsets.remove(receivedOffsets.peek().getOffset())) {
-                        break;
-                    }
-                    unProcessedTotal.decrementAndGet();
-                    OffsetReceivedAt poll = receivedOffsets.poll();
-                    if (poll != null) {
-                        largestSequentialProcessedOffset = poll.getOffset();
-                    }
-                }
-
-                if (largestSequentialProcessedOffset > -1) {
-                    lastProcessedOffset = largestSequentialProcessedOffset;
-                    removeReceivedOffsetsFromLastProcessedOffset();
-                    return largestSequentialProcessedOffset;
-                }
-            }
-
-            removeReceivedOffsetsFromLastProcessedOffset();
+        boolean hasUncommittedOffset() {
+            return lastProcessedOffset > lastCommittedOffset;
+        }
 
-            return -1;
+        void committed(long offset) {
+            lastCommittedOffset = Math.max(lastCommittedOffset, offset);
         }
 
-        private void removeReceivedOffsetsFromLastProcessedOffset() {
-            // Remove received offset from previous assignments if any
-            receivedOffsets.removeIf(o -> o.getOffset() <= lastProcessedOffset);
+        long clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffset() {
+            // the window only contains offsets greater than the last processed offset
+            long largestSequentialProcessedOffset = receivedOffsets.removeAcknowledged();
+            if (largestSequentialProcessedOffset > -1) {
+                lastProcessedOffset = largestSequentialProcessedOffset;
+            }
+            return largestSequentialProcessedOffset;
         }
 
-        long hasTooManyMessagesWithoutAck() {
+        long hasTooManyMessagesWithoutAck(long now) {
             if (receivedOffsets.isEmpty() || !isStillAssigned()) {
                 return -1;
             }
-            OffsetReceivedAt peek = receivedOffsets.peek();
-            if (peek == null) {
-                return -1;
-            }
-            long elapsed = System.currentTimeMillis() - peek.getReceivedAt();
+            long elapsed = now - receivedOffsets.firstReceivedAt();
             long lag = receivedOffsets.size();
             boolean waitedTooLong = elapsed > unprocessedRecordMaxAge;
             if (waitedTooLong) {
-                log.waitingForAckForTooLong(peek.getOffset(), topicPartition, elapsed / 1000, unprocessedRecordMaxAge,
-                        lag, lastProcessedOffset);
+                log.waitingForAckForTooLong(receivedOffsets.firstOffset(), topicPartition, elapsed / 1000,
+                        unprocessedRecordMaxAge, lag, lastProcessedOffset);
                 return elapsed;
             }
             return -1;
@@ -428,15 +495,23 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
         }
 
         long getUnprocessedCount() {
-            return unProcessedTotal.get();
+            return receivedOffsets.unacknowledged();
         }
     }
 
     private void cleanupPartitionOffsetStore() {
-        for (TopicPartition partition : new HashSet<>(offsetStores.keySet())) {
+        // stores of revoked partitions are removed on revocation, only stores created afterwards remain
+        if (!unassignedStores) {
+            return;
+        }
+        unassignedStores = false;
+        Iterator<TopicPartition> iterator = offsetStores.keySet().iterator();
+        while (iterator.hasNext()) {
+            TopicPartition partition = iterator.next();
             if (!assignments.contains(partition)) {
                 log.removingPartitionFromStore(partition, assignments);
-                offsetStores.remove(partition);
+                offsetStores.get(partition).close();
+                iterator.remove();
             }
         }
     }
@@ -461,7 +536,9 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
 
         commitAllAndAwait();
         runOnContextAndAwait(() -> {
+            offsetStores.values().forEach(OffsetStore::close);
             offsetStores.clear();
+            dirtyStores.clear();
             stopFlushAndCheckHealthTimer();
             return null;
         });
@@ -488,8 +565,11 @@ public class KafkaThrottledLatestProcessedCommit extends ContextHolder implement
     }
 
     private void commitAllAndAwait() {
-        Map<TopicPartition, Long> offsetsMapping = runOnContextAndAwait(
-                this::clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffsetMapping);
+        Map<TopicPartition, Long> offsetsMapping = runOnContextAndAwait(() -> {
+            // also covers the offsets of in-flight asynchronous commits
+            offsetStores.values().forEach(this::markDirty);
+            return clearLesserSequentiallyProcessedOffsetsAndReturnLargestOffsetMapping();
+        });
         commitAndAwait(offsetsMapping);
     }
 
@@ -0,0 +1,41 @@
+package io.smallrye.reactive.messaging.kafka.converters;
+
+import java.lang.reflect.Type;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
+import io.smallrye.reactive.messaging.kafka.impl.TopicPartitions;
+import io.smallrye.reactive.messaging.keyed.KeyValueExtractor;
+
+/**
+ * Key/Value extractor extracting the topic-partition of a Kafka record as key and passing the record's value as value.
+ * <p>
+ * It only handles {@link TopicPartition} keys, so it is not used by the extractor lookup for other key types.
+ * Use it with {@link io.smallrye.reactive.messaging.keyed.KeyOrdered} to order the concurrent processing of records per
+ * partition.
+ * <p>
+ * This extractor has the default priority ({@link KeyValueExtractor#DEFAULT_PRIORITY}).
+ */
+@ApplicationScoped
+public class TopicPartitionFromKafkaRecordExtractor implements KeyValueExtractor {
+    @Override
+    public boolean canExtract(Message<?> message, Type keyType, Type valueType) {
+        return TopicPartition.class.equals(keyType) && message.getMetadata(IncomingKafkaRecordMetadata.class).isPresent();
+    }
+
+    @Override
+    public Object extractKey(Message<?> message, Type keyType) {
+        return message.getMetadata(IncomingKafkaRecordMetadata.class)
+                .map(metadata -> TopicPartitions.getTopicPartition(metadata.getTopic(), metadata.getPartition()))
+                .orElseThrow();
+    }
+
+    @Override
+    public Object extractValue(Message<?> message, Type valueType) {
+        return message.getPayload();
+    }
+}
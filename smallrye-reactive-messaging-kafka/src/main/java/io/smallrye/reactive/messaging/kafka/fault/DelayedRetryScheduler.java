@@ -0,0 +1,295 @@
+package io.smallrye.reactive.messaging.kafka.fault;
+
+import static io.smallrye.reactive.messaging.kafka.i18n.KafkaLogging.log;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import org.apache.kafka.common.TopicPartition;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.mutiny.operators.AbstractMulti;
+import io.smallrye.mutiny.subscription.MultiSubscriber;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.impl.ReactiveKafkaConsumer;
+import io.smallrye.reactive.messaging.kafka.impl.TimingWheel;
+import io.smallrye.reactive.messaging.kafka.impl.TopicPartitions;
+import io.smallrye.reactive.messaging.providers.helpers.VertxContext;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Emits the records of the delayed retry topics once they are due.
+ * <p>
+ * Records already due are emitted right away. When a record is not due yet, the consumption of its partition is paused
+ * and the partition is scheduled in a {@link TimingWheel} for the due time of its first record. The records of the
+ * partition fetched before the pause are kept, and emitted in order once due, the partition being resumed when all of
+ * them are emitted. The records waiting for their due time are thus bounded by the records fetched before pausing
+ * their partitions, and records of different partitions do not wait for each other.
+ * <p>
+ * The wheel is advanced by a periodic Vert.x timer, running only while partitions are waiting.
+ * All the state is confined to the given context.
+ */
+class DelayedRetryScheduler {
+
+    static final int WHEEL_SIZE = 64;
+
+    private final ReactiveKafkaConsumer<?, ?> consumer;
+    private final Vertx vertx;
+    private final Context context;
+    private final ToLongFunction<IncomingKafkaRecord<?, ?>> dueTime;
+    private final long tickMs;
+    private final int maxReady;
+
+    DelayedRetryScheduler(ReactiveKafkaConsumer<?, ?> consumer, Vertx vertx, Context context,
+            ToLongFunction<IncomingKafkaRecord<?, ?>> dueTime, long tickMs, int maxReady) {
+        this.consumer = consumer;
+        this.vertx = vertx;
+        this.context = context;
+        this.dueTime = dueTime;
+        this.tickMs = tickMs;
+        this.maxReady = Math.max(1, maxReady);
+    }
+
+    /**
+     * @param minDelayMs the shortest retry delay
+     * @return the tick of the timing wheel for the given delay, about a hundredth of it
+     */
+    static long tickFor(long minDelayMs) {
+        return Math.max(1, Math.min(1000, minDelayMs / 100));
+    }
+
+    Multi<IncomingKafkaRecord<?, ?>> schedule(Multi<? extends IncomingKafkaRecord<?, ?>> upstream) {
+        return new AbstractMulti<>() {
+            @Override
+            public void subscribe(MultiSubscriber<? super IncomingKafkaRecord<?, ?>> subscriber) {
+                SchedulerSubscription subscription = new SchedulerSubscription(subscriber);
+                consumer.setRevokedPartitionsHandler(subscription::revoked);
+                upstream.subscribe().withSubscriber(subscription);
+            }
+        };
+    }
+
+    private static class DelayedPartition {
+        private final TopicPartition partition;
+        private final ArrayDeque<IncomingKafkaRecord<?, ?>> records = new ArrayDeque<>();
+        private TimingWheel.Timeout<DelayedPartition> timeout;
+
+        private DelayedPartition(TopicPartition partition) {
+            this.partition = partition;
+        }
+    }
+
+    private class SchedulerSubscription implements MultiSubscriber<IncomingKafkaRecord<?, ?>>, Flow.Subscription {
+
+        private final AtomicLong requested = new AtomicLong();
+        private volatile MultiSubscriber<? super IncomingKafkaRecord<?, ?>> downstream;
+        private volatile Flow.Subscription upstream;
+        private volatile boolean cancelled;
+
+        // confined to the context
+        private final ArrayDeque<IncomingKafkaRecord<?, ?>> ready = new ArrayDeque<>();
+        private final Map<TopicPartition, DelayedPartition> delayed = new HashMap<>();
+        private final TimingWheel<DelayedPartition> wheel = new TimingWheel<>(tickMs, WHEEL_SIZE,
+                System.currentTimeMillis());
+        private long timerId = -1;
+        private long upstreamRequested;
+        private boolean done;
+        private Throwable failure;
+
+        private SchedulerSubscription(MultiSubscriber<? super IncomingKafkaRecord<?, ?>> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            runOnContext(this::drain);
+        }
+
+        @Override
+        public void onItem(IncomingKafkaRecord<?, ?> record) {
+            runOnContext(() -> {
+                upstreamRequested--;
+                if (!cancelled) {
+                    accept(record);
+                    drain();
+                }
+            });
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            runOnContext(() -> {
+                failure = throwable;
+                done = true;
+                drain();
+            });
+        }
+
+        @Override
+        public void onCompletion() {
+            runOnContext(() -> {
+                done = true;
+                drain();
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                throw new IllegalArgumentException("Invalid request");
+            }
+            Subscriptions.add(requested, n);
+            runOnContext(this::drain);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            runOnContext(this::clear);
+        }
+
+        void revoked(Collection<TopicPartition> partitions) {
+            runOnContext(() -> {
+                for (TopicPartition partition : partitions) {
+                    DelayedPartition removed = delayed.remove(partition);
+                    if (removed != null && removed.timeout != null) {
+                        removed.timeout.cancel();
+                    }
+                }
+                ready.removeIf(r -> partitions.contains(TopicPartitions.getTopicPartition(r)));
+                drain();
+            });
+        }
+
+        private void accept(IncomingKafkaRecord<?, ?> record) {
+            TopicPartition partition = TopicPartitions.getTopicPartition(record);
+            DelayedPartition waiting = delayed.get(partition);
+            if (waiting != null) {
+                // fetched before the partition was paused
+                waiting.records.add(record);
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long due = dueTime.applyAsLong(record);
+            if (due <= now) {
+                ready.add(record);
+                return;
+            }
+            waiting = new DelayedPartition(partition);
+            waiting.records.add(record);
+            delayed.put(partition, waiting);
+            consumer.pausePartitions(Set.of(partition))
+                    .subscribe().with(ignored -> {
+                    }, log::unableToPauseDelayedPartition);
+            schedule(waiting, due, now);
+        }
+
+        private void schedule(DelayedPartition partition, long due, long now) {
+            partition.timeout = wheel.schedule(partition, due, now);
+            if (partition.timeout == null) {
+                release(partition);
+            } else if (timerId < 0) {
+                timerId = vertx.setPeriodic(tickMs, ignored -> runOnContext(this::tick));
+            }
+        }
+
+        private void tick() {
+            wheel.advance(System.currentTimeMillis(), this::release);
+            if (wheel.isEmpty()) {
+                cancelTimer();
+            }
+            drain();
+        }
+
+        private void release(DelayedPartition partition) {
+            partition.timeout = null;
+            if (delayed.get(partition.partition) != partition) {
+                // revoked
+                return;
+            }
+            long now = System.currentTimeMillis();
+            IncomingKafkaRecord<?, ?> next;
+            while ((next = partition.records.peek()) != null && dueTime.applyAsLong(next) <= now) {
+                ready.add(partition.records.poll());
+            }
+            if (next == null) {
+                delayed.remove(partition.partition);
+                consumer.resumePartitions(Set.of(partition.partition))
+                        .subscribe().with(ignored -> {
+                        }, log::unableToResumeDelayedPartition);
+            } else {
+                schedule(partition, dueTime.applyAsLong(next), now);
+            }
+        }
+
+        private void drain() {
+            MultiSubscriber<? super IncomingKafkaRecord<?, ?>> subscriber = downstream;
+            if (cancelled || subscriber == null) {
+                return;
+            }
+            long emitted = 0;
+            long requests = requested.get();
+            while (emitted != requests && !ready.isEmpty() && !cancelled) {
+                subscriber.onItem(ready.poll());
+                emitted++;
+            }
+            if (emitted > 0) {
+                requested.addAndGet(-emitted);
+            }
+            if (done) {
+                if (failure != null || (ready.isEmpty() && delayed.isEmpty())) {
+                    downstream = null;
+                    clear();
+                    if (failure != null) {
+                        subscriber.onFailure(failure);
+                    } else {
+                        subscriber.onCompletion();
+                    }
+                }
+                return;
+            }
+            // request by chunks rather than one record at a time
+            long missing = maxReady - ready.size() - upstreamRequested;
+            if (!cancelled && upstream != null && missing >= Math.max(1, maxReady / 4)) {
+                upstreamRequested += missing;
+                upstream.request(missing);
+            }
+        }
+
+        private void clear() {
+            cancelTimer();
+            ready.clear();
+            delayed.values().forEach(p -> {
+                if (p.timeout != null) {
+                    p.timeout.cancel();
+                }
+            });
+            delayed.clear();
+        }
+
+        private void cancelTimer() {
+            if (timerId >= 0) {
+                vertx.cancelTimer(timerId);
+                timerId = -1;
+            }
+        }
+
+        private void runOnContext(Runnable runnable) {
+            VertxContext.runOnEventLoopContext(context, runnable);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -20,11 +21,13 @@ import jakarta.inject.Inject;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 
 import io.smallrye.common.annotation.Identifier;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
 import io.smallrye.reactive.messaging.kafka.KafkaCDIEvents;
+import io.smallrye.reactive.messaging.kafka.KafkaConnector;
 import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
 import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
 import io.smallrye.reactive.messaging.kafka.KafkaProducer;
@@ -65,6 +68,10 @@ public class KafkaDeadLetterQueue implements KafkaFailureHandler {
         @Inject
         KafkaCDIEvents kafkaCDIEvents;
 
+        @Inject
+        @Connector(KafkaConnector.CONNECTOR_NAME)
+        KafkaConnector connector;
+
         @Override
         public KafkaFailureHandler create(KafkaConnectorIncomingConfiguration config,
                 Vertx vertx,
@@ -94,9 +101,12 @@ public class KafkaDeadLetterQueue implements KafkaFailureHandler {
 
             var dlqSerializationHandler = new KafkaDeadLetterSerializationHandler<>();
             // fire producer event (e.g. bind metrics)
-            ReactiveKafkaProducer<Object, Object> producer = new ReactiveKafkaProducer<>(deadQueueProducerConfig,
-                    deadQueueTopic, 10000, false, null, dlqSerializationHandler, dlqSerializationHandler,
-                    (p, c) -> kafkaCDIEvents.producer().fire(p));
+            Function<Map<String, Object>, ReactiveKafkaProducer<Object, Object>> producerFactory = c -> new ReactiveKafkaProducer<>(
+                    c, deadQueueTopic, 10000, false, null, dlqSerializationHandler, dlqSerializationHandler,
+                    (p, ignored) -> kafkaCDIEvents.producer().fire(p));
+            KafkaProducer<Object, Object> producer = config.getDeadLetterQueueSharedProducer()
+                    ? connector.getProducerPool().acquire(deadQueueProducerConfig, producerFactory)
+                    : producerFactory.apply(deadQueueProducerConfig);
 
             return new KafkaDeadLetterQueue(config.getChannel(), deadQueueTopic, producer, reportFailure);
         }
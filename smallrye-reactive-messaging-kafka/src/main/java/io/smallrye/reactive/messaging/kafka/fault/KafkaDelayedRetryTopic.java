@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,6 +37,7 @@ import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 
 import io.smallrye.common.annotation.Identifier;
 import io.smallrye.mutiny.Multi;
@@ -43,6 +45,7 @@ import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.kafka.DeserializationFailureHandler;
 import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
 import io.smallrye.reactive.messaging.kafka.KafkaCDIEvents;
+import io.smallrye.reactive.messaging.kafka.KafkaConnector;
 import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
 import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
 import io.smallrye.reactive.messaging.kafka.KafkaProducer;
@@ -81,6 +84,10 @@ public class KafkaDelayedRetryTopic extends ContextHolder implements KafkaFailur
         @Inject
         KafkaCDIEvents kafkaCDIEvents;
 
+        @Inject
+        @Connector(KafkaConnector.CONNECTOR_NAME)
+        KafkaConnector connector;
+
         @Inject
         Instance<DeserializationFailureHandler<?>> failureHandlers;
 
@@ -121,9 +128,12 @@ public class KafkaDelayedRetryTopic extends ContextHolder implements KafkaFailur
 
             var dlqSerializationHandler = new KafkaDeadLetterSerializationHandler<>();
             // fire producer event (e.g. bind metrics)
-            ReactiveKafkaProducer<Object, Object> producer = new ReactiveKafkaProducer<>(delayedRetryTopicProducerConfig,
-                    retryTopics.get(0), 10000, false, null, dlqSerializationHandler, dlqSerializationHandler,
-                    (p, c) -> kafkaCDIEvents.producer().fire(p));
+            Function<Map<String, Object>, ReactiveKafkaProducer<Object, Object>> producerFactory = c -> new ReactiveKafkaProducer<>(
+                    c, retryTopics.get(0), 10000, false, null, dlqSerializationHandler, dlqSerializationHandler,
+                    (p, ignored) -> kafkaCDIEvents.producer().fire(p));
+            KafkaProducer<Object, Object> producer = config.getDeadLetterQueueSharedProducer()
+                    ? connector.getProducerPool().acquire(delayedRetryTopicProducerConfig, producerFactory)
+                    : producerFactory.apply(delayedRetryTopicProducerConfig);
 
             Map<String, Object> retryConsumerConfig = new HashMap<>(consumer.configuration());
             retryConsumerConfig.put(CLIENT_ID_CONFIG,
@@ -205,19 +215,21 @@ public class KafkaDelayedRetryTopic extends ContextHolder implements KafkaFailur
         consumer.setRebalanceListener(null, latestCommit);
         Multi<ConsumerRecord<?, ?>> subscribe = consumer.subscribe(new HashSet<>(retryTopics));
         latestCommit.capture(getContext());
-        return subscribe.onItem().transform(record -> new IncomingKafkaRecord<>(record, channel, -1,
-                latestCommit,
-                this,
-                configuration.getCloudEvents(),
-                configuration.getTracingEnabled())).onItem().transformToUni(record -> {
-                    incrementRetryHeader(record.getHeaders());
-                    Duration between = getDelay(record);
-                    if (between.isNegative()) {
-                        return Uni.createFrom().item(record);
-                    } else {
-                        return Uni.createFrom().item(record).onItem().delayIt().by(between);
-                    }
-                }).concatenate(false);
+        Multi<IncomingKafkaRecord<?, ?>> records = subscribe.onItem().transform(record -> {
+            IncomingKafkaRecord<?, ?> retried = new IncomingKafkaRecord<>(record, channel, -1,
+                    latestCommit,
+                    this,
+                    configuration.getCloudEvents(),
+                    configuration.getTracingEnabled());
+            incrementRetryHeader(retried.getHeaders());
+            return retried;
+        });
+        long minDelay = retryTopics.stream().mapToLong(KafkaDelayedRetryTopic::getDelayFromTopic).min().orElse(0);
+        int maxPollRecords = configuration.config()
+                .getOptionalValue(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.class).orElse(500);
+        return new DelayedRetryScheduler(consumer, vertx.getDelegate(), getContext().getDelegate(),
+                KafkaDelayedRetryTopic::getDueTime, DelayedRetryScheduler.tickFor(minDelay), maxPollRecords)
+                .schedule(records);
     }
 
     @Override
@@ -310,9 +322,8 @@ public class KafkaDelayedRetryTopic extends ContextHolder implements KafkaFailur
         consumer.close();
     }
 
-    private static Duration getDelay(IncomingKafkaRecord<?, ?> retried) {
-        int delay = getDelayFromTopic(retried.getTopic());
-        return Duration.between(Instant.now(), retried.getTimestamp().plus(delay, ChronoUnit.MILLIS));
+    private static long getDueTime(IncomingKafkaRecord<?, ?> retried) {
+        return retried.getTimestamp().toEpochMilli() + getDelayFromTopic(retried.getTopic());
     }
 
     // visible for testing
@@ -84,4 +84,22 @@ public interface KafkaExceptions {
 
     @Message(id = 18021, value = "Exactly-once processing is not supported on channels with multiple partitions `%s`")
     IllegalStateException exactlyOnceProcessingNotSupported(String channel);
+
+    @Message(id = 18022, value = "Unknown poll idle strategy for channel `%s`: `%s`, supported values are `fixed`, `exponential`, `long-poll` and `spin-then-park`")
+    IllegalArgumentException illegalArgumentUnknownPollIdleStrategy(String channel, String strategy);
+
+    @Message(id = 18023, value = "Invalid configuration for channel `%s`: `%s` must be positive or zero, got %d")
+    IllegalArgumentException illegalArgumentInvalidPollIdleConfiguration(String channel, String attribute, int value);
+
+    @Message(id = 18024, value = "Unable to decode the processing state: unsupported binary format %d")
+    IllegalArgumentException unsupportedProcessingStateFormat(int format);
+
+    @Message(id = 18025, value = "No binary processing state schema for state type `%s`, implement a custom schema")
+    IllegalArgumentException noProcessingStateSchema(Class<?> stateType);
+
+    @Message(id = 18026, value = "Invalid configuration for channel `%s`: `ordered-lanes-by` must be `partition` or `key`, got `%s`")
+    IllegalArgumentException illegalArgumentInvalidOrderedLanes(String channel, String orderedBy);
+
+    @Message(id = 18027, value = "Invalid configuration for channel `%s`: ordered lanes by key acknowledge the records out of order and cannot be used with the `%s` commit strategy, use the `throttled` or `checkpoint` commit strategy")
+    IllegalArgumentException illegalArgumentOrderedLanesCommitStrategy(String channel, String commitStrategy);
 }
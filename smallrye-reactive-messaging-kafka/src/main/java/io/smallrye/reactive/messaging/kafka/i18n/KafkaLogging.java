@@ -339,4 +339,24 @@ public interface KafkaLogging extends BasicLogger {
     @Message(id = 18280, value = "A message sent to channel `%s` has been nacked and won't be retried again. Configure `dead-letter-queue.topic` for sending the record to a dead letter topic")
     void delayedRetryNoDlq(String channel);
 
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 18281, value = "Records of channel `%s` are dispatched to %d lanes ordered by %s")
+    void orderedLanes(String channel, int lanes, String orderedBy);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 18282, value = "Transaction of emitter `%s` grouping %d records aborted, the consumer is reset to the last committed offsets")
+    void transactionGroupAborted(String emitter, int records, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 18283, value = "Unable to pause the delayed retry topic partition of a record waiting for its retry")
+    void unableToPauseDelayedPartition(@Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 18284, value = "Unable to resume the delayed retry topic partition of the retried records")
+    void unableToResumeDelayedPartition(@Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 18285, value = "Channel `%s` uses ordered lanes with the `%s` commit strategy, which does not wait for the records still processed by the lanes to commit an offset, use the `throttled` or `checkpoint` commit strategy")
+    void orderedLanesUnsafeCommitStrategy(String channel, String commitStrategy);
+
 }
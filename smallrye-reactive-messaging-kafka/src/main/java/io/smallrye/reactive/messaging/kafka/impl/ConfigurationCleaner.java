@@ -43,6 +43,11 @@ public class ConfigurationCleaner {
             "value-serialization-failure-handler",
             "merge",
             "interceptor-bean",
+            "sending-threads",
+            "direct-send",
+            "transaction-batch-size",
+            "transaction-batch-bytes",
+            "transaction-batch-linger-ms",
 
             // Remove most common attributes, may have been configured from the default config
             "key.deserializer",
@@ -66,6 +71,7 @@ public class ConfigurationCleaner {
             "dead-letter-queue.topic",
             "dead-letter-queue.key.serializer",
             "dead-letter-queue.value.serializer",
+            "dead-letter-queue.shared-producer",
             "partitions",
             "consumer-rebalance-listener.name",
             "key-deserialization-failure-handler",
@@ -74,6 +80,13 @@ public class ConfigurationCleaner {
             "graceful-shutdown",
             "poll-timeout",
             "pause-if-no-requests",
+            "bulk-drain-size",
+            "poll-idle-strategy",
+            "poll-idle-spins",
+            "poll-idle-min-delay",
+            "deserialization-threads",
+            "ordered-lanes",
+            "ordered-lanes-by",
 
             // Remove most common attributes, may have been configured from the default config
             "key.serializer",
@@ -0,0 +1,12 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class KafkaDeserializationThread extends Thread {
+
+    private static final AtomicInteger threadCount = new AtomicInteger(0);
+
+    public KafkaDeserializationThread(Runnable runnable) {
+        super(runnable, "smallrye-kafka-deserialization-thread-" + threadCount.getAndIncrement());
+    }
+}
@@ -0,0 +1,220 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Registers the metrics of the Kafka connector in the Micrometer global registry and in the MicroProfile Metrics base
+ * registry, when they are available and enabled.
+ * <p>
+ * Gauges are sampled by the registry, so nothing is recorded on the hot paths.
+ * Latencies are recorded in a {@link LatencyRecorder}, which only increments counters, and sampled by the registries.
+ * <p>
+ * As for the publisher metrics, the {@code smallrye.messaging.metrics.micrometer.enabled} and
+ * {@code smallrye.messaging.metrics.mp.enabled} properties disable the registration in each registry.
+ */
+public final class KafkaMetrics {
+
+    public static final String TAG_CHANNEL = "channel";
+    public static final String TAG_CLIENT_ID = "client.id";
+    public static final String TAG_TOPIC = "topic";
+    public static final String TAG_PARTITION = "partition";
+
+    private static final boolean MICROMETER_AVAILABLE = isClassAvailable("io.micrometer.core.instrument.Metrics");
+    private static final boolean MP_METRICS_AVAILABLE = isClassAvailable("org.eclipse.microprofile.metrics.MetricRegistry");
+
+    private KafkaMetrics() {
+        // avoid direct instantiation
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className, false, KafkaMetrics.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean isEnabled(String property) {
+        try {
+            return ConfigProvider.getConfig().getOptionalValue(property, Boolean.class).orElse(true);
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Registers a gauge.
+     * The Micrometer registry only keeps a weak reference to the given object, the MicroProfile Metrics registry keeps
+     * it until the gauge is unregistered.
+     *
+     * @param name the metric name
+     * @param description the metric description
+     * @param baseUnit the base unit, can be {@code null}
+     * @param object the object the gauge value is computed from
+     * @param function the function computing the gauge value
+     * @param tags the tags, as key/value pairs
+     * @return the action unregistering the gauge
+     */
+    public static <T> Runnable gauge(String name, String description, String baseUnit, T object,
+            ToDoubleFunction<T> function, String... tags) {
+        List<Runnable> registrations = new ArrayList<>(2);
+        if (MICROMETER_AVAILABLE && isEnabled("smallrye.messaging.metrics.micrometer.enabled")) {
+            registrations.add(Micrometer.gauge(name, description, baseUnit, object, function, tags));
+        }
+        if (MP_METRICS_AVAILABLE && isEnabled("smallrye.messaging.metrics.mp.enabled")) {
+            MicroProfile.gauge(registrations, name, description, baseUnit, object, function, tags);
+        }
+        return unregisterAll(registrations);
+    }
+
+    /**
+     * Creates a latency recorder and registers the metrics sampling it:
+     * a function timer and a {@code <name>.max} gauge in Micrometer, and the {@code <name>.count},
+     * {@code <name>.total} and {@code <name>.max} gauges in MicroProfile Metrics, the times being in seconds.
+     *
+     * @param name the metric name
+     * @param description the metric description
+     * @param tags the tags, as key/value pairs
+     * @return the recorder, {@code null} if no registry is available, so callers can skip the measurement
+     */
+    public static LatencyRecorder latency(String name, String description, String... tags) {
+        List<Runnable> registrations = new ArrayList<>(4);
+        LatencyRecorder recorder = new LatencyRecorder();
+        if (MICROMETER_AVAILABLE && isEnabled("smallrye.messaging.metrics.micrometer.enabled")) {
+            registrations.add(Micrometer.timer(name, description, recorder, tags));
+        }
+        if (MP_METRICS_AVAILABLE && isEnabled("smallrye.messaging.metrics.mp.enabled")) {
+            MicroProfile.gauge(registrations, name + ".count", description + " (count)", null,
+                    recorder, LatencyRecorder::count, tags);
+            MicroProfile.gauge(registrations, name + ".total", description + " (total)", "seconds",
+                    recorder, r -> r.totalTime(TimeUnit.SECONDS), tags);
+            MicroProfile.gauge(registrations, name + ".max", description + " (maximum)", "seconds",
+                    recorder, r -> r.max(TimeUnit.SECONDS), tags);
+        }
+        if (registrations.isEmpty()) {
+            return null;
+        }
+        recorder.unregisterWith(unregisterAll(registrations));
+        return recorder;
+    }
+
+    private static Runnable unregisterAll(List<Runnable> registrations) {
+        return () -> {
+            for (Runnable registration : registrations) {
+                try {
+                    registration.run();
+                } catch (RuntimeException e) {
+                    // the registry may already be gone, e.g. when the CDI container is shut down
+                }
+            }
+        };
+    }
+
+    /**
+     * Isolates the Micrometer types, so this class can be loaded without Micrometer.
+     */
+    private static class Micrometer {
+
+        static <T> Runnable gauge(String name, String description, String baseUnit, T object,
+                ToDoubleFunction<T> function, String... tags) {
+            Gauge gauge = Gauge.builder(name, object, function)
+                    .description(description)
+                    .baseUnit(baseUnit)
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            return () -> Metrics.globalRegistry.remove(gauge);
+        }
+
+        static Runnable timer(String name, String description, LatencyRecorder recorder, String... tags) {
+            Meter timer = FunctionTimer.builder(name, recorder, LatencyRecorder::count,
+                    r -> r.totalTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                    .description(description)
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            Meter max = Gauge.builder(name + ".max", recorder, r -> r.max(TimeUnit.SECONDS))
+                    .description(description + " (maximum)")
+                    .baseUnit("seconds")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            return () -> {
+                Metrics.globalRegistry.remove(timer);
+                Metrics.globalRegistry.remove(max);
+            };
+        }
+    }
+
+    /**
+     * Isolates the MicroProfile Metrics types, so this class can be loaded without MicroProfile Metrics.
+     */
+    private static class MicroProfile {
+
+        /**
+         * @return the base registry, as used by the publisher metrics, {@code null} if there is none
+         */
+        static MetricRegistry registry() {
+            try {
+                Instance<MetricRegistry> instance = CDI.current().select(MetricRegistry.class, BaseRegistry.INSTANCE);
+                return instance.isResolvable() ? instance.get() : null;
+            } catch (RuntimeException e) {
+                // no CDI container
+                return null;
+            }
+        }
+
+        /**
+         * Registers a gauge in the base registry, if any, and adds the action unregistering it to the given list.
+         */
+        static <T> void gauge(List<Runnable> registrations, String name, String description, String unit, T object,
+                ToDoubleFunction<T> function, String... tags) {
+            MetricRegistry registry = registry();
+            if (registry == null) {
+                return;
+            }
+            Tag[] mpTags = new Tag[tags.length / 2];
+            for (int i = 0; i < mpTags.length; i++) {
+                // tag names cannot contain dots
+                mpTags[i] = new Tag(tags[2 * i].replace('.', '_'), tags[2 * i + 1]);
+            }
+            Metadata metadata = Metadata.builder()
+                    .withName(name)
+                    .withDescription(description)
+                    .withUnit(unit == null ? MetricUnits.NONE : unit)
+                    .build();
+            registry.gauge(metadata, object, o -> function.applyAsDouble(o), mpTags);
+            MetricID id = new MetricID(name, mpTags);
+            registrations.add(() -> registry.remove(id));
+        }
+
+        @SuppressWarnings("serial")
+        private static final class BaseRegistry extends AnnotationLiteral<RegistryType> implements RegistryType {
+
+            static final BaseRegistry INSTANCE = new BaseRegistry();
+
+            @Override
+            public MetricRegistry.Type type() {
+                return MetricRegistry.Type.BASE;
+            }
+        }
+    }
+}
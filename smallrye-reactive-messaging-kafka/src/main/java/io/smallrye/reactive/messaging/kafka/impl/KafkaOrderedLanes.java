@@ -0,0 +1,367 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static io.smallrye.reactive.messaging.kafka.i18n.KafkaExceptions.ex;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.mutiny.operators.AbstractMulti;
+import io.smallrye.mutiny.subscription.MultiSubscriber;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
+import io.smallrye.reactive.messaging.kafka.fault.KafkaFailureHandler;
+import io.vertx.core.Context;
+
+/**
+ * Dispatches the records received by a consumer to ordered lanes, by partition or by record key.
+ * <p>
+ * A lane emits its next record only once the previous one has been acknowledged or negatively acknowledged, so the
+ * records of a lane are processed sequentially, while the records of different lanes can be processed concurrently
+ * downstream.
+ * The records emitted by the lanes are acknowledged out of order, the commit handler committing the offsets once all
+ * the previous records of a partition are processed.
+ * <p>
+ * Records must be created with the {@link #commitHandler(KafkaCommitHandler) commit} and
+ * {@link #failureHandler(KafkaFailureHandler) failure} handlers returned by this class, which release the lane of the
+ * record when it is acknowledged or negatively acknowledged.
+ *
+ * @param <K> the record key type
+ * @param <V> the record value type
+ */
+public class KafkaOrderedLanes<K, V> {
+
+    public static final String BY_PARTITION = "partition";
+    public static final String BY_KEY = "key";
+
+    private final int lanes;
+    private final boolean byKey;
+    private final int maxBuffered;
+    private final Context context;
+
+    private volatile LaneSubscription current;
+
+    public KafkaOrderedLanes(String channel, int lanes, String orderedBy, int maxBuffered, Context context) {
+        if (!BY_PARTITION.equals(orderedBy) && !BY_KEY.equals(orderedBy)) {
+            throw ex.illegalArgumentInvalidOrderedLanes(channel, orderedBy);
+        }
+        this.lanes = lanes;
+        this.byKey = BY_KEY.equals(orderedBy);
+        this.maxBuffered = Math.max(lanes, maxBuffered);
+        this.context = context;
+    }
+
+    /**
+     * @param upstream the records, in the order they have been polled
+     * @return the records, emitted by the lanes
+     */
+    public Multi<IncomingKafkaRecord<K, V>> dispatch(Multi<IncomingKafkaRecord<K, V>> upstream) {
+        return new AbstractMulti<>() {
+            @Override
+            public void subscribe(MultiSubscriber<? super IncomingKafkaRecord<K, V>> subscriber) {
+                LaneSubscription subscription = new LaneSubscription(subscriber);
+                current = subscription;
+                upstream.subscribe().withSubscriber(subscription);
+            }
+        };
+    }
+
+    public KafkaCommitHandler commitHandler(KafkaCommitHandler delegate) {
+        return new KafkaCommitHandler() {
+            @Override
+            public <K1, V1> Uni<Void> handle(IncomingKafkaRecord<K1, V1> record) {
+                release(record);
+                return delegate.handle(record);
+            }
+        };
+    }
+
+    public KafkaFailureHandler failureHandler(KafkaFailureHandler delegate) {
+        return new KafkaFailureHandler() {
+            @Override
+            public <K1, V1> Uni<Void> handle(IncomingKafkaRecord<K1, V1> record, Throwable reason, Metadata metadata) {
+                release(record);
+                return delegate.handle(record, reason, metadata);
+            }
+        };
+    }
+
+    /**
+     * Drops the records of the revoked partitions waiting in the lanes, as the RecordQueue does for the records not
+     * dispatched yet.
+     *
+     * @param partitions the revoked partitions
+     */
+    public void removeRecordsFromTopicPartitions(Collection<TopicPartition> partitions) {
+        LaneSubscription subscription = current;
+        if (subscription != null && !partitions.isEmpty()) {
+            subscription.remove(partitions);
+        }
+    }
+
+    private void release(IncomingKafkaRecord<?, ?> record) {
+        LaneSubscription subscription = current;
+        if (subscription != null) {
+            subscription.release(record);
+        }
+    }
+
+    int laneOf(IncomingKafkaRecord<?, ?> record) {
+        Object key = byKey ? record.getKey() : null;
+        int hash;
+        if (key == null) {
+            // consecutive partitions of a topic go to consecutive lanes
+            hash = record.getTopic().hashCode() + record.getPartition();
+        } else if (key instanceof byte[]) {
+            hash = Arrays.hashCode((byte[]) key);
+        } else {
+            hash = key.hashCode();
+        }
+        return Utils.toPositive(hash) % lanes;
+    }
+
+    private class LaneSubscription implements MultiSubscriber<IncomingKafkaRecord<K, V>>, Flow.Subscription {
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private volatile MultiSubscriber<? super IncomingKafkaRecord<K, V>> downstream;
+        private volatile Flow.Subscription upstream;
+
+        // guarded by this
+        private final ArrayDeque<IncomingKafkaRecord<K, V>>[] queues;
+        private final IncomingKafkaRecord<?, ?>[] inFlight;
+        /**
+         * Lanes having a record to emit, each lane being at most once in the ring.
+         */
+        private final int[] ready;
+        private final boolean[] isReady;
+        private int readyHead;
+        private int readySize;
+        private int buffered;
+        private long upstreamRequested;
+        private boolean done;
+        private Throwable failure;
+        private boolean cancelled;
+
+        @SuppressWarnings("unchecked")
+        private LaneSubscription(MultiSubscriber<? super IncomingKafkaRecord<K, V>> downstream) {
+            this.downstream = downstream;
+            this.queues = new ArrayDeque[lanes];
+            for (int i = 0; i < lanes; i++) {
+                queues[i] = new ArrayDeque<>();
+            }
+            this.inFlight = new IncomingKafkaRecord[lanes];
+            this.ready = new int[lanes];
+            this.isReady = new boolean[lanes];
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            synchronized (this) {
+                upstreamRequested = maxBuffered;
+            }
+            downstream.onSubscribe(this);
+            subscription.request(maxBuffered);
+        }
+
+        @Override
+        public void onItem(IncomingKafkaRecord<K, V> record) {
+            int lane = laneOf(record);
+            synchronized (this) {
+                upstreamRequested--;
+                buffered++;
+                queues[lane].add(record);
+                if (inFlight[lane] == null) {
+                    markReady(lane);
+                }
+            }
+            dispatch();
+        }
+
+        @Override
+        public void onFailure(Throwable failure) {
+            synchronized (this) {
+                this.failure = failure;
+                this.done = true;
+            }
+            dispatch();
+        }
+
+        @Override
+        public void onCompletion() {
+            synchronized (this) {
+                this.done = true;
+            }
+            dispatch();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                throw new IllegalArgumentException("Invalid request");
+            }
+            Subscriptions.add(requested, n);
+            dispatch();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                for (ArrayDeque<IncomingKafkaRecord<K, V>> queue : queues) {
+                    queue.clear();
+                }
+                Arrays.fill(inFlight, null);
+                Arrays.fill(isReady, false);
+                readySize = 0;
+                buffered = 0;
+            }
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        void release(IncomingKafkaRecord<?, ?> record) {
+            int lane = laneOf(record);
+            synchronized (this) {
+                // a record can be acknowledged multiple times, for example after a nack with the ignore strategy
+                if (inFlight[lane] != record) {
+                    return;
+                }
+                inFlight[lane] = null;
+                if (!queues[lane].isEmpty()) {
+                    markReady(lane);
+                }
+            }
+            dispatch();
+        }
+
+        void remove(Collection<TopicPartition> partitions) {
+            synchronized (this) {
+                for (ArrayDeque<IncomingKafkaRecord<K, V>> queue : queues) {
+                    int size = queue.size();
+                    queue.removeIf(r -> partitions.contains(TopicPartitions.getTopicPartition(r)));
+                    buffered -= size - queue.size();
+                }
+            }
+            dispatch();
+        }
+
+        // guarded by this
+        private void markReady(int lane) {
+            if (isReady[lane]) {
+                return;
+            }
+            isReady[lane] = true;
+            ready[(readyHead + readySize) % lanes] = lane;
+            readySize++;
+        }
+
+        void dispatch() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            if (Context.isOnEventLoopThread() && context == io.vertx.core.Vertx.currentContext()) {
+                run();
+            } else {
+                context.runOnContext(ignored -> run());
+            }
+        }
+
+        private void run() {
+            int missed = 1;
+            for (;;) {
+                long requests = requested.get();
+                long emitted = 0;
+                while (emitted != requests) {
+                    IncomingKafkaRecord<K, V> record;
+                    synchronized (this) {
+                        record = cancelled ? null : next();
+                    }
+                    if (record == null) {
+                        break;
+                    }
+                    downstream.onItem(record);
+                    emitted++;
+                }
+                if (emitted > 0) {
+                    requested.addAndGet(-emitted);
+                }
+                long replenish = 0;
+                synchronized (this) {
+                    long missing = maxBuffered - buffered - upstreamRequested;
+                    // request by chunks rather than one record at a time
+                    if (!cancelled && !done && missing >= Math.max(1, maxBuffered / 4)) {
+                        upstreamRequested += missing;
+                        replenish = missing;
+                    }
+                }
+                if (replenish > 0) {
+                    upstream.request(replenish);
+                }
+                if (terminate()) {
+                    return;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+        // guarded by this
+        private IncomingKafkaRecord<K, V> next() {
+            while (readySize > 0) {
+                int lane = ready[readyHead];
+                readyHead = (readyHead + 1) % lanes;
+                readySize--;
+                isReady[lane] = false;
+                // the queue may have been emptied by a revocation
+                IncomingKafkaRecord<K, V> record = queues[lane].poll();
+                if (record != null) {
+                    inFlight[lane] = record;
+                    buffered--;
+                    return record;
+                }
+            }
+            return null;
+        }
+
+        private boolean terminate() {
+            Throwable failure;
+            synchronized (this) {
+                if (cancelled || !done || (this.failure == null && buffered > 0)) {
+                    return cancelled;
+                }
+                failure = this.failure;
+                cancelled = true;
+            }
+            MultiSubscriber<? super IncomingKafkaRecord<K, V>> subscriber = downstream;
+            downstream = null;
+            if (failure != null) {
+                subscriber.onFailure(failure);
+            } else {
+                subscriber.onCompletion();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.KafkaProducer;
+
+/**
+ * Shares Kafka producers between the channels having the same effective producer configuration.
+ * <p>
+ * Producers are keyed by their configuration, except the client id, and the properties only meaningful to consumers,
+ * such as the group id, as the configuration is often derived from the one of a consumer. The shared producer uses the
+ * {@code kafka-shared-producer-$index} client id.
+ * <p>
+ * Each call to {@link #acquire(Map, Function)} returns a handle on the shared producer, closing the handle releases the
+ * producer, which is closed when the last handle is closed. Transactional producers are never shared.
+ */
+public class KafkaProducerPool {
+
+    public static final String CLIENT_ID_PREFIX = "kafka-shared-producer-";
+
+    private static final Set<String> PRODUCER_CONFIGS = ProducerConfig.configNames();
+    private static final Set<String> CONSUMER_CONFIGS = ConsumerConfig.configNames();
+
+    private final AtomicInteger index = new AtomicInteger();
+    // guarded by this
+    private final Map<Map<String, Object>, Entry> producers = new HashMap<>();
+
+    /**
+     * Gets a handle on the producer shared for the given configuration, creating it if needed.
+     *
+     * @param configuration the producer configuration
+     * @param factory creates the producer from the configuration to use, with the client id of the shared producer
+     * @return the handle on the shared producer, to close once the producer is no longer used
+     */
+    public KafkaProducer<Object, Object> acquire(Map<String, Object> configuration,
+            Function<Map<String, Object>, ReactiveKafkaProducer<Object, Object>> factory) {
+        if (configuration.containsKey(ProducerConfig.TRANSACTIONAL_ID_CONFIG)) {
+            return factory.apply(configuration);
+        }
+        Map<String, Object> key = key(configuration);
+        Entry entry;
+        synchronized (this) {
+            entry = producers.get(key);
+            if (entry == null) {
+                Map<String, Object> shared = new HashMap<>(key);
+                shared.put(ProducerConfig.CLIENT_ID_CONFIG, CLIENT_ID_PREFIX + index.getAndIncrement());
+                entry = new Entry(key, factory.apply(shared));
+                producers.put(key, entry);
+            }
+            entry.references++;
+        }
+        return new PooledProducer(entry);
+    }
+
+    /**
+     * @return the number of shared producers
+     */
+    public synchronized int size() {
+        return producers.size();
+    }
+
+    /**
+     * Closes the producers still shared, for example when the connector terminates.
+     */
+    public void close() {
+        List<Entry> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(producers.values());
+            producers.clear();
+        }
+        entries.forEach(e -> e.producer.close());
+    }
+
+    private void release(Entry entry) {
+        synchronized (this) {
+            if (--entry.references > 0 || producers.get(entry.key) != entry) {
+                return;
+            }
+            producers.remove(entry.key);
+        }
+        entry.producer.close();
+    }
+
+    static Map<String, Object> key(Map<String, Object> configuration) {
+        Map<String, Object> key = new HashMap<>(configuration);
+        key.remove(ProducerConfig.CLIENT_ID_CONFIG);
+        key.keySet().removeIf(k -> CONSUMER_CONFIGS.contains(k) && !PRODUCER_CONFIGS.contains(k));
+        return key;
+    }
+
+    private static class Entry {
+        private final Map<String, Object> key;
+        private final ReactiveKafkaProducer<Object, Object> producer;
+        private int references;
+
+        private Entry(Map<String, Object> key, ReactiveKafkaProducer<Object, Object> producer) {
+            this.key = key;
+            this.producer = producer;
+        }
+    }
+
+    private class PooledProducer implements KafkaProducer<Object, Object> {
+
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private PooledProducer(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Map<String, ?> configuration() {
+            return entry.producer.configuration();
+        }
+
+        @Override
+        public <R> Uni<R> runOnSendingThread(Function<Producer<Object, Object>, R> action) {
+            return entry.producer.runOnSendingThread(action);
+        }
+
+        @Override
+        public Uni<Void> runOnSendingThread(Consumer<Producer<Object, Object>> action) {
+            return entry.producer.runOnSendingThread(action);
+        }
+
+        @Override
+        public Uni<RecordMetadata> send(ProducerRecord<Object, Object> record) {
+            return entry.producer.send(record);
+        }
+
+        @Override
+        public Uni<Void> flush() {
+            return entry.producer.flush();
+        }
+
+        @Override
+        public Uni<List<PartitionInfo>> partitionsFor(String topic) {
+            return entry.producer.partitionsFor(topic);
+        }
+
+        @Override
+        public Uni<Void> initTransactions() {
+            return entry.producer.initTransactions();
+        }
+
+        @Override
+        public Uni<Void> beginTransaction() {
+            return entry.producer.beginTransaction();
+        }
+
+        @Override
+        public Uni<Void> commitTransaction() {
+            return entry.producer.commitTransaction();
+        }
+
+        @Override
+        public Uni<Void> abortTransaction() {
+            return entry.producer.abortTransaction();
+        }
+
+        @Override
+        public Uni<Void> sendOffsetsToTransaction(Map<TopicPartition, OffsetAndMetadata> offsets,
+                ConsumerGroupMetadata groupMetadata) {
+            return entry.producer.sendOffsetsToTransaction(offsets, groupMetadata);
+        }
+
+        @Override
+        public Producer<Object, Object> unwrap() {
+            return entry.producer.unwrap();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(entry);
+            }
+        }
+    }
+}
@@ -35,7 +35,7 @@ public class KafkaRecordBatchStream<K, V> extends AbstractMulti<ConsumerRecords<
     public void subscribe(MultiSubscriber<? super ConsumerRecords<K, V>> subscriber) {
         // Enqueue ConsumerRecords by batches, max poll records is considered 1
         KafkaRecordStreamSubscription<K, V, ConsumerRecords<K, V>> subscription = new KafkaRecordStreamSubscription<>(
-                client, config, subscriber, context, 1, (cr, q) -> q.offer(cr));
+                client, config, subscriber, context, 1, (cr, q) -> q.offer(cr), null);
         subscriptions.add(subscription);
         subscriber.onSubscribe(subscription);
     }
@@ -51,6 +51,10 @@ public class KafkaRecordBatchStream<K, V> extends AbstractMulti<ConsumerRecords<
     private void removeFromQueue(KafkaRecordStreamSubscription<K, V, ConsumerRecords<K, V>> subscription,
             Collection<TopicPartition> revokedPartitions) {
         subscription.rewriteQueue(cr -> {
+            if (Collections.disjoint(cr.partitions(), revokedPartitions)) {
+                // keep the batch as it is
+                return cr;
+            }
             Map<TopicPartition, List<ConsumerRecord<K, V>>> records = new HashMap<>();
             cr.partitions()
                     .stream()
@@ -0,0 +1,288 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecordMetadata;
+import io.smallrye.reactive.messaging.kafka.impl.ce.DefaultIncomingKafkaCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.impl.ce.KafkaCloudEventHelper;
+
+/**
+ * Metadata of an incoming Kafka record, backed by the {@link ConsumerRecord}.
+ * <p>
+ * The Kafka record metadata, its deprecated alias and the binary Cloud Event metadata are created on first access, so
+ * receiving a record only allocates this view.
+ * Metadata added afterwards are kept in a small array, and derived views share the metadata created on demand.
+ * <p>
+ * The metadata are iterated in this order: Kafka record metadata, deprecated Kafka record metadata, Cloud Event
+ * metadata, context metadata, then added metadata.
+ *
+ * @param <K> the record key type
+ * @param <T> the record value type
+ */
+@SuppressWarnings("deprecation")
+public final class KafkaRecordMetadataView<K, T> extends Metadata {
+
+    private static final Object[] NO_ITEMS = new Object[0];
+
+    private static final int KAFKA = 0;
+    private static final int DEPRECATED_KAFKA = 1;
+    private static final int CLOUD_EVENT = 2;
+    private static final int CONTEXT = 3;
+    private static final int SLOTS = 4;
+
+    /**
+     * The view created with the record, holding the metadata created on demand.
+     */
+    private final KafkaRecordMetadataView<K, T> root;
+    private final ConsumerRecord<K, T> record;
+    private final String channel;
+    private final int index;
+    private final boolean binaryCloudEvent;
+    private final Object context;
+    /**
+     * Bitset of the slots removed or replaced by added metadata.
+     */
+    private final int hidden;
+    private final Object[] items;
+
+    private volatile io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata<K, T> kafkaMetadata;
+    private volatile IncomingKafkaRecordMetadata<K, T> deprecatedKafkaMetadata;
+    private volatile IncomingKafkaCloudEventMetadata<K, T> cloudEventMetadata;
+
+    /**
+     * @param record the record
+     * @param channel the channel name
+     * @param index the consumer index
+     * @param cloudEventMetadata the structured Cloud Event metadata, created with the payload, {@code null} if none
+     * @param binaryCloudEvent whether the record is a binary Cloud Event
+     * @param context the context metadata, {@code null} if none
+     */
+    public KafkaRecordMetadataView(ConsumerRecord<K, T> record, String channel, int index,
+            IncomingKafkaCloudEventMetadata<K, T> cloudEventMetadata, boolean binaryCloudEvent, Object context) {
+        this.root = this;
+        this.record = record;
+        this.channel = channel;
+        this.index = index;
+        this.cloudEventMetadata = cloudEventMetadata;
+        this.binaryCloudEvent = binaryCloudEvent;
+        this.context = context;
+        this.hidden = 0;
+        this.items = NO_ITEMS;
+    }
+
+    private KafkaRecordMetadataView(KafkaRecordMetadataView<K, T> from, int hidden, Object[] items) {
+        this.root = from.root;
+        this.record = from.record;
+        this.channel = from.channel;
+        this.index = from.index;
+        this.binaryCloudEvent = from.binaryCloudEvent;
+        this.context = from.context;
+        this.hidden = hidden;
+        this.items = items;
+    }
+
+    public ConsumerRecord<K, T> getRecord() {
+        return record;
+    }
+
+    /**
+     * @return the Kafka record metadata, created on first access
+     */
+    public io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata<K, T> kafkaMetadata() {
+        io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata<K, T> metadata = root.kafkaMetadata;
+        if (metadata == null) {
+            synchronized (root) {
+                metadata = root.kafkaMetadata;
+                if (metadata == null) {
+                    metadata = new io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata<>(record,
+                            channel, index);
+                    root.kafkaMetadata = metadata;
+                }
+            }
+        }
+        return metadata;
+    }
+
+    private IncomingKafkaRecordMetadata<K, T> deprecatedKafkaMetadata() {
+        IncomingKafkaRecordMetadata<K, T> metadata = root.deprecatedKafkaMetadata;
+        if (metadata == null) {
+            synchronized (root) {
+                metadata = root.deprecatedKafkaMetadata;
+                if (metadata == null) {
+                    metadata = new IncomingKafkaRecordMetadata<>(record, channel, index);
+                    root.deprecatedKafkaMetadata = metadata;
+                }
+            }
+        }
+        return metadata;
+    }
+
+    private IncomingKafkaCloudEventMetadata<K, T> cloudEventMetadata() {
+        IncomingKafkaCloudEventMetadata<K, T> metadata = root.cloudEventMetadata;
+        if (metadata == null && binaryCloudEvent) {
+            synchronized (root) {
+                metadata = root.cloudEventMetadata;
+                if (metadata == null) {
+                    metadata = KafkaCloudEventHelper.createFromBinaryCloudEvent(record);
+                    root.cloudEventMetadata = metadata;
+                }
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * @return the class of the metadata in the slot without creating it, {@code null} if the slot is empty
+     */
+    private Class<?> slotClass(int slot) {
+        if ((hidden & (1 << slot)) != 0) {
+            return null;
+        }
+        switch (slot) {
+            case KAFKA:
+                return io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata.class;
+            case DEPRECATED_KAFKA:
+                return IncomingKafkaRecordMetadata.class;
+            case CLOUD_EVENT:
+                IncomingKafkaCloudEventMetadata<K, T> structured = root.cloudEventMetadata;
+                if (structured != null) {
+                    return structured.getClass();
+                }
+                return binaryCloudEvent ? DefaultIncomingKafkaCloudEventMetadata.class : null;
+            default:
+                return context == null ? null : context.getClass();
+        }
+    }
+
+    private Object slot(int slot) {
+        switch (slot) {
+            case KAFKA:
+                return kafkaMetadata();
+            case DEPRECATED_KAFKA:
+                return deprecatedKafkaMetadata();
+            case CLOUD_EVENT:
+                return cloudEventMetadata();
+            default:
+                return context;
+        }
+    }
+
+    @Override
+    public <M> Optional<M> get(Class<M> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("`clazz` must not be `null`");
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            if (slotClass(i) == clazz) {
+                return Optional.of(clazz.cast(slot(i)));
+            }
+        }
+        for (Object item : items) {
+            if (item.getClass() == clazz) {
+                return Optional.of(clazz.cast(item));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the first metadata that is an instance of the given class, like {@code Message#getMetadata(Class)}, only
+     * creating the metadata of matching types.
+     *
+     * @param clazz the class of the metadata to retrieve
+     * @return an {@link Optional} containing the metadata, empty if none
+     */
+    @SuppressWarnings("unchecked")
+    public <M> Optional<M> find(Class<? extends M> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("`clazz` must not be `null`");
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            Class<?> slotClass = slotClass(i);
+            if (slotClass != null && clazz.isAssignableFrom(slotClass)) {
+                return Optional.of((M) slot(i));
+            }
+        }
+        for (Object item : items) {
+            if (clazz.isInstance(item)) {
+                return Optional.of((M) item);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Metadata with(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("`item` must not be `null`");
+        }
+        Class<?> clazz = item.getClass();
+        int hidden = this.hidden | slotMask(clazz);
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].getClass() == clazz) {
+                Object[] copy = items.clone();
+                copy[i] = item;
+                return new KafkaRecordMetadataView<>(this, hidden, copy);
+            }
+        }
+        Object[] copy = new Object[items.length + 1];
+        System.arraycopy(items, 0, copy, 0, items.length);
+        copy[items.length] = item;
+        return new KafkaRecordMetadataView<>(this, hidden, copy);
+    }
+
+    @Override
+    public Metadata without(Class<?> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("`clazz` must not be `null`");
+        }
+        int hidden = this.hidden | slotMask(clazz);
+        Object[] copy = items;
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].getClass() == clazz) {
+                copy = new Object[items.length - 1];
+                System.arraycopy(items, 0, copy, 0, i);
+                System.arraycopy(items, i + 1, copy, i, items.length - i - 1);
+                break;
+            }
+        }
+        return new KafkaRecordMetadataView<>(this, hidden, copy);
+    }
+
+    private int slotMask(Class<?> clazz) {
+        int mask = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            if (slotClass(i) == clazz) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public Metadata copy() {
+        return new KafkaRecordMetadataView<>(this, hidden, items);
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        List<Object> all = new ArrayList<>(SLOTS + items.length);
+        for (int i = 0; i < SLOTS; i++) {
+            if (slotClass(i) != null) {
+                all.add(slot(i));
+            }
+        }
+        for (Object item : items) {
+            all.add(item);
+        }
+        return all.iterator();
+    }
+
+}
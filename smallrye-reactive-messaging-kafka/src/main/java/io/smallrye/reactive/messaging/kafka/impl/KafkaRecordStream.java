@@ -2,13 +2,11 @@ package io.smallrye.reactive.messaging.kafka.impl;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.TopicPartition;
 
 import io.smallrye.mutiny.operators.AbstractMulti;
@@ -36,38 +34,28 @@ public class KafkaRecordStream<K, V> extends AbstractMulti<ConsumerRecord<K, V>>
         // Kafka also defaults to 500, but doesn't have a constant for it
         int maxPollRecords = config.getMaxPollRecords();
         KafkaRecordStreamSubscription<K, V, ConsumerRecord<K, V>> subscription = new KafkaRecordStreamSubscription<>(
-                client, config, subscriber, context, maxPollRecords, (cr, q) -> q.addAll(cr));
+                client, config, subscriber, context, maxPollRecords, KafkaRecordStream::enqueueByPartition,
+                cr -> TopicPartitions.getTopicPartition(cr.topic(), cr.partition()));
         subscriptions.add(subscription);
         subscriber.onSubscribe(subscription);
     }
 
+    /**
+     * Enqueues the records partition by partition, in the order of {@link ConsumerRecords#iterator()}, so the queue
+     * indexes them by partition.
+     */
+    private static <K, V> void enqueueByPartition(ConsumerRecords<K, V> records,
+            RecordQueue<ConsumerRecord<K, V>> queue) {
+        for (TopicPartition partition : records.partitions()) {
+            queue.addAll(partition, records.records(partition));
+        }
+    }
+
     void removeFromQueueRecordsFromTopicPartitions(Collection<TopicPartition> revokedPartitions) {
         if (revokedPartitions.isEmpty()) {
             return;
         }
-        Map<String, Set<Integer>> revoked = new HashMap<>();
-        revokedPartitions
-                .forEach(topicPartition -> revoked
-                        .computeIfAbsent(topicPartition.topic(), t -> new HashSet<>())
-                        .add(topicPartition.partition()));
-
-        subscriptions
-                .forEach(s -> this.removeFromQueue(s, revoked));
-    }
-
-    private void removeFromQueue(
-            KafkaRecordStreamSubscription<K, V, ConsumerRecord<K, V>> subscription,
-            Map<String, Set<Integer>> revoked) {
-        subscription
-                .rewriteQueue(
-                        cr -> {
-                            Set<Integer> revokedPartitions = revoked.get(cr.topic());
-                            if (revokedPartitions != null && revokedPartitions.contains(cr.partition())) {
-                                // remove from the queue
-                                return null;
-                            } else {
-                                return cr;
-                            }
-                        });
+        // only the records of the revoked partitions are visited
+        subscriptions.forEach(s -> s.removePartitions(revokedPartitions));
     }
 }
@@ -3,14 +3,18 @@ package io.smallrye.reactive.messaging.kafka.impl;
 import static io.smallrye.reactive.messaging.kafka.i18n.KafkaLogging.log;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.Subscriptions;
@@ -35,6 +39,7 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
     private static final int STATE_CANCELLED = 3;
 
     private final ReactiveKafkaConsumer<K, V> client;
+    private final PollIdleStrategy idleStrategy;
     private final String clientId;
     private volatile MultiSubscriber<? super T> downstream;
     private final Context context;
@@ -60,16 +65,25 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
     private final int maxQueueSize;
     private final int halfMaxQueueSize;
     private final RecordQueue<T> queue;
+    private final Runnable queueSizeGauge;
     private final long retries;
 
+    /**
+     * Reusable array receiving the records drained from the queue, {@code null} if bulk draining is disabled.
+     * Only accessed from {@link #run()}.
+     */
+    private final Object[] drainBuffer;
+
     public KafkaRecordStreamSubscription(
             ReactiveKafkaConsumer<K, V> client,
             RuntimeKafkaSourceConfiguration config,
             MultiSubscriber<? super T> subscriber,
             Context context,
             int maxPollRecords,
-            BiConsumer<ConsumerRecords<K, V>, RecordQueue<T>> enqueueFunction) {
+            BiConsumer<ConsumerRecords<K, V>, RecordQueue<T>> enqueueFunction,
+            Function<? super T, TopicPartition> partitionOf) {
         this.client = client;
+        this.idleStrategy = client.getPollIdleStrategy();
         this.clientId = client.get(ConsumerConfig.CLIENT_ID_CONFIG);
         this.channel = config.getChannel();
         this.pauseResumeEnabled = config.getPauseIfNoRequests();
@@ -78,8 +92,14 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
         this.maxQueueSize = maxPollRecords * config.getMaxQueueSizeFactor();
         this.halfMaxQueueSize = (maxPollRecords == 1 ? 0 : maxPollRecords);
         // we can exceed maxQueueSize by at most 1 maxPollRecords
-        this.queue = new RecordQueue<>(maxQueueSize + maxPollRecords);
+        this.queue = new RecordQueue<>(maxQueueSize + maxPollRecords, partitionOf);
+        this.queueSizeGauge = KafkaMetrics.gauge("kafka.consumer.queue.size",
+                "The number of records polled and not dispatched yet", "records",
+                queue, RecordQueue::size,
+                KafkaMetrics.TAG_CHANNEL, channel,
+                KafkaMetrics.TAG_CLIENT_ID, String.valueOf(clientId));
         this.retries = config.getRetryAttempts() == -1 ? Long.MAX_VALUE : config.getRetryAttempts();
+        this.drainBuffer = config.getBulkDrainSize() > 0 ? new Object[config.getBulkDrainSize()] : null;
         this.pollUni = client.poll()
                 .onItem().transform(cr -> {
                     if (cr.isEmpty()) {
@@ -131,9 +151,17 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
 
         pollUni.subscribe().with(cr -> {
             if (cr == null) {
-                client.executeWithDelay(this::poll, Duration.ofMillis(2))
-                        .subscribe().with(this::emptyConsumer, this::report);
+                long delay = idleStrategy.onEmptyPoll(client.isPaused());
+                if (delay == 0) {
+                    client.runOnPollingThread(c -> {
+                        poll();
+                    }).subscribe().with(this::emptyConsumer, this::report);
+                } else {
+                    client.executeWithDelay(this::poll, Duration.ofMillis(delay))
+                            .subscribe().with(this::emptyConsumer, this::report);
+                }
             } else {
+                idleStrategy.onRecords();
                 dispatch();
                 client.runOnPollingThread(c -> {
                     poll();
@@ -188,15 +216,19 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
                 return;
             }
 
-            while (emitted != requests) {
-                T item = q.poll();
+            if (drainBuffer != null) {
+                emitted = drainInBulk(q, requests);
+            } else {
+                while (emitted != requests) {
+                    T item = q.poll();
 
-                if (item == null || isCancelled()) {
-                    break;
-                }
+                    if (item == null || isCancelled()) {
+                        break;
+                    }
 
-                downstream.onItem(item);
-                emitted++;
+                    downstream.onItem(item);
+                    emitted++;
+                }
             }
 
             requests = requested.addAndGet(-emitted);
@@ -214,6 +246,35 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
         }
     }
 
+    /**
+     * Takes up to {@code min(requests, drainBuffer.length)} records from the queue at once,
+     * and emits them downstream, until the requests are fulfilled or the queue is empty.
+     *
+     * @return the number of emitted records
+     */
+    @SuppressWarnings("unchecked")
+    private long drainInBulk(RecordQueue<T> q, long requests) {
+        final Object[] buffer = drainBuffer;
+        long emitted = 0;
+        while (emitted != requests) {
+            int count = q.drainTo(buffer, (int) Math.min(requests - emitted, buffer.length));
+            if (count == 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                T item = (T) buffer[i];
+                buffer[i] = null;
+                if (isCancelled()) {
+                    Arrays.fill(buffer, i, count, null);
+                    return emitted;
+                }
+                downstream.onItem(item);
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
     @Override
     public void cancel() {
         while (true) {
@@ -224,6 +285,7 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
             if (this.state.compareAndSet(state, STATE_CANCELLED)) {
                 if (wip.getAndIncrement() == 0) {
                     // nothing was currently dispatched, clearing the queue.
+                    queueSizeGauge.run();
                     client.close();
                     queue.clear();
                     downstream = null;
@@ -236,6 +298,7 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
     boolean isCancelled() {
         if (state.get() == STATE_CANCELLED) {
             queue.clear();
+            queueSizeGauge.run();
             client.close();
             downstream = null;
             return true;
@@ -255,4 +318,14 @@ public class KafkaRecordStreamSubscription<K, V, T> implements Flow.Subscription
     void rewriteQueue(UnaryOperator<T> mapFunction) {
         queue.rewriteQueue(mapFunction);
     }
+
+    /**
+     * Removes the records of the given partitions from the queue.
+     * Only supported if the subscription has been created with a partition function.
+     *
+     * @param partitions the revoked partitions
+     */
+    void removePartitions(Collection<TopicPartition> partitions) {
+        queue.removePartitions(partitions);
+    }
 }
@@ -5,6 +5,7 @@ import static io.smallrye.reactive.messaging.kafka.i18n.KafkaExceptions.ex;
 import java.util.concurrent.Flow.Processor;
 import java.util.concurrent.Flow.Subscriber;
 import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -12,6 +13,7 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.mutiny.subscription.SerializedSubscriber;
 
 class KafkaSenderProcessor
         implements Processor<Message<?>, Message<?>>, Subscription {
@@ -21,6 +23,10 @@ class KafkaSenderProcessor
     private final Function<Message<?>, Uni<Void>> send;
     private final AtomicReference<Subscription> subscription = new AtomicReference<>();
     private final AtomicReference<Subscriber<? super Message<?>>> downstream = new AtomicReference<>();
+    /**
+     * Number of messages whose write has not completed yet.
+     */
+    private final AtomicLong inFlight = new AtomicLong();
 
     public KafkaSenderProcessor(long inflights, boolean waitForCompletion, Function<Message<?>, Uni<Void>> send) {
         this.inflights = inflights;
@@ -31,11 +37,13 @@ class KafkaSenderProcessor
     @Override
     public void subscribe(
             Subscriber<? super Message<?>> subscriber) {
-        if (!downstream.compareAndSet(null, subscriber)) {
+        // sends complete on the producer I/O thread, or on the sending lanes when they fail early
+        SerializedSubscriber<Message<?>> serialized = new SerializedSubscriber<>(subscriber);
+        if (!downstream.compareAndSet(null, serialized)) {
             Subscriptions.fail(subscriber, ex.illegalStateOnlyOneSubscriber());
         } else {
             if (subscription.get() != null) {
-                subscriber.onSubscribe(this);
+                serialized.onSubscribe(this);
             }
         }
     }
@@ -57,19 +65,31 @@ class KafkaSenderProcessor
 
     @Override
     public void onNext(Message<?> message) {
+        inFlight.incrementAndGet();
         if (waitForCompletion) {
             send.apply(message)
                     .subscribe().with(
-                            x -> requestNext(message),
-                            this::onError);
+                            x -> {
+                                inFlight.decrementAndGet();
+                                requestNext(message);
+                            },
+                            this::onSendFailure);
         } else {
             send.apply(message)
-                    .subscribe().with(x -> {
-                    }, this::onError);
+                    .subscribe().with(x -> inFlight.decrementAndGet(), this::onSendFailure);
             requestNext(message);
         }
     }
 
+    private void onSendFailure(Throwable throwable) {
+        inFlight.decrementAndGet();
+        onError(throwable);
+    }
+
+    long inFlight() {
+        return inFlight.get();
+    }
+
     @Override
     public void request(long l) {
         if (l != Long.MAX_VALUE) {
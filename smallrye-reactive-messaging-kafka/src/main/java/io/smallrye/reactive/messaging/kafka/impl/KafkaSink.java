@@ -72,9 +72,16 @@ public class KafkaSink {
     private final boolean isHealthReadinessEnabled;
     private final String channel;
 
+    private final KafkaConnectorOutgoingConfiguration configuration;
     private final RuntimeKafkaSinkConfiguration runtimeConfiguration;
 
     private final KafkaOpenTelemetryInstrumenter kafkaInstrumenter;
+    /**
+     * Records the time between the sending of a record and its acknowledgement by the broker, {@code null} if no
+     * metric registry is available.
+     */
+    private final LatencyRecorder sendLatency;
+    private final Runnable inFlightGauge;
 
     public KafkaSink(KafkaConnectorOutgoingConfiguration config, KafkaCDIEvents kafkaCDIEvents,
             Instance<SerializationFailureHandler<?>> serializationFailureHandlers,
@@ -100,6 +107,7 @@ public class KafkaSink {
         this.mandatoryCloudEventAttributeSet = config.getCloudEventsType().isPresent()
                 && config.getCloudEventsSource().isPresent();
         this.deliveryTimeoutMs = getDeliveryTimeoutMs(client.configuration());
+        this.configuration = config;
         this.runtimeConfiguration = RuntimeKafkaSinkConfiguration.buildFromConfiguration(config);
 
         // Validate the serializer for structured Cloud Events
@@ -124,8 +132,17 @@ public class KafkaSink {
         if (requests <= 0) {
             requests = Long.MAX_VALUE;
         }
+        String clientId = String.valueOf(client.configuration().get(ProducerConfig.CLIENT_ID_CONFIG));
+        this.sendLatency = KafkaMetrics.latency("kafka.producer.send.latency",
+                "The time between the sending of a record and its acknowledgement by the broker",
+                KafkaMetrics.TAG_CHANNEL, channel, KafkaMetrics.TAG_CLIENT_ID, clientId);
+
         this.processor = new KafkaSenderProcessor(requests, waitForWriteCompletion,
                 writeMessageToKafka());
+        this.inFlightGauge = KafkaMetrics.gauge("kafka.producer.in.flight",
+                "The number of messages being written and not acknowledged or nacked yet", "messages",
+                processor, KafkaSenderProcessor::inFlight,
+                KafkaMetrics.TAG_CHANNEL, channel, KafkaMetrics.TAG_CLIENT_ID, clientId);
         this.subscriber = MultiUtils.via(processor, m -> m.onFailure().invoke(f -> {
             log.unableToDispatch(f);
             reportFailure(f);
@@ -220,8 +237,12 @@ public class KafkaSink {
 
                 @SuppressWarnings({ "unchecked", "rawtypes" })
                 Uni<RecordMetadata> sendUni = client.send((ProducerRecord) record);
+                long sentAt = sendLatency == null ? 0 : System.nanoTime();
 
                 Uni<Void> uni = sendUni.onItem().transformToUni(recordMetadata -> {
+                    if (sendLatency != null) {
+                        sendLatency.record(System.nanoTime() - sentAt);
+                    }
                     OutgoingMessageMetadata.setResultOnMessage(message, recordMetadata);
                     log.successfullyToTopic(message, recordMetadata.topic(), recordMetadata.partition(),
                             recordMetadata.offset());
@@ -380,12 +401,20 @@ public class KafkaSink {
         if (health != null) {
             health.close();
         }
+        inFlightGauge.run();
+        if (sendLatency != null) {
+            sendLatency.close();
+        }
     }
 
     public String getChannel() {
         return channel;
     }
 
+    public KafkaConnectorOutgoingConfiguration getConfiguration() {
+        return configuration;
+    }
+
     public KafkaProducer<?, ?> getProducer() {
         return client;
     }
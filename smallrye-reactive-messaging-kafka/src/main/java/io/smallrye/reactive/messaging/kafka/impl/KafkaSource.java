@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -74,6 +75,11 @@ public class KafkaSource<K, V> {
     private final EventLoopContext context;
 
     private final KafkaOpenTelemetryInstrumenter kafkaInstrumenter;
+    /**
+     * Records the time between the timestamp of the records and their acknowledgement, {@code null} if no metric
+     * registry is available.
+     */
+    private final LatencyRecorder ackLatency;
 
     public KafkaSource(Vertx vertx,
             String consumerGroup,
@@ -113,6 +119,10 @@ public class KafkaSource<K, V> {
         // fire consumer event (e.g. bind metrics)
         client = new ReactiveKafkaConsumer<>(config, deserializationFailureHandlers, consumerGroup, index,
                 this::reportFailure, getContext().getDelegate(), c -> kafkaCDIEvents.consumer().fire(c));
+        ackLatency = KafkaMetrics.latency("kafka.consumer.record.ack.latency",
+                "The time between the timestamp of a record and its acknowledgement",
+                KafkaMetrics.TAG_CHANNEL, config.getChannel(),
+                KafkaMetrics.TAG_CLIENT_ID, client.get(ConsumerConfig.CLIENT_ID_CONFIG));
 
         String commitStrategy = config
                 .getCommitStrategy()
@@ -163,9 +173,34 @@ public class KafkaSource<K, V> {
                 reportFailure(t, false);
             });
 
+            KafkaOrderedLanes<K, V> orderedLanes = null;
+            KafkaCommitHandler recordCommitHandler = recordingAckLatency(commitHandler);
+            KafkaFailureHandler recordFailureHandler = failureHandler;
+            if (config.getOrderedLanes() > 0) {
+                if (KafkaCommitHandler.Strategy.LATEST.equals(commitStrategy)
+                        || KafkaCommitHandler.Strategy.IGNORE.equals(commitStrategy)) {
+                    // these strategies may commit past the records still in flight on other lanes
+                    if (KafkaOrderedLanes.BY_KEY.equals(config.getOrderedLanesBy())) {
+                        throw ex.illegalArgumentOrderedLanesCommitStrategy(channel, commitStrategy);
+                    }
+                    log.orderedLanesUnsafeCommitStrategy(channel, commitStrategy);
+                }
+                orderedLanes = new KafkaOrderedLanes<>(channel, config.getOrderedLanes(), config.getOrderedLanesBy(),
+                        config.config().getOptionalValue(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.class)
+                                .orElse(500),
+                        context);
+                // acknowledging a record releases its lane
+                recordCommitHandler = orderedLanes.commitHandler(recordCommitHandler);
+                recordFailureHandler = orderedLanes.failureHandler(failureHandler);
+                client.setRevokedPartitionsHandler(orderedLanes::removeRecordsFromTopicPartitions);
+                log.orderedLanes(channel, config.getOrderedLanes(), config.getOrderedLanesBy());
+            }
+            KafkaCommitHandler laneCommitHandler = recordCommitHandler;
+            KafkaFailureHandler laneFailureHandler = recordFailureHandler;
+
             Multi<IncomingKafkaRecord<K, V>> incomingMulti = multi.onItem().transformToUni(rec -> {
-                IncomingKafkaRecord<K, V> record = new IncomingKafkaRecord<>(rec, channel, index, commitHandler,
-                        failureHandler, isCloudEventEnabled, isTracingEnabled);
+                IncomingKafkaRecord<K, V> record = new IncomingKafkaRecord<>(rec, channel, index, laneCommitHandler,
+                        laneFailureHandler, isCloudEventEnabled, isTracingEnabled);
                 if ((failureHandler instanceof KafkaDeadLetterQueue)
                         && rec.headers() != null
                         && rec.headers().lastHeader(DESERIALIZATION_FAILURE_DLQ) != null) {
@@ -179,6 +214,9 @@ public class KafkaSource<K, V> {
                 return commitHandler.received(record);
             }).concatenate();
 
+            if (orderedLanes != null) {
+                incomingMulti = orderedLanes.dispatch(incomingMulti);
+            }
             if (config.getTracingEnabled()) {
                 incomingMulti = incomingMulti.onItem().invoke(record -> incomingTrace(record, false));
             }
@@ -208,9 +246,10 @@ public class KafkaSource<K, V> {
                 reportFailure(t, false);
             });
 
+            KafkaCommitHandler batchCommitHandler = recordingAckLatency(commitHandler);
             Multi<IncomingKafkaRecordBatch<K, V>> incomingMulti = multi.onItem().transformToUni(rec -> {
                 IncomingKafkaRecordBatch<K, V> batch = new IncomingKafkaRecordBatch<>(rec, channel, index,
-                        commitHandler, failureHandler, isCloudEventEnabled, isTracingEnabled);
+                        batchCommitHandler, failureHandler, isCloudEventEnabled, isTracingEnabled);
                 return receiveBatchRecord(batch);
             }).concatenate();
 
@@ -383,6 +422,30 @@ public class KafkaSource<K, V> {
         if (health != null) {
             health.close();
         }
+        if (ackLatency != null) {
+            ackLatency.close();
+        }
+    }
+
+    /**
+     * Records the acknowledgement latency before delegating to the given commit handler, when metrics are available.
+     * Only used as the commit handler of the records, the source keeps calling the other methods on the delegate.
+     */
+    private KafkaCommitHandler recordingAckLatency(KafkaCommitHandler delegate) {
+        LatencyRecorder recorder = ackLatency;
+        if (recorder == null) {
+            return delegate;
+        }
+        return new KafkaCommitHandler() {
+            @Override
+            public <K1, V1> Uni<Void> handle(IncomingKafkaRecord<K1, V1> record) {
+                long timestamp = record.getTimestampMillis();
+                if (timestamp >= 0) {
+                    recorder.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - timestamp));
+                }
+                return delegate.handle(record);
+            }
+        };
     }
 
     private void grace(Duration duration) {
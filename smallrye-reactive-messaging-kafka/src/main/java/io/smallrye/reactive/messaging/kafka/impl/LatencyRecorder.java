@@ -0,0 +1,75 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies on the hot paths, without allocating, so they can be sampled by the metric registries.
+ * <p>
+ * The recorder keeps the count and the total time of the recorded latencies, and the maximum over the last one to two
+ * minutes, rotated when it is read.
+ * Instances are created by {@link KafkaMetrics#latency(String, String, String...)}.
+ */
+public final class LatencyRecorder {
+
+    private static final long MAX_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    private long previousMax;
+    private long windowStart = System.nanoTime();
+
+    private volatile Runnable unregister = () -> {
+    };
+
+    LatencyRecorder() {
+        // created by KafkaMetrics
+    }
+
+    /**
+     * Records a latency.
+     * Negative values, which can come from clock differences between hosts, are recorded as 0.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long latency = Math.max(0, nanos);
+        count.increment();
+        totalNanos.add(latency);
+        long current = max.get();
+        while (latency > current && !max.compareAndSet(current, latency)) {
+            current = max.get();
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double totalTime(TimeUnit unit) {
+        return (double) totalNanos.sum() / unit.toNanos(1);
+    }
+
+    public synchronized double max(TimeUnit unit) {
+        long now = System.nanoTime();
+        if (now - windowStart >= MAX_WINDOW_NANOS) {
+            previousMax = max.getAndSet(0);
+            windowStart = now;
+        }
+        return (double) Math.max(previousMax, max.get()) / unit.toNanos(1);
+    }
+
+    void unregisterWith(Runnable unregister) {
+        this.unregister = unregister;
+    }
+
+    /**
+     * Removes the metrics sampling this recorder from the registries.
+     */
+    public void close() {
+        unregister.run();
+    }
+}
@@ -0,0 +1,244 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the offsets of the records received from a topic-partition and not committed yet, and whether they have
+ * been acknowledged.
+ * <p>
+ * Offsets are kept in ascending order in a ring of primitive longs, with the reception timestamps in a parallel array
+ * and the acknowledgement flags in a bitset, so tracking a record does not allocate.
+ * Records are generally received in order: received offsets are appended to the ring, and the slot of an acknowledged
+ * offset is computed from its distance to the first offset of the window.
+ * When the partition contains gaps (compacted topics, transaction markers...), the slot is found by binary search.
+ * The ring grows when full, so the memory used is proportional to the number of records in the window, not to the
+ * range of offsets.
+ * <p>
+ * This class is not thread-safe, it must be confined to a single thread.
+ * Only {@link #unacknowledged()} can be read from any thread.
+ */
+public class OffsetWindow {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private long[] offsets;
+    private long[] receivedAt;
+    private long[] acknowledged;
+    private int mask;
+
+    /**
+     * The slot of the first offset of the window.
+     */
+    private int head;
+    private int size;
+
+    /**
+     * Only written by the owning thread.
+     */
+    private volatile long unacknowledged;
+
+    public OffsetWindow(int capacityHint) {
+        int capacity = capacityHint <= MIN_CAPACITY ? MIN_CAPACITY : Integer.highestOneBit(capacityHint - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.offsets = new long[capacity];
+        this.receivedAt = new long[capacity];
+        this.acknowledged = new long[capacity >>> 6];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds a received offset to the window.
+     * If the offset is already in the window, the record has been received again: if it has been acknowledged in the
+     * meantime, it waits for a new acknowledgement.
+     *
+     * @param offset the offset
+     * @param timestamp the reception timestamp
+     */
+    public void received(long offset, long timestamp) {
+        if (size == 0 || offset > offsets[slot(size - 1)]) {
+            ensureCapacity();
+            set(slot(size), offset, timestamp);
+            size++;
+            unacknowledged++;
+            return;
+        }
+        int index = indexOf(offset);
+        if (index >= 0) {
+            int slot = slot(index);
+            if (isAcknowledged(slot)) {
+                clearAcknowledged(slot);
+                receivedAt[slot] = timestamp;
+                unacknowledged++;
+            }
+        } else {
+            insert(-(index + 1), offset, timestamp);
+        }
+    }
+
+    /**
+     * Marks an offset as acknowledged.
+     *
+     * @param offset the offset
+     * @return {@code true} if the offset is in the window and was not acknowledged yet, {@code false} otherwise
+     */
+    public boolean acknowledged(long offset) {
+        int index = indexOf(offset);
+        if (index < 0) {
+            return false;
+        }
+        int slot = slot(index);
+        if (isAcknowledged(slot)) {
+            return false;
+        }
+        acknowledged[slot >>> 6] |= 1L << slot;
+        unacknowledged--;
+        return true;
+    }
+
+    /**
+     * Removes the acknowledged offsets at the beginning of the window, up to the first offset not acknowledged yet.
+     *
+     * @return the largest removed offset, {@code -1} if none
+     */
+    public long removeAcknowledged() {
+        long largest = -1;
+        while (size > 0 && isAcknowledged(head)) {
+            clearAcknowledged(head);
+            largest = offsets[head];
+            head = (head + 1) & mask;
+            size--;
+        }
+        return largest;
+    }
+
+    /**
+     * @return the first offset of the window, {@code -1} if the window is empty
+     */
+    public long firstOffset() {
+        return size == 0 ? -1 : offsets[head];
+    }
+
+    /**
+     * @return the reception timestamp of the first offset of the window, {@code -1} if the window is empty
+     */
+    public long firstReceivedAt() {
+        return size == 0 ? -1 : receivedAt[head];
+    }
+
+    /**
+     * @return the number of offsets in the window, acknowledged or not
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of offsets in the window not acknowledged yet
+     */
+    public long unacknowledged() {
+        return unacknowledged;
+    }
+
+    public void clear() {
+        Arrays.fill(acknowledged, 0L);
+        head = 0;
+        size = 0;
+        unacknowledged = 0;
+    }
+
+    private int slot(int index) {
+        return (head + index) & mask;
+    }
+
+    private boolean isAcknowledged(int slot) {
+        return (acknowledged[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void clearAcknowledged(int slot) {
+        acknowledged[slot >>> 6] &= ~(1L << slot);
+    }
+
+    private void set(int slot, long offset, long timestamp) {
+        offsets[slot] = offset;
+        receivedAt[slot] = timestamp;
+        clearAcknowledged(slot);
+    }
+
+    /**
+     * @return the index of the offset in the window, or {@code -(insertion point) - 1} if the offset is not in the
+     *         window
+     */
+    private int indexOf(long offset) {
+        if (size == 0 || offset < offsets[head]) {
+            return -1;
+        }
+        long distance = offset - offsets[head];
+        if (distance < size && offsets[slot((int) distance)] == offset) {
+            // no gap before this offset
+            return (int) distance;
+        }
+        // offsets are distinct and ascending, so the offset cannot be further than its distance to the first one
+        int low = 0;
+        int high = (int) Math.min(size - 1, distance);
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = offsets[slot(mid)];
+            if (value < offset) {
+                low = mid + 1;
+            } else if (value > offset) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Inserts an offset in the middle of the window, only happens when records are received again after a seek.
+     */
+    private void insert(int index, long offset, long timestamp) {
+        ensureCapacity();
+        for (int i = size; i > index; i--) {
+            int to = slot(i);
+            int from = slot(i - 1);
+            offsets[to] = offsets[from];
+            receivedAt[to] = receivedAt[from];
+            if (isAcknowledged(from)) {
+                acknowledged[to >>> 6] |= 1L << to;
+            } else {
+                clearAcknowledged(to);
+            }
+        }
+        set(slot(index), offset, timestamp);
+        size++;
+        unacknowledged++;
+    }
+
+    private void ensureCapacity() {
+        if (size <= mask) {
+            return;
+        }
+        long[] previousOffsets = offsets;
+        long[] previousReceivedAt = receivedAt;
+        long[] previousAcknowledged = acknowledged;
+        int previousMask = mask;
+        allocate(offsets.length << 1);
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) & previousMask;
+            offsets[i] = previousOffsets[from];
+            receivedAt[i] = previousReceivedAt[from];
+            if ((previousAcknowledged[from >>> 6] & (1L << from)) != 0) {
+                acknowledged[i >>> 6] |= 1L << i;
+            }
+        }
+        head = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializes the records polled as raw {@code byte[]} by the Kafka client, splitting them in chunks decoded in
+ * parallel on a pool of worker threads, the polling thread decoding the first chunk.
+ * <p>
+ * Each decoded record keeps its position within its partition, so the order of the records is preserved.
+ * The key and value deserializers are shared by the worker threads, so they must be thread-safe.
+ * If a record cannot be deserialized, the positions of the consumer are reset to the first record of each partition of
+ * the batch, as the Kafka client does when it fails to deserialize a record, and the failure is propagated.
+ *
+ * @param <K> the record key type
+ * @param <V> the record value type
+ */
+public class ParallelRecordDeserializer<K, V> {
+
+    /**
+     * Minimum number of records decoded by a task, below which dispatching to the pool costs more than it saves.
+     */
+    static final int MIN_CHUNK_SIZE = 16;
+
+    private final Deserializer<K> keyDeserializer;
+    private final Deserializer<V> valueDeserializer;
+    private final int threads;
+    private final ExecutorService workers;
+
+    public ParallelRecordDeserializer(Deserializer<K> keyDeserializer, Deserializer<V> valueDeserializer, int threads) {
+        this.keyDeserializer = keyDeserializer;
+        this.valueDeserializer = valueDeserializer;
+        this.threads = threads;
+        this.workers = Executors.newFixedThreadPool(threads, KafkaDeserializationThread::new);
+    }
+
+    /**
+     * Deserializes the given records, called on the polling thread.
+     *
+     * @param consumer the consumer which polled the records, used to reset its positions on failure
+     * @param raw the polled records
+     * @return the deserialized records
+     */
+    @SuppressWarnings("unchecked")
+    public ConsumerRecords<K, V> deserialize(Consumer<?, ?> consumer, ConsumerRecords<byte[], byte[]> raw) {
+        int count = raw.count();
+        if (count == 0) {
+            return (ConsumerRecords<K, V>) ConsumerRecords.EMPTY;
+        }
+        // the polling thread takes part in the decoding
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (count + threads) / (threads + 1));
+        Map<TopicPartition, ConsumerRecord<K, V>[]> decoded = new LinkedHashMap<>();
+        List<Chunk> chunks = new ArrayList<>();
+        for (TopicPartition partition : raw.partitions()) {
+            List<ConsumerRecord<byte[], byte[]>> records = raw.records(partition);
+            ConsumerRecord<K, V>[] target = new ConsumerRecord[records.size()];
+            decoded.put(partition, target);
+            for (int from = 0; from < records.size(); from += chunkSize) {
+                chunks.add(new Chunk(records, target, from, Math.min(records.size(), from + chunkSize)));
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<>(chunks.size() - 1);
+        try {
+            for (int i = 1; i < chunks.size(); i++) {
+                futures.add(workers.submit(chunks.get(i)));
+            }
+            chunks.get(0).run();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            futures.forEach(f -> f.cancel(false));
+            rewind(consumer, raw);
+            throw failure(e);
+        }
+
+        Map<TopicPartition, List<ConsumerRecord<K, V>>> records = new LinkedHashMap<>();
+        decoded.forEach((partition, target) -> records.put(partition, Arrays.asList(target)));
+        return new ConsumerRecords<>(records);
+    }
+
+    private static void rewind(Consumer<?, ?> consumer, ConsumerRecords<byte[], byte[]> raw) {
+        for (TopicPartition partition : raw.partitions()) {
+            consumer.seek(partition, raw.records(partition).get(0).offset());
+        }
+    }
+
+    private static RuntimeException failure(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new InterruptException((InterruptedException) e);
+        }
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        if (cause instanceof KafkaException) {
+            return (KafkaException) cause;
+        }
+        if (cause instanceof CancellationException) {
+            return (CancellationException) cause;
+        }
+        return new KafkaException(cause);
+    }
+
+    public void close() {
+        workers.shutdown();
+    }
+
+    private class Chunk implements Runnable {
+
+        private final List<ConsumerRecord<byte[], byte[]>> records;
+        private final ConsumerRecord<K, V>[] target;
+        private final int from;
+        private final int to;
+
+        private Chunk(List<ConsumerRecord<byte[], byte[]>> records, ConsumerRecord<K, V>[] target, int from, int to) {
+            this.records = records;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void run() {
+            for (int i = from; i < to; i++) {
+                ConsumerRecord<byte[], byte[]> record = records.get(i);
+                // like the Kafka client, null keys and values are not passed to the deserializers
+                K key = record.key() == null ? null
+                        : keyDeserializer.deserialize(record.topic(), record.headers(), record.key());
+                V value = record.value() == null ? null
+                        : valueDeserializer.deserialize(record.topic(), record.headers(), record.value());
+                target[i] = new ConsumerRecord<>(record.topic(), record.partition(), record.offset(),
+                        record.timestamp(), record.timestampType(), record.serializedKeySize(),
+                        record.serializedValueSize(), key, value, record.headers(), record.leaderEpoch());
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static io.smallrye.reactive.messaging.kafka.i18n.KafkaExceptions.ex;
+
+/**
+ * Computes how long the polling loop waits before polling again after a poll returning no records.
+ * <p>
+ * Available strategies:
+ * <ul>
+ * <li>{@code fixed}: waits {@code poll-idle-min-delay} ms after each empty poll.</li>
+ * <li>{@code exponential}: starts with {@code poll-idle-min-delay} ms and doubles the delay after each consecutive
+ * empty poll, up to {@code poll-timeout}.</li>
+ * <li>{@code long-poll}: polls again immediately, relying on {@code poll-timeout} to wait for records.</li>
+ * <li>{@code spin-then-park}: polls again immediately for {@code poll-idle-spins} consecutive empty polls, then
+ * waits {@code poll-timeout} ms between polls.</li>
+ * </ul>
+ * While the consumer is paused, polls return immediately without records, and the polling loop only waits for the
+ * application to request more records.
+ * In this case the {@code poll-idle-min-delay} is always used, so the consumer resumes promptly, with at least 1 ms
+ * so the polling thread does not spin.
+ * <p>
+ * Instances are only accessed from the polling thread, the current idle interval can be read from any thread.
+ */
+public abstract class PollIdleStrategy {
+
+    public static final String FIXED = "fixed";
+    public static final String EXPONENTIAL = "exponential";
+    public static final String LONG_POLL = "long-poll";
+    public static final String SPIN_THEN_PARK = "spin-then-park";
+
+    protected final long minDelay;
+    protected final long maxDelay;
+
+    /**
+     * The delay applied after the last poll, in milliseconds.
+     */
+    private volatile long idleInterval;
+
+    protected PollIdleStrategy(long minDelay, long maxDelay) {
+        this.minDelay = minDelay;
+        this.maxDelay = Math.max(minDelay, maxDelay);
+    }
+
+    public static PollIdleStrategy create(String channel, String name, int minDelay, int pollTimeout, int spins) {
+        if (minDelay < 0) {
+            throw ex.illegalArgumentInvalidPollIdleConfiguration(channel, "poll-idle-min-delay", minDelay);
+        }
+        if (spins < 0) {
+            throw ex.illegalArgumentInvalidPollIdleConfiguration(channel, "poll-idle-spins", spins);
+        }
+        switch (name) {
+            case FIXED:
+                return new Fixed(minDelay);
+            case EXPONENTIAL:
+                return new Exponential(minDelay, pollTimeout);
+            case LONG_POLL:
+                return new LongPoll(minDelay, pollTimeout);
+            case SPIN_THEN_PARK:
+                return new SpinThenPark(minDelay, pollTimeout, spins);
+            default:
+                throw ex.illegalArgumentUnknownPollIdleStrategy(channel, name);
+        }
+    }
+
+    /**
+     * Called after a poll returning no records.
+     *
+     * @param paused whether the consumer is paused
+     * @return the delay in milliseconds before the next poll, {@code 0} to poll immediately
+     */
+    public long onEmptyPoll(boolean paused) {
+        // paused polls do not wait for records, so always wait a bit before polling again
+        long delay = paused ? Math.max(1, minDelay) : nextDelay();
+        idleInterval = delay;
+        return delay;
+    }
+
+    /**
+     * Called after a poll returning records.
+     */
+    public void onRecords() {
+        if (idleInterval != 0) {
+            idleInterval = 0;
+        }
+        reset();
+    }
+
+    /**
+     * @return the delay in milliseconds applied after the last poll, {@code 0} if records were received or the
+     *         polling loop polls again immediately
+     */
+    public long getIdleInterval() {
+        return idleInterval;
+    }
+
+    protected abstract long nextDelay();
+
+    protected void reset() {
+        // no state by default
+    }
+
+    static class Fixed extends PollIdleStrategy {
+
+        Fixed(long delay) {
+            super(delay, delay);
+        }
+
+        @Override
+        protected long nextDelay() {
+            return minDelay;
+        }
+    }
+
+    static class Exponential extends PollIdleStrategy {
+
+        private long current;
+
+        Exponential(long minDelay, long maxDelay) {
+            super(minDelay, maxDelay);
+        }
+
+        @Override
+        protected long nextDelay() {
+            if (current == 0) {
+                current = Math.max(1, minDelay);
+            } else {
+                current = Math.min(maxDelay, current * 2);
+            }
+            return current;
+        }
+
+        @Override
+        protected void reset() {
+            current = 0;
+        }
+    }
+
+    static class LongPoll extends PollIdleStrategy {
+
+        LongPoll(long minDelay, long maxDelay) {
+            super(minDelay, maxDelay);
+        }
+
+        @Override
+        protected long nextDelay() {
+            return 0;
+        }
+    }
+
+    static class SpinThenPark extends PollIdleStrategy {
+
+        private final int spins;
+        private int emptyPolls;
+
+        SpinThenPark(long minDelay, long maxDelay, int spins) {
+            super(minDelay, maxDelay);
+            this.spins = spins;
+        }
+
+        @Override
+        protected long nextDelay() {
+            if (emptyPolls < spins) {
+                emptyPolls++;
+                return 0;
+            }
+            return maxDelay;
+        }
+
+        @Override
+        protected void reset() {
+            emptyPolls = 0;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -22,6 +23,7 @@ import jakarta.enterprise.inject.literal.NamedLiteral;
 import org.apache.kafka.clients.consumer.*;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.Deserializer;
 
 import io.smallrye.common.annotation.CheckReturnValue;
@@ -57,6 +59,27 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
     private final KafkaRecordStream<K, V> stream;
     private final KafkaRecordBatchStream<K, V> batchStream;
     private final Map<String, Object> kafkaConfiguration;
+    private final PollIdleStrategy pollIdleStrategy;
+    private final Runnable pollIdleIntervalGauge;
+    private final Runnable pausedGauge;
+    /**
+     * Records the latency of the commits, {@code null} if no metric registry is available.
+     */
+    private final LatencyRecorder commitLatency;
+    /**
+     * Deserializes the polled records on worker threads, {@code null} if the Kafka client deserializes them.
+     */
+    private final ParallelRecordDeserializer<K, V> recordDeserializer;
+    /**
+     * Drops the records of revoked partitions buffered after the record queues, {@code null} if none.
+     */
+    private volatile RevokedPartitionsHandler revokedPartitionsHandler;
+    /**
+     * Partitions paused by {@link #pausePartitions(Collection)}, kept paused by {@link #resume()}.
+     * They are resumed by {@link #resetToLastCommittedPositions()} and when revoked, as their buffered records are
+     * dropped.
+     */
+    private final Set<TopicPartition> delayedPartitions = ConcurrentHashMap.newKeySet();
 
     public ReactiveKafkaConsumer(KafkaConnectorIncomingConfiguration config,
             Instance<DeserializationFailureHandler<?>> deserializationFailureHandlers,
@@ -107,8 +130,27 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
         valueDeserializer.configure(kafkaConfiguration, false);
 
         this.pollTimeout = Duration.ofMillis(pollTimeout);
+        this.pollIdleStrategy = PollIdleStrategy.create(config.getChannel(), config.getPollIdleStrategy(),
+                config.getPollIdleMinDelay(), pollTimeout, config.getPollIdleSpins());
+        this.pollIdleIntervalGauge = KafkaMetrics.gauge("kafka.consumer.poll.idle.interval",
+                "The delay applied by the polling loop after the last poll", "milliseconds",
+                pollIdleStrategy, PollIdleStrategy::getIdleInterval,
+                KafkaMetrics.TAG_CHANNEL, config.getChannel(),
+                KafkaMetrics.TAG_CLIENT_ID, String.valueOf(kafkaConfiguration.get(ConsumerConfig.CLIENT_ID_CONFIG)));
+        this.pausedGauge = KafkaMetrics.gauge("kafka.consumer.paused",
+                "Whether the consumer is paused because the records are not consumed fast enough (1) or not (0)", null,
+                paused, p -> p.get() ? 1 : 0,
+                KafkaMetrics.TAG_CHANNEL, config.getChannel(),
+                KafkaMetrics.TAG_CLIENT_ID, String.valueOf(kafkaConfiguration.get(ConsumerConfig.CLIENT_ID_CONFIG)));
+        this.commitLatency = KafkaMetrics.latency("kafka.consumer.commit.latency",
+                "The time between the request of an offset commit and its completion",
+                KafkaMetrics.TAG_CHANNEL, config.getChannel(),
+                KafkaMetrics.TAG_CLIENT_ID, String.valueOf(kafkaConfiguration.get(ConsumerConfig.CLIENT_ID_CONFIG)));
 
         kafkaWorker = Executors.newSingleThreadScheduledExecutor(KafkaPollingThread::new);
+        recordDeserializer = config.getDeserializationThreads() > 0
+                ? new ParallelRecordDeserializer<>(keyDeserializer, valueDeserializer, config.getDeserializationThreads())
+                : null;
 
         stream = new KafkaRecordStream<>(this, config, context);
         batchStream = new KafkaRecordBatchStream<>(this, config, context);
@@ -116,7 +158,7 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
             if (c != null) {
                 return c;
             } else {
-                KafkaConsumer<K, V> consumer = new KafkaConsumer<>(kafkaConfiguration, keyDeserializer, valueDeserializer);
+                Consumer<K, V> consumer = createConsumer(kafkaConfiguration, keyDeserializer, valueDeserializer);
                 onConsumerCreated.accept(consumer);
                 closed.set(false);
                 return consumer;
@@ -128,6 +170,16 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
         }
     }
 
+    private Consumer<K, V> createConsumer(Map<String, Object> kafkaConfiguration, Deserializer<K> keyDeserializer,
+            Deserializer<V> valueDeserializer) {
+        if (recordDeserializer != null) {
+            // records are polled as byte arrays, and deserialized by the record deserializer
+            return new DeserializingConsumer<>(new KafkaConsumer<>(kafkaConfiguration, new ByteArrayDeserializer(),
+                    new ByteArrayDeserializer()), recordDeserializer);
+        }
+        return new KafkaConsumer<>(kafkaConfiguration, keyDeserializer, valueDeserializer);
+    }
+
     public Uni<Consumer<K, V>> withConsumerOnPollingThread() {
         return consumerUni;
     }
@@ -183,16 +235,18 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
     Uni<ConsumerRecords<K, V>> poll() {
         if (polling.compareAndSet(false, true)) {
             return runOnPollingThread(c -> {
+                ConsumerRecords<K, V> records;
                 if (System.getSecurityManager() == null) {
-                    return paused.get() ? c.poll(Duration.ZERO) : c.poll(pollTimeout);
+                    records = paused.get() ? c.poll(Duration.ZERO) : c.poll(pollTimeout);
                 } else {
-                    return AccessController.doPrivileged(new PrivilegedAction<ConsumerRecords<K, V>>() {
+                    records = AccessController.doPrivileged(new PrivilegedAction<ConsumerRecords<K, V>>() {
                         @Override
                         public ConsumerRecords<K, V> run() {
                             return paused.get() ? c.poll(Duration.ZERO) : c.poll(pollTimeout);
                         }
                     });
                 }
+                return records;
             })
                     .eventually(() -> polling.set(false))
                     .onFailure(WakeupException.class).recoverWithItem((ConsumerRecords<K, V>) ConsumerRecords.EMPTY);
@@ -263,14 +317,59 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
     public Uni<Void> resume() {
         if (paused.get()) {
             return runOnPollingThread(c -> {
-                Set<TopicPartition> assignment = c.assignment();
-                c.resume(assignment);
+                c.resume(resumable(c.assignment()));
             }).invoke(() -> paused.set(false));
         } else {
             return Uni.createFrom().voidItem();
         }
     }
 
+    /**
+     * Pauses the given partitions until {@link #resumePartitions(Collection)} is called, even if the consumer is
+     * resumed in the meantime.
+     *
+     * @param partitions the partitions to pause
+     * @return the Uni indicating when the partitions are paused
+     */
+    @CheckReturnValue
+    public Uni<Void> pausePartitions(Collection<TopicPartition> partitions) {
+        return runOnPollingThread(c -> {
+            delayedPartitions.addAll(partitions);
+            c.pause(assigned(c, partitions));
+        });
+    }
+
+    /**
+     * Resumes the partitions paused by {@link #pausePartitions(Collection)}, unless the whole consumer is paused.
+     *
+     * @param partitions the partitions to resume
+     * @return the Uni indicating when the partitions are resumed
+     */
+    @CheckReturnValue
+    public Uni<Void> resumePartitions(Collection<TopicPartition> partitions) {
+        return runOnPollingThread(c -> {
+            delayedPartitions.removeAll(partitions);
+            if (!paused.get()) {
+                c.resume(assigned(c, partitions));
+            }
+        });
+    }
+
+    private Set<TopicPartition> resumable(Set<TopicPartition> partitions) {
+        if (delayedPartitions.isEmpty()) {
+            return partitions;
+        }
+        Set<TopicPartition> resumable = new HashSet<>(partitions);
+        resumable.removeAll(delayedPartitions);
+        return resumable;
+    }
+
+    private static Set<TopicPartition> assigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<TopicPartition> assigned = new HashSet<>(partitions);
+        assigned.retainAll(consumer.assignment());
+        return assigned;
+    }
+
     @Override
     @CheckReturnValue
     public Uni<ConsumerGroupMetadata> consumerGroupMetadata() {
@@ -294,8 +393,10 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
                     c.seekToBeginning(Collections.singleton(tp));
                 }
             }
+            // also drops the delayed partitions, and their records waiting for their due time:
+            // they are resumed and re-fetched from the committed positions, and paused again if not due
             removeFromQueueRecordsFromTopicPartitions(assignments);
-            c.resume(c.assignment());
+            c.resume(resumable(c.assignment()));
         });
     }
 
@@ -396,7 +497,11 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
     @CheckReturnValue
     public Uni<Void> commit(Map<TopicPartition, OffsetAndMetadata> map) {
         return runOnPollingThread(c -> {
+            long start = commitLatency == null ? 0 : System.nanoTime();
             c.commitSync(map);
+            if (commitLatency != null) {
+                commitLatency.record(System.nanoTime() - start);
+            }
         });
     }
 
@@ -404,10 +509,14 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
     @Override
     public Uni<Void> commitAsync(Map<TopicPartition, OffsetAndMetadata> map) {
         return withConsumerOnPollingThread().chain(c -> Uni.createFrom().emitter(e -> {
+            long start = commitLatency == null ? 0 : System.nanoTime();
             c.commitAsync(map, (offsets, exception) -> {
                 if (exception != null) {
                     e.fail(exception);
                 } else {
+                    if (commitLatency != null) {
+                        commitLatency.record(System.nanoTime() - start);
+                    }
                     e.complete(null);
                 }
             });
@@ -421,6 +530,11 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
 
     public void close() {
         int timeout = configuration.getCloseTimeout();
+        pollIdleIntervalGauge.run();
+        pausedGauge.run();
+        if (commitLatency != null) {
+            commitLatency.close();
+        }
         if (closed.compareAndSet(false, true)) {
             Uni<Void> uni = runOnPollingThread(c -> {
                 if (System.getSecurityManager() == null) {
@@ -431,7 +545,12 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
                         return null;
                     });
                 }
-            }).onItem().invoke(kafkaWorker::shutdown);
+            }).onItem().invoke(() -> {
+                kafkaWorker.shutdown();
+                if (recordDeserializer != null) {
+                    recordDeserializer.close();
+                }
+            });
 
             // Interrupt polling
             Consumer<K, V> consumer = consumerRef.get();
@@ -454,6 +573,9 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
                 previous.close();
             }
             closed.set(true);
+            if (recordDeserializer != null) {
+                return new DeserializingConsumer<>((Consumer<byte[], byte[]>) consumer, recordDeserializer);
+            }
             return (Consumer<K, V>) consumer;
         });
         // force uni to re-memoize
@@ -518,8 +640,29 @@ public class ReactiveKafkaConsumer<K, V> implements io.smallrye.reactive.messagi
         return paused.get();
     }
 
+    PollIdleStrategy getPollIdleStrategy() {
+        return pollIdleStrategy;
+    }
+
+    public void setRevokedPartitionsHandler(RevokedPartitionsHandler handler) {
+        this.revokedPartitionsHandler = handler;
+    }
+
     void removeFromQueueRecordsFromTopicPartitions(Collection<TopicPartition> revokedPartitions) {
         this.stream.removeFromQueueRecordsFromTopicPartitions(revokedPartitions);
         this.batchStream.removeFromQueueRecordsFromTopicPartitions(revokedPartitions);
+        this.delayedPartitions.removeAll(revokedPartitions);
+        RevokedPartitionsHandler handler = revokedPartitionsHandler;
+        if (handler != null) {
+            handler.removeRecordsFromTopicPartitions(revokedPartitions);
+        }
+    }
+
+    /**
+     * Drops the records of revoked partitions buffered by a stage consuming the records of this consumer.
+     */
+    @FunctionalInterface
+    public interface RevokedPartitionsHandler {
+        void removeRecordsFromTopicPartitions(Collection<TopicPartition> revokedPartitions);
     }
 }
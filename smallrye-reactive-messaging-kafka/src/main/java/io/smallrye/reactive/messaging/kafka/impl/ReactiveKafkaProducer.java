@@ -6,12 +6,16 @@ import static io.smallrye.reactive.messaging.kafka.i18n.KafkaLogging.log;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -21,6 +25,7 @@ import jakarta.enterprise.inject.Instance;
 
 import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -31,10 +36,12 @@ import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.record.RecordBatch;
 import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
 
 import io.smallrye.common.annotation.CheckReturnValue;
 import io.smallrye.common.annotation.Identifier;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
 import io.smallrye.reactive.messaging.kafka.KafkaConnectorOutgoingConfiguration;
 import io.smallrye.reactive.messaging.kafka.SerializationFailureHandler;
 import io.smallrye.reactive.messaging.kafka.fault.SerializerWrapper;
@@ -49,7 +56,28 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
     private final Uni<Producer<K, V>> producerUni;
     private final AtomicReference<Producer<K, V>> producerRef = new AtomicReference<>();
 
-    private final ExecutorService kafkaWorker;
+    /**
+     * The sending lanes, records are serialized and handed to the producer on these threads.
+     * Operations other than {@link #send(ProducerRecord)} run on the first lane.
+     */
+    private final ExecutorService[] kafkaWorkers;
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    /**
+     * Whether records are handed to the producer from the calling thread once their topic metadata is known.
+     */
+    private final boolean directSend;
+    private final long metadataMaxIdleMs;
+    /**
+     * Last successful send per topic, the producer keeps the metadata of topics used in the last
+     * {@code metadata.max.idle.ms}.
+     */
+    private final Map<String, TopicSendState> topicSendStates = new ConcurrentHashMap<>();
+    /**
+     * Sends going through the sending lanes, records are sent directly only when there are none so they cannot
+     * overtake them.
+     */
+    private final AtomicInteger laneSends = new AtomicInteger();
 
     private final Map<String, Object> kafkaConfiguration;
     private final String channel;
@@ -63,7 +91,7 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
             Consumer<Throwable> reportFailure,
             BiConsumer<Producer<?, ?>, Map<String, Object>> onProducerCreated) {
         this(getKafkaProducerConfiguration(config), config.getChannel(), config.getCloseTimeout(),
-                config.getLazyClient(),
+                config.getLazyClient(), config.getSendingThreads(), config.getDirectSend(),
                 getProducerInterceptorBean(config, producerInterceptors),
                 createSerializationFailureHandler(config.getChannel(),
                         config.getKeySerializationFailureHandler().orElse(null),
@@ -85,6 +113,18 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
             SerializationFailureHandler<K> keySerializationFailureHandler,
             SerializationFailureHandler<V> valueSerializationFailureHandler,
             BiConsumer<Producer<?, ?>, Map<String, Object>> onProducerCreated) {
+        this(kafkaConfiguration, channel, closeTimeout, lazyClient, 1, false, interceptor,
+                keySerializationFailureHandler, valueSerializationFailureHandler, onProducerCreated);
+    }
+
+    public ReactiveKafkaProducer(Map<String, Object> kafkaConfiguration, String channel, int closeTimeout,
+            boolean lazyClient,
+            int sendingThreads,
+            boolean directSend,
+            ProducerInterceptor<K, V> interceptor,
+            SerializationFailureHandler<K> keySerializationFailureHandler,
+            SerializationFailureHandler<V> valueSerializationFailureHandler,
+            BiConsumer<Producer<?, ?>, Map<String, Object>> onProducerCreated) {
         this.kafkaConfiguration = kafkaConfiguration;
         this.channel = channel;
         this.closetimeout = closeTimeout;
@@ -111,7 +151,15 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
             interceptor.configure(kafkaConfiguration);
         }
 
-        kafkaWorker = Executors.newSingleThreadExecutor(KafkaSendingThread::new);
+        // Transactional sends must stay ordered with the transaction boundaries, so they use a single lane
+        boolean transactional = kafkaConfiguration.containsKey(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        int lanes = transactional ? 1 : Math.max(1, sendingThreads);
+        this.directSend = directSend && !transactional;
+        this.metadataMaxIdleMs = getMetadataMaxIdleMs(kafkaConfiguration);
+        kafkaWorkers = new ExecutorService[lanes];
+        for (int i = 0; i < lanes; i++) {
+            kafkaWorkers[i] = Executors.newSingleThreadExecutor(KafkaSendingThread::new);
+        }
         producerUni = Uni.createFrom().item(() -> producerRef.updateAndGet(p -> {
             if (p != null) {
                 return p;
@@ -129,15 +177,35 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
             if (reportFailure != null) {
                 reportFailure.accept(throwable);
             }
-        }).memoize().until(closed::get)
-                .runSubscriptionOn(kafkaWorker);
+        }).memoize().until(closed::get);
         if (!lazyClient) {
-            producerUni.await().indefinitely();
+            withProducerOnSendingThread().await().indefinitely();
         }
     }
 
     private Uni<Producer<K, V>> withProducerOnSendingThread() {
-        return producerUni;
+        return producerUni.runSubscriptionOn(kafkaWorkers[0]);
+    }
+
+    /**
+     * Records with the same key, or without key the same partition, are always sent from the same lane, so they
+     * reach the producer in order.
+     * Records with neither key nor partition are spread over the lanes.
+     */
+    private Uni<Producer<K, V>> withProducerOnSendingLane(ProducerRecord<K, V> record) {
+        if (kafkaWorkers.length == 1) {
+            return withProducerOnSendingThread();
+        }
+        Object key = record.key();
+        int hash;
+        if (key != null) {
+            hash = key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode();
+        } else if (record.partition() != null) {
+            hash = record.partition();
+        } else {
+            hash = nextLane.getAndIncrement();
+        }
+        return producerUni.runSubscriptionOn(kafkaWorkers[Utils.toPositive(hash) % kafkaWorkers.length]);
     }
 
     @Override
@@ -158,29 +226,107 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
     @Override
     @CheckReturnValue
     public Uni<RecordMetadata> send(ProducerRecord<K, V> record) {
-        return withProducerOnSendingThread()
-                .chain(c -> {
-                    final ProducerRecord<K, V> intercepted = interceptOnSend(record);
-                    return Uni.createFrom().emitter(em -> c.send(intercepted, (metadata, exception) -> {
-                        interceptOnAcknowledge(intercepted, metadata, exception);
-                        if (exception != null) {
-                            if (record.topic() != null) {
-                                log.unableToWrite(this.channel, record.topic(), exception);
-                            } else {
-                                log.unableToWrite(this.channel, exception);
+        if (directSend) {
+            // Decided on each subscription, as a failed send may be retried by resubscribing
+            return Uni.createFrom().deferred(() -> {
+                Producer<K, V> producer = directSendProducer(record.topic());
+                if (producer != null) {
+                    return Uni.createFrom().emitter(em -> send(producer, record, em));
+                }
+                laneSends.incrementAndGet();
+                AtomicBoolean terminated = new AtomicBoolean();
+                return withProducerOnSendingLane(record)
+                        .chain(c -> Uni.createFrom().<RecordMetadata> emitter(em -> send(c, record, em)))
+                        .onTermination().invoke(() -> {
+                            if (terminated.compareAndSet(false, true)) {
+                                laneSends.decrementAndGet();
                             }
-                            em.fail(exception);
-                        } else {
-                            em.complete(metadata);
-                        }
-                    }));
-                });
+                        });
+            });
+        }
+        return withProducerOnSendingLane(record)
+                .chain(c -> Uni.createFrom().emitter(em -> send(c, record, em)));
+    }
+
+    private void send(Producer<K, V> producer, ProducerRecord<K, V> record, UniEmitter<? super RecordMetadata> em) {
+        final ProducerRecord<K, V> intercepted = interceptOnSend(record);
+        producer.send(intercepted, (metadata, exception) -> {
+            interceptOnAcknowledge(intercepted, metadata, exception);
+            if (exception != null) {
+                if (record.topic() != null) {
+                    log.unableToWrite(this.channel, record.topic(), exception);
+                } else {
+                    log.unableToWrite(this.channel, exception);
+                }
+                em.fail(exception);
+            } else {
+                if (directSend) {
+                    topicSendStates.computeIfAbsent(metadata.topic(), t -> new TopicSendState()).lastSentAt = System
+                            .currentTimeMillis();
+                }
+                em.complete(metadata);
+            }
+        });
+    }
+
+    /**
+     * {@link Producer#send(ProducerRecord, Callback)} only blocks to create the producer and to fetch the metadata of
+     * the topic, or when the producer buffer is full.
+     *
+     * @return the producer if the record can be sent from the calling thread, {@code null} otherwise
+     */
+    private Producer<K, V> directSendProducer(String topic) {
+        Producer<K, V> producer = producerRef.get();
+        if (producer == null || closed.get() || laneSends.get() > 0) {
+            return null;
+        }
+        TopicSendState state = topicSendStates.get(topic);
+        if (state == null || System.currentTimeMillis() - state.lastSentAt > metadataMaxIdleMs) {
+            return null;
+        }
+        return producer;
+    }
+
+    /**
+     * @return the number of sends going through the sending lanes
+     */
+    int pendingLaneSends() {
+        return laneSends.get();
+    }
+
+    private static long getMetadataMaxIdleMs(Map<String, ?> config) {
+        Object configured = config.get(ProducerConfig.METADATA_MAX_IDLE_CONFIG);
+        if (configured != null) {
+            return Long.parseLong(configured.toString());
+        }
+        return (Long) ProducerConfig.configDef().defaultValues().get(ProducerConfig.METADATA_MAX_IDLE_CONFIG);
+    }
+
+    private static class TopicSendState {
+        volatile long lastSentAt;
     }
 
     @Override
     @CheckReturnValue
     public Uni<Void> flush() {
-        return runOnSendingThread((Consumer<Producer<K, V>>) Producer::flush);
+        return drainSendingLanes()
+                .chain(() -> runOnSendingThread((Consumer<Producer<K, V>>) Producer::flush));
+    }
+
+    /**
+     * @return a Uni completed once the records already passed to {@link #send(ProducerRecord)} have been handed to the
+     *         producer by every lane
+     */
+    private Uni<Void> drainSendingLanes() {
+        if (kafkaWorkers.length == 1) {
+            // operations run on the single lane after the pending sends
+            return Uni.createFrom().voidItem();
+        }
+        List<Uni<Producer<K, V>>> lanes = new ArrayList<>(kafkaWorkers.length);
+        for (ExecutorService worker : kafkaWorkers) {
+            lanes.add(producerUni.runSubscriptionOn(worker));
+        }
+        return Uni.join().all(lanes).andFailFast().replaceWithVoid();
     }
 
     @Override
@@ -313,7 +459,7 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
     public void close() {
         if (closed.compareAndSet(false, true)) {
             int timeout = this.closetimeout;
-            Uni<Void> uni = runOnSendingThread(p -> {
+            Uni<Void> uni = drainSendingLanes().onFailure().recoverWithNull().chain(() -> runOnSendingThread(p -> {
                 interceptClose();
                 if (System.getSecurityManager() == null) {
                     p.close(Duration.ofMillis(timeout));
@@ -323,7 +469,11 @@ public class ReactiveKafkaProducer<K, V> implements io.smallrye.reactive.messagi
                         return null;
                     });
                 }
-            }).onItem().invoke(kafkaWorker::shutdown);
+            })).onItem().invoke(() -> {
+                for (ExecutorService worker : kafkaWorkers) {
+                    worker.shutdown();
+                }
+            });
 
             if (Context.isOnEventLoopThread()) {
                 // We can't block, just forget the result
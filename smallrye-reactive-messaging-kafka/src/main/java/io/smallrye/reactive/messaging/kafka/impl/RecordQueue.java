@@ -2,95 +2,333 @@ package io.smallrye.reactive.messaging.kafka.impl;
 
 import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 /**
  * Stores the records coming from Kafka.
  * Only a few operations are supported: {@link #offer(Object)}, {@link #addAll(Iterable)}, {@link #clear()},
- * {@link #size()} and {@link #poll()}.
+ * {@link #size()}, {@link #poll()}, {@link #drain(Consumer, int)} and {@link #drainTo(Object[], int)}.
  * <p>
- * The access is guarded by the monitor lock.
+ * This is a single-producer/single-consumer queue:
+ * records are added by the polling thread ({@link #offer(Object)}, {@link #addAll(Iterable)},
+ * {@link #rewriteQueue(UnaryOperator)}) and removed by the thread dispatching them downstream
+ * ({@link #poll()}, {@link #drain(Consumer, int)}, {@link #drainTo(Object[], int)}, {@link #clear()}).
+ * <p>
+ * Records are stored in a bounded ring buffer, without locking.
+ * When the ring buffer is full, which can only happen if the consumer is not paused, records spill over to an
+ * overflow queue guarded by a lock.
+ * Once the overflow queue is used, every subsequent record goes to it until the consumer drains it, so the order is
+ * preserved.
+ * <p>
+ * When created with a partition function, the queue also indexes the ring slots of the records added with
+ * {@link #addAll(Object, Iterable)} by partition, so {@link #removePartitions(Collection)} only visits the records of
+ * the removed partitions instead of the whole queue.
  */
-public class RecordQueue<T> extends ArrayDeque<T> {
+public class RecordQueue<T> extends RecordQueuePad2 {
+
+    /**
+     * Marks a slot whose record has been removed by {@link #rewriteQueue(UnaryOperator)}.
+     */
+    private static final Object SKIP = new Object();
 
-    private final ReentrantLock lock = new ReentrantLock();
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<Object> buffer;
+    private final int mask;
+
+    private final ReentrantLock overflowLock = new ReentrantLock();
+    private final ArrayDeque<T> overflow = new ArrayDeque<>();
+    /**
+     * Only increased by the producer, only decreased by the consumer.
+     */
+    private volatile int overflowSize;
+
+    /**
+     * Number of records removed by {@link #rewriteQueue(UnaryOperator)}, written by the producer.
+     */
+    private volatile long skipped;
+    /**
+     * Number of removed records passed over by the consumer.
+     */
+    private volatile long skippedConsumed;
+
+    /**
+     * Extracts the partition of a record, {@code null} if the records are not indexed by partition.
+     */
+    private final Function<? super T, ?> partitionOf;
+    /**
+     * The ranges of ring indexes holding the records of each partition, only accessed by the producer.
+     */
+    private final Map<Object, IndexRanges> partitions;
 
     public RecordQueue(int capacityHint) {
-        super(capacityHint);
+        this(capacityHint, null);
+    }
+
+    /**
+     * @param capacityHint the number of records the ring buffer should hold, rounded up to a power of two
+     * @param partitionOf extracts the partition of a record, used to remove the records of the overflow queue in
+     *        {@link #removePartitions(Collection)}, {@code null} to disable the partition index
+     */
+    public RecordQueue(int capacityHint, Function<? super T, ?> partitionOf) {
+        int capacity = capacityHint <= 2 ? 2 : Math.min(MAX_CAPACITY, Integer.highestOneBit(capacityHint - 1) << 1);
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.partitionOf = partitionOf;
+        this.partitions = partitionOf == null ? null : new HashMap<>();
     }
 
-    @Override
-    public boolean addAll(Collection<? extends T> c) {
-        throw new UnsupportedOperationException();
+    /**
+     * @return the number of records the ring buffer can hold before spilling over
+     */
+    public int capacity() {
+        return mask + 1;
     }
 
     public void addAll(Iterable<T> iterable) {
-        lock.lock();
-        try {
-            for (T record : iterable) {
-                super.offer(record);
+        addToRing(iterable.iterator());
+    }
+
+    /**
+     * Adds records belonging to the same partition.
+     * If the queue indexes records by partition, the ring slots of these records are recorded so they can be removed
+     * by {@link #removePartitions(Collection)}.
+     *
+     * @param partition the partition of the records
+     * @param records the records
+     */
+    public void addAll(Object partition, Iterable<T> records) {
+        long start = producerIndex;
+        long end = addToRing(records.iterator());
+        if (partitions != null && end > start) {
+            IndexRanges ranges = partitions.get(partition);
+            if (ranges == null) {
+                ranges = new IndexRanges();
+                partitions.put(partition, ranges);
+            } else {
+                ranges.removeConsumed(consumerIndex);
             }
-        } finally {
-            lock.unlock();
+            ranges.add(start, end);
         }
     }
 
-    @Override
-    public boolean add(T item) {
-        throw new UnsupportedOperationException();
+    /**
+     * Adds the records to the ring buffer, or to the overflow queue once the ring is full.
+     *
+     * @return the producer index after the records added to the ring
+     */
+    private long addToRing(Iterator<T> iterator) {
+        long index = producerIndex;
+        if (overflowSize == 0) {
+            try {
+                while (iterator.hasNext()) {
+                    T item = Objects.requireNonNull(iterator.next());
+                    if (!offerToRing(index, item)) {
+                        spill(item, iterator);
+                        break;
+                    }
+                    index++;
+                }
+            } finally {
+                PRODUCER_INDEX.lazySet(this, index);
+            }
+        } else {
+            spill(null, iterator);
+        }
+        return index;
     }
 
-    @Override
     public boolean offer(T item) {
-        lock.lock();
+        Objects.requireNonNull(item);
+        if (overflowSize == 0) {
+            long index = producerIndex;
+            if (offerToRing(index, item)) {
+                PRODUCER_INDEX.lazySet(this, index + 1);
+                return true;
+            }
+        }
+        spill(item, null);
+        return true;
+    }
+
+    private boolean offerToRing(long index, T item) {
+        int offset = (int) index & mask;
+        if (buffer.get(offset) != null) {
+            // the consumer has not reached this slot yet, the ring is full
+            return false;
+        }
+        buffer.lazySet(offset, item);
+        return true;
+    }
+
+    private void spill(T item, Iterator<T> remaining) {
+        overflowLock.lock();
         try {
-            return super.offer(item);
+            if (item != null) {
+                overflow.offer(item);
+            }
+            if (remaining != null) {
+                while (remaining.hasNext()) {
+                    overflow.offer(Objects.requireNonNull(remaining.next()));
+                }
+            }
+            overflowSize = overflow.size();
         } finally {
-            lock.unlock();
+            overflowLock.unlock();
         }
     }
 
-    @Override
     public T poll() {
-        T record;
-        lock.lock();
-        try {
-            record = super.poll();
-        } finally {
-            lock.unlock();
+        T item = pollRing();
+        if (item == null && overflowSize != 0) {
+            // the ring may have been seen empty before the producer filled it and spilled over,
+            // reading the overflow size made these records visible
+            item = pollRing();
+            if (item == null) {
+                // the ring is empty, so the overflow holds the oldest records
+                item = pollOverflow();
+            }
         }
-        return record;
+        return item;
     }
 
-    @Override
-    public T peek() {
-        throw new UnsupportedOperationException();
+    /**
+     * Removes up to {@code limit} records from the queue and passes them to the given consumer, in order.
+     *
+     * @param consumer the consumer receiving the records
+     * @param limit the maximum number of records to drain
+     * @return the number of drained records
+     */
+    public int drain(Consumer<? super T> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            T item = poll();
+            if (item == null) {
+                break;
+            }
+            consumer.accept(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Removes up to {@code limit} records from the queue and stores them, in order, at the beginning of the given array.
+     * Unlike {@link #poll()}, the consumer index is published once for the whole batch.
+     *
+     * @param array the array receiving the records, must have a length of at least {@code limit}
+     * @param limit the maximum number of records to drain
+     * @return the number of drained records
+     */
+    public int drainTo(Object[] array, int limit) {
+        int count = drainRing(array, 0, limit);
+        if (count < limit && overflowSize != 0) {
+            // see poll()
+            count = drainRing(array, count, limit);
+            if (count < limit) {
+                overflowLock.lock();
+                try {
+                    T item;
+                    while (count < limit && (item = overflow.poll()) != null) {
+                        array[count++] = item;
+                    }
+                    overflowSize = overflow.size();
+                } finally {
+                    overflowLock.unlock();
+                }
+            }
+        }
+        return count;
     }
 
-    @Override
-    public boolean remove(Object o) {
-        throw new UnsupportedOperationException();
+    private int drainRing(Object[] array, int count, int limit) {
+        long index = consumerIndex;
+        while (count < limit) {
+            int offset = (int) index & mask;
+            if (buffer.get(offset) == null) {
+                break;
+            }
+            Object item = buffer.getAndSet(offset, null);
+            index++;
+            if (item != SKIP) {
+                array[count++] = item;
+            } else {
+                skippedConsumed++;
+            }
+        }
+        CONSUMER_INDEX.lazySet(this, index);
+        return count;
     }
 
-    @Override
-    public int size() {
-        lock.lock();
+    @SuppressWarnings("unchecked")
+    private T pollRing() {
+        long index = consumerIndex;
+        for (;;) {
+            int offset = (int) index & mask;
+            if (buffer.get(offset) == null) {
+                return null;
+            }
+            // swap rather than write, a concurrent rewrite may have replaced the record
+            Object item = buffer.getAndSet(offset, null);
+            index++;
+            CONSUMER_INDEX.lazySet(this, index);
+            if (item != SKIP) {
+                return (T) item;
+            }
+            skippedConsumed++;
+        }
+    }
+
+    private T pollOverflow() {
+        overflowLock.lock();
         try {
-            return super.size();
+            T item = overflow.poll();
+            overflowSize = overflow.size();
+            return item;
         } finally {
-            lock.unlock();
+            overflowLock.unlock();
         }
     }
 
-    @Override
+    public int size() {
+        long size;
+        long consumer = consumerIndex;
+        for (;;) {
+            long producer = producerIndex;
+            long current = consumerIndex;
+            if (consumer == current) {
+                size = producer - current - (skipped - skippedConsumed);
+                break;
+            }
+            consumer = current;
+        }
+        // the producer index is published once per batch, so the consumer can be ahead of it
+        return (int) Math.max(0, Math.min(size, capacity())) + overflowSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
     public void clear() {
-        lock.lock();
+        while (pollRing() != null) {
+            // drop
+        }
+        overflowLock.lock();
         try {
-            super.clear();
+            overflow.clear();
+            overflowSize = 0;
         } finally {
-            lock.unlock();
+            overflowLock.unlock();
         }
     }
 
@@ -100,23 +338,174 @@ public class RecordQueue<T> extends ArrayDeque<T> {
      * from the queue.
      *
      * Order is preserved.
+     * <p>
+     * Must be called from the producer thread. Records are replaced in place, records consumed concurrently are
+     * skipped.
      *
      * @param mapFunction
      */
     void rewriteQueue(UnaryOperator<T> mapFunction) {
-        lock.lock();
-        try {
-            ArrayDeque<T> replacementQueue = new ArrayDeque<>();
-            this
-                    .stream()
-                    .map(mapFunction)
-                    .filter(Objects::nonNull)
-                    .forEach(replacementQueue::offer);
-
-            this.clear();
-            this.addAll((Iterable<T>) replacementQueue);
-        } finally {
-            lock.unlock();
+        long from = consumerIndex;
+        long to = producerIndex;
+        long start = Math.max(from, to - capacity());
+        for (long index = start; index < to; index++) {
+            int offset = (int) index & mask;
+            Object item = buffer.get(offset);
+            if (item == null || item == SKIP) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            T mapped = mapFunction.apply((T) item);
+            if (mapped != item) {
+                // fails if the consumer took the record in the meantime
+                if (buffer.compareAndSet(offset, item, mapped == null ? SKIP : mapped) && mapped == null) {
+                    skipped++;
+                }
+            }
+        }
+
+        if (overflowSize != 0) {
+            overflowLock.lock();
+            try {
+                ArrayDeque<T> replacementQueue = new ArrayDeque<>(overflow.size());
+                for (T item : overflow) {
+                    T mapped = mapFunction.apply(item);
+                    if (mapped != null) {
+                        replacementQueue.offer(mapped);
+                    }
+                }
+                overflow.clear();
+                overflow.addAll(replacementQueue);
+                overflowSize = overflow.size();
+            } finally {
+                overflowLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes the records of the given partitions.
+     * Records of the ring buffer are found through the partition index, so the cost depends on the number of
+     * records of these partitions, not on the size of the queue.
+     * The overflow queue, only used when the consumer is not paused, is scanned.
+     * <p>
+     * Must be called from the producer thread, on a queue created with a partition function.
+     *
+     * @param removed the partitions whose records are removed
+     */
+    void removePartitions(Collection<?> removed) {
+        if (partitions == null) {
+            throw new IllegalStateException("The records are not indexed by partition");
+        }
+        long from = consumerIndex;
+        long to = producerIndex;
+        for (Object partition : removed) {
+            IndexRanges ranges = partitions.remove(partition);
+            if (ranges != null) {
+                for (int i = 0; i < ranges.size; i++) {
+                    skip(Math.max(from, ranges.start(i)), Math.min(to, ranges.end(i)));
+                }
+            }
+        }
+
+        if (overflowSize != 0) {
+            overflowLock.lock();
+            try {
+                overflow.removeIf(item -> removed.contains(partitionOf.apply(item)));
+                overflowSize = overflow.size();
+            } finally {
+                overflowLock.unlock();
+            }
         }
     }
+
+    private void skip(long from, long to) {
+        for (long index = from; index < to; index++) {
+            int offset = (int) index & mask;
+            Object item = buffer.get(offset);
+            // the producer is the caller, so the slot holds the record added at this index, or null once consumed
+            if (item != null && item != SKIP && buffer.compareAndSet(offset, item, SKIP)) {
+                skipped++;
+            }
+        }
+    }
+
+    /**
+     * Ranges of ring indexes, in ascending order, stored as pairs in a circular array.
+     */
+    private static final class IndexRanges {
+
+        private long[] bounds = new long[8];
+        private int head;
+        private int size;
+
+        long start(int i) {
+            return bounds[(head + 2 * i) & (bounds.length - 1)];
+        }
+
+        long end(int i) {
+            return bounds[(head + 2 * i + 1) & (bounds.length - 1)];
+        }
+
+        void add(long start, long end) {
+            if (size > 0 && end(size - 1) == start) {
+                // contiguous with the last range, typical when a single partition is consumed
+                bounds[(head + 2 * size - 1) & (bounds.length - 1)] = end;
+                return;
+            }
+            if (2 * size == bounds.length) {
+                long[] grown = new long[bounds.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[2 * i] = start(i);
+                    grown[2 * i + 1] = end(i);
+                }
+                bounds = grown;
+                head = 0;
+            }
+            int tail = (head + 2 * size) & (bounds.length - 1);
+            bounds[tail] = start;
+            bounds[tail + 1] = end;
+            size++;
+        }
+
+        void removeConsumed(long consumerIndex) {
+            while (size > 0 && end(0) <= consumerIndex) {
+                head = (head + 2) & (bounds.length - 1);
+                size--;
+            }
+        }
+    }
+}
+
+/**
+ * Padding isolating the indexes of {@link RecordQueue} from the object header, from each other and from the other
+ * fields, so the producer and the consumer threads do not contend on the same cache line.
+ */
+abstract class RecordQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p0a, p0b, p0c, p0d, p0e, p0f;
+}
+
+abstract class RecordQueueProducerIndex extends RecordQueuePad0 {
+    static final AtomicLongFieldUpdater<RecordQueueProducerIndex> PRODUCER_INDEX = AtomicLongFieldUpdater
+            .newUpdater(RecordQueueProducerIndex.class, "producerIndex");
+
+    volatile long producerIndex;
+}
+
+abstract class RecordQueuePad1 extends RecordQueueProducerIndex {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+    long p18, p19, p1a, p1b, p1c, p1d, p1e, p1f;
+}
+
+abstract class RecordQueueConsumerIndex extends RecordQueuePad1 {
+    static final AtomicLongFieldUpdater<RecordQueueConsumerIndex> CONSUMER_INDEX = AtomicLongFieldUpdater
+            .newUpdater(RecordQueueConsumerIndex.class, "consumerIndex");
+
+    volatile long consumerIndex;
+}
+
+abstract class RecordQueuePad2 extends RecordQueueConsumerIndex {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p28, p29, p2a, p2b, p2c, p2d, p2e, p2f;
 }
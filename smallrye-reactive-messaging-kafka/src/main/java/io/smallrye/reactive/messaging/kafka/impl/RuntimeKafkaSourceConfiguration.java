@@ -19,11 +19,17 @@ public class RuntimeKafkaSourceConfiguration {
     private final boolean retry;
     private final int retryMaxWait;
     private final int maxPollRecords;
+    private final int bulkDrainSize;
+    private final String pollIdleStrategy;
+    private final int pollIdleMinDelay;
+    private final int pollIdleSpins;
+    private final int deserializationThreads;
 
     private final int closeTimeout;
 
     public RuntimeKafkaSourceConfiguration(String channel, boolean pauseIfNoRequests,
             int maxQueueSizeFactor, int retryAttempts, boolean retry, int retryMaxWait, int maxPollRecords,
+            int bulkDrainSize, String pollIdleStrategy, int pollIdleMinDelay, int pollIdleSpins, int deserializationThreads,
             int closeTimeout) {
         this.channel = channel;
         this.pauseIfNoRequests = pauseIfNoRequests;
@@ -32,6 +38,11 @@ public class RuntimeKafkaSourceConfiguration {
         this.retry = retry;
         this.retryMaxWait = retryMaxWait;
         this.maxPollRecords = maxPollRecords;
+        this.bulkDrainSize = bulkDrainSize;
+        this.pollIdleStrategy = pollIdleStrategy;
+        this.pollIdleMinDelay = pollIdleMinDelay;
+        this.pollIdleSpins = pollIdleSpins;
+        this.deserializationThreads = deserializationThreads;
         this.closeTimeout = closeTimeout;
     }
 
@@ -44,6 +55,11 @@ public class RuntimeKafkaSourceConfiguration {
                 config.getRetry(),
                 config.getRetryMaxWait(),
                 config.config().getOptionalValue(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.class).orElse(500),
+                config.getBulkDrainSize(),
+                config.getPollIdleStrategy(),
+                config.getPollIdleMinDelay(),
+                config.getPollIdleSpins(),
+                config.getDeserializationThreads(),
                 config.config().getOptionalValue(ConsumerConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, Integer.class).orElse(1000));
     }
 
@@ -75,6 +91,26 @@ public class RuntimeKafkaSourceConfiguration {
         return maxPollRecords;
     }
 
+    public int getBulkDrainSize() {
+        return bulkDrainSize;
+    }
+
+    public String getPollIdleStrategy() {
+        return pollIdleStrategy;
+    }
+
+    public int getPollIdleMinDelay() {
+        return pollIdleMinDelay;
+    }
+
+    public int getPollIdleSpins() {
+        return pollIdleSpins;
+    }
+
+    public int getDeserializationThreads() {
+        return deserializationThreads;
+    }
+
     public int getCloseTimeout() {
         return closeTimeout;
     }
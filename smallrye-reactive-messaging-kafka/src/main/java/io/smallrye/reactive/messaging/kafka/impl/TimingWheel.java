@@ -0,0 +1,171 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel, scheduling items in constant time.
+ * <p>
+ * Time is divided in ticks of {@code tickMs} milliseconds. The first wheel has a bucket per tick, each following wheel
+ * has a bucket per revolution of the previous one, wheels being created when a deadline requires it. When time
+ * advances, the bucket of the current tick expires its items, and the items of the coarser buckets reached are moved
+ * to the finer wheels.
+ * <p>
+ * Items never expire before their deadline, but up to a tick after it.
+ * This class is not thread-safe, and does not hold a thread: {@link #advance(long, Consumer)} is called by the owner,
+ * for example from a periodic timer while the wheel is not empty.
+ *
+ * @param <T> the type of the scheduled items
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<ArrayDeque<Timeout<T>>[]> wheels = new ArrayList<>();
+
+    /**
+     * The last tick expired.
+     */
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long nowMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Invalid timing wheel, tick: " + tickMs + ", size: " + wheelSize);
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = nowMs / tickMs;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    /**
+     * @return the number of items scheduled and not cancelled
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Schedules an item.
+     *
+     * @param item the item
+     * @param deadlineMs the time at which the item expires
+     * @param nowMs the current time
+     * @return the timeout to cancel the item, {@code null} if the deadline is already reached
+     */
+    public Timeout<T> schedule(T item, long deadlineMs, long nowMs) {
+        if (size == 0) {
+            // nothing to expire, skip the ticks elapsed since the wheel was emptied
+            currentTick = Math.max(currentTick, nowMs / tickMs);
+        }
+        // round up so that the item does not expire before its deadline
+        long tick = (deadlineMs + tickMs - 1) / tickMs;
+        if (tick <= currentTick) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(this, item, tick);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Advances the time of the wheel, expiring the items whose deadline is reached.
+     *
+     * @param nowMs the current time
+     * @param expired called with each expired item
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        long target = nowMs / tickMs;
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return;
+        }
+        while (currentTick < target && size > 0) {
+            currentTick++;
+            // move the items of the coarser buckets reached to the finer wheels
+            long span = 1;
+            for (int level = 1; level < wheels.size(); level++) {
+                span *= wheelSize;
+                if (currentTick % span != 0) {
+                    break;
+                }
+                ArrayDeque<Timeout<T>> bucket = wheels.get(level)[(int) ((currentTick / span) % wheelSize)];
+                for (int i = bucket.size(); i > 0; i--) {
+                    Timeout<T> timeout = bucket.poll();
+                    if (!timeout.cancelled) {
+                        insert(timeout);
+                    }
+                }
+            }
+            ArrayDeque<Timeout<T>> bucket = wheels.get(0)[(int) (currentTick % wheelSize)];
+            Timeout<T> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (!timeout.cancelled) {
+                    timeout.cancelled = true;
+                    size--;
+                    expired.accept(timeout.item);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+    }
+
+    private void insert(Timeout<T> timeout) {
+        long span = 1;
+        for (int level = 0;; level++) {
+            // the bucket must be ahead of the current one in this wheel
+            if (timeout.tick / span - currentTick / span < wheelSize) {
+                bucket(level, (int) ((timeout.tick / span) % wheelSize)).add(timeout);
+                return;
+            }
+            span *= wheelSize;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArrayDeque<Timeout<T>> bucket(int level, int index) {
+        while (wheels.size() <= level) {
+            ArrayDeque<Timeout<T>>[] wheel = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = new ArrayDeque<>();
+            }
+            wheels.add(wheel);
+        }
+        return wheels.get(level)[index];
+    }
+
+    public static final class Timeout<T> {
+
+        private final TimingWheel<T> wheel;
+        private final T item;
+        private final long tick;
+        private boolean cancelled;
+
+        private Timeout(TimingWheel<T> wheel, T item, long tick) {
+            this.wheel = wheel;
+            this.item = item;
+            this.tick = tick;
+        }
+
+        /**
+         * Cancels the timeout, the item is removed from its bucket when the bucket is reached.
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                wheel.size--;
+            }
+        }
+    }
+}
@@ -7,12 +7,14 @@ import jakarta.enterprise.inject.spi.InjectionPoint;
 import jakarta.inject.Inject;
 
 import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 
 import io.smallrye.reactive.messaging.ChannelRegistry;
 import io.smallrye.reactive.messaging.EmitterConfiguration;
 import io.smallrye.reactive.messaging.EmitterFactory;
 import io.smallrye.reactive.messaging.annotations.EmitterFactoryFor;
 import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaConnector;
 import io.smallrye.reactive.messaging.providers.extension.ChannelProducer;
 
 @EmitterFactoryFor(KafkaTransactions.class)
@@ -26,9 +28,14 @@ public class KafkaTransactionsFactory implements EmitterFactory<KafkaTransaction
     @Inject
     ChannelRegistry channelRegistry;
 
+    @Inject
+    @Connector(KafkaConnector.CONNECTOR_NAME)
+    KafkaConnector connector;
+
     @Override
     public KafkaTransactionsImpl<Object> createEmitter(EmitterConfiguration configuration, long defaultBufferSize) {
-        return new KafkaTransactionsImpl<>(configuration, defaultBufferSize, kafkaClientService);
+        return new KafkaTransactionsImpl<>(configuration, defaultBufferSize, kafkaClientService,
+                connector.getProducerConfiguration(configuration.name()));
     }
 
     @Produces
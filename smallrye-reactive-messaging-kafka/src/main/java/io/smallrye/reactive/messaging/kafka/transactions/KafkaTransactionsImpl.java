@@ -1,14 +1,17 @@
 package io.smallrye.reactive.messaging.kafka.transactions;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.TransactionAbortedException;
@@ -16,8 +19,10 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 
 import io.smallrye.common.annotation.CheckReturnValue;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
 import io.smallrye.reactive.messaging.EmitterConfiguration;
 import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorOutgoingConfiguration;
 import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
 import io.smallrye.reactive.messaging.kafka.KafkaProducer;
 import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordBatchMetadata;
@@ -34,21 +39,53 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
     private final KafkaClientService clientService;
     private final KafkaProducer<?, ?> producer;
 
+    /**
+     * Maximum number of incoming records, maximum serialized size and maximum duration of the transactions grouping
+     * the processing of consecutive incoming records, no grouping if the size is 1.
+     */
+    private final int batchSize;
+    private final long batchBytes;
+    private final Duration batchLinger;
+
     private volatile Transaction<?> currentTransaction;
 
+    /**
+     * The transaction grouping incoming records, set until it is committed or aborted.
+     * When the group does not accept more records, a new group is created, beginning its transaction once the
+     * previous one is completed.
+     */
+    private volatile TransactionGroup currentGroup;
+
     private final ReentrantLock lock = new ReentrantLock();
 
     public KafkaTransactionsImpl(EmitterConfiguration config, long defaultBufferSize, KafkaClientService clientService) {
+        this(config, defaultBufferSize, clientService, null);
+    }
+
+    public KafkaTransactionsImpl(EmitterConfiguration config, long defaultBufferSize, KafkaClientService clientService,
+            KafkaConnectorOutgoingConfiguration producerConfiguration) {
+        this(config, defaultBufferSize, clientService,
+                producerConfiguration == null ? 1 : producerConfiguration.getTransactionBatchSize(),
+                producerConfiguration == null ? 0 : producerConfiguration.getTransactionBatchBytes(),
+                producerConfiguration == null ? Duration.ZERO
+                        : Duration.ofMillis(producerConfiguration.getTransactionBatchLingerMs()));
+    }
+
+    KafkaTransactionsImpl(EmitterConfiguration config, long defaultBufferSize, KafkaClientService clientService,
+            int batchSize, long batchBytes, Duration batchLinger) {
         super(config, defaultBufferSize);
         this.clientService = clientService;
         this.producer = clientService.getProducer(config.name());
+        this.batchSize = Math.max(1, batchSize);
+        this.batchBytes = batchBytes;
+        this.batchLinger = batchLinger;
     }
 
     @Override
     public boolean isTransactionInProgress() {
         lock.lock();
         try {
-            return currentTransaction != null;
+            return currentTransaction != null || currentGroup != null;
         } finally {
             lock.unlock();
         }
@@ -59,7 +96,7 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
     public <R> Uni<R> withTransaction(Function<TransactionalEmitter<T>, Uni<R>> work) {
         lock.lock();
         try {
-            if (currentTransaction == null) {
+            if (currentTransaction == null && currentGroup == null) {
                 return new Transaction<R>().execute(work);
             }
             throw KafkaExceptions.ex.transactionInProgress(name);
@@ -76,6 +113,8 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
         try {
             String channel;
             Map<TopicPartition, OffsetAndMetadata> offsets;
+            int records;
+            long bytes = 0;
 
             Optional<IncomingKafkaRecordBatchMetadata> batchMetadata = message
                     .getMetadata(IncomingKafkaRecordBatchMetadata.class);
@@ -85,12 +124,22 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
                 channel = metadata.getChannel();
                 offsets = metadata.getOffsets().entrySet().stream()
                         .collect(Collectors.toMap(Map.Entry::getKey, e -> new OffsetAndMetadata(e.getValue().offset() + 1)));
+                records = metadata.count();
+                if (batchSize > 1 && batchBytes > 0) {
+                    for (ConsumerRecord<?, ?> record : metadata.getRecords()) {
+                        bytes += serializedSize(record);
+                    }
+                }
             } else if (recordMetadata.isPresent()) {
                 IncomingKafkaRecordMetadata<?, ?> metadata = recordMetadata.get();
                 channel = metadata.getChannel();
                 offsets = new HashMap<>();
                 offsets.put(TopicPartitions.getTopicPartition(metadata.getTopic(), metadata.getPartition()),
                         new OffsetAndMetadata(metadata.getOffset() + 1));
+                records = 1;
+                if (batchSize > 1 && batchBytes > 0) {
+                    bytes = serializedSize(metadata.getRecord());
+                }
             } else {
                 throw KafkaExceptions.ex.noKafkaMetadataFound(message);
             }
@@ -102,7 +151,10 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
                 throw KafkaExceptions.ex.exactlyOnceProcessingNotSupported(channel);
             }
             KafkaConsumer<Object, Object> consumer = consumers.get(0);
-            if (currentTransaction == null) {
+            if (batchSize > 1 && currentTransaction == null) {
+                return joinGroup(consumer, offsets, records, bytes).execute(work);
+            }
+            if (currentTransaction == null && currentGroup == null) {
                 return new Transaction<R>(
                         /* before commit */
                         consumer.consumerGroupMetadata()
@@ -120,6 +172,26 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
         }
     }
 
+    // guarded by lock
+    private TransactionGroup joinGroup(KafkaConsumer<Object, Object> consumer,
+            Map<TopicPartition, OffsetAndMetadata> offsets, int records, long bytes) {
+        TransactionGroup group = currentGroup;
+        if (group == null || !group.accepts(consumer)) {
+            if (group != null) {
+                group.seal();
+            }
+            group = new TransactionGroup(consumer, group == null ? VOID_UNI
+                    : Uni.createFrom().completionStage(group.completion));
+            currentGroup = group;
+        }
+        group.join(offsets, records, bytes);
+        return group;
+    }
+
+    private static long serializedSize(ConsumerRecord<?, ?> record) {
+        return Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+    }
+
     private static final Uni<Void> VOID_UNI = Uni.createFrom().voidItem();
 
     private static <R> Uni<R> defaultAfterCommit(R result) {
@@ -214,4 +286,174 @@ public class KafkaTransactionsImpl<T> extends MutinyEmitterImpl<T> implements Ka
         }
     }
 
+    /**
+     * A transaction grouping the processing of consecutive incoming records.
+     * <p>
+     * The processing of a record runs in the transaction of the group and completes without waiting for the commit.
+     * Once the group is sealed, by its size or after the linger duration, and all its records are processed, the
+     * offsets of all the records are sent to the transaction, which is committed.
+     * Without linger, the group is sealed as soon as the records which joined it are processed.
+     * If the processing of a record fails, the transaction is aborted, the consumer is reset to the last committed
+     * offsets so that all the records of the group are reprocessed, and the processing fails.
+     */
+    private class TransactionGroup implements TransactionalEmitter<T> {
+
+        private final KafkaConsumer<Object, Object> consumer;
+        private final Uni<Void> begin;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        // guarded by lock
+        private final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        private int records;
+        private long bytes;
+        private int pending;
+        private boolean sealed;
+        private boolean finishing;
+        private Throwable failure;
+        private Cancellable linger;
+
+        private volatile boolean abort;
+
+        TransactionGroup(KafkaConsumer<Object, Object> consumer, Uni<Void> previous) {
+            this.consumer = consumer;
+            this.begin = previous.chain(producer::beginTransaction).memoize().indefinitely();
+        }
+
+        // guarded by lock
+        boolean accepts(KafkaConsumer<Object, Object> consumer) {
+            return !sealed && this.consumer == consumer;
+        }
+
+        // guarded by lock
+        void join(Map<TopicPartition, OffsetAndMetadata> offsets, int records, long bytes) {
+            offsets.forEach((tp, offset) -> this.offsets.merge(tp, offset,
+                    (previous, next) -> previous.offset() >= next.offset() ? previous : next));
+            this.records += records;
+            this.bytes += bytes;
+            this.pending++;
+            if (this.records >= batchSize || (batchBytes > 0 && this.bytes >= batchBytes)) {
+                sealed = true;
+            } else if (linger == null && !batchLinger.isZero() && !batchLinger.isNegative()) {
+                linger = Uni.createFrom().voidItem().onItem().delayIt().by(batchLinger)
+                        .subscribe().with(ignored -> seal());
+            }
+        }
+
+        void seal() {
+            lock.lock();
+            try {
+                sealed = true;
+                finishIfDone();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        <R> Uni<R> execute(Function<TransactionalEmitter<T>, Uni<R>> work) {
+            // If run on Vert.x context, `work` is called on the same context.
+            Context context = Vertx.currentContext();
+            Uni<Void> beginTx = begin;
+            if (context != null) {
+                beginTx = beginTx.emitOn(runnable -> context.runOnContext(x -> runnable.run()));
+            }
+            return beginTx
+                    .chain(() -> work.apply(this))
+                    .onCancellation().invoke(() -> done(new CancellationException()))
+                    .onItemOrFailure().transformToUni((result, throwable) -> {
+                        if (throwable == null && !abort) {
+                            done(null);
+                            return Uni.createFrom().item(result);
+                        }
+                        Throwable reason = throwable != null ? throwable : new TransactionAbortedException();
+                        done(reason);
+                        // fail once the group is aborted and the consumer reset
+                        return Uni.createFrom().completionStage(completion)
+                                .chain(() -> Uni.createFrom().failure(reason));
+                    });
+        }
+
+        private void done(Throwable reason) {
+            lock.lock();
+            try {
+                pending--;
+                if (reason != null) {
+                    if (failure == null) {
+                        failure = reason;
+                    }
+                    sealed = true;
+                } else if (pending == 0 && (batchLinger.isZero() || batchLinger.isNegative())) {
+                    // no linger, commit the records joined so far once they are processed
+                    sealed = true;
+                }
+                finishIfDone();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // guarded by lock
+        private void finishIfDone() {
+            if (!sealed || pending > 0 || finishing) {
+                return;
+            }
+            finishing = true;
+            if (linger != null) {
+                linger.cancel();
+            }
+            Uni<Void> outcome = failure == null && !abort ? commit() : abort(failure);
+            outcome.subscribe().with(ignored -> complete(), throwable -> complete());
+        }
+
+        private Uni<Void> commit() {
+            return begin
+                    .call(producer::flush)
+                    .chain(consumer::consumerGroupMetadata)
+                    .chain(groupMetadata -> producer.sendOffsetsToTransaction(offsets, groupMetadata))
+                    .call(producer::commitTransaction)
+                    .onFailure().recoverWithUni(this::abort);
+        }
+
+        private Uni<Void> abort(Throwable reason) {
+            KafkaLogging.log.transactionGroupAborted(name, records,
+                    reason != null ? reason : new TransactionAbortedException());
+            return begin
+                    .chain(producer::abortTransaction)
+                    .onFailure().recoverWithNull()
+                    .chain(consumer::resetToLastCommittedPositions);
+        }
+
+        private void complete() {
+            lock.lock();
+            try {
+                if (currentGroup == this) {
+                    currentGroup = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+            completion.complete(null);
+        }
+
+        @Override
+        public <M extends Message<? extends T>> void send(M msg) {
+            KafkaTransactionsImpl.this.send(msg.withNack(throwable -> CompletableFuture.completedFuture(null)));
+        }
+
+        @Override
+        public void send(T payload) {
+            KafkaTransactionsImpl.this.send(payload).subscribe().with(unused -> {
+            }, KafkaLogging.log::unableToSendRecord);
+        }
+
+        @Override
+        public void markForAbort() {
+            abort = true;
+        }
+
+        @Override
+        public boolean isMarkedForAbort() {
+            return abort;
+        }
+    }
+
 }
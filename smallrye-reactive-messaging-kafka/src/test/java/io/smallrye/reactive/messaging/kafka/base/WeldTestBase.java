@@ -15,6 +15,7 @@ import io.smallrye.config.inject.ConfigExtension;
 import io.smallrye.reactive.messaging.kafka.KafkaCDIEvents;
 import io.smallrye.reactive.messaging.kafka.KafkaConnector;
 import io.smallrye.reactive.messaging.kafka.commit.FileCheckpointStateStore;
+import io.smallrye.reactive.messaging.kafka.commit.FileLogCheckpointStateStore;
 import io.smallrye.reactive.messaging.kafka.commit.KafkaCheckpointCommit;
 import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
 import io.smallrye.reactive.messaging.kafka.commit.KafkaIgnoreCommit;
@@ -93,6 +94,7 @@ public class WeldTestBase {
         weld.addBeanClass(KafkaIgnoreCommit.Factory.class);
         weld.addBeanClass(KafkaCheckpointCommit.Factory.class);
         weld.addBeanClass(FileCheckpointStateStore.Factory.class);
+        weld.addBeanClass(FileLogCheckpointStateStore.Factory.class);
         weld.addBeanClass(KafkaFailStop.Factory.class);
         weld.addBeanClass(KafkaIgnoreFailure.Factory.class);
         weld.addBeanClass(KafkaDeadLetterQueue.Factory.class);
@@ -7,6 +7,8 @@ import static org.awaitility.Awaitility.await;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.util.TypeLiteral;
@@ -116,6 +118,54 @@ public class PauseResumeTest extends WeldTestBase {
         await().until(() -> !consumer.paused().isEmpty());
     }
 
+    @Test
+    void testPauseResumeBufferWithBulkDrain() {
+        MapBasedConfig config = commonConfiguration()
+                .with(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10)
+                .with(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest")
+                .with("bulk-drain-size", 8)
+                .with("client.id", UUID.randomUUID().toString());
+        String group = UUID.randomUUID().toString();
+        source = new KafkaSource<>(vertx, group,
+                new KafkaConnectorIncomingConfiguration(config), commitHandlerFactories, failureHandlerFactories,
+                getConsumerRebalanceListeners(),
+                CountKafkaCdiEvents.noCdiEvents, getDeserializationFailureHandlers(), -1);
+        injectMockConsumer(source, consumer);
+
+        AssertSubscriber<IncomingKafkaRecord<String, String>> subscriber = source.getStream()
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        TopicPartition tp0 = new TopicPartition(TOPIC, 0);
+        consumer.updateBeginningOffsets(Collections.singletonMap(tp0, 0L));
+
+        // Push 30
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(tp0));
+            for (int i = 0; i < 30; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, "k", "v" + i));
+            }
+        });
+
+        // Received first, the bulk drain does not exceed the demand
+        await().until(() -> subscriber.getItems().size() == 1);
+
+        // Await pause
+        await().until(() -> !consumer.paused().isEmpty());
+        assertThat(subscriber.getItems()).hasSize(1);
+
+        // Pull 20, drained in chunks of 8
+        subscriber.request(20);
+
+        // Await resume
+        await().until(() -> consumer.paused().isEmpty());
+        await().until(() -> subscriber.getItems().size() == 21);
+
+        subscriber.request(100);
+        await().until(() -> subscriber.getItems().size() == 30);
+        assertThat(subscriber.getItems()).extracting(IncomingKafkaRecord::getOffset)
+                .containsExactlyElementsOf(LongStream.range(0, 30).boxed().collect(Collectors.toList()));
+    }
+
     @Test
     void testRebalanceDuringPaused() {
         MapBasedConfig config = commonConfiguration()
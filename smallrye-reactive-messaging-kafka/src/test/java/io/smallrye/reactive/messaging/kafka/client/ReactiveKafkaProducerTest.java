@@ -152,6 +152,56 @@ public class ReactiveKafkaProducerTest extends ClientTestBase {
         }
     }
 
+    @Test
+    public void sendingThreadsPreserveKeyOrder() {
+        int keys = 8;
+        int messagesPerKey = 200;
+        companion.topics().createAndWait(topic, 4);
+        ConsumerTask<Integer, String> records = companion.consume(Integer.class, String.class)
+                .fromTopics(topic, (long) keys * messagesPerKey, Duration.ofMinutes(1));
+
+        MapBasedConfig config = createProducerConfig()
+                .put("channel-name", "test-" + ThreadLocalRandom.current().nextInt())
+                .put("topic", topic)
+                .put("sending-threads", 4);
+        Flow.Subscriber<Message<?>> subscriber = (Flow.Subscriber<Message<?>>) createSink(config).getSink();
+        Multi.createFrom().range(0, messagesPerKey)
+                .onItem().transformToMultiAndConcatenate(i -> Multi.createFrom().range(0, keys)
+                        .map(key -> (Message<?>) KafkaRecord.of(key, "T" + key + ":M" + i)))
+                .subscribe().withSubscriber(subscriber);
+
+        records.awaitCompletion(Duration.ofMinutes(1));
+        for (int key = 0; key < keys; key++) {
+            int k = key;
+            assertThat(records.getRecords())
+                    .filteredOn(r -> r.key() == k)
+                    .extracting(ConsumerRecord::value)
+                    .containsExactlyElementsOf(expectedMessages("T" + key, messagesPerKey));
+        }
+    }
+
+    @Test
+    public void directSendPreservesOrder() {
+        int count = 1000;
+        ConsumerTask<Integer, String> records = companion.consume(Integer.class, String.class)
+                .fromTopics(topic, count, Duration.ofMinutes(1));
+
+        MapBasedConfig config = createProducerConfig()
+                .put("channel-name", "test-" + ThreadLocalRandom.current().nextInt())
+                .put("topic", topic)
+                .put("direct-send", true);
+        Flow.Subscriber<Message<?>> subscriber = (Flow.Subscriber<Message<?>>) createSink(config).getSink();
+        // the first records go through the sending thread, until the topic metadata is known
+        Multi.createFrom().range(0, count)
+                .map(i -> (Message<?>) KafkaRecord.of(1, "T1:M" + i))
+                .subscribe().withSubscriber(subscriber);
+
+        records.awaitCompletion(Duration.ofMinutes(1));
+        assertThat(records.getRecords())
+                .extracting(ConsumerRecord::value)
+                .containsExactlyElementsOf(expectedMessages("T1", count));
+    }
+
     private List<String> expectedMessages(String threadId, int count) {
         List<String> result = new ArrayList<>();
         for (int i = 0; i < count; i++) {
@@ -0,0 +1,139 @@
+package io.smallrye.reactive.messaging.kafka.commit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+class BinaryProcessingStateCodecTest {
+
+    static class Stats {
+        final long count;
+        final double sum;
+        final String label;
+
+        Stats(long count, double sum, String label) {
+            this.count = count;
+            this.sum = sum;
+            this.label = label;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Stats)) {
+                return false;
+            }
+            Stats stats = (Stats) o;
+            return count == stats.count && Double.compare(stats.sum, sum) == 0 && Objects.equals(label, stats.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, sum, label);
+        }
+    }
+
+    static class StatsSchemaV1 implements BinaryProcessingStateCodec.Schema<Stats> {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(Stats state, BinaryProcessingStateCodec.Output output) {
+            output.writeLong(state.count);
+            output.writeDouble(state.sum);
+        }
+
+        @Override
+        public Stats read(int version, BinaryProcessingStateCodec.Input input) {
+            return new Stats(input.readLong(), input.readDouble(), null);
+        }
+    }
+
+    static class StatsSchemaV2 extends StatsSchemaV1 {
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public void write(Stats state, BinaryProcessingStateCodec.Output output) {
+            super.write(state, output);
+            output.writeString(state.label);
+        }
+
+        @Override
+        public Stats read(int version, BinaryProcessingStateCodec.Input input) {
+            Stats stats = super.read(version, input);
+            return version < 2 ? stats : new Stats(stats.count, stats.sum, input.readString());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ProcessingState<T> roundTrip(ProcessingStateCodec codec, ProcessingState<T> state) {
+        return (ProcessingState<T>) codec.decode(codec.encode(state));
+    }
+
+    @Test
+    void testBuiltInSchemas() {
+        assertThat(roundTrip(BinaryProcessingStateCodec.FACTORY.create(Long.class), new ProcessingState<>(42L, 3L)))
+                .isEqualTo(new ProcessingState<>(42L, 3L));
+        assertThat(roundTrip(BinaryProcessingStateCodec.FACTORY.create(int.class), new ProcessingState<>(-7, 1L)))
+                .isEqualTo(new ProcessingState<>(-7, 1L));
+        assertThat(roundTrip(BinaryProcessingStateCodec.FACTORY.create(Double.class), new ProcessingState<>(1.5, 2L)))
+                .isEqualTo(new ProcessingState<>(1.5, 2L));
+        assertThat(roundTrip(BinaryProcessingStateCodec.FACTORY.create(Boolean.class), new ProcessingState<>(true, 2L)))
+                .isEqualTo(new ProcessingState<>(true, 2L));
+        String text = "héllo € 😀";
+        assertThat(roundTrip(BinaryProcessingStateCodec.FACTORY.create(String.class), new ProcessingState<>(text, 5L)))
+                .isEqualTo(new ProcessingState<>(text, 5L));
+        ProcessingState<byte[]> bytes = roundTrip(BinaryProcessingStateCodec.FACTORY.create(byte[].class),
+                new ProcessingState<>(new byte[] { 1, 2, 3 }, 9L));
+        assertThat(bytes.getState()).containsExactly(1, 2, 3);
+        assertThat(bytes.getOffset()).isEqualTo(9L);
+    }
+
+    @Test
+    void testNullState() {
+        ProcessingStateCodec codec = BinaryProcessingStateCodec.FACTORY.create(Long.class);
+        assertThat(roundTrip(codec, new ProcessingState<>(null, 12L))).isEqualTo(new ProcessingState<>(null, 12L));
+        assertThat(codec.decode(null)).isNull();
+    }
+
+    @Test
+    void testSchemaEvolution() {
+        BinaryProcessingStateCodec<Stats> v1 = new BinaryProcessingStateCodec<>(new StatsSchemaV1());
+        BinaryProcessingStateCodec<Stats> v2 = new BinaryProcessingStateCodec<>(new StatsSchemaV2());
+
+        byte[] written = v1.encode(new ProcessingState<>(new Stats(3, 4.5, null), 10L));
+        assertThat(v2.decode(written)).isEqualTo(new ProcessingState<>(new Stats(3, 4.5, null), 10L));
+
+        ProcessingState<Stats> state = new ProcessingState<>(new Stats(4, 6.0, "label"), 11L);
+        assertThat(roundTrip(v2, state)).isEqualTo(state);
+    }
+
+    @Test
+    void testBufferReuse() {
+        ProcessingStateCodec codec = BinaryProcessingStateCodec.FACTORY.create(String.class);
+        String large = "x".repeat(100_000);
+        assertThat(roundTrip(codec, new ProcessingState<>(large, 1L)).getState()).isEqualTo(large);
+        byte[] small = codec.encode(new ProcessingState<>("a", 2L));
+        // format, version, offset, presence, length and content
+        assertThat(small).hasSize(1 + 4 + 8 + 1 + 4 + 1);
+    }
+
+    @Test
+    void testInvalidInput() {
+        ProcessingStateCodec codec = BinaryProcessingStateCodec.FACTORY.create(Long.class);
+        assertThatThrownBy(() -> codec.decode(new byte[] { 42 }))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("42");
+        byte[] truncated = codec.encode(new ProcessingState<>(1L, 1L));
+        assertThatThrownBy(() -> codec.decode(java.util.Arrays.copyOf(truncated, truncated.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BinaryProcessingStateCodec.FACTORY.create(Stats.class))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Stats");
+    }
+}
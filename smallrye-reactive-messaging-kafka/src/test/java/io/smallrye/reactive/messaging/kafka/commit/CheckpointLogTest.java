@@ -0,0 +1,149 @@
+package io.smallrye.reactive.messaging.kafka.commit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointLogTest {
+
+    private static final String GROUP = "my-group";
+
+    @TempDir
+    Path dir;
+
+    private static Map<TopicPartition, CheckpointLog.Record> records(String topic, int partitions, long offset) {
+        Map<TopicPartition, CheckpointLog.Record> records = new HashMap<>();
+        for (int i = 0; i < partitions; i++) {
+            records.put(new TopicPartition(topic, i), record(offset));
+        }
+        return records;
+    }
+
+    private static CheckpointLog.Record record(long offset) {
+        return new CheckpointLog.Record(offset, ("state-" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String state(CheckpointLog.Record record) {
+        return new String(record.state, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(CheckpointLog.SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testAppendAndRecover() {
+        TopicPartition tp0 = new TopicPartition("topic", 0);
+        TopicPartition tp1 = new TopicPartition("topic", 1);
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 1024)) {
+            assertThat(log.recover(List.of(tp0, tp1))).isEmpty();
+            log.append(records("topic", 2, 1));
+            log.append(Map.of(tp0, record(5)));
+            // lower offsets are skipped
+            log.append(Map.of(tp0, record(3)));
+        }
+
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 1024)) {
+            Map<TopicPartition, CheckpointLog.Record> recovered = log.recover(List.of(tp0, tp1));
+            assertThat(recovered).containsOnlyKeys(tp0, tp1);
+            assertThat(recovered.get(tp0).offset).isEqualTo(5);
+            assertThat(state(recovered.get(tp0))).isEqualTo("state-5");
+            assertThat(recovered.get(tp1).offset).isEqualTo(1);
+        }
+
+        try (CheckpointLog log = new CheckpointLog(dir, "another-group", 1024)) {
+            assertThat(log.recover(List.of(tp0, tp1))).isEmpty();
+        }
+    }
+
+    @Test
+    void testSegmentRollingAndCompaction() throws IOException {
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 512)) {
+            boolean sealed = false;
+            for (int i = 0; i < 20; i++) {
+                sealed |= log.append(records("topic", 4, i));
+            }
+            assertThat(sealed).isTrue();
+            assertThat(segments().size()).isGreaterThan(2);
+
+            log.compact();
+            // the compacted segment and the active one
+            assertThat(segments()).hasSize(2);
+
+            log.append(records("topic", 4, 20));
+        }
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 512)) {
+            Map<TopicPartition, CheckpointLog.Record> recovered = log
+                    .recover(List.of(new TopicPartition("topic", 0), new TopicPartition("topic", 3)));
+            assertThat(recovered).hasSize(2);
+            assertThat(recovered.values()).allSatisfy(r -> assertThat(r.offset).isEqualTo(20));
+        }
+    }
+
+    @Test
+    void testCompactionAdoptsSegmentsOfStoppedInstances() throws IOException {
+        TopicPartition tp0 = new TopicPartition("topic", 0);
+        TopicPartition tp1 = new TopicPartition("topic", 1);
+        CheckpointLog running = new CheckpointLog(dir, GROUP, 1024);
+        running.append(Map.of(tp1, record(7)));
+        try (CheckpointLog stopped = new CheckpointLog(dir, GROUP, 1024)) {
+            stopped.append(Map.of(tp0, record(3)));
+        }
+        assertThat(segments()).hasSize(2);
+
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 1024)) {
+            log.append(Map.of(tp0, record(1)));
+            log.compact();
+            // the segment of the stopped instance is merged, the segment of the running one is kept
+            assertThat(segments()).hasSize(2);
+            Map<TopicPartition, CheckpointLog.Record> recovered = log.recover(List.of(tp0, tp1));
+            assertThat(recovered.get(tp0).offset).isEqualTo(3);
+            assertThat(recovered.get(tp1).offset).isEqualTo(7);
+        } finally {
+            running.close();
+        }
+    }
+
+    @Test
+    void testRecoveryIgnoresTornRecords() throws IOException {
+        TopicPartition tp0 = new TopicPartition("topic", 0);
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 1024)) {
+            log.append(Map.of(tp0, record(1)));
+            log.append(Map.of(tp0, record(2)));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // corrupts the last byte of the state of the second record
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int first = buffer.getInt(0) + 4;
+            int second = buffer.getInt(first) + 4;
+            buffer.put(first + second - 5, (byte) 0);
+        }
+
+        try (CheckpointLog log = new CheckpointLog(dir, GROUP, 1024)) {
+            CheckpointLog.Record recovered = log.recover(List.of(tp0)).get(tp0);
+            assertThat(recovered.offset).isEqualTo(1);
+            assertThat(state(recovered)).isEqualTo("state-1");
+        }
+    }
+}
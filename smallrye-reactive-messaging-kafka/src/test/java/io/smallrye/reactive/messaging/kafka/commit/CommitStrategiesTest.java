@@ -7,6 +7,9 @@ import static org.awaitility.Awaitility.await;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -26,9 +29,11 @@ import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
 import io.smallrye.common.annotation.Identifier;
+import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.health.HealthReport;
 import io.smallrye.reactive.messaging.kafka.*;
 import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
+import io.smallrye.reactive.messaging.kafka.base.SingletonInstance;
 import io.smallrye.reactive.messaging.kafka.base.WeldTestBase;
 import io.smallrye.reactive.messaging.kafka.impl.KafkaSource;
 import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
@@ -306,6 +311,155 @@ public class CommitStrategiesTest extends WeldTestBase {
         }
     }
 
+    @Test
+    void testThrottledStrategyOnlyCommitsChangedPartitions() {
+        List<Map<TopicPartition, OffsetAndMetadata>> commits = new CopyOnWriteArrayList<>();
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets,
+                    OffsetCommitCallback callback) {
+                commits.add(new HashMap<>(offsets));
+                super.commitAsync(offsets, callback);
+            }
+        };
+        MapBasedConfig config = commonConfiguration()
+                .with("lazy-client", true)
+                .with("commit-strategy", "throttled")
+                .with("auto.commit.interval.ms", 100);
+        String group = UUID.randomUUID().toString();
+        source = new KafkaSource<>(vertx, group,
+                new KafkaConnectorIncomingConfiguration(config), commitHandlerFactories, failureHandlerFactories,
+                getConsumerRebalanceListeners(),
+                CountKafkaCdiEvents.noCdiEvents, getDeserializationFailureHandlers(), -1);
+        injectMockConsumer(source, consumer);
+
+        List<Message<?>> list = new ArrayList<>();
+        source.getStream()
+                .subscribe().with(list::add);
+
+        TopicPartition p0 = new TopicPartition(TOPIC, 0);
+        TopicPartition p1 = new TopicPartition(TOPIC, 1);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        offsets.put(p0, 0L);
+        offsets.put(p1, 0L);
+        consumer.updateBeginningOffsets(offsets);
+
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(offsets.keySet());
+            source.getCommitHandler().partitionsAssigned(offsets.keySet());
+            for (int i = 0; i < 3; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, "k", "v0-" + i));
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, i, "k", "v1-" + i));
+            }
+        });
+
+        await().until(() -> list.size() == 6);
+
+        list.stream().filter(m -> partition(m) == 0).forEach(m -> m.ack().toCompletableFuture().join());
+        await().untilAsserted(() -> assertThat(consumer.committed(Collections.singleton(p0)).get(p0))
+                .isNotNull().extracting(OffsetAndMetadata::offset).isEqualTo(3L));
+        assertThat(commits).allSatisfy(commit -> assertThat(commit).containsOnlyKeys(p0));
+
+        int committedSoFar = commits.size();
+        list.stream().filter(m -> partition(m) == 1).forEach(m -> m.ack().toCompletableFuture().join());
+        await().untilAsserted(() -> assertThat(consumer.committed(Collections.singleton(p1)).get(p1))
+                .isNotNull().extracting(OffsetAndMetadata::offset).isEqualTo(3L));
+        assertThat(commits.subList(committedSoFar, commits.size()))
+                .allSatisfy(commit -> assertThat(commit).containsOnlyKeys(p1));
+    }
+
+    private static int partition(Message<?> message) {
+        return message.getMetadata(IncomingKafkaRecordMetadata.class).orElseThrow().getPartition();
+    }
+
+    @Test
+    void testCheckpointStrategyRestoresReassignedPartitionsWithoutFetching() {
+        InMemoryStateStore store = new InMemoryStateStore();
+        TopicPartition p0 = new TopicPartition(TOPIC, 0);
+        TopicPartition p1 = new TopicPartition(TOPIC, 1);
+        store.states.put(p0, new ProcessingState<>(0, 1L));
+        store.states.put(p1, new ProcessingState<>(0, 2L));
+        MapBasedConfig config = commonConfiguration()
+                .with("lazy-client", true)
+                .with("commit-strategy", "checkpoint")
+                .with("checkpoint.state-store", "in-memory");
+        Instance<KafkaCommitHandler.Factory> checkpointFactory = new SingletonInstance<>("checkpoint",
+                new KafkaCheckpointCommit.Factory(new SingletonInstance<>("in-memory",
+                        (c, v, kc, type) -> store)));
+        source = new KafkaSource<>(vertx, UUID.randomUUID().toString(),
+                new KafkaConnectorIncomingConfiguration(config), checkpointFactory, failureHandlerFactories,
+                getConsumerRebalanceListeners(),
+                CountKafkaCdiEvents.noCdiEvents, getDeserializationFailureHandlers(), -1);
+        injectMockConsumer(source, consumer);
+
+        List<Message<?>> list = new CopyOnWriteArrayList<>();
+        source.getStream()
+                .subscribe().with(list::add);
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        offsets.put(p0, 0L);
+        offsets.put(p1, 0L);
+        consumer.updateBeginningOffsets(offsets);
+
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(offsets.keySet());
+            for (int i = 0; i < 3; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, "k", "v0-" + i));
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, i, "k", "v1-" + i));
+            }
+        });
+        // resumes from the checkpointed offsets
+        await().until(() -> list.size() == 3);
+        assertThat(store.fetched).containsExactly(Set.of(p0, p1));
+
+        // p1 is revoked and assigned back in the same rebalance
+        AtomicBoolean reassigned = new AtomicBoolean();
+        consumer.schedulePollTask(() -> {
+            source.getCommitHandler().partitionsRevoked(Collections.singleton(p1));
+            source.getCommitHandler().partitionsAssigned(Collections.singleton(p1));
+            reassigned.set(true);
+        });
+        await().untilTrue(reassigned);
+        assertThat(store.persisted).contains(p1);
+        assertThat(store.fetched).hasSize(1);
+
+        // p1 is revoked, then assigned back in a later rebalance
+        consumer.schedulePollTask(() -> {
+            source.getCommitHandler().partitionsRevoked(Collections.singleton(p1));
+            source.getCommitHandler().partitionsAssigned(Collections.emptyList());
+        });
+        consumer.schedulePollTask(() -> source.getCommitHandler().partitionsAssigned(Collections.singleton(p1)));
+        await().untilAsserted(() -> assertThat(store.fetched).hasSize(2));
+        assertThat(store.fetched.get(1)).containsExactly(p1);
+    }
+
+    private static class InMemoryStateStore implements CheckpointStateStore {
+
+        final Map<TopicPartition, ProcessingState<?>> states = new ConcurrentHashMap<>();
+        final List<Set<TopicPartition>> fetched = new CopyOnWriteArrayList<>();
+        final List<TopicPartition> persisted = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Uni<Map<TopicPartition, ProcessingState<?>>> fetchProcessingState(Collection<TopicPartition> partitions) {
+            fetched.add(new HashSet<>(partitions));
+            Map<TopicPartition, ProcessingState<?>> result = new HashMap<>();
+            for (TopicPartition tp : partitions) {
+                ProcessingState<?> state = states.get(tp);
+                if (state != null) {
+                    result.put(tp, state);
+                }
+            }
+            return Uni.createFrom().item(result);
+        }
+
+        @Override
+        public Uni<Void> persistProcessingState(Map<TopicPartition, ProcessingState<?>> state) {
+            states.putAll(state);
+            persisted.addAll(state.keySet());
+            return Uni.createFrom().voidItem();
+        }
+    }
+
     @Test
     void testThrottledStrategyWithTooManyUnackedMessages() throws Exception {
         MapBasedConfig config = commonConfiguration()
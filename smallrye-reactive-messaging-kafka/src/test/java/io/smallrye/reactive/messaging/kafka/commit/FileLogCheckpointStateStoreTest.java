@@ -0,0 +1,58 @@
+package io.smallrye.reactive.messaging.kafka.commit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertx.mutiny.core.Vertx;
+
+class FileLogCheckpointStateStoreTest {
+
+    private Vertx vertx;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void testPersistAndFetch(@TempDir File tempDir) {
+        List<TopicPartition> partitions = List.of(new TopicPartition("topic", 0), new TopicPartition("topic", 1),
+                new TopicPartition("topic", 2));
+        FileLogCheckpointStateStore store = new FileLogCheckpointStateStore(vertx, "group", tempDir, 256,
+                VertxJsonProcessingStateCodec.INSTANCE);
+        assertThat(store.fetchProcessingState(partitions).await().indefinitely()).isEmpty();
+
+        for (int i = 1; i <= 10; i++) {
+            Map<TopicPartition, ProcessingState<?>> states = new HashMap<>();
+            states.put(partitions.get(0), new ProcessingState<>(i, i));
+            states.put(partitions.get(1), new ProcessingState<>(i * 10, i));
+            states.put(partitions.get(2), null);
+            store.persistProcessingState(states).await().indefinitely();
+        }
+        store.close();
+
+        FileLogCheckpointStateStore restarted = new FileLogCheckpointStateStore(vertx, "group", tempDir, 256,
+                VertxJsonProcessingStateCodec.INSTANCE);
+        Map<TopicPartition, ProcessingState<?>> fetched = restarted.fetchProcessingState(partitions).await()
+                .indefinitely();
+        assertThat(fetched).containsOnlyKeys(partitions.get(0), partitions.get(1));
+        assertThat(fetched.get(partitions.get(0))).isEqualTo(new ProcessingState<>(10, 10));
+        assertThat(fetched.get(partitions.get(1))).isEqualTo(new ProcessingState<>(100, 10));
+        restarted.close();
+    }
+}
@@ -0,0 +1,124 @@
+package io.smallrye.reactive.messaging.kafka.fault;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
+import io.smallrye.reactive.messaging.kafka.impl.ReactiveKafkaConsumer;
+import io.smallrye.reactive.messaging.kafka.impl.RuntimeKafkaSourceConfiguration;
+import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
+import io.vertx.core.Vertx;
+
+class DelayedRetrySchedulerTest {
+
+    private static final String TOPIC = "channel_retry_500";
+    private static final TopicPartition TP0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition TP1 = new TopicPartition(TOPIC, 1);
+
+    private Vertx vertx;
+    private ReactiveKafkaConsumer<String, String> consumer;
+    private final MockConsumer<String, String> mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    private final UnicastProcessor<IncomingKafkaRecord<?, ?>> upstream = UnicastProcessor.create();
+    private final List<IncomingKafkaRecord<?, ?>> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx();
+        MapBasedConfig config = new MapBasedConfig()
+                .with("channel-name", "channel")
+                .with("topic", "channel")
+                .with("value.deserializer", StringDeserializer.class.getName());
+        Map<String, Object> kafkaConfiguration = new HashMap<>();
+        kafkaConfiguration.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        kafkaConfiguration.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        kafkaConfiguration.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        kafkaConfiguration.put(ConsumerConfig.CLIENT_ID_CONFIG, "retry");
+        consumer = new ReactiveKafkaConsumer<>(kafkaConfiguration, null, null,
+                RuntimeKafkaSourceConfiguration.buildFromConfiguration(new KafkaConnectorIncomingConfiguration(config)),
+                true, 100, false, c -> {
+                }, (t, f) -> {
+                }, vertx.getOrCreateContext());
+        consumer.injectClient(mock);
+        mock.assign(List.of(TP0, TP1));
+        mock.updateBeginningOffsets(Map.of(TP0, 0L, TP1, 0L));
+
+        DelayedRetryScheduler scheduler = new DelayedRetryScheduler(consumer, vertx, vertx.getOrCreateContext(),
+                r -> r.getTimestamp().toEpochMilli() + 500, DelayedRetryScheduler.tickFor(500), 16);
+        scheduler.schedule(upstream).subscribe().with(received::add);
+    }
+
+    @AfterEach
+    void cleanup() {
+        consumer.close();
+        vertx.close();
+    }
+
+    @Test
+    void testPartitionsAreDelayedIndependently() {
+        long now = System.currentTimeMillis();
+        upstream.onNext(record(0, 0, now));
+        upstream.onNext(record(1, 0, now - 1000));
+        upstream.onNext(record(0, 1, now + 100));
+        upstream.onNext(record(1, 1, now - 1000));
+
+        // the due records of partition 1 do not wait for partition 0
+        await().until(() -> received.size() == 2);
+        assertThat(received).allSatisfy(r -> assertThat(r.getPartition()).isEqualTo(1));
+        await().until(() -> mock.paused().equals(Set.of(TP0)));
+
+        // resuming the consumer keeps the delayed partition paused
+        consumer.pause().await().indefinitely();
+        consumer.resume().await().indefinitely();
+        assertThat(mock.paused()).containsExactly(TP0);
+
+        await().until(() -> received.size() == 4);
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(now + 600);
+        assertThat(received.subList(2, 4)).extracting(IncomingKafkaRecord::getOffset).containsExactly(0L, 1L);
+        await().until(() -> mock.paused().isEmpty());
+    }
+
+    @Test
+    void testDelayedRecordsAreDroppedWhenTheConsumerIsReset() {
+        long now = System.currentTimeMillis();
+        upstream.onNext(record(0, 0, now + 60_000));
+        await().until(() -> mock.paused().equals(Set.of(TP0)));
+
+        // the delayed partition is resumed, its records being fetched again from the committed position
+        consumer.resetToLastCommittedPositions().await().indefinitely();
+        assertThat(mock.paused()).isEmpty();
+
+        // the record is received again, already due
+        upstream.onNext(record(0, 0, now - 1000));
+        await().until(() -> received.size() == 1);
+        await().pollDelay(Duration.ofMillis(200)).until(() -> received.size() == 1);
+    }
+
+    private static IncomingKafkaRecord<String, String> record(int partition, long offset, long timestamp) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, partition, offset, timestamp,
+                TimestampType.CREATE_TIME, -1, -1, null, "v", new RecordHeaders(), Optional.empty());
+        return new IncomingKafkaRecord<>(record, "channel", -1, null, null, false, false);
+    }
+}
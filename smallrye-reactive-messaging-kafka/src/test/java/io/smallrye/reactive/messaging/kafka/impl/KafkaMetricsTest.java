@@ -0,0 +1,84 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KafkaMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void addRegistry() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void removeRegistry() {
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    void testGauge() {
+        AtomicInteger value = new AtomicInteger(3);
+        Runnable unregister = KafkaMetrics.gauge("test.gauge", "description", "records", value, AtomicInteger::get,
+                KafkaMetrics.TAG_CHANNEL, "channel");
+
+        Gauge gauge = registry.find("test.gauge").tag(KafkaMetrics.TAG_CHANNEL, "channel").gauge();
+        assertThat(gauge).isNotNull();
+        assertThat(gauge.value()).isEqualTo(3.0);
+        value.set(5);
+        assertThat(gauge.value()).isEqualTo(5.0);
+
+        unregister.run();
+        assertThat(registry.find("test.gauge").gauge()).isNull();
+    }
+
+    @Test
+    void testLatency() {
+        LatencyRecorder recorder = KafkaMetrics.latency("test.latency", "description",
+                KafkaMetrics.TAG_CHANNEL, "channel");
+        assertThat(recorder).isNotNull();
+
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(10));
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(30));
+        // clock skew
+        recorder.record(-5);
+
+        FunctionTimer timer = registry.find("test.latency").functionTimer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(3.0);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40.0);
+        assertThat(registry.find("test.latency.max").gauge().value()).isEqualTo(0.03);
+
+        recorder.close();
+        assertThat(registry.find("test.latency").functionTimer()).isNull();
+        assertThat(registry.find("test.latency.max").gauge()).isNull();
+    }
+
+    @Test
+    void testLatencyRecorder() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertThat(recorder.count()).isZero();
+        assertThat(recorder.max(TimeUnit.NANOSECONDS)).isZero();
+
+        for (int i = 1; i <= 100; i++) {
+            recorder.record(i);
+        }
+        assertThat(recorder.count()).isEqualTo(100);
+        assertThat(recorder.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(5050.0);
+        assertThat(recorder.max(TimeUnit.NANOSECONDS)).isEqualTo(100.0);
+    }
+}
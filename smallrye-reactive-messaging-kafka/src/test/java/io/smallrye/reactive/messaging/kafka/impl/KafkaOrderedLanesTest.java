@@ -0,0 +1,223 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static io.smallrye.reactive.messaging.kafka.base.MockKafkaUtils.injectMockConsumer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.util.TypeLiteral;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.reactive.messaging.kafka.CountKafkaCdiEvents;
+import io.smallrye.reactive.messaging.kafka.DeserializationFailureHandler;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import io.smallrye.reactive.messaging.kafka.base.WeldTestBase;
+import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
+import io.vertx.mutiny.core.Vertx;
+
+class KafkaOrderedLanesTest extends WeldTestBase {
+
+    private static final String TOPIC = "my-topic";
+    private static final TopicPartition TP0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition TP1 = new TopicPartition(TOPIC, 1);
+
+    private Vertx vertx;
+    private KafkaSource<String, String> source;
+    private final MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+    @BeforeEach
+    void initializing() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void closing() {
+        if (source != null) {
+            source.closeQuietly();
+        }
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void testRecordsOfALaneWaitForTheAcknowledgement() {
+        List<IncomingKafkaRecord<String, String>> list = subscribe(config(2, "partition"));
+        consumer.updateBeginningOffsets(Map.of(TP0, 0L, TP1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(List.of(TP0, TP1));
+            for (int i = 0; i < 10; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, i % 2, i / 2, "k", "v" + i));
+            }
+        });
+
+        // one record in flight per partition
+        await().until(() -> list.size() == 2);
+        await().pollDelay(Duration.ofMillis(200)).until(() -> list.size() == 2);
+        assertThat(list).extracting(IncomingKafkaRecord::getPartition).containsExactlyInAnyOrder(0, 1);
+
+        // acknowledging the records of partition 0 does not block partition 1
+        for (int i = 0; i < 5; i++) {
+            IncomingKafkaRecord<String, String> record = inFlight(list, 0);
+            assertThat(record.getOffset()).isEqualTo(i);
+            int expected = i < 4 ? list.size() + 1 : list.size();
+            record.ack().toCompletableFuture().join();
+            await().until(() -> list.size() == expected);
+        }
+        await().pollDelay(Duration.ofMillis(200)).until(() -> list.size() == 6);
+        assertThat(list.stream().filter(r -> r.getPartition() == 1)).hasSize(1);
+
+        // a nack also releases the lane
+        inFlight(list, 1).nack(new Exception("boom")).toCompletableFuture().join();
+        await().until(() -> list.size() == 7);
+        assertThat(inFlight(list, 1).getOffset()).isEqualTo(1);
+
+        await().untilAsserted(() -> {
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.of(TP0));
+            assertThat(committed.get(TP0)).isNotNull();
+            assertThat(committed.get(TP0).offset()).isEqualTo(5);
+        });
+    }
+
+    @Test
+    void testKeysOfAPartitionAreProcessedConcurrently() {
+        List<IncomingKafkaRecord<String, String>> list = subscribe(config(8, "key"));
+        consumer.updateBeginningOffsets(Map.of(TP0, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(List.of(TP0));
+            for (int i = 0; i < 20; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, "key-" + (i % 4), "v" + i));
+            }
+        });
+
+        await().until(() -> list.size() >= 2);
+        await().pollDelay(Duration.ofMillis(200)).until(() -> list.size() <= 4);
+        // never two records of the same key in flight
+        assertThat(list.stream().map(IncomingKafkaRecord::getKey).distinct()).hasSize(list.size());
+
+        // process everything, acknowledging out of order across keys
+        await().untilAsserted(() -> {
+            for (IncomingKafkaRecord<String, String> record : list) {
+                record.ack();
+            }
+            assertThat(list).hasSize(20);
+        });
+        // the last records may have been received after acknowledging the others
+        list.forEach(IncomingKafkaRecord::ack);
+        for (int k = 0; k < 4; k++) {
+            String key = "key-" + k;
+            List<Long> offsets = list.stream().filter(r -> key.equals(r.getKey())).map(IncomingKafkaRecord::getOffset)
+                    .collect(Collectors.toList());
+            assertThat(offsets).isSorted().hasSize(5);
+        }
+        await().untilAsserted(() -> assertThat(consumer.committed(Set.of(TP0)).get(TP0).offset()).isEqualTo(20));
+    }
+
+    @Test
+    void testRevokedPartitionsAreDropped() {
+        List<IncomingKafkaRecord<String, String>> list = subscribe(config(1, "partition"));
+        consumer.updateBeginningOffsets(Map.of(TP0, 0L, TP1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(List.of(TP0, TP1));
+            for (int i = 0; i < 10; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, i % 2, i / 2, "k", "v" + i));
+            }
+        });
+        await().until(() -> list.size() == 1);
+        TopicPartition first = new TopicPartition(TOPIC, list.get(0).getPartition());
+        TopicPartition other = first.equals(TP0) ? TP1 : TP0;
+
+        consumer.schedulePollTask(() -> consumer.rebalance(List.of(first)));
+        await().pollDelay(Duration.ofMillis(500)).until(() -> true);
+
+        await().untilAsserted(() -> {
+            for (IncomingKafkaRecord<String, String> record : list) {
+                record.ack();
+            }
+            assertThat(list).hasSize(5);
+        });
+        assertThat(list).allSatisfy(r -> assertThat(r.getPartition()).isEqualTo(first.partition()));
+        assertThat(list).noneMatch(r -> r.getPartition() == other.partition());
+    }
+
+    @Test
+    void testInvalidOrdering() {
+        assertThatThrownBy(() -> new KafkaOrderedLanes<String, String>("channel", 2, "offset", 10, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testKeyLanesRejectCommitStrategiesNotTrackingTheProcessing() {
+        assertThatThrownBy(() -> subscribe(config(2, "key").with("commit-strategy", "latest")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("latest");
+        assertThatThrownBy(() -> subscribe(config(2, "key").without("commit-strategy")
+                .with("enable.auto.commit", "true")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ignore");
+    }
+
+    private MapBasedConfig config(int lanes, String orderedBy) {
+        return new MapBasedConfig()
+                .with("channel-name", "channel")
+                .with("graceful-shutdown", false)
+                .with("topic", TOPIC)
+                .with("health-enabled", false)
+                .with("tracing-enabled", false)
+                .with("commit-strategy", "throttled")
+                .with("auto.commit.interval.ms", 100)
+                .with("failure-strategy", "ignore")
+                .with("ordered-lanes", lanes)
+                .with("ordered-lanes-by", orderedBy)
+                .with("client.id", UUID.randomUUID().toString())
+                .with("value.deserializer", StringDeserializer.class.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IncomingKafkaRecord<String, String>> subscribe(MapBasedConfig config) {
+        source = new KafkaSource<>(vertx, UUID.randomUUID().toString(),
+                new KafkaConnectorIncomingConfiguration(config), commitHandlerFactories, failureHandlerFactories,
+                getBeanManager().createInstance().select(KafkaConsumerRebalanceListener.class),
+                CountKafkaCdiEvents.noCdiEvents, getDeserializationFailureHandlers(), -1);
+        injectMockConsumer(source, consumer);
+        List<IncomingKafkaRecord<String, String>> list = new CopyOnWriteArrayList<>();
+        source.getStream().subscribe().with(m -> list.add((IncomingKafkaRecord<String, String>) (Message<?>) m));
+        return list;
+    }
+
+    private static IncomingKafkaRecord<String, String> inFlight(List<IncomingKafkaRecord<String, String>> list,
+            int partition) {
+        IncomingKafkaRecord<String, String> last = null;
+        for (IncomingKafkaRecord<String, String> record : list) {
+            if (record.getPartition() == partition) {
+                last = record;
+            }
+        }
+        return last;
+    }
+
+    private Instance<DeserializationFailureHandler<?>> getDeserializationFailureHandlers() {
+        return getBeanManager().createInstance().select(
+                new TypeLiteral<DeserializationFailureHandler<?>>() {
+                });
+    }
+}
@@ -0,0 +1,110 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.reactive.messaging.kafka.KafkaProducer;
+
+class KafkaProducerPoolTest {
+
+    private final KafkaProducerPool pool = new KafkaProducerPool();
+    private final List<TrackedProducer> created = new CopyOnWriteArrayList<>();
+    private final Function<Map<String, Object>, ReactiveKafkaProducer<Object, Object>> factory = c -> {
+        TrackedProducer producer = new TrackedProducer(c);
+        created.add(producer);
+        return producer;
+    };
+
+    @Test
+    void testProducersAreSharedByConfiguration() {
+        KafkaProducer<Object, Object> p1 = pool.acquire(config("localhost:9092", "dlq-a", "group-a"), factory);
+        KafkaProducer<Object, Object> p2 = pool.acquire(config("localhost:9092", "dlq-b", "group-b"), factory);
+        KafkaProducer<Object, Object> p3 = pool.acquire(config("localhost:9093", "dlq-c", "group-c"), factory);
+
+        assertThat(created).hasSize(2);
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(p1.configuration()).isSameAs(p2.configuration());
+        assertThat(p3.configuration()).isNotSameAs(p1.configuration());
+        assertThat((String) p1.configuration().get(ProducerConfig.CLIENT_ID_CONFIG))
+                .startsWith(KafkaProducerPool.CLIENT_ID_PREFIX);
+        // consumer properties are not passed to the shared producer
+        assertThat(p1.configuration()).doesNotContainKey(ConsumerConfig.GROUP_ID_CONFIG);
+    }
+
+    @Test
+    void testProducerIsClosedWithTheLastReference() {
+        KafkaProducer<Object, Object> p1 = pool.acquire(config("localhost:9092", "dlq-a", "group-a"), factory);
+        KafkaProducer<Object, Object> p2 = pool.acquire(config("localhost:9092", "dlq-b", "group-b"), factory);
+
+        p1.close();
+        // closing a handle twice releases it once
+        p1.close();
+        assertThat(created.get(0).closed).isEqualTo(0);
+        assertThat(pool.size()).isEqualTo(1);
+
+        p2.close();
+        assertThat(created.get(0).closed).isEqualTo(1);
+        assertThat(pool.size()).isZero();
+
+        // a new producer is created once the previous one is closed
+        pool.acquire(config("localhost:9092", "dlq-a", "group-a"), factory);
+        assertThat(created).hasSize(2);
+    }
+
+    @Test
+    void testTransactionalProducersAreNotShared() {
+        Map<String, Object> config = config("localhost:9092", "dlq-a", "group-a");
+        config.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "tx");
+        KafkaProducer<Object, Object> p1 = pool.acquire(config, factory);
+        KafkaProducer<Object, Object> p2 = pool.acquire(config, factory);
+
+        assertThat(created).hasSize(2).containsExactly((TrackedProducer) p1, (TrackedProducer) p2);
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void testCloseClosesTheSharedProducers() {
+        pool.acquire(config("localhost:9092", "dlq-a", "group-a"), factory);
+        pool.acquire(config("localhost:9093", "dlq-b", "group-b"), factory);
+
+        pool.close();
+        assertThat(created).allSatisfy(p -> assertThat(p.closed).isEqualTo(1));
+        assertThat(pool.size()).isZero();
+    }
+
+    private static Map<String, Object> config(String servers, String clientId, String groupId) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, clientId);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        return config;
+    }
+
+    private static class TrackedProducer extends ReactiveKafkaProducer<Object, Object> {
+
+        private volatile int closed;
+
+        TrackedProducer(Map<String, Object> config) {
+            super(config, "channel", 1000, true, null, null, null, (p, c) -> {
+            });
+        }
+
+        @Override
+        public void close() {
+            closed++;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.reactive.messaging.ce.IncomingCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
+
+@SuppressWarnings("deprecation")
+class KafkaRecordMetadataViewTest {
+
+    private final ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 2, 42, "key", "value");
+
+    @Test
+    void testKafkaMetadata() {
+        IncomingKafkaRecord<String, String> message = new IncomingKafkaRecord<>(record, "channel", 1, null, null,
+                false, false);
+        Metadata metadata = message.getMetadata();
+        assertThat(metadata).isInstanceOf(KafkaRecordMetadataView.class);
+
+        IncomingKafkaRecordMetadata<?, ?> kafkaMetadata = metadata.get(IncomingKafkaRecordMetadata.class).orElseThrow();
+        assertThat(kafkaMetadata.getTopic()).isEqualTo("topic");
+        assertThat(kafkaMetadata.getPartition()).isEqualTo(2);
+        assertThat(kafkaMetadata.getOffset()).isEqualTo(42);
+        assertThat(kafkaMetadata.getChannel()).isEqualTo("channel");
+        assertThat(kafkaMetadata.getConsumerIndex()).isEqualTo(1);
+        // created once
+        assertThat(metadata.get(IncomingKafkaRecordMetadata.class)).containsSame(kafkaMetadata);
+        assertThat(message.getMetadata(IncomingKafkaRecordMetadata.class)).containsSame(kafkaMetadata);
+        assertThat(message.<Object> getMetadata(
+                io.smallrye.reactive.messaging.kafka.api.KafkaMessageMetadata.class)).containsSame(kafkaMetadata);
+        assertThat(message.getHeaders()).isSameAs(kafkaMetadata.getHeaders());
+
+        io.smallrye.reactive.messaging.kafka.IncomingKafkaRecordMetadata<?, ?> deprecated = message
+                .getMetadata(io.smallrye.reactive.messaging.kafka.IncomingKafkaRecordMetadata.class).orElseThrow();
+        assertThat(deprecated).isNotSameAs(kafkaMetadata);
+        assertThat(deprecated.getOffset()).isEqualTo(42);
+
+        assertThat(metadata.get(IncomingCloudEventMetadata.class)).isEmpty();
+        assertThat(message.getMetadata(IncomingCloudEventMetadata.class)).isEmpty();
+        assertThat(metadata).containsExactly(kafkaMetadata, deprecated);
+    }
+
+    @Test
+    void testWithAndWithout() {
+        IncomingKafkaRecord<String, String> message = new IncomingKafkaRecord<>(record, "channel", -1, null, null,
+                false, false);
+        Metadata metadata = message.getMetadata();
+        IncomingKafkaRecordMetadata<?, ?> kafkaMetadata = metadata.get(IncomingKafkaRecordMetadata.class).orElseThrow();
+
+        Metadata added = metadata.with("hello").with(42).with("world");
+        assertThat(added.get(String.class)).contains("world");
+        assertThat(added.get(Integer.class)).contains(42);
+        // shares the metadata created from the record
+        assertThat(added.get(IncomingKafkaRecordMetadata.class)).containsSame(kafkaMetadata);
+        assertThat(metadata.get(String.class)).isEmpty();
+
+        Metadata removed = added.without(String.class).without(IncomingKafkaRecordMetadata.class);
+        assertThat(removed.get(String.class)).isEmpty();
+        assertThat(removed.get(IncomingKafkaRecordMetadata.class)).isEmpty();
+        assertThat(removed.get(Integer.class)).contains(42);
+        assertThat(removed).hasSize(2);
+
+        IncomingKafkaRecordMetadata<String, String> replacement = new IncomingKafkaRecordMetadata<>(record, "other");
+        Metadata replaced = metadata.with(replacement);
+        assertThat(replaced.get(IncomingKafkaRecordMetadata.class)).containsSame(replacement);
+        assertThat(replaced).hasSize(2);
+
+        message.injectMetadata(3L);
+        assertThat(message.getMetadata(Long.class)).contains(3L);
+        assertThat(message.getMetadata(Number.class)).contains(3L);
+        assertThat(message.getMetadata().copy().get(Long.class)).contains(3L);
+    }
+
+    @Test
+    void testBinaryCloudEvent() {
+        ConsumerRecord<String, String> ce = new ConsumerRecord<>("topic", 0, 0, "key", "data");
+        ce.headers().add("ce_specversion", "1.0".getBytes(StandardCharsets.UTF_8));
+        ce.headers().add("ce_id", "id".getBytes(StandardCharsets.UTF_8));
+        ce.headers().add("ce_source", "test://source".getBytes(StandardCharsets.UTF_8));
+        ce.headers().add("ce_type", "type".getBytes(StandardCharsets.UTF_8));
+
+        IncomingKafkaRecord<String, String> message = new IncomingKafkaRecord<>(ce, "channel", -1, null, null,
+                true, false);
+        assertThat(message.getPayload()).isEqualTo("data");
+        @SuppressWarnings("rawtypes")
+        Optional<IncomingKafkaCloudEventMetadata> metadata = message
+                .getMetadata(IncomingKafkaCloudEventMetadata.class);
+        assertThat(metadata).hasValueSatisfying(m -> {
+            assertThat(m.getId()).isEqualTo("id");
+            assertThat(m.getType()).isEqualTo("type");
+            assertThat(m.getKey()).isEqualTo("key");
+        });
+        assertThat(message.getMetadata(IncomingCloudEventMetadata.class)).containsSame(metadata.get());
+        assertThat(message.getMetadata()).hasSize(3);
+    }
+}
@@ -0,0 +1,148 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OffsetWindowTest {
+
+    @Test
+    void testInOrderAcknowledgement() {
+        OffsetWindow window = new OffsetWindow(0);
+        assertThat(window.firstOffset()).isEqualTo(-1);
+        assertThat(window.removeAcknowledged()).isEqualTo(-1);
+
+        for (long i = 10; i < 20; i++) {
+            window.received(i, 100 + i);
+        }
+        assertThat(window.size()).isEqualTo(10);
+        assertThat(window.unacknowledged()).isEqualTo(10);
+        assertThat(window.firstOffset()).isEqualTo(10);
+        assertThat(window.firstReceivedAt()).isEqualTo(110);
+
+        assertThat(window.acknowledged(10)).isTrue();
+        assertThat(window.acknowledged(11)).isTrue();
+        assertThat(window.acknowledged(11)).isFalse();
+        assertThat(window.unacknowledged()).isEqualTo(8);
+        assertThat(window.removeAcknowledged()).isEqualTo(11);
+        assertThat(window.firstOffset()).isEqualTo(12);
+        assertThat(window.firstReceivedAt()).isEqualTo(112);
+        assertThat(window.size()).isEqualTo(8);
+    }
+
+    @Test
+    void testOutOfOrderAcknowledgement() {
+        OffsetWindow window = new OffsetWindow(64);
+        for (long i = 0; i < 10; i++) {
+            window.received(i, i);
+        }
+        window.acknowledged(3);
+        window.acknowledged(1);
+        window.acknowledged(2);
+        // 0 is not acknowledged yet
+        assertThat(window.removeAcknowledged()).isEqualTo(-1);
+        assertThat(window.size()).isEqualTo(10);
+
+        window.acknowledged(0);
+        assertThat(window.removeAcknowledged()).isEqualTo(3);
+        assertThat(window.firstOffset()).isEqualTo(4);
+        assertThat(window.unacknowledged()).isEqualTo(6);
+
+        // unknown offsets are ignored
+        assertThat(window.acknowledged(2)).isFalse();
+        assertThat(window.acknowledged(42)).isFalse();
+    }
+
+    @Test
+    void testGaps() {
+        OffsetWindow window = new OffsetWindow(64);
+        long[] offsets = { 5, 6, 9, 20, 21, 100, 1000 };
+        for (long offset : offsets) {
+            window.received(offset, offset);
+        }
+        assertThat(window.acknowledged(7)).isFalse();
+        assertThat(window.acknowledged(1000)).isTrue();
+        assertThat(window.acknowledged(20)).isTrue();
+        assertThat(window.acknowledged(6)).isTrue();
+        assertThat(window.acknowledged(5)).isTrue();
+        assertThat(window.removeAcknowledged()).isEqualTo(6);
+        assertThat(window.firstOffset()).isEqualTo(9);
+
+        window.acknowledged(9);
+        window.acknowledged(21);
+        window.acknowledged(100);
+        assertThat(window.removeAcknowledged()).isEqualTo(1000);
+        assertThat(window.isEmpty()).isTrue();
+        assertThat(window.unacknowledged()).isZero();
+    }
+
+    @Test
+    void testReceivedAgain() {
+        OffsetWindow window = new OffsetWindow(64);
+        window.received(1, 1);
+        window.received(2, 2);
+        window.received(4, 4);
+        window.acknowledged(2);
+
+        // seek back, 2 must be acknowledged again, 3 is inserted
+        window.received(1, 10);
+        window.received(2, 20);
+        window.received(3, 30);
+        window.received(4, 40);
+        assertThat(window.size()).isEqualTo(4);
+        assertThat(window.unacknowledged()).isEqualTo(4);
+        assertThat(window.firstReceivedAt()).isEqualTo(1);
+
+        window.acknowledged(1);
+        window.acknowledged(3);
+        assertThat(window.removeAcknowledged()).isEqualTo(1);
+        window.acknowledged(2);
+        assertThat(window.removeAcknowledged()).isEqualTo(3);
+        assertThat(window.firstOffset()).isEqualTo(4);
+    }
+
+    @Test
+    void testGrowthAcrossRingBoundary() {
+        OffsetWindow window = new OffsetWindow(64);
+        long next = 0;
+        for (; next < 50; next++) {
+            window.received(next, next);
+        }
+        for (long i = 0; i < 40; i++) {
+            window.acknowledged(i);
+        }
+        assertThat(window.removeAcknowledged()).isEqualTo(39);
+
+        // wraps around, then grows
+        for (; next < 10_000; next++) {
+            window.received(next, next);
+        }
+        assertThat(window.size()).isEqualTo(10_000 - 40);
+        for (long i = 9_999; i >= 40; i--) {
+            if (i != 5_000) {
+                assertThat(window.acknowledged(i)).isTrue();
+            }
+        }
+        assertThat(window.removeAcknowledged()).isEqualTo(4_999);
+        assertThat(window.firstOffset()).isEqualTo(5_000);
+        assertThat(window.unacknowledged()).isEqualTo(1);
+        window.acknowledged(5_000);
+        assertThat(window.removeAcknowledged()).isEqualTo(9_999);
+        assertThat(window.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testClear() {
+        OffsetWindow window = new OffsetWindow(64);
+        window.received(1, 1);
+        window.received(2, 2);
+        window.acknowledged(1);
+        window.clear();
+        assertThat(window.isEmpty()).isTrue();
+        assertThat(window.unacknowledged()).isZero();
+
+        window.received(7, 7);
+        assertThat(window.removeAcknowledged()).isEqualTo(-1);
+        assertThat(window.firstOffset()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,275 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static io.smallrye.reactive.messaging.kafka.base.MockKafkaUtils.injectMockConsumer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.util.TypeLiteral;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.reactive.messaging.kafka.CountKafkaCdiEvents;
+import io.smallrye.reactive.messaging.kafka.DeserializationFailureHandler;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import io.smallrye.reactive.messaging.kafka.KafkaRecordBatch;
+import io.smallrye.reactive.messaging.kafka.base.WeldTestBase;
+import io.smallrye.reactive.messaging.kafka.fault.DeserializerWrapper;
+import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
+import io.vertx.mutiny.core.Vertx;
+
+class ParallelRecordDeserializerTest extends WeldTestBase {
+
+    private static final String TOPIC = "my-topic";
+
+    private final List<ParallelRecordDeserializer<?, ?>> deserializers = new ArrayList<>();
+    private Vertx vertx;
+    private KafkaSource<String, String> source;
+
+    @BeforeEach
+    void initializing() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void closing() {
+        deserializers.forEach(ParallelRecordDeserializer::close);
+        if (source != null) {
+            source.closeQuietly();
+        }
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void testOrderIsPreserved() {
+        ThreadRecordingDeserializer valueDeserializer = new ThreadRecordingDeserializer();
+        ParallelRecordDeserializer<String, String> deserializer = create(new StringDeserializer(), valueDeserializer);
+
+        Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> raw = new HashMap<>();
+        for (int p = 0; p < 3; p++) {
+            List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                records.add(new ConsumerRecord<>(TOPIC, p, i, bytes("k" + i), bytes(p + "-" + i)));
+            }
+            raw.put(new TopicPartition(TOPIC, p), records);
+        }
+        // a null value is not passed to the deserializer
+        raw.get(new TopicPartition(TOPIC, 0)).set(10, new ConsumerRecord<>(TOPIC, 0, 10, bytes("k10"), null));
+
+        ConsumerRecords<String, String> records = deserializer.deserialize(new MockConsumer<>(OffsetResetStrategy.EARLIEST),
+                new ConsumerRecords<>(raw));
+
+        assertThat(records.count()).isEqualTo(1500);
+        for (int p = 0; p < 3; p++) {
+            List<ConsumerRecord<String, String>> partition = records.records(new TopicPartition(TOPIC, p));
+            assertThat(partition).hasSize(500);
+            for (int i = 0; i < 500; i++) {
+                ConsumerRecord<String, String> record = partition.get(i);
+                assertThat(record.offset()).isEqualTo(i);
+                assertThat(record.key()).isEqualTo("k" + i);
+                if (p != 0 || i != 10) {
+                    assertThat(record.value()).isEqualTo(p + "-" + i);
+                }
+            }
+        }
+        assertThat(records.records(new TopicPartition(TOPIC, 0)).get(10).value()).isNull();
+        assertThat(valueDeserializer.threads).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void testFailureRewindsThePartitions() {
+        DeserializerWrapper<String> valueDeserializer = new DeserializerWrapper<>(FailingDeserializer.class.getName(),
+                false, null, (t, b) -> {
+                }, true);
+        ParallelRecordDeserializer<String, String> deserializer = create(new StringDeserializer(), valueDeserializer);
+
+        TopicPartition tp0 = new TopicPartition(TOPIC, 0);
+        TopicPartition tp1 = new TopicPartition(TOPIC, 1);
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(tp0, tp1));
+        consumer.seek(tp0, 100);
+        consumer.seek(tp1, 100);
+
+        Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> raw = new HashMap<>();
+        List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(new ConsumerRecord<>(TOPIC, 0, 40 + i, null, bytes(i == 80 ? "fail" : "v" + i)));
+        }
+        raw.put(tp0, records);
+        raw.put(tp1, List.of(new ConsumerRecord<>(TOPIC, 1, 99, null, bytes("v"))));
+
+        assertThatThrownBy(() -> deserializer.deserialize(consumer, new ConsumerRecords<>(raw)))
+                .isInstanceOf(KafkaException.class);
+        assertThat(consumer.position(tp0)).isEqualTo(40);
+        assertThat(consumer.position(tp1)).isEqualTo(99);
+    }
+
+    @Test
+    void testFailureIgnored() {
+        DeserializerWrapper<String> valueDeserializer = new DeserializerWrapper<>(FailingDeserializer.class.getName(),
+                false, null, (t, b) -> {
+                }, false);
+        ParallelRecordDeserializer<String, String> deserializer = create(new StringDeserializer(), valueDeserializer);
+
+        TopicPartition tp = new TopicPartition(TOPIC, 0);
+        ConsumerRecords<String, String> records = deserializer.deserialize(new MockConsumer<>(OffsetResetStrategy.EARLIEST),
+                new ConsumerRecords<>(Map.of(tp, List.of(
+                        new ConsumerRecord<>(TOPIC, 0, 0, null, bytes("v0")),
+                        new ConsumerRecord<>(TOPIC, 0, 1, null, bytes("fail")),
+                        new ConsumerRecord<>(TOPIC, 0, 2, null, bytes("v2"))))));
+
+        assertThat(records.records(tp)).extracting(ConsumerRecord::value).containsExactly("v0", null, "v2");
+        assertThat(records.records(tp).get(1).headers()
+                .lastHeader(DeserializationFailureHandler.DESERIALIZATION_FAILURE_REASON)).isNotNull();
+    }
+
+    @Test
+    void testBatchConsumption() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("channel-name", "channel")
+                .with("graceful-shutdown", false)
+                .with("topic", TOPIC)
+                .with("health-enabled", false)
+                .with("tracing-enabled", false)
+                .with("batch", true)
+                .with("lazy-client", true)
+                .with("deserialization-threads", 2)
+                .with("client.id", UUID.randomUUID().toString())
+                .with("value.deserializer", StringDeserializer.class.getName());
+        source = new KafkaSource<>(vertx, UUID.randomUUID().toString(),
+                new KafkaConnectorIncomingConfiguration(config), commitHandlerFactories, failureHandlerFactories,
+                getBeanManager().createInstance().select(KafkaConsumerRebalanceListener.class),
+                CountKafkaCdiEvents.noCdiEvents, getDeserializationFailureHandlers(), -1);
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        injectMockConsumer(source, consumer);
+
+        List<Message<?>> list = new CopyOnWriteArrayList<>();
+        source.getBatchStream().subscribe().with(list::add);
+
+        TopicPartition tp0 = new TopicPartition(TOPIC, 0);
+        TopicPartition tp1 = new TopicPartition(TOPIC, 1);
+        consumer.updateBeginningOffsets(Map.of(tp0, 0L, tp1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(List.of(tp0, tp1));
+            for (int i = 0; i < 100; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, i % 2, i / 2, bytes("k"), bytes("v" + i)));
+            }
+        });
+
+        await().until(() -> list.size() == 1);
+        @SuppressWarnings("unchecked")
+        KafkaRecordBatch<String, String> batch = (KafkaRecordBatch<String, String>) list.get(0);
+        assertThat(batch.getPayload()).hasSize(100);
+        List<String> partition0 = new ArrayList<>();
+        batch.getRecords().stream().filter(r -> r.getPartition() == 0).forEach(r -> partition0.add(r.getPayload()));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i += 2) {
+            expected.add("v" + i);
+        }
+        assertThat(partition0).containsExactlyElementsOf(expected);
+        assertThat(batch.getRecords()).allSatisfy(r -> assertThat(r.getKey()).isEqualTo("k"));
+    }
+
+    @Test
+    void testExposedConsumerPollsDeserializedRecords() {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("channel-name", "channel")
+                .with("graceful-shutdown", false)
+                .with("topic", TOPIC)
+                .with("health-enabled", false)
+                .with("tracing-enabled", false)
+                .with("lazy-client", true)
+                .with("deserialization-threads", 2)
+                .with("client.id", UUID.randomUUID().toString())
+                .with("value.deserializer", StringDeserializer.class.getName());
+        source = new KafkaSource<>(vertx, UUID.randomUUID().toString(),
+                new KafkaConnectorIncomingConfiguration(config), commitHandlerFactories, failureHandlerFactories,
+                getBeanManager().createInstance().select(KafkaConsumerRebalanceListener.class),
+                CountKafkaCdiEvents.noCdiEvents, getDeserializationFailureHandlers(), -1);
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        injectMockConsumer(source, consumer);
+
+        TopicPartition tp = new TopicPartition(TOPIC, 0);
+        consumer.assign(List.of(tp));
+        consumer.updateBeginningOffsets(Map.of(tp, 0L));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 0, bytes("k"), bytes("v")));
+
+        // the raw byte[] client is not exposed
+        assertThat(source.getConsumer().unwrap()).isNotSameAs(consumer);
+        ConsumerRecords<String, String> records = source.getConsumer()
+                .runOnPollingThread((Function<Consumer<String, String>, ConsumerRecords<String, String>>) c -> c
+                        .poll(Duration.ZERO))
+                .await().indefinitely();
+        assertThat(records.count()).isEqualTo(1);
+        ConsumerRecord<String, String> record = records.iterator().next();
+        assertThat(record.key()).isEqualTo("k");
+        assertThat(record.value()).isEqualTo("v");
+    }
+
+    private <K, V> ParallelRecordDeserializer<K, V> create(Deserializer<K> key, Deserializer<V> value) {
+        ParallelRecordDeserializer<K, V> deserializer = new ParallelRecordDeserializer<>(key, value, 4);
+        deserializers.add(deserializer);
+        return deserializer;
+    }
+
+    private Instance<DeserializationFailureHandler<?>> getDeserializationFailureHandlers() {
+        return getBeanManager().createInstance().select(
+                new TypeLiteral<DeserializationFailureHandler<?>>() {
+                });
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static class ThreadRecordingDeserializer extends StringDeserializer {
+
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        @Override
+        public String deserialize(String topic, Headers headers, byte[] data) {
+            threads.add(Thread.currentThread());
+            return super.deserialize(topic, headers, data);
+        }
+    }
+
+    public static class FailingDeserializer extends StringDeserializer {
+
+        @Override
+        public String deserialize(String topic, byte[] data) {
+            String value = super.deserialize(topic, data);
+            if ("fail".equals(value)) {
+                throw new IllegalArgumentException("boom");
+            }
+            return value;
+        }
+    }
+}
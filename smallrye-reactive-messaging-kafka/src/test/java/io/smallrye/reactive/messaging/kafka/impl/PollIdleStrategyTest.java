@@ -0,0 +1,93 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class PollIdleStrategyTest {
+
+    @Test
+    void testFixed() {
+        PollIdleStrategy strategy = PollIdleStrategy.create("channel", "fixed", 2, 1000, 10);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(2);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(2);
+        assertThat(strategy.getIdleInterval()).isEqualTo(2);
+        strategy.onRecords();
+        assertThat(strategy.getIdleInterval()).isZero();
+    }
+
+    @Test
+    void testExponential() {
+        PollIdleStrategy strategy = PollIdleStrategy.create("channel", "exponential", 2, 20, 10);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(2);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(4);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(8);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(16);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(20);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(20);
+        assertThat(strategy.getIdleInterval()).isEqualTo(20);
+
+        strategy.onRecords();
+        assertThat(strategy.getIdleInterval()).isZero();
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(2);
+    }
+
+    @Test
+    void testLongPoll() {
+        PollIdleStrategy strategy = PollIdleStrategy.create("channel", "long-poll", 2, 1000, 10);
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+        assertThat(strategy.getIdleInterval()).isZero();
+    }
+
+    @Test
+    void testSpinThenPark() {
+        PollIdleStrategy strategy = PollIdleStrategy.create("channel", "spin-then-park", 2, 500, 3);
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(500);
+        assertThat(strategy.onEmptyPoll(false)).isEqualTo(500);
+
+        strategy.onRecords();
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+    }
+
+    @Test
+    void testPausedUsesMinDelay() {
+        PollIdleStrategy strategy = PollIdleStrategy.create("channel", "exponential", 2, 1000, 10);
+        strategy.onEmptyPoll(false);
+        strategy.onEmptyPoll(false);
+        assertThat(strategy.onEmptyPoll(true)).isEqualTo(2);
+        assertThat(strategy.getIdleInterval()).isEqualTo(2);
+
+        strategy = PollIdleStrategy.create("channel", "long-poll", 5, 1000, 10);
+        assertThat(strategy.onEmptyPoll(true)).isEqualTo(5);
+    }
+
+    @Test
+    void testPausedDoesNotSpinWithoutMinDelay() {
+        PollIdleStrategy strategy = PollIdleStrategy.create("channel", "fixed", 0, 1000, 10);
+        assertThat(strategy.onEmptyPoll(false)).isZero();
+        // paused polls return immediately, so the polling loop must wait before polling again
+        assertThat(strategy.onEmptyPoll(true)).isEqualTo(1);
+        assertThat(strategy.getIdleInterval()).isEqualTo(1);
+
+        strategy = PollIdleStrategy.create("channel", "long-poll", 0, 1000, 10);
+        assertThat(strategy.onEmptyPoll(true)).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThatThrownBy(() -> PollIdleStrategy.create("channel", "unknown", 2, 1000, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown");
+        assertThatThrownBy(() -> PollIdleStrategy.create("channel", "fixed", -1, 1000, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("poll-idle-min-delay");
+        assertThatThrownBy(() -> PollIdleStrategy.create("channel", "spin-then-park", 2, 1000, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("poll-idle-spins");
+    }
+}
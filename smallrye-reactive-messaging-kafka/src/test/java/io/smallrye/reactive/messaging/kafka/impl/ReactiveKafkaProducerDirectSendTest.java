@@ -0,0 +1,68 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+
+class ReactiveKafkaProducerDirectSendTest {
+
+    private ReactiveKafkaProducer<String, String> producer;
+
+    @AfterEach
+    void close() {
+        if (producer != null) {
+            producer.close();
+        }
+    }
+
+    @Test
+    void testRetriedLaneSendIsCountedOncePerSubscription() {
+        producer = create();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        // no broker, each attempt fails once max.block.ms has elapsed waiting for the topic metadata
+        Uni<RecordMetadata> send = producer.send(new ProducerRecord<>("topic", "key", "value"))
+                .onSubscription().invoke(subscriptions::incrementAndGet)
+                .onFailure().retry().atMost(2);
+
+        assertThatThrownBy(() -> send.await().atMost(Duration.ofSeconds(10)))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(subscriptions).hasValue(3);
+        assertThat(producer.pendingLaneSends()).isZero();
+    }
+
+    @Test
+    void testUnsubscribedSendIsNotCounted() {
+        producer = create();
+
+        producer.send(new ProducerRecord<>("topic", "key", "value"));
+
+        assertThat(producer.pendingLaneSends()).isZero();
+    }
+
+    private static ReactiveKafkaProducer<String, String> create() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1");
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, "direct-send-test");
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 200);
+        return new ReactiveKafkaProducer<>(config, "channel", 1000, true, 1, true, null, null, null,
+                (p, c) -> {
+                });
+    }
+}
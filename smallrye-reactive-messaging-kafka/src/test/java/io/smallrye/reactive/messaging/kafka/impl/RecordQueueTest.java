@@ -0,0 +1,197 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class RecordQueueTest {
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Integer> drainAll(RecordQueue<Integer> queue) {
+        List<Integer> list = new ArrayList<>();
+        queue.drain(list::add, Integer.MAX_VALUE);
+        return list;
+    }
+
+    @Test
+    void testCapacityIsRoundedToPowerOfTwo() {
+        assertThat(new RecordQueue<>(0).capacity()).isEqualTo(2);
+        assertThat(new RecordQueue<>(3).capacity()).isEqualTo(4);
+        assertThat(new RecordQueue<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new RecordQueue<>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void testOfferAndPoll() {
+        RecordQueue<Integer> queue = new RecordQueue<>(4);
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.isEmpty()).isTrue();
+
+        queue.offer(1);
+        queue.offer(2);
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.poll()).isEqualTo(1);
+        assertThat(queue.poll()).isEqualTo(2);
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void testOverflowPreservesOrder() {
+        RecordQueue<Integer> queue = new RecordQueue<>(4);
+        queue.addAll(range(0, 10));
+        assertThat(queue.size()).isEqualTo(10);
+
+        assertThat(queue.poll()).isEqualTo(0);
+        assertThat(queue.poll()).isEqualTo(1);
+        // the ring has free slots but the overflow is not drained yet
+        queue.offer(10);
+        queue.addAll(range(11, 13));
+
+        assertThat(drainAll(queue)).containsExactlyElementsOf(range(2, 13));
+        assertThat(queue.isEmpty()).isTrue();
+
+        // back to the ring
+        queue.addAll(range(13, 16));
+        assertThat(drainAll(queue)).containsExactlyElementsOf(range(13, 16));
+    }
+
+    @Test
+    void testDrainWithLimit() {
+        RecordQueue<Integer> queue = new RecordQueue<>(8);
+        queue.addAll(range(0, 6));
+        List<Integer> list = new ArrayList<>();
+        assertThat(queue.drain(list::add, 4)).isEqualTo(4);
+        assertThat(list).containsExactly(0, 1, 2, 3);
+        assertThat(queue.drain(list::add, 4)).isEqualTo(2);
+        assertThat(list).containsExactlyElementsOf(range(0, 6));
+        assertThat(queue.drain(list::add, 4)).isZero();
+    }
+
+    @Test
+    void testDrainTo() {
+        RecordQueue<Integer> queue = new RecordQueue<>(4);
+        queue.addAll(range(0, 7));
+        Object[] array = new Object[5];
+        assertThat(queue.drainTo(array, 3)).isEqualTo(3);
+        assertThat(array).containsExactly(0, 1, 2, null, null);
+        // drains the rest of the ring, then the overflow
+        assertThat(queue.drainTo(array, 5)).isEqualTo(4);
+        assertThat(array).containsExactly(3, 4, 5, 6, null);
+        assertThat(queue.drainTo(array, 5)).isZero();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void testClear() {
+        RecordQueue<Integer> queue = new RecordQueue<>(4);
+        queue.addAll(range(0, 10));
+        queue.clear();
+        assertThat(queue.size()).isZero();
+        assertThat(queue.poll()).isNull();
+
+        queue.addAll(range(0, 3));
+        assertThat(drainAll(queue)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void testRewriteQueue() {
+        RecordQueue<Integer> queue = new RecordQueue<>(8);
+        queue.addAll(range(0, 12));
+        assertThat(queue.poll()).isEqualTo(0);
+
+        queue.rewriteQueue(i -> i % 2 == 0 ? null : i * 10);
+        assertThat(queue.size()).isEqualTo(6);
+
+        assertThat(drainAll(queue)).containsExactly(10, 30, 50, 70, 90, 110);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testRemovePartitions() {
+        // the partition of a record is its hundreds digit
+        RecordQueue<Integer> queue = new RecordQueue<>(64, i -> i / 100);
+        for (int batch = 0; batch < 10; batch++) {
+            queue.addAll(0, range(batch * 2, batch * 2 + 2));
+            queue.addAll(1, range(100 + batch * 2, 100 + batch * 2 + 2));
+            queue.addAll(2, range(200 + batch, 201 + batch));
+        }
+        assertThat(queue.poll()).isEqualTo(0);
+        assertThat(queue.size()).isEqualTo(49);
+
+        queue.removePartitions(List.of(0, 2));
+        assertThat(queue.size()).isEqualTo(20);
+        assertThat(drainAll(queue)).containsExactlyElementsOf(range(100, 120));
+
+        queue.addAll(0, range(20, 22));
+        queue.removePartitions(List.of(1));
+        assertThat(drainAll(queue)).containsExactly(20, 21);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testRemovePartitionsWithOverflow() {
+        RecordQueue<Integer> queue = new RecordQueue<>(4, i -> i / 100);
+        queue.addAll(0, range(0, 3));
+        queue.addAll(1, range(100, 103));
+        queue.addAll(0, range(3, 5));
+        assertThat(queue.size()).isEqualTo(8);
+
+        queue.removePartitions(List.of(1));
+        assertThat(queue.size()).isEqualTo(5);
+        assertThat(drainAll(queue)).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void testRemovePartitionsAfterConsumption() {
+        RecordQueue<Integer> queue = new RecordQueue<>(8, i -> i / 100);
+        for (int i = 0; i < 100; i++) {
+            queue.addAll(0, List.of(i));
+            queue.addAll(1, List.of(100 + (i % 100)));
+            assertThat(drainAll(queue)).hasSize(2);
+        }
+        queue.addAll(0, range(0, 3));
+        queue.addAll(1, range(100, 103));
+        queue.removePartitions(List.of(0));
+        assertThat(drainAll(queue)).containsExactly(100, 101, 102);
+    }
+
+    @Test
+    void testConcurrentProducerAndConsumer() throws Exception {
+        RecordQueue<Integer> queue = new RecordQueue<>(64);
+        int count = 1_000_000;
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            int i = 0;
+            while (i < count) {
+                int end = Math.min(count, i + 50);
+                queue.addAll(range(i, end));
+                i = end;
+            }
+        });
+
+        int expected = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (expected < count && System.nanoTime() < deadline) {
+            Integer item = queue.poll();
+            if (item != null) {
+                assertThat(item).isEqualTo(expected);
+                expected++;
+            }
+        }
+        producer.get(10, TimeUnit.SECONDS);
+        assertThat(expected).isEqualTo(count);
+        assertThat(queue.poll()).isNull();
+    }
+
+}
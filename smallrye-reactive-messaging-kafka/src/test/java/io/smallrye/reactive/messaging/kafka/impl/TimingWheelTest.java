@@ -0,0 +1,76 @@
+package io.smallrye.reactive.messaging.kafka.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    @Test
+    void testItemsExpireInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 8, 1000);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // spans several wheels: 80ms, 640ms, 5120ms...
+            long deadline = 1001 + random.nextInt(100_000);
+            deadlines.add(deadline);
+            assertThat(wheel.schedule(deadline, deadline, 1000)).isNotNull();
+        }
+        assertThat(wheel.size()).isEqualTo(2000);
+
+        List<Long> expired = new ArrayList<>();
+        for (long now = 1000; now <= 101_010; now += 7) {
+            long time = now;
+            wheel.advance(now, deadline -> {
+                // never before the deadline, at most a tick after it
+                assertThat(deadline).isLessThanOrEqualTo(time);
+                assertThat(time - deadline).isLessThan(10 + 7);
+                expired.add(deadline);
+            });
+        }
+        deadlines.sort(Long::compare);
+        assertThat(wheel.isEmpty()).isTrue();
+        assertThat(expired).hasSize(2000);
+        // expired by tick, deadlines being rounded up to the next tick
+        for (int i = 1; i < expired.size(); i++) {
+            assertThat((expired.get(i) + 9) / 10).isGreaterThanOrEqualTo((expired.get(i - 1) + 9) / 10);
+        }
+        assertThat(expired).containsExactlyInAnyOrderElementsOf(deadlines);
+    }
+
+    @Test
+    void testCancellation() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        TimingWheel.Timeout<String> a = wheel.schedule("a", 100, 0);
+        wheel.schedule("b", 5000, 0);
+        a.cancel();
+        a.cancel();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(5000, expired::add);
+        assertThat(expired).containsExactly("b");
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testDueItemsAreNotScheduled() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        assertThat(wheel.schedule("a", 0, 0)).isNull();
+        assertThat(wheel.schedule("a", 1, 0)).isNotNull();
+
+        // the time elapsed while the wheel is empty is skipped
+        TimingWheel<String> empty = new TimingWheel<>(10, 8, 0);
+        assertThat(empty.schedule("a", 1_000_000, 999_995)).isNotNull();
+        List<String> expired = new ArrayList<>();
+        empty.advance(999_999, expired::add);
+        assertThat(expired).isEmpty();
+        empty.advance(1_000_000, expired::add);
+        assertThat(expired).containsExactly("a");
+    }
+}
@@ -0,0 +1,168 @@
+package io.smallrye.reactive.messaging.kafka.metrics;
+
+import static io.smallrye.reactive.messaging.kafka.base.MockKafkaUtils.injectMockConsumer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.enterprise.util.TypeLiteral;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.reactive.messaging.kafka.CountKafkaCdiEvents;
+import io.smallrye.reactive.messaging.kafka.DeserializationFailureHandler;
+import io.smallrye.reactive.messaging.kafka.KafkaConnectorIncomingConfiguration;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import io.smallrye.reactive.messaging.kafka.base.WeldTestBase;
+import io.smallrye.reactive.messaging.kafka.impl.KafkaSource;
+import io.smallrye.reactive.messaging.test.common.config.MapBasedConfig;
+import io.vertx.mutiny.core.Vertx;
+
+public class KafkaConnectorMetricsTest extends WeldTestBase {
+
+    private static final String TOPIC = "my-topic";
+
+    private Vertx vertx;
+    private MockConsumer<String, String> consumer;
+    private KafkaSource<String, String> source;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void initializing() {
+        vertx = Vertx.vertx();
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void closing() {
+        if (source != null) {
+            source.closeQuietly();
+        }
+        vertx.closeAndAwait();
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    void testMicrometerMetrics() {
+        String clientId = UUID.randomUUID().toString();
+        List<Message<?>> list = consume(clientId);
+
+        Gauge unacknowledged = registry.find("kafka.consumer.partition.unacknowledged")
+                .tag("client.id", clientId).tag("topic", TOPIC).tag("partition", "0").gauge();
+        assertThat(unacknowledged).isNotNull();
+        await().untilAsserted(() -> assertThat(unacknowledged.value()).isEqualTo(3.0));
+        assertThat(registry.find("kafka.consumer.queue.size").tag("client.id", clientId).gauge()).isNotNull();
+        assertThat(registry.find("kafka.consumer.paused").tag("client.id", clientId).gauge().value()).isZero();
+
+        list.forEach(m -> m.ack().toCompletableFuture().join());
+
+        FunctionTimer ackLatency = registry.find("kafka.consumer.record.ack.latency")
+                .tag("channel", "channel").tag("client.id", clientId).functionTimer();
+        assertThat(ackLatency.count()).isEqualTo(3.0);
+        assertThat(unacknowledged.value()).isZero();
+        await().untilAsserted(() -> assertThat(registry.find("kafka.consumer.commit.latency")
+                .tag("client.id", clientId).functionTimer().count()).isGreaterThan(0.0));
+
+        source.closeQuietly();
+        source = null;
+        assertThat(registry.find("kafka.consumer.record.ack.latency").tag("client.id", clientId).meters()).isEmpty();
+        assertThat(registry.find("kafka.consumer.commit.latency").tag("client.id", clientId).meters()).isEmpty();
+        assertThat(registry.find("kafka.consumer.partition.unacknowledged").tag("client.id", clientId).meters())
+                .isEmpty();
+    }
+
+    @Test
+    void testMicroProfileMetrics() {
+        weld.addExtensions(MetricCdiInjectionExtension.class);
+        String clientId = UUID.randomUUID().toString();
+        List<Message<?>> list = consume(clientId);
+        list.forEach(m -> m.ack().toCompletableFuture().join());
+
+        MetricRegistry base = getBeanManager().createInstance().select(MetricRegistry.class, BaseRegistry.INSTANCE)
+                .get();
+        // MicroProfile Metrics tag names cannot contain dots
+        Tag[] tags = { new Tag("channel", "channel"), new Tag("client_id", clientId) };
+        assertThat(base.getGauge(new MetricID("kafka.consumer.record.ack.latency.count", tags)).getValue())
+                .isEqualTo(3.0);
+        assertThat(base.getGauge(new MetricID("kafka.consumer.queue.size", tags))).isNotNull();
+        assertThat(base.getGauge(new MetricID("kafka.consumer.partition.unacknowledged", new Tag("channel", "channel"),
+                new Tag("client_id", clientId), new Tag("topic", TOPIC), new Tag("partition", "0"))).getValue())
+                .isEqualTo(0.0);
+    }
+
+    private List<Message<?>> consume(String clientId) {
+        MapBasedConfig config = new MapBasedConfig()
+                .with("channel-name", "channel")
+                .with("graceful-shutdown", false)
+                .with("topic", TOPIC)
+                .with("health-enabled", false)
+                .with("tracing-enabled", false)
+                .with("value.deserializer", StringDeserializer.class.getName())
+                .with("commit-strategy", "throttled")
+                .with("auto.commit.interval.ms", 100)
+                .with("lazy-client", true)
+                .with("client.id", clientId);
+        Instance<KafkaConsumerRebalanceListener> listeners = getBeanManager().createInstance()
+                .select(KafkaConsumerRebalanceListener.class);
+        source = new KafkaSource<>(vertx, UUID.randomUUID().toString(),
+                new KafkaConnectorIncomingConfiguration(config), commitHandlerFactories, failureHandlerFactories,
+                listeners, CountKafkaCdiEvents.noCdiEvents,
+                getBeanManager().createInstance().select(new TypeLiteral<DeserializationFailureHandler<?>>() {
+                }), -1);
+        injectMockConsumer(source, consumer);
+
+        List<Message<?>> list = new CopyOnWriteArrayList<>();
+        source.getStream().subscribe().with(list::add);
+
+        TopicPartition tp0 = new TopicPartition(TOPIC, 0);
+        consumer.updateBeginningOffsets(Map.of(tp0, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(List.of(tp0));
+            for (int i = 0; i < 3; i++) {
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, System.currentTimeMillis(),
+                        TimestampType.CREATE_TIME, -1, -1, "k", "v" + i, new RecordHeaders(), Optional.empty()));
+            }
+        });
+        await().until(() -> list.size() == 3);
+        return list;
+    }
+
+    @SuppressWarnings("serial")
+    private static class BaseRegistry extends AnnotationLiteral<RegistryType> implements RegistryType {
+        static final BaseRegistry INSTANCE = new BaseRegistry();
+
+        @Override
+        public MetricRegistry.Type type() {
+            return MetricRegistry.Type.BASE;
+        }
+    }
+}
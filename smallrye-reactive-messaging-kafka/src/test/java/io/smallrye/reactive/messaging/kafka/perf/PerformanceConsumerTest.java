@@ -88,6 +88,36 @@ public class PerformanceConsumerTest extends KafkaCompanionTestBase {
         System.out.println("Post-Ack / Throttled - Estimate: " + (end - start) + " ms");
     }
 
+    @Test
+    public void testWithPostAckThrottledAndLargePolls() {
+        MyConsumerUsingPostAck application = runApplication(commonConfig()
+                .with("max.poll.records", 2000),
+                MyConsumerUsingPostAck.class);
+        await()
+                .atMost(Duration.ofSeconds(TIMEOUT_IN_SECONDS))
+                .until(() -> application.getCount() == COUNT);
+        long start = application.getStart();
+        long end = System.currentTimeMillis();
+
+        System.out.println("Post-Ack / Throttled / max.poll.records=2000 - Estimate: " + (end - start) + " ms");
+    }
+
+    @Test
+    public void testWithPostAckThrottledAndBulkDrain() {
+        MyConsumerUsingPostAck application = runApplication(commonConfig()
+                .with("max.poll.records", 2000)
+                .with("bulk-drain-size", 256),
+                MyConsumerUsingPostAck.class);
+        await()
+                .atMost(Duration.ofSeconds(TIMEOUT_IN_SECONDS))
+                .until(() -> application.getCount() == COUNT);
+        long start = application.getStart();
+        long end = System.currentTimeMillis();
+
+        System.out.println("Post-Ack / Throttled / max.poll.records=2000 / bulk-drain-size=256 - Estimate: "
+                + (end - start) + " ms");
+    }
+
     @Test
     public void testWithNoAck() {
         MyConsumerUsingNoAck application = runApplication(commonConfig()
@@ -0,0 +1,212 @@
+package io.smallrye.reactive.messaging.kafka.transactions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TransactionAbortedException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
+import io.smallrye.reactive.messaging.kafka.KafkaProducer;
+import io.smallrye.reactive.messaging.providers.DefaultEmitterConfiguration;
+
+class TransactionBatchingTest {
+
+    private static final String TOPIC = "in";
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testRecordsAreGroupedBySize() {
+        KafkaTransactionsImpl<String> transactions = create(3, 0, Duration.ofSeconds(30));
+
+        for (int i = 0; i < 7; i++) {
+            assertThat(process(transactions, record(i % 2, i / 2, "v"))).isEqualTo("ok");
+        }
+
+        await().until(() -> events.size() == 9);
+        assertThat(events).containsExactly(
+                "begin", "flush", "offsets {in-0=2, in-1=1}", "commit",
+                "begin", "flush", "offsets {in-0=3, in-1=3}", "commit",
+                "begin");
+        assertThat(transactions.isTransactionInProgress()).isTrue();
+        assertThatThrownBy(() -> transactions.withTransaction(e -> Uni.createFrom().voidItem()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testRecordsAreGroupedByBytes() {
+        KafkaTransactionsImpl<String> transactions = create(100, 10, Duration.ofSeconds(30));
+
+        process(transactions, record(0, 0, "12345"));
+        process(transactions, record(0, 1, "12345"));
+        process(transactions, record(0, 2, "12345"));
+
+        await().until(() -> events.size() == 5);
+        assertThat(events).containsExactly("begin", "flush", "offsets {in-0=2}", "commit", "begin");
+    }
+
+    @Test
+    void testGroupIsCommittedAfterLinger() {
+        KafkaTransactionsImpl<String> transactions = create(100, 0, Duration.ofMillis(100));
+
+        process(transactions, record(0, 0, "v"));
+        process(transactions, record(0, 1, "v"));
+        assertThat(events).containsExactly("begin");
+
+        await().until(() -> !transactions.isTransactionInProgress());
+        assertThat(events).containsExactly("begin", "flush", "offsets {in-0=2}", "commit");
+    }
+
+    @Test
+    void testGroupIsCommittedOnceProcessedWithoutLinger() {
+        KafkaTransactionsImpl<String> transactions = create(100, 0, Duration.ZERO);
+
+        // the records join the group while the previous ones are still processed
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        CompletableFuture<String> firstResult = transactions
+                .withTransaction(record(0, 0, "v"), emitter -> Uni.createFrom().completionStage(first))
+                .subscribeAsCompletionStage();
+        CompletableFuture<String> secondResult = transactions
+                .withTransaction(record(0, 1, "v"), emitter -> Uni.createFrom().completionStage(second))
+                .subscribeAsCompletionStage();
+
+        first.complete("ok");
+        assertThat(firstResult).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("ok");
+        assertThat(events).containsExactly("begin");
+        second.complete("ok");
+        assertThat(secondResult).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("ok");
+
+        await().until(() -> !transactions.isTransactionInProgress() && events.size() == 4);
+        assertThat(events).containsExactly("begin", "flush", "offsets {in-0=2}", "commit");
+
+        // the next record starts a new transaction
+        assertThat(process(transactions, record(0, 2, "v"))).isEqualTo("ok");
+        await().until(() -> !transactions.isTransactionInProgress() && events.size() == 8);
+        assertThat(events).containsExactly(
+                "begin", "flush", "offsets {in-0=2}", "commit",
+                "begin", "flush", "offsets {in-0=3}", "commit");
+    }
+
+    @Test
+    void testFailureAbortsTheGroup() {
+        KafkaTransactionsImpl<String> transactions = create(5, 0, Duration.ofSeconds(30));
+
+        process(transactions, record(0, 0, "v"));
+        process(transactions, record(0, 1, "v"));
+        Uni<String> failing = transactions.withTransaction(record(0, 2, "v"),
+                emitter -> Uni.createFrom().failure(new IllegalArgumentException("boom")));
+        assertThatThrownBy(() -> failing.await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(events).containsExactly("begin", "abort", "reset");
+        assertThat(transactions.isTransactionInProgress()).isFalse();
+
+        // the records are reprocessed in a new transaction
+        process(transactions, record(0, 0, "v"));
+        assertThat(events).containsExactly("begin", "abort", "reset", "begin");
+    }
+
+    @Test
+    void testMarkForAbortAbortsTheGroup() {
+        KafkaTransactionsImpl<String> transactions = create(5, 0, Duration.ofSeconds(30));
+
+        process(transactions, record(0, 0, "v"));
+        Uni<String> aborted = transactions.withTransaction(record(0, 1, "v"), emitter -> {
+            emitter.markForAbort();
+            return Uni.createFrom().item("ok");
+        });
+        assertThatThrownBy(() -> aborted.await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(TransactionAbortedException.class);
+        assertThat(events).containsExactly("begin", "abort", "reset");
+    }
+
+    private String process(KafkaTransactionsImpl<String> transactions, Message<?> message) {
+        return transactions.withTransaction(message, emitter -> Uni.createFrom().item("ok"))
+                .await().atMost(Duration.ofSeconds(5));
+    }
+
+    private static Message<?> record(int partition, long offset, String value) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, partition, offset, 0L,
+                TimestampType.CREATE_TIME, -1, value.length(), null, value, new RecordHeaders(), Optional.empty());
+        return new IncomingKafkaRecord<>(record, "channel", -1, null, null, false, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private KafkaTransactionsImpl<String> create(int batchSize, long batchBytes, Duration linger) {
+        KafkaProducer<?, ?> producer = (KafkaProducer<?, ?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { KafkaProducer.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "beginTransaction":
+                            events.add("begin");
+                            return Uni.createFrom().voidItem();
+                        case "flush":
+                            events.add("flush");
+                            return Uni.createFrom().voidItem();
+                        case "commitTransaction":
+                            events.add("commit");
+                            return Uni.createFrom().voidItem();
+                        case "abortTransaction":
+                            events.add("abort");
+                            return Uni.createFrom().voidItem();
+                        case "sendOffsetsToTransaction":
+                            Map<TopicPartition, OffsetAndMetadata> offsets = (Map<TopicPartition, OffsetAndMetadata>) args[0];
+                            events.add("offsets " + new TreeMap<>(offsets.entrySet().stream()
+                                    .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().offset()))));
+                            return Uni.createFrom().voidItem();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        KafkaConsumer<?, ?> consumer = (KafkaConsumer<?, ?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { KafkaConsumer.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "consumerGroupMetadata":
+                            return Uni.createFrom().item(new ConsumerGroupMetadata("group"));
+                        case "resetToLastCommittedPositions":
+                            events.add("reset");
+                            return Uni.createFrom().voidItem();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        KafkaClientService clientService = (KafkaClientService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { KafkaClientService.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getProducer":
+                            return producer;
+                        case "getConsumers":
+                            return List.of(consumer);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return new KafkaTransactionsImpl<>(new DefaultEmitterConfiguration("out", null, null, null), 16,
+                clientService, batchSize, batchBytes, linger);
+    }
+}
@@ -13,6 +13,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Flow;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import jakarta.enterprise.inject.Instance;
 
@@ -28,6 +29,8 @@ import io.smallrye.reactive.messaging.providers.connectors.WorkerPoolRegistry;
 import io.smallrye.reactive.messaging.providers.extension.HealthCenter;
 import io.smallrye.reactive.messaging.providers.helpers.BroadcastHelper;
 import io.smallrye.reactive.messaging.providers.helpers.ConverterUtils;
+import io.smallrye.reactive.messaging.providers.helpers.KeyOrderedExecutor;
+import io.smallrye.reactive.messaging.providers.helpers.MessageBatcher;
 import io.smallrye.reactive.messaging.providers.locals.LocalContextMetadata;
 import io.vertx.mutiny.core.Context;
 import io.vertx.mutiny.core.Vertx;
@@ -36,6 +39,11 @@ public abstract class AbstractMediator {
 
     protected final MediatorConfiguration configuration;
     private final Function<Message<?>, Object[]> methodArgumentMapper;
+    /**
+     * The extractors of each argument when the method consumes messages or payloads with one or two parameters,
+     * {@code null} otherwise.
+     */
+    private final Function<Message<?>, Object>[] argumentExtractors;
     protected WorkerPoolRegistry workerPoolRegistry;
     private Invoker invoker;
     private Instance<PublisherDecorator> decorators;
@@ -45,16 +53,21 @@ public abstract class AbstractMediator {
     private Instance<MessageConverter> converters;
     private Instance<KeyValueExtractor> extractors;
     private int maxConcurrency;
+    private KeyOrderedExecutor keyOrderedExecutor;
 
+    @SuppressWarnings("unchecked")
     public AbstractMediator(MediatorConfiguration configuration) {
         this.configuration = configuration;
 
         Function<Message<?>, Object[]> mapper = null;
+        Function<Message<?>, Object>[] argumentExtractors = null;
         if (configuration.consumption() == MediatorConfiguration.Consumption.MESSAGE) {
             mapper = msg -> new Object[] { msg };
+            argumentExtractors = new Function[] { Function.identity() };
         } else if (configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD) {
             if (configuration.getParameterDescriptor().getTypes().size() == 1) {
                 mapper = msg -> new Object[] { msg.getPayload() };
+                argumentExtractors = new Function[] { (Function<Message<?>, Object>) Message::getPayload };
             } else {
                 List<Class<?>> parameters = configuration.getParameterDescriptor().getTypes();
                 @SuppressWarnings("unchecked")
@@ -79,9 +92,13 @@ public abstract class AbstractMediator {
                     }
                 }
                 mapper = msg -> Arrays.stream(extractors).map(extractor -> extractor.apply(msg)).toArray(Object[]::new);
+                if (extractors.length == 2) {
+                    argumentExtractors = extractors;
+                }
             }
         }
         this.methodArgumentMapper = mapper;
+        this.argumentExtractors = argumentExtractors;
     }
 
     public synchronized void setInvoker(Invoker invoker) {
@@ -128,19 +145,28 @@ public abstract class AbstractMediator {
         // Method overriding initialize MUST call super(bean).
         synchronized (this) {
             if (this.invoker == null) {
-                this.invoker = args -> {
-                    try {
-                        return this.configuration.getMethod().invoke(bean, args);
-                    } catch (Exception e) {
-                        throw ex.processingException(configuration.methodAsString(), e);
-                    }
-                };
+                try {
+                    this.invoker = MethodHandleInvoker.create(configuration.methodAsString(), configuration.getMethod(),
+                            bean);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    // the method cannot be looked up, fallback to reflection
+                    this.invoker = args -> {
+                        try {
+                            return this.configuration.getMethod().invoke(bean, args);
+                        } catch (Exception failure) {
+                            throw ex.processingException(configuration.methodAsString(), failure);
+                        }
+                    };
+                }
             }
         }
         Objects.requireNonNull(this.invoker, msg.invokerNotInitialized());
         if (this.configuration.isBlocking()) {
             Objects.requireNonNull(this.workerPoolRegistry, msg.workerPoolNotInitialized());
         }
+        if (this.configuration.getKeyOrdered() != null) {
+            this.keyOrderedExecutor = new KeyOrderedExecutor(extractors, configuration);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -153,10 +179,44 @@ public abstract class AbstractMediator {
         }
     }
 
+    /**
+     * Invokes the method with the arguments extracted from the given message.
+     * Methods with one or two parameters are invoked without allocating an argument array, unless an {@link Invoker}
+     * has been provided.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T invokeWithArgumentsOf(Message<?> message) {
+        try {
+            return (T) doInvoke(message);
+        } catch (RuntimeException e) { // NOSONAR
+            log.methodException(configuration().methodAsString(), e);
+            throw e;
+        }
+    }
+
+    private Object doInvoke(Message<?> message) {
+        Invoker current = this.invoker;
+        if (argumentExtractors == null || !(current instanceof MethodHandleInvoker)) {
+            return current.invoke(getArguments(message));
+        }
+        MethodHandleInvoker direct = (MethodHandleInvoker) current;
+        if (argumentExtractors.length == 1) {
+            return direct.invoke(argumentExtractors[0].apply(message));
+        }
+        return direct.invoke(argumentExtractors[0].apply(message), argumentExtractors[1].apply(message));
+    }
+
     protected <T> Uni<T> invokeOnMessageContext(Message<?> message, Object... args) {
         return LocalContextMetadata.invokeOnMessageContext(message, x -> invoke(args));
     }
 
+    /**
+     * Invokes the method on the context of the message, with the arguments extracted from the message.
+     */
+    protected <T> Uni<T> invokeOnMessageContext(Message<?> message) {
+        return LocalContextMetadata.invokeOnMessageContext(message, this::invokeWithArgumentsOf);
+    }
+
     protected <T> Object[] getArguments(Message<T> message) {
         if (methodArgumentMapper != null) {
             return methodArgumentMapper.apply(message);
@@ -166,29 +226,43 @@ public abstract class AbstractMediator {
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected <T> Uni<T> invokeBlocking(Message<?> message, Object... args) {
+        return executeBlocking(message, () -> this.invoker.invoke(args));
+    }
+
+    /**
+     * Invokes the method on a worker thread, or on a virtual thread, with the arguments extracted from the message.
+     */
+    protected <T> Uni<T> invokeBlocking(Message<?> message) {
+        return executeBlocking(message, () -> doInvoke(message));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Uni<T> executeBlocking(Message<?> message, Supplier<Object> invocation) {
         try {
             Optional<LocalContextMetadata> metadata = message != null ? message.getMetadata().get(LocalContextMetadata.class)
                     : Optional.empty();
             Context currentContext = metadata.map(m -> Context.newInstance(m.context()))
                     .orElseGet(Vertx::currentContext);
-            return workerPoolRegistry.executeWork(currentContext,
-                    Uni.createFrom().deferred(() -> {
-                        try {
-                            Object result = this.invoker.invoke(args);
-                            if (result instanceof CompletionStage) {
-                                return Uni.createFrom().completionStage((CompletionStage<T>) result);
-                            } else if (result instanceof Uni) {
-                                return (Uni<T>) result;
-                            } else {
-                                return Uni.createFrom().item((T) result);
-                            }
-                        } catch (RuntimeException e) {
-                            log.methodException(configuration().methodAsString(), e);
-                            return Uni.createFrom().failure(e);
-                        }
-                    }),
+            Uni<T> uni = Uni.createFrom().deferred(() -> {
+                try {
+                    Object result = invocation.get();
+                    if (result instanceof CompletionStage) {
+                        return Uni.createFrom().completionStage((CompletionStage<T>) result);
+                    } else if (result instanceof Uni) {
+                        return (Uni<T>) result;
+                    } else {
+                        return Uni.createFrom().item((T) result);
+                    }
+                } catch (RuntimeException e) {
+                    log.methodException(configuration().methodAsString(), e);
+                    return Uni.createFrom().failure(e);
+                }
+            });
+            if (configuration.isRunOnVirtualThread()) {
+                return workerPoolRegistry.executeOnVirtualThread(currentContext, uni);
+            }
+            return workerPoolRegistry.executeWork(currentContext, uni,
                     configuration.getWorkerPoolName(),
                     configuration.isBlockingExecutionOrdered());
         } catch (RuntimeException e) {
@@ -197,6 +271,21 @@ public abstract class AbstractMediator {
         }
     }
 
+    /**
+     * Applies the ordering by key of the concurrent invocations, if enabled for the method.
+     * The given processing must include the acknowledgement of the message, so acknowledgements are ordered by key too.
+     *
+     * @param message the message
+     * @param processing the supplier of the processing of the message
+     * @return the result of the processing, delayed until the previous messages with the same key are processed
+     */
+    protected <T> Uni<T> inKeyOrder(Message<?> message, Supplier<Uni<T>> processing) {
+        if (keyOrderedExecutor == null) {
+            return processing.get();
+        }
+        return keyOrderedExecutor.execute(message, processing);
+    }
+
     protected CompletionStage<Message<?>> getAckOrCompletion(Message<?> message) {
         CompletionStage<Void> ack = message.ack();
         if (ack != null) {
@@ -293,6 +382,12 @@ public abstract class AbstractMediator {
     }
 
     public Multi<? extends Message<?>> convert(Multi<? extends Message<?>> upstream) {
+        if (configuration.getBatchSize() > 0) {
+            // Convert the items of the batches, not the batches themselves
+            Multi<? extends Message<?>> converted = ConverterUtils.convert(upstream, converters,
+                    configuration.getBatchItemType());
+            return MessageBatcher.batch(converted, configuration.getBatchSize(), configuration.getBatchLinger());
+        }
         return ConverterUtils.convert(upstream, converters, configuration.getIngestedPayloadType());
     }
 
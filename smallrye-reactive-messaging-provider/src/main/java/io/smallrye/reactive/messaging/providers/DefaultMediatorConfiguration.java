@@ -7,6 +7,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -19,15 +20,18 @@ import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.reactive.messaging.Invoker;
 import io.smallrye.reactive.messaging.MediatorConfiguration;
 import io.smallrye.reactive.messaging.MethodParameterDescriptor;
 import io.smallrye.reactive.messaging.Shape;
+import io.smallrye.reactive.messaging.annotations.Batched;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.smallrye.reactive.messaging.annotations.Broadcast;
 import io.smallrye.reactive.messaging.annotations.Incomings;
 import io.smallrye.reactive.messaging.annotations.Merge;
 import io.smallrye.reactive.messaging.annotations.Outgoings;
+import io.smallrye.reactive.messaging.keyed.KeyOrdered;
 import io.smallrye.reactive.messaging.keyed.KeyValueExtractor;
 import io.smallrye.reactive.messaging.keyed.Keyed;
 import io.smallrye.reactive.messaging.providers.helpers.TypeUtils;
@@ -82,6 +86,16 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
 
     private boolean isOrderedExecution;
 
+    private boolean isRunOnVirtualThread = false;
+
+    private Class<? extends KeyValueExtractor> keyOrdered;
+
+    private int batchSize = 0;
+
+    private Duration batchLinger;
+
+    private Type batchItemType;
+
     private final MediatorConfigurationSupport mediatorConfigurationSupport;
 
     private Type ingestedPayloadType;
@@ -234,6 +248,19 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
                 this.workerPoolName = blocking.value();
             }
         }
+        if (method.isAnnotationPresent(RunOnVirtualThread.class)) {
+            // Unless configured with @Blocking, invocations are not ordered, the point being to run them concurrently
+            this.isBlocking = true;
+            this.isRunOnVirtualThread = true;
+            this.isOrderedExecution = blocking != null && blocking.ordered();
+        }
+        KeyOrdered ordered = method.getAnnotation(KeyOrdered.class);
+        if (ordered != null) {
+            if (!this.isBlocking || this.isOrderedExecution) {
+                throw ex.definitionKeyOrderedRequiresUnorderedBlocking(methodAsString());
+            }
+            this.keyOrdered = ordered.value();
+        }
 
         MediatorConfigurationSupport.ValidationOutput validationOutput = this.mediatorConfigurationSupport.validate(this.shape,
                 this.acknowledgment);
@@ -259,6 +286,16 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
             this.mediatorConfigurationSupport.validateBlocking(validationOutput);
         }
 
+        Batched batched = method.getAnnotation(Batched.class);
+        if (batched != null) {
+            if (batched.size() <= 0 || batched.lingerMs() <= 0) {
+                throw ex.definitionBatchedInvalidBounds(methodAsString());
+            }
+            this.batchItemType = this.mediatorConfigurationSupport.validateBatch(validationOutput);
+            this.batchSize = batched.size();
+            this.batchLinger = Duration.ofMillis(batched.lingerMs());
+        }
+
         ingestedPayloadType = validationOutput.getIngestedPayloadType();
         keyType = validationOutput.getKeyType();
         valueType = validationOutput.getValueType();
@@ -388,6 +425,31 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         return isOrderedExecution;
     }
 
+    @Override
+    public boolean isRunOnVirtualThread() {
+        return isRunOnVirtualThread;
+    }
+
+    @Override
+    public Class<? extends KeyValueExtractor> getKeyOrdered() {
+        return keyOrdered;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public Duration getBatchLinger() {
+        return batchLinger;
+    }
+
+    @Override
+    public Type getBatchItemType() {
+        return batchItemType;
+    }
+
     @Override
     public Class<? extends Invoker> getInvokerClass() {
         return null;
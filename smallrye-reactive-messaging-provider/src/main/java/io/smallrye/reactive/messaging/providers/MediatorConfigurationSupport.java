@@ -29,6 +29,7 @@ import io.smallrye.reactive.messaging.annotations.Merge;
 import io.smallrye.reactive.messaging.keyed.KeyValueExtractor;
 import io.smallrye.reactive.messaging.keyed.KeyedMulti;
 import io.smallrye.reactive.messaging.providers.helpers.ClassUtils;
+import io.smallrye.reactive.messaging.providers.helpers.TypeUtils;
 
 public class MediatorConfigurationSupport {
 
@@ -649,6 +650,35 @@ public class MediatorConfigurationSupport {
         }
     }
 
+    /**
+     * Validates the signature of a {@link io.smallrye.reactive.messaging.annotations.Batched} method, which must consume
+     * a {@code List<T>} or a {@code Message<List<T>>}, and produce individual items.
+     *
+     * @param validationOutput the validation output
+     * @return the type of the items of the batches, {@code null} if it cannot be extracted
+     */
+    public Type validateBatch(ValidationOutput validationOutput) {
+        MediatorConfiguration.Production production = validationOutput.production;
+        if (production == MediatorConfiguration.Production.STREAM_OF_MESSAGE
+                || production == MediatorConfiguration.Production.STREAM_OF_PAYLOAD
+                || production == MediatorConfiguration.Production.SPLIT_MULTI_OF_MESSAGE
+                || production == MediatorConfiguration.Production.SPLIT_MULTI_OF_PAYLOAD) {
+            throw ex.definitionBatchedSignature(methodAsString);
+        }
+        if (parameterTypes.length != 1) {
+            throw ex.definitionBatchedSignature(methodAsString);
+        }
+        if (validationOutput.consumption == MediatorConfiguration.Consumption.PAYLOAD
+                && parameterTypes[0].equals(List.class)) {
+            return firstMethodParamTypeAssignable.getType(0);
+        }
+        if (validationOutput.consumption == MediatorConfiguration.Consumption.MESSAGE
+                && List.class.equals(TypeUtils.getRawTypeIfParameterized(firstMethodParamTypeAssignable.getType(0)))) {
+            return firstMethodParamTypeAssignable.getType(0, 0);
+        }
+        throw ex.definitionBatchedSignature(methodAsString);
+    }
+
     public void strict() {
         this.strict = true;
     }
@@ -0,0 +1,190 @@
+package io.smallrye.reactive.messaging.providers;
+
+import static io.smallrye.reactive.messaging.providers.i18n.ProviderExceptions.ex;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import io.smallrye.reactive.messaging.Invoker;
+
+/**
+ * An {@link Invoker} calling the mediator method through a {@link MethodHandle} bound to the bean instance, created once
+ * at deployment time, when no invoker is generated for the method (as Quarkus does).
+ * <p>
+ * Methods with up to two parameters get a specialised instance, and {@link #invoke(Object)} and
+ * {@link #invoke(Object, Object)} call them without allocating an argument array.
+ * <p>
+ * As with {@link Method#invoke(Object, Object...)}, the failures thrown by the method are reported as a
+ * {@link ProcessingException} caused by an {@link InvocationTargetException}.
+ */
+abstract class MethodHandleInvoker implements Invoker {
+
+    private final String methodAsString;
+
+    private MethodHandleInvoker(String methodAsString) {
+        this.methodAsString = methodAsString;
+    }
+
+    /**
+     * Creates the invoker of the given method.
+     *
+     * @param methodAsString the method description, used in the error messages
+     * @param method the method, made accessible beforehand if it is not public
+     * @param bean the bean instance, ignored for static methods
+     * @return the invoker
+     * @throws IllegalAccessException if the method cannot be accessed
+     */
+    static MethodHandleInvoker create(String methodAsString, Method method, Object bean) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(bean);
+        }
+        int arity = method.getParameterCount();
+        // Box primitives, and return null for void methods
+        handle = handle.asType(MethodType.genericMethodType(arity));
+        switch (arity) {
+            case 0:
+                return new Arity0(methodAsString, handle);
+            case 1:
+                return new Arity1(methodAsString, handle);
+            case 2:
+                return new Arity2(methodAsString, handle);
+            default:
+                return new ArityN(methodAsString, handle.asSpreader(Object[].class, arity));
+        }
+    }
+
+    /**
+     * Invokes a method with a single parameter.
+     */
+    abstract Object invoke(Object arg);
+
+    /**
+     * Invokes a method with two parameters.
+     */
+    abstract Object invoke(Object arg0, Object arg1);
+
+    RuntimeException failure(Throwable cause) {
+        return ex.processingException(methodAsString, new InvocationTargetException(cause));
+    }
+
+    RuntimeException wrongArity() {
+        return new IllegalStateException("Unexpected number of arguments for method " + methodAsString);
+    }
+
+    private static final class Arity0 extends MethodHandleInvoker {
+        private final MethodHandle handle;
+
+        Arity0(String methodAsString, MethodHandle handle) {
+            super(methodAsString);
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            try {
+                return handle.invokeExact();
+            } catch (Throwable t) {
+                throw failure(t);
+            }
+        }
+
+        @Override
+        Object invoke(Object arg) {
+            throw wrongArity();
+        }
+
+        @Override
+        Object invoke(Object arg0, Object arg1) {
+            throw wrongArity();
+        }
+    }
+
+    private static final class Arity1 extends MethodHandleInvoker {
+        private final MethodHandle handle;
+
+        Arity1(String methodAsString, MethodHandle handle) {
+            super(methodAsString);
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            return invoke(args[0]);
+        }
+
+        @Override
+        Object invoke(Object arg) {
+            try {
+                return handle.invokeExact(arg);
+            } catch (Throwable t) {
+                throw failure(t);
+            }
+        }
+
+        @Override
+        Object invoke(Object arg0, Object arg1) {
+            throw wrongArity();
+        }
+    }
+
+    private static final class Arity2 extends MethodHandleInvoker {
+        private final MethodHandle handle;
+
+        Arity2(String methodAsString, MethodHandle handle) {
+            super(methodAsString);
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            return invoke(args[0], args[1]);
+        }
+
+        @Override
+        Object invoke(Object arg) {
+            throw wrongArity();
+        }
+
+        @Override
+        Object invoke(Object arg0, Object arg1) {
+            try {
+                return handle.invokeExact(arg0, arg1);
+            } catch (Throwable t) {
+                throw failure(t);
+            }
+        }
+    }
+
+    private static final class ArityN extends MethodHandleInvoker {
+        private final MethodHandle handle;
+
+        ArityN(String methodAsString, MethodHandle handle) {
+            super(methodAsString);
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            try {
+                return handle.invokeExact(args);
+            } catch (Throwable t) {
+                throw failure(t);
+            }
+        }
+
+        @Override
+        Object invoke(Object arg) {
+            throw wrongArity();
+        }
+
+        @Override
+        Object invoke(Object arg0, Object arg1) {
+            throw wrongArity();
+        }
+    }
+}
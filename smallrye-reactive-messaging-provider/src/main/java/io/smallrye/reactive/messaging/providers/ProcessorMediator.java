@@ -256,7 +256,7 @@ public class ProcessorMediator extends AbstractMediator {
         this.mapper = upstream -> {
             Multi<? extends Message<?>> multi = MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration);
             return multi.onItem().transformToMultiAndConcatenate(message -> {
-                PublisherBuilder<?> pb = invoke(getArguments(message));
+                PublisherBuilder<?> pb = invokeWithArgumentsOf(message);
                 if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
                     // POST_PROCESSING must not be used when returning an infinite stream
                     AcknowledgementCoordinator coordinator = new AcknowledgementCoordinator(message);
@@ -274,7 +274,7 @@ public class ProcessorMediator extends AbstractMediator {
         this.mapper = upstream -> {
             Multi<? extends Message<?>> multi = MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration);
             return multi.onItem().transformToMultiAndConcatenate(message -> {
-                Publisher<?> pub = invoke(getArguments(message));
+                Publisher<?> pub = invokeWithArgumentsOf(message);
                 if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
                     // POST_PROCESSING must not be used when returning an infinite stream
                     AcknowledgementCoordinator coordinator = new AcknowledgementCoordinator(message);
@@ -292,7 +292,7 @@ public class ProcessorMediator extends AbstractMediator {
         this.mapper = upstream -> {
             Multi<? extends Message<?>> multi = MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration);
             return multi.onItem().transformToMultiAndConcatenate(message -> {
-                Flow.Publisher<?> pub = invoke(getArguments(message));
+                Flow.Publisher<?> pub = invokeWithArgumentsOf(message);
                 if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
                     // POST_PROCESSING must not be used when returning an infinite stream
                     AcknowledgementCoordinator coordinator = new AcknowledgementCoordinator(message);
@@ -314,7 +314,7 @@ public class ProcessorMediator extends AbstractMediator {
                     Multi<? extends Message<?>> multi = MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration);
                     return multi
                             .onItem()
-                            .transformToMultiAndConcatenate(message -> invokeBlocking(message, getArguments(message))
+                            .transformToMultiAndConcatenate(message -> invokeBlocking(message)
                                     .onItemOrFailure()
                                     .transformToUni((o, t) -> this.handlePostInvocationWithMessage((Message<?>) o, t))
                                     .onItem().transformToMulti(this::handleSkip));
@@ -323,9 +323,9 @@ public class ProcessorMediator extends AbstractMediator {
                 this.mapper = upstream -> {
                     Multi<? extends Message<?>> multi = MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration);
                     return multi
-                            .onItem().transformToMulti(message -> invokeBlocking(message, getArguments(message))
+                            .onItem().transformToMulti(message -> inKeyOrder(message, () -> invokeBlocking(message)
                                     .onItemOrFailure()
-                                    .transformToUni((o, t) -> this.handlePostInvocationWithMessage((Message<?>) o, t))
+                                    .transformToUni((o, t) -> this.handlePostInvocationWithMessage((Message<?>) o, t)))
                                     .onItem().transformToMulti(this::handleSkip))
                             .merge(maxConcurrency());
                 };
@@ -336,7 +336,7 @@ public class ProcessorMediator extends AbstractMediator {
                 Multi<? extends Message<?>> multi = MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration);
                 return multi
                         .onItem().transformToMultiAndConcatenate(
-                                message -> invokeOnMessageContext(message, getArguments(message))
+                                message -> invokeOnMessageContext(message)
                                         .onItem().transform(o -> (Message<?>) o)
                                         .onItemOrFailure().transformToUni(this::handlePostInvocationWithMessage)
                                         .onItem().transformToMulti(this::handleSkip));
@@ -354,13 +354,13 @@ public class ProcessorMediator extends AbstractMediator {
             if (configuration.isBlockingExecutionOrdered()) {
                 this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                         .onItem()
-                        .transformToMultiAndConcatenate(message -> invokeBlocking(message, getArguments(message))
+                        .transformToMultiAndConcatenate(message -> invokeBlocking(message)
                                 .onItemOrFailure().transformToUni((r, f) -> handlePostInvocation(message, r, f))
                                 .onItem().transformToMulti(this::handleSkip));
             } else {
                 this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
-                        .onItem().transformToMulti(message -> invokeBlocking(message, getArguments(message))
-                                .onItemOrFailure().transformToUni((r, f) -> handlePostInvocation(message, r, f))
+                        .onItem().transformToMulti(message -> inKeyOrder(message, () -> invokeBlocking(message)
+                                .onItemOrFailure().transformToUni((r, f) -> handlePostInvocation(message, r, f)))
                                 .onItem().transformToMulti(this::handleSkip))
                         .merge(maxConcurrency());
             }
@@ -368,7 +368,7 @@ public class ProcessorMediator extends AbstractMediator {
         } else {
             this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                     .onItem().transformToMultiAndConcatenate(
-                            message -> invokeOnMessageContext(message, getArguments(message))
+                            message -> invokeOnMessageContext(message)
                                     .onItemOrFailure().transformToUni((r, f) -> handlePostInvocation(message, r, f))
                                     .onItem().transformToMulti(this::handleSkip));
         }
@@ -422,7 +422,7 @@ public class ProcessorMediator extends AbstractMediator {
     private void processMethodReturningACompletionStageOfMessageAndConsumingIndividualItem() {
         this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                 .onItem().transformToMultiAndConcatenate(
-                        message -> invokeOnMessageContext(message, getArguments(message))
+                        message -> invokeOnMessageContext(message)
                                 .onItem().transformToUni(cs -> Uni.createFrom().completionStage((CompletionStage<?>) cs))
                                 .onItemOrFailure().transformToUni((r, f) -> handlePostInvocationWithMessage((Message<?>) r, f))
                                 .onItem().transformToMulti(this::handleSkip));
@@ -431,7 +431,7 @@ public class ProcessorMediator extends AbstractMediator {
     private void processMethodReturningAUniOfMessageAndConsumingIndividualItem() {
         this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                 .onItem().transformToMultiAndConcatenate(
-                        message -> invokeOnMessageContext(message, getArguments(message))
+                        message -> invokeOnMessageContext(message)
                                 .onItem().transformToUni(u -> (Uni<?>) u)
                                 .onItemOrFailure().transformToUni((r, f) -> handlePostInvocationWithMessage((Message<?>) r, f))
                                 .onItem().transformToMulti(this::handleSkip));
@@ -440,7 +440,7 @@ public class ProcessorMediator extends AbstractMediator {
     private void processMethodReturningACompletionStageOfPayloadAndConsumingIndividualItem() {
         this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                 .onItem().transformToMultiAndConcatenate(
-                        message -> invokeOnMessageContext(message, getArguments(message))
+                        message -> invokeOnMessageContext(message)
                                 .onItem().transformToUni(cs -> Uni.createFrom().completionStage((CompletionStage<?>) cs))
                                 .onItemOrFailure().transformToUni((r, f) -> handlePostInvocation(message, r, f))
                                 .onItem().transformToMulti(this::handleSkip));
@@ -449,7 +449,7 @@ public class ProcessorMediator extends AbstractMediator {
     private void processMethodReturningAUniOfPayloadAndConsumingIndividualItem() {
         this.mapper = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                 .onItem().transformToMultiAndConcatenate(
-                        message -> invokeOnMessageContext(message, getArguments(message))
+                        message -> invokeOnMessageContext(message)
                                 .onItem().transformToUni(u -> (Uni<?>) u)
                                 .onItemOrFailure().transformToUni((r, f) -> handlePostInvocation(message, r, f))
                                 .onItem().transformToMulti(this::handleSkip));
@@ -159,14 +159,14 @@ public class SubscriberMediator extends AbstractMediator {
         if (configuration.isBlocking()) {
             if (configuration.isBlockingExecutionOrdered()) {
                 this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
-                        .onItem().transformToUniAndConcatenate(msg -> invokeBlocking(msg, getArguments(msg))
+                        .onItem().transformToUniAndConcatenate(msg -> invokeBlocking(msg)
                                 .onItemOrFailure().transformToUni(handleInvocationResult(msg)))
                         .onFailure()
                         .invoke(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure));
             } else {
                 this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
-                        .onItem().transformToUni(msg -> invokeBlocking(msg, getArguments(msg))
-                                .onItemOrFailure().transformToUni(handleInvocationResult(msg)))
+                        .onItem().transformToUni(msg -> inKeyOrder(msg, () -> invokeBlocking(msg)
+                                .onItemOrFailure().transformToUni(handleInvocationResult(msg))))
                         .merge(maxConcurrency())
                         .onFailure()
                         .invoke(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure));
@@ -175,7 +175,7 @@ public class SubscriberMediator extends AbstractMediator {
             this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                     .onItem()
                     .transformToUniAndConcatenate(
-                            msg -> invokeOnMessageContext(msg, getArguments(msg))
+                            msg -> invokeOnMessageContext(msg)
                                     .onItemOrFailure().transformToUni(handleInvocationResult(msg)))
                     .onFailure().invoke(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure));
         }
@@ -211,13 +211,14 @@ public class SubscriberMediator extends AbstractMediator {
                         .onFailure().invoke(this::reportFailure);
             } else {
                 this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
-                        .onItem().transformToUni(this::invokeBlockingAndHandleOutcome).merge(maxConcurrency())
+                        .onItem().transformToUni(msg -> inKeyOrder(msg, () -> invokeBlockingAndHandleOutcome(msg)))
+                        .merge(maxConcurrency())
                         .onFailure().invoke(this::reportFailure);
             }
         } else {
             this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                     .onItem().transformToUniAndConcatenate(msg -> {
-                        Uni<?> uni = invokeOnMessageContext(msg, getArguments(msg))
+                        Uni<?> uni = invokeOnMessageContext(msg)
                                 .onItem().transformToUni(cs -> Uni.createFrom().completionStage((CompletionStage<?>) cs));
                         return uni.onItemOrFailure().transformToUni(handleInvocationResult(msg));
                     })
@@ -226,7 +227,7 @@ public class SubscriberMediator extends AbstractMediator {
     }
 
     private Uni<? extends Message<?>> invokeBlockingAndHandleOutcome(Message<?> msg) {
-        Uni<?> uni = invokeBlocking(msg, getArguments(msg));
+        Uni<?> uni = invokeBlocking(msg);
         return uni.onItemOrFailure().transformToUni(handleInvocationResult(msg));
     }
 
@@ -244,13 +245,14 @@ public class SubscriberMediator extends AbstractMediator {
                         .onFailure().invoke(this::reportFailure);
             } else {
                 this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
-                        .onItem().transformToUni(this::invokeBlockingAndHandleOutcome).merge(maxConcurrency())
+                        .onItem().transformToUni(msg -> inKeyOrder(msg, () -> invokeBlockingAndHandleOutcome(msg)))
+                        .merge(maxConcurrency())
                         .onFailure().invoke(this::reportFailure);
             }
         } else {
             this.function = upstream -> MultiUtils.handlePreProcessingAcknowledgement(upstream, configuration)
                     .onItem().transformToUniAndConcatenate(msg -> {
-                        Uni<?> uni = invokeOnMessageContext(msg, getArguments(msg))
+                        Uni<?> uni = invokeOnMessageContext(msg)
                                 .onItem().transformToUni(u -> (Uni<?>) u);
                         return uni.onItemOrFailure().transformToUni(handleInvocationResult(msg));
                     })
@@ -27,9 +27,12 @@ import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.smallrye.reactive.messaging.providers.helpers.Validation;
+import io.smallrye.reactive.messaging.providers.helpers.VertxContext;
+import io.smallrye.reactive.messaging.providers.helpers.VirtualThreads;
 import io.vertx.mutiny.core.Context;
 import io.vertx.mutiny.core.WorkerExecutor;
 
@@ -37,6 +40,12 @@ import io.vertx.mutiny.core.WorkerExecutor;
 public class WorkerPoolRegistry {
     public static final String WORKER_CONFIG_PREFIX = "smallrye.messaging.worker";
     public static final String WORKER_CONCURRENCY = "max-concurrency";
+    /**
+     * The prefix of the configuration of methods annotated with {@link RunOnVirtualThread} and not naming a worker pool
+     * with {@link Blocking}: {@code smallrye.messaging.virtual-threads.max-concurrency}.
+     */
+    public static final String VIRTUAL_THREADS_CONFIG_PREFIX = "smallrye.messaging.virtual-threads";
+    public static final int DEFAULT_VIRTUAL_THREAD_CONCURRENCY = 1024;
 
     @Inject
     Instance<ExecutionHolder> executionHolder;
@@ -95,6 +104,44 @@ public class WorkerPoolRegistry {
         }
     }
 
+    /**
+     * Runs the given action on a new virtual thread.
+     * If a context is given, it is the current context of the virtual thread while the action runs, and the result is
+     * emitted on it.
+     *
+     * @param currentContext the context of the message, can be {@code null}
+     * @param uni the action
+     * @return the result of the action
+     */
+    public <T> Uni<T> executeOnVirtualThread(Context currentContext, Uni<T> uni) {
+        Objects.requireNonNull(uni, msg.actionNotProvided());
+        return Uni.createFrom().emitter(emitter -> {
+            Runnable task = () -> uni.subscribe().with(
+                    item -> {
+                        if (currentContext != null) {
+                            currentContext.runOnContext(() -> emitter.complete(item));
+                        } else {
+                            emitter.complete(item);
+                        }
+                    },
+                    failure -> {
+                        if (currentContext != null) {
+                            currentContext.runOnContext(() -> emitter.fail(failure));
+                        } else {
+                            emitter.fail(failure);
+                        }
+                    });
+            Thread thread;
+            if (currentContext != null) {
+                thread = VirtualThreads.factory()
+                        .newThread(() -> VertxContext.dispatch(currentContext.getDelegate(), task));
+            } else {
+                thread = VirtualThreads.factory().newThread(task);
+            }
+            thread.start();
+        });
+    }
+
     public WorkerExecutor getWorker(String workerName) {
         Objects.requireNonNull(workerName, msg.workerNameNotSpecified());
 
@@ -131,7 +178,7 @@ public class WorkerPoolRegistry {
         Set<AnnotatedMethod<? super T>> methods = annotatedType.getMethods();
 
         methods.stream()
-                .filter(m -> m.isAnnotationPresent(Blocking.class))
+                .filter(m -> m.isAnnotationPresent(Blocking.class) || m.isAnnotationPresent(RunOnVirtualThread.class))
                 .forEach(m -> defineWorker(m.getJavaMember()));
     }
 
@@ -165,6 +212,18 @@ public class WorkerPoolRegistry {
         String methodName = method.getName();
         String className = method.getDeclaringClass().getName();
 
+        if (method.isAnnotationPresent(RunOnVirtualThread.class)) {
+            if (!(method.isAnnotationPresent(Incoming.class) || method.isAnnotationPresent(Outgoing.class))) {
+                throw ex.illegalRunOnVirtualThreadSignature(className + "#" + methodName);
+            }
+            if (!VirtualThreads.isSupported()) {
+                throw ex.virtualThreadsNotSupported(className + "#" + methodName, System.getProperty("java.version"));
+            }
+            if (blocking == null) {
+                return;
+            }
+        }
+
         // Validate @Blocking is used in conjunction with @Incoming, or @Outgoing
         if (!(method.isAnnotationPresent(Incoming.class) || method.isAnnotationPresent(Outgoing.class))) {
             throw ex.illegalBlockingSignature(className + "#" + method);
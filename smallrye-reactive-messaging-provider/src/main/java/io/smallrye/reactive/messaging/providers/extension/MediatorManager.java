@@ -1,5 +1,7 @@
 package io.smallrye.reactive.messaging.providers.extension;
 
+import static io.smallrye.reactive.messaging.providers.connectors.WorkerPoolRegistry.DEFAULT_VIRTUAL_THREAD_CONCURRENCY;
+import static io.smallrye.reactive.messaging.providers.connectors.WorkerPoolRegistry.VIRTUAL_THREADS_CONFIG_PREFIX;
 import static io.smallrye.reactive.messaging.providers.connectors.WorkerPoolRegistry.WORKER_CONCURRENCY;
 import static io.smallrye.reactive.messaging.providers.connectors.WorkerPoolRegistry.WORKER_CONFIG_PREFIX;
 import static io.smallrye.reactive.messaging.providers.i18n.ProviderLogging.log;
@@ -111,6 +113,15 @@ public class MediatorManager {
             return -1;
         }
         String poolName = configuration.getWorkerPoolName();
+        if (configuration.isRunOnVirtualThread()) {
+            // virtual threads are not pooled, the max concurrency only bounds the number of in-flight invocations
+            String key = (poolName == null ? VIRTUAL_THREADS_CONFIG_PREFIX : WORKER_CONFIG_PREFIX + "." + poolName)
+                    + "." + WORKER_CONCURRENCY;
+            int concurrency = configInstance.get().getOptionalValue(key, Integer.class)
+                    .orElse(DEFAULT_VIRTUAL_THREAD_CONCURRENCY);
+            log.virtualThreadExecution(configuration.methodAsString(), concurrency);
+            return concurrency;
+        }
         // if the poll name is null we are on the default worker pool, set the default concurrent requests
         if (poolName == null) {
             return Queues.BUFFER_S;
@@ -17,6 +17,7 @@ import org.eclipse.microprofile.reactive.messaging.*;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.reactivestreams.Publisher;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import io.smallrye.reactive.messaging.EmitterConfiguration;
 import io.smallrye.reactive.messaging.EmitterFactory;
 import io.smallrye.reactive.messaging.EmitterType;
@@ -56,7 +57,8 @@ public class ReactiveMessagingExtension implements Extension {
         emitterFactoryBeans.add(new EmitterFactoryBean<>(annotatedType));
     }
 
-    <T> void processBlockingAnnotation(@Observes @WithAnnotations({ Blocking.class }) ProcessAnnotatedType<T> event) {
+    <T> void processBlockingAnnotation(
+            @Observes @WithAnnotations({ Blocking.class, RunOnVirtualThread.class }) ProcessAnnotatedType<T> event) {
         AnnotatedType<?> annotatedType = event.getAnnotatedType();
         workerPoolBeans.add(new WorkerPoolBean<>(annotatedType));
     }
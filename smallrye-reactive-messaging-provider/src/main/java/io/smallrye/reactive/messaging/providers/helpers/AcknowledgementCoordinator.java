@@ -1,9 +1,12 @@
 package io.smallrye.reactive.messaging.providers.helpers;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 
@@ -15,76 +18,69 @@ import org.eclipse.microprofile.reactive.messaging.Message;
  * For each message that needs to be tracked, the {@code track} method is called, which returned a modified message.
  * When all the added messages are acked, the coordinator acks the input message.
  * When one of the added message is nacked, the coordinator nacks the input message with the same reason.
+ * <p>
+ * The coordinator is lock-free: it only counts the pending messages, and completes the input message once.
  */
 public class AcknowledgementCoordinator {
 
-    private final Message<?> input;
+    private static final AtomicIntegerFieldUpdater<Acknowledgement> ACKNOWLEDGED = AtomicIntegerFieldUpdater
+            .newUpdater(Acknowledgement.class, "acknowledged");
 
-    private volatile boolean done;
-    private final List<Tracker> tracked = new ArrayList<>();
+    private final Message<?> input;
 
-    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean done = new AtomicBoolean();
 
     public AcknowledgementCoordinator(Message<?> input) {
         this.input = input;
     }
 
     public Message<?> track(Message<?> msg) {
-        lock.lock();
-        try {
-            Tracker tracker = new Tracker();
-            tracked.add(tracker);
-            return msg
-                    .withAck(() -> {
-                        onAck(tracker);
-                        return CompletableFuture.completedFuture(null);
-                    })
-                    .withNack(reason -> {
-                        onNack(reason, tracker);
-                        return CompletableFuture.completedFuture(null);
-                    });
-        } finally {
-            lock.unlock();
-        }
+        pending.incrementAndGet();
+        Acknowledgement acknowledgement = new Acknowledgement();
+        return msg.withAck(acknowledgement).withNack(acknowledgement);
     }
 
-    private void onAck(Tracker id) {
-        lock.lock();
-        try {
-            if (done) {
-                return;
-            }
-            if (tracked.remove(id)) {
-                if (tracked.isEmpty() && !done) {
-                    // Done!
-                    done = true;
-                    input.ack();
-                }
-                // Otherwise not done yet.
-            }
-        } finally {
-            lock.unlock();
+    private void onAck() {
+        if (pending.decrementAndGet() == 0 && done.compareAndSet(false, true)) {
+            input.ack();
         }
-        // Already acked or nack.
+        // Otherwise not done yet, or already acked or nacked.
     }
 
-    private void onNack(Throwable reason, Tracker id) {
-        lock.lock();
-        try {
-            if (done) {
-                return;
-            }
-            if (tracked.remove(id)) {
-                done = true;
-                tracked.clear();
-                input.nack(reason);
-            }
-        } finally {
-            lock.unlock();
+    private void onNack(Throwable reason) {
+        if (done.compareAndSet(false, true)) {
+            input.nack(reason);
         }
     }
 
-    static class Tracker {
+    /**
+     * The ack and nack functions of a tracked message, the flag ignoring the acknowledgements following the first one,
+     * so that a message acked twice is only counted once.
+     */
+    private final class Acknowledgement
+            implements Supplier<CompletionStage<Void>>, Function<Throwable, CompletionStage<Void>> {
 
+        private volatile int acknowledged;
+
+        private boolean acknowledge() {
+            return ACKNOWLEDGED.compareAndSet(this, 0, 1);
+        }
+
+        @Override
+        public CompletionStage<Void> get() {
+            if (acknowledge()) {
+                onAck();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletionStage<Void> apply(Throwable reason) {
+            if (acknowledge()) {
+                onNack(reason);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
     }
 }
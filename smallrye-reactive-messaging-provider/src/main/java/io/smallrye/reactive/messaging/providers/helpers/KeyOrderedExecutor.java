@@ -0,0 +1,172 @@
+package io.smallrye.reactive.messaging.providers.helpers;
+
+import static io.smallrye.reactive.messaging.providers.i18n.ProviderLogging.log;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.inject.Instance;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MediatorConfiguration;
+import io.smallrye.reactive.messaging.keyed.KeyValueExtractor;
+
+/**
+ * Runs the processing of messages concurrently, but in order for messages having the same key.
+ * <p>
+ * The processing of a message starts once the processing of the previous messages with the same key has completed
+ * (successfully or not). Each key with pending messages has a lane, a queue of the processing waiting for the current
+ * one; lanes are removed once empty, so only the keys of in-flight messages are kept.
+ * Messages are expected to be submitted in order, as done by {@code transformToUni(...).merge(n)}, which also bounds
+ * the number of queued messages.
+ * <p>
+ * The key is extracted by the {@link KeyValueExtractor} set with
+ * {@link io.smallrye.reactive.messaging.keyed.KeyOrdered}, or looked up until an extractor accepts a message.
+ * Only the key matters, so the lookup accepts any value type: the payload of the message may differ from the payload
+ * type of the method, for example when a converter is used.
+ * Messages whose key cannot be extracted use the {@code null} key, so they are processed one at a time; a warning is
+ * logged the first time no extractor accepts a message.
+ */
+public class KeyOrderedExecutor {
+
+    private final String method;
+    private final List<KeyValueExtractor> candidates;
+    private volatile KeyValueExtractor extractor;
+    private volatile boolean warned;
+
+    /**
+     * The lanes, guarded by the map itself.
+     */
+    private final Map<Object, ArrayDeque<Runnable>> lanes = new HashMap<>();
+
+    public KeyOrderedExecutor(Instance<KeyValueExtractor> extractors, MediatorConfiguration configuration) {
+        Class<? extends KeyValueExtractor> clazz = configuration.getKeyOrdered();
+        this.method = configuration.methodAsString();
+        if (clazz == null || clazz == KeyValueExtractor.class) {
+            this.candidates = CDIUtils.getSortedInstances(extractors);
+        } else {
+            // It throws an unsatisfied exception if not found
+            this.extractor = extractors.select(clazz).get();
+            this.candidates = List.of();
+        }
+    }
+
+    /**
+     * Extracts the key of the given message.
+     *
+     * @param message the message
+     * @return the key, {@code null} if no extractor can handle the message or the extraction fails
+     */
+    public Object key(Message<?> message) {
+        KeyValueExtractor current = extractor;
+        if (current == null) {
+            current = lookup(message);
+            if (current == null) {
+                return null;
+            }
+        }
+        try {
+            return current.extractKey(message, Object.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private KeyValueExtractor lookup(Message<?> message) {
+        for (KeyValueExtractor candidate : candidates) {
+            boolean accepted;
+            try {
+                accepted = candidate.canExtract(message, Object.class, Object.class);
+            } catch (RuntimeException e) {
+                // e.g. a null key or payload
+                accepted = false;
+            }
+            if (accepted) {
+                extractor = candidate;
+                return candidate;
+            }
+        }
+        if (!warned) {
+            warned = true;
+            log.noKeyValueExtractorForKeyOrderedMethod(method);
+        }
+        return null;
+    }
+
+    /**
+     * Processes the given message, once the processing of the previous messages with the same key has completed.
+     *
+     * @param message the message
+     * @param processing the supplier of the processing
+     * @return the result of the processing
+     */
+    public <T> Uni<T> execute(Message<?> message, Supplier<Uni<T>> processing) {
+        Object key = key(message);
+        return Uni.createFrom().emitter(emitter -> {
+            Runnable task = () -> {
+                Uni<T> uni;
+                try {
+                    uni = processing.get();
+                } catch (RuntimeException e) {
+                    emitter.fail(e);
+                    completed(key);
+                    return;
+                }
+                // the result is emitted before the next message with the same key is processed
+                uni.subscribe().with(item -> {
+                    emitter.complete(item);
+                    completed(key);
+                }, failure -> {
+                    emitter.fail(failure);
+                    completed(key);
+                });
+            };
+            if (enqueue(key, task)) {
+                task.run();
+            }
+        });
+    }
+
+    /**
+     * @return {@code true} if the task can run now, {@code false} if it has been queued behind the current one
+     */
+    private boolean enqueue(Object key, Runnable task) {
+        synchronized (lanes) {
+            ArrayDeque<Runnable> lane = lanes.get(key);
+            if (lane != null) {
+                lane.add(task);
+                return false;
+            }
+            lanes.put(key, new ArrayDeque<>(2));
+            return true;
+        }
+    }
+
+    private void completed(Object key) {
+        Runnable next;
+        synchronized (lanes) {
+            ArrayDeque<Runnable> lane = lanes.get(key);
+            next = lane.poll();
+            if (next == null) {
+                lanes.remove(key);
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    /**
+     * @return the number of keys having messages in flight
+     */
+    public int lanes() {
+        synchronized (lanes) {
+            return lanes.size();
+        }
+    }
+}
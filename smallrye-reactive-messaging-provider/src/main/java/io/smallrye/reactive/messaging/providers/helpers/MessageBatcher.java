@@ -0,0 +1,287 @@
+package io.smallrye.reactive.messaging.providers.helpers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.operators.AbstractMulti;
+import io.smallrye.mutiny.subscription.MultiSubscriber;
+
+/**
+ * A utility class grouping the messages of a stream into batches, a batch being a message whose payload is the list of
+ * the payloads of its messages.
+ * <p>
+ * The batches follow the downstream demand: the messages of a batch are only requested upstream once the batch is
+ * requested downstream, so a slow consumer of the batches slows down the upstream.
+ * A batch is emitted once it contains {@code size} messages, or once the linger time has elapsed since its first
+ * message. If the batch is not requested yet at that time, it is emitted as soon as it is.
+ * <p>
+ * This is the counterpart of the {@link AcknowledgementCoordinator}: the batch tracks the messages it is made of.
+ * When the batch is acked, all its messages are acked.
+ * When the batch is nacked, all its messages are nacked with the same reason.
+ * Only the first acknowledgement of the batch, positive or negative, is propagated.
+ * The batch carries the metadata of its first message, such as its context, so it is processed as this message would.
+ */
+public class MessageBatcher {
+
+    private MessageBatcher() {
+        // avoid direct instantiation
+    }
+
+    /**
+     * Groups the given stream into batches.
+     *
+     * @param upstream the stream of messages
+     * @param size the maximum number of messages of a batch
+     * @param linger the maximum time to wait for a batch to be complete before emitting a smaller one
+     * @return the stream of batches
+     */
+    public static Multi<? extends Message<?>> batch(Multi<? extends Message<?>> upstream, int size, Duration linger) {
+        return new AbstractMulti<Message<List<Object>>>() {
+            @Override
+            public void subscribe(MultiSubscriber<? super Message<List<Object>>> subscriber) {
+                upstream.subscribe().withSubscriber(new BatchSubscription(subscriber, size, linger.toMillis()));
+            }
+        };
+    }
+
+    /**
+     * Creates the batch of the given messages.
+     *
+     * @param messages the messages, must not be empty
+     * @return the batch
+     */
+    public static Message<List<Object>> toBatch(List<? extends Message<?>> messages) {
+        List<Object> payloads = new ArrayList<>(messages.size());
+        for (Message<?> message : messages) {
+            payloads.add(message.getPayload());
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        return Message.of(payloads, messages.get(0).getMetadata(),
+                () -> done.compareAndSet(false, true) ? ackAll(messages) : CompletableFuture.completedFuture(null),
+                reason -> done.compareAndSet(false, true) ? nackAll(messages, reason)
+                        : CompletableFuture.completedFuture(null));
+    }
+
+    private static CompletionStage<Void> ackAll(List<? extends Message<?>> messages) {
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[messages.size()];
+        for (int i = 0; i < acks.length; i++) {
+            acks[i] = messages.get(i).ack().toCompletableFuture();
+        }
+        return CompletableFuture.allOf(acks);
+    }
+
+    private static CompletionStage<Void> nackAll(List<? extends Message<?>> messages, Throwable reason) {
+        CompletableFuture<?>[] nacks = new CompletableFuture<?>[messages.size()];
+        for (int i = 0; i < nacks.length; i++) {
+            nacks[i] = messages.get(i).nack(reason).toCompletableFuture();
+        }
+        return CompletableFuture.allOf(nacks);
+    }
+
+    private static class BatchSubscription implements MultiSubscriber<Message<?>>, Flow.Subscription {
+
+        private final int size;
+        private final long lingerMs;
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private volatile MultiSubscriber<? super Message<List<Object>>> downstream;
+        private volatile Flow.Subscription upstream;
+
+        // guarded by this
+        private List<Message<?>> current;
+        private long upstreamRequested;
+        /**
+         * Whether the linger time of the current batch has elapsed.
+         */
+        private boolean expired;
+        private ScheduledFuture<?> linger;
+        private boolean done;
+        private Throwable failure;
+        private boolean cancelled;
+
+        private BatchSubscription(MultiSubscriber<? super Message<List<Object>>> downstream, int size, long lingerMs) {
+            this.downstream = downstream;
+            this.size = size;
+            this.lingerMs = lingerMs;
+            this.current = new ArrayList<>(size);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onItem(Message<?> message) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                upstreamRequested--;
+                current.add(message);
+                if (current.size() == 1) {
+                    List<Message<?>> batch = current;
+                    linger = Infrastructure.getDefaultWorkerPool().schedule(() -> expire(batch), lingerMs,
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onFailure(Throwable failure) {
+            synchronized (this) {
+                this.failure = failure;
+                this.done = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void onCompletion() {
+            synchronized (this) {
+                this.done = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                throw new IllegalArgumentException("Invalid request");
+            }
+            Subscriptions.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                current = new ArrayList<>(0);
+                cancelLinger();
+            }
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        private void expire(List<Message<?>> batch) {
+            synchronized (this) {
+                // the batch may have been emitted in the meantime
+                if (current != batch) {
+                    return;
+                }
+                expired = true;
+            }
+            drain();
+        }
+
+        // guarded by this
+        private void cancelLinger() {
+            if (linger != null) {
+                linger.cancel(false);
+                linger = null;
+            }
+            expired = false;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                List<Message<?>> batch;
+                long replenish = 0;
+                synchronized (this) {
+                    batch = cancelled ? null : next();
+                    if (batch != null) {
+                        requested.decrementAndGet();
+                    }
+                    // only request the messages of a requested batch
+                    long missing = size - current.size() - upstreamRequested;
+                    if (!cancelled && !done && missing > 0 && requested.get() > 0) {
+                        upstreamRequested += missing;
+                        replenish = missing;
+                    }
+                }
+                if (batch != null) {
+                    downstream.onItem(toBatch(batch));
+                }
+                if (replenish > 0) {
+                    upstream.request(replenish);
+                }
+                if (terminate()) {
+                    return;
+                }
+                if (batch != null) {
+                    // look for the next batch
+                    continue;
+                }
+
+                int w = wip.get();
+                if (missed == w) {
+                    missed = wip.addAndGet(-missed);
+                    if (missed == 0) {
+                        break;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+        // guarded by this
+        private List<Message<?>> next() {
+            if (current.isEmpty() || requested.get() == 0) {
+                return null;
+            }
+            if (current.size() < size && !expired && !done) {
+                return null;
+            }
+            List<Message<?>> batch = current;
+            current = new ArrayList<>(size);
+            cancelLinger();
+            return batch;
+        }
+
+        private boolean terminate() {
+            Throwable failure;
+            synchronized (this) {
+                if (cancelled || !done || (this.failure == null && !current.isEmpty())) {
+                    return cancelled;
+                }
+                failure = this.failure;
+                cancelled = true;
+                current = new ArrayList<>(0);
+                cancelLinger();
+            }
+            MultiSubscriber<? super Message<List<Object>>> subscriber = downstream;
+            downstream = null;
+            if (failure != null) {
+                subscriber.onFailure(failure);
+            } else {
+                subscriber.onCompletion();
+            }
+            return true;
+        }
+    }
+}
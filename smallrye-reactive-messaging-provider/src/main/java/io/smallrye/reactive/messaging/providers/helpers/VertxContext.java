@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
 
 // TODO move to smallrye-common-vertx-context
 public class VertxContext {
@@ -35,6 +36,21 @@ public class VertxContext {
         }
     }
 
+    /**
+     * Runs the given action on the current thread, the given context being the current context while it runs.
+     * Unlike {@link #runOnContext(Context, Runnable)}, it also works from threads not managed by Vert.x, such as virtual
+     * threads.
+     */
+    public static void dispatch(Context context, Runnable runnable) {
+        ContextInternal internal = (ContextInternal) context;
+        ContextInternal previous = internal.beginDispatch();
+        try {
+            runnable.run();
+        } finally {
+            internal.endDispatch(previous);
+        }
+    }
+
     public static <V> CompletionStage<V> runOnContext(Context context, Consumer<CompletableFuture<V>> runnable) {
         CompletableFuture<V> future = new CompletableFuture<>();
         runOnContext(context, () -> runnable.accept(future));
@@ -0,0 +1,51 @@
+package io.smallrye.reactive.messaging.providers.helpers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads when the running JVM supports them.
+ * <p>
+ * The project targets Java 11, so the {@code Thread.ofVirtual()} API is looked up reflectively, once.
+ */
+public class VirtualThreads {
+
+    private static final String THREAD_NAME_PREFIX = "smallrye-virtual-thread-";
+
+    private static final ThreadFactory FACTORY = createFactory();
+
+    private VirtualThreads() {
+        // avoid direct instantiation
+    }
+
+    /**
+     * @return {@code true} if the running JVM can create virtual threads
+     */
+    public static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * @return the factory creating (unstarted) virtual threads
+     * @throws UnsupportedOperationException if the running JVM cannot create virtual threads
+     */
+    public static ThreadFactory factory() {
+        if (FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        return FACTORY;
+    }
+
+    private static ThreadFactory createFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, THREAD_NAME_PREFIX, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // Before Java 21, or preview features not enabled
+            return null;
+        }
+    }
+}
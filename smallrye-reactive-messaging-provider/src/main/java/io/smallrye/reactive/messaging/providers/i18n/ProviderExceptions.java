@@ -279,6 +279,21 @@ public interface ProviderExceptions {
     @Message(id = 87, value = "The bean %s implements a connector interface but does not use the @Connector qualifier")
     DefinitionException missingConnectorQualifier(String clazz);
 
+    @Message(id = 88, value = "Invalid method annotated with @RunOnVirtualThread: %s - no @Incoming or @Outgoing present")
+    IllegalArgumentException illegalRunOnVirtualThreadSignature(String methodAsString);
+
+    @Message(id = 89, value = "Invalid method annotated with @RunOnVirtualThread: %s - virtual threads are not supported by the running JVM (Java %s), Java 21 or later is required")
+    DeploymentException virtualThreadsNotSupported(String methodAsString, String javaVersion);
+
+    @Message(id = 90, value = "Invalid method annotated with @KeyOrdered: %s - the method must be annotated with @Blocking(ordered = false) or @RunOnVirtualThread")
+    DefinitionException definitionKeyOrderedRequiresUnorderedBlocking(String methodAsString);
+
+    @Message(id = 91, value = "Invalid method annotated with @Batched: %s - the method must consume a `List<T>` or a `Message<List<T>>` and produce individual items")
+    DefinitionException definitionBatchedSignature(String methodAsString);
+
+    @Message(id = 92, value = "Invalid method annotated with @Batched: %s - the size and the linger time must be strictly positive")
+    DefinitionException definitionBatchedInvalidBounds(String methodAsString);
+
     @Message(id = 1001, value = "Cannot extract the key type for the KeyedMulti parameter in %s. Make sure your set the first generic parameter of KeyedMulti<K, V>.")
     DefinitionException failedToExtractKeyType(String method);
 
@@ -135,4 +135,12 @@ public interface ProviderLogging extends BasicLogger {
 
     @Message(id = 240, value = "Could not find an SSLContext bean with the @Identifier=%s")
     IllegalStateException couldFindSslContextWithIdentifier(String sslContextIdentifier);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 241, value = "Method %s runs on virtual threads with concurrency of %d")
+    void virtualThreadExecution(String methodAsString, Integer count);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 242, value = "No KeyValueExtractor can extract the key of the messages received by the @KeyOrdered method %s, these messages are processed one at a time")
+    void noKeyValueExtractorForKeyOrderedMethod(String methodAsString);
 }
@@ -0,0 +1,270 @@
+package io.smallrye.reactive.messaging.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Batched;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.providers.extension.HealthCenter;
+
+public class BatchedMediatorTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 25;
+
+    @Test
+    public void testSubscriberConsumingBatchesOfPayloads() {
+        addBeanClass(ProduceIn.class, PayloadSubscriber.class);
+        initialize();
+
+        PayloadSubscriber bean = get(PayloadSubscriber.class);
+        ProduceIn source = get(ProduceIn.class);
+        // the last batch is delivered once the linger time has elapsed
+        await().until(() -> source.acked().size() == COUNT);
+
+        assertThat(bean.batches()).extracting(List::size).containsExactly(10, 10, 5);
+        assertThat(bean.batches()).flatExtracting(l -> l).containsExactlyElementsOf(source.acked());
+        assertThat(source.nacked()).isEmpty();
+    }
+
+    @Test
+    public void testSubscriberNackingBatches() {
+        addBeanClass(ProduceIn.class, MessageSubscriber.class);
+        initialize();
+
+        ProduceIn source = get(ProduceIn.class);
+        await().until(() -> source.acked().size() + source.nacked().size() == COUNT);
+
+        // the second batch, containing 13, is nacked as a whole
+        assertThat(source.nacked()).containsExactly(10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+        assertThat(source.acked()).hasSize(COUNT - 10).doesNotContainAnyElementsOf(source.nacked());
+    }
+
+    @Test
+    public void testProcessorConsumingBatchesOfPayloads() {
+        addBeanClass(ProduceIn.class, PayloadProcessor.class, Sink.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.list().size() == 3);
+
+        assertThat(sink.list()).containsExactly(45, 145, 110);
+        await().until(() -> get(ProduceIn.class).acked().size() == COUNT);
+    }
+
+    @Test
+    public void testSlowBlockingMethodConsumingBatches() {
+        addBeanClass(ProduceInSlowly.class, SlowBlockingSubscriber.class);
+        initialize();
+
+        SlowBlockingSubscriber bean = get(SlowBlockingSubscriber.class);
+        ProduceInSlowly source = get(ProduceInSlowly.class);
+        // batches are only emitted when requested, so the channel does not fail while a batch is processed
+        await().until(() -> source.acked().size() == COUNT);
+
+        assertThat(bean.batches()).flatExtracting(l -> l).containsExactlyElementsOf(source.acked());
+        assertThat(bean.batches()).allSatisfy(batch -> assertThat(batch).hasSizeBetween(1, 10));
+        assertThat(source.nacked()).isEmpty();
+        assertThat(get(HealthCenter.class).getLiveness().isOk()).isTrue();
+    }
+
+    @Test
+    public void testBatchCarriesTheMetadataOfItsFirstMessage() {
+        addBeanClass(ProduceIn.class, MetadataSubscriber.class);
+        initialize();
+
+        MetadataSubscriber bean = get(MetadataSubscriber.class);
+        await().until(() -> bean.first().size() == 3);
+
+        assertThat(bean.first()).containsExactly(0, 10, 20);
+    }
+
+    @Test
+    public void testBatchedMethodMustConsumeLists() {
+        addBeanClass(ProduceIn.class, InvalidBean.class);
+        assertThatThrownBy(this::initialize).isInstanceOf(DeploymentException.class);
+    }
+
+    @ApplicationScoped
+    public static class ProduceIn {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+        private final List<Integer> nacked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Flow.Publisher<Message<Integer>> produce() {
+            return Multi.createFrom().range(0, COUNT)
+                    .map(i -> Message.of(i, Metadata.of(new Position(i)), () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }, reason -> {
+                        nacked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+
+        public List<Integer> nacked() {
+            return nacked;
+        }
+    }
+
+    @ApplicationScoped
+    public static class PayloadSubscriber {
+        private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Batched(size = 10, lingerMs = 200)
+        public void consume(List<Integer> batch) {
+            batches.add(batch);
+        }
+
+        public List<List<Integer>> batches() {
+            return batches;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ProduceInSlowly {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+        private final List<Integer> nacked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Flow.Publisher<Message<Integer>> produce() {
+            // the linger time elapses several times while a batch is processed
+            return Multi.createFrom().ticks().every(Duration.ofMillis(20))
+                    .onOverflow().buffer()
+                    .select().first(COUNT)
+                    .map(Long::intValue)
+                    .map(i -> Message.of(i, () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }, reason -> {
+                        nacked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+
+        public List<Integer> nacked() {
+            return nacked;
+        }
+    }
+
+    public static class Position {
+        private final int value;
+
+        public Position(int value) {
+            this.value = value;
+        }
+
+        public int value() {
+            return value;
+        }
+    }
+
+    @ApplicationScoped
+    public static class SlowBlockingSubscriber {
+        private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Blocking
+        @Batched(size = 10, lingerMs = 50)
+        public void consume(List<Integer> batch) throws InterruptedException {
+            // longer than the linger time
+            Thread.sleep(200);
+            batches.add(batch);
+        }
+
+        public List<List<Integer>> batches() {
+            return batches;
+        }
+    }
+
+    @ApplicationScoped
+    public static class MetadataSubscriber {
+        private final List<Integer> first = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Batched(size = 10, lingerMs = 200)
+        public CompletionStage<Void> consume(Message<List<Integer>> batch) {
+            first.add(batch.getMetadata(Position.class).map(Position::value).orElse(-1));
+            return batch.ack();
+        }
+
+        public List<Integer> first() {
+            return first;
+        }
+    }
+
+    @ApplicationScoped
+    public static class MessageSubscriber {
+
+        @Incoming("in")
+        @Batched(size = 10, lingerMs = 200)
+        public CompletionStage<Void> consume(Message<List<Integer>> batch) {
+            if (batch.getPayload().contains(13)) {
+                return batch.nack(new IllegalArgumentException("boom"));
+            }
+            return batch.ack();
+        }
+    }
+
+    @ApplicationScoped
+    public static class PayloadProcessor {
+
+        @Incoming("in")
+        @Outgoing("out")
+        @Batched(size = 10, lingerMs = 200)
+        public int sum(List<Integer> batch) {
+            return batch.stream().mapToInt(i -> i).sum();
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("out")
+        public void consume(int sum) {
+            list.add(sum);
+        }
+
+        public List<Integer> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBean {
+
+        @Incoming("in")
+        @Batched(size = 10)
+        public void consume(Integer payload) {
+            // not a batch
+        }
+    }
+}
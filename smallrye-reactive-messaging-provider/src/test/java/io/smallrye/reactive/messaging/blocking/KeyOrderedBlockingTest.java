@@ -0,0 +1,291 @@
+package io.smallrye.reactive.messaging.blocking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MessageConverter;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.keyed.KeyOrdered;
+import io.smallrye.reactive.messaging.keyed.KeyValueExtractor;
+import io.smallrye.reactive.messaging.providers.helpers.TypeUtils;
+
+public class KeyOrderedBlockingTest extends WeldTestBaseWithoutTails {
+
+    private static final int KEYS = 5;
+    private static final int COUNT = 100;
+
+    @Test
+    public void testSubscriberOrderedByKey() {
+        addBeanClass(ProduceIn.class, PrefixExtractor.class, SubscriberBean.class);
+        initialize();
+
+        SubscriberBean bean = get(SubscriberBean.class);
+        await().until(() -> bean.list().size() == COUNT);
+
+        assertOrderedPerKey(bean.list());
+        assertThat(get(ProduceIn.class).acked()).hasSize(COUNT);
+        // distinct keys are processed concurrently, the same key is not
+        assertThat(bean.max()).isGreaterThan(1).isLessThanOrEqualTo(KEYS);
+    }
+
+    @Test
+    public void testProcessorOrderedByKey() {
+        addBeanClass(ProduceIn.class, PrefixExtractor.class, ProcessorBean.class, Sink.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.list().size() == COUNT);
+
+        assertOrderedPerKey(sink.list());
+        assertThat(get(ProcessorBean.class).max()).isGreaterThan(1).isLessThanOrEqualTo(KEYS);
+    }
+
+    @Test
+    public void testKeyIsExtractedFromConvertedMessages() {
+        addBeanClass(ProduceIn.class, RawPayloadExtractor.class, StringToItemConverter.class, ItemSubscriberBean.class);
+        initialize();
+
+        ItemSubscriberBean bean = get(ItemSubscriberBean.class);
+        await().until(() -> bean.list().size() == COUNT);
+
+        assertOrderedPerKey(bean.list());
+        // the extractor matches the raw payload, so the keys are not all null
+        assertThat(bean.max()).isGreaterThan(1).isLessThanOrEqualTo(KEYS);
+    }
+
+    @Test
+    public void testKeyOrderedRequiresUnorderedBlocking() {
+        addBeanClass(ProduceIn.class, PrefixExtractor.class, InvalidBean.class);
+        assertThatThrownBy(this::initialize).isInstanceOf(DeploymentException.class);
+    }
+
+    private static void assertOrderedPerKey(List<String> list) {
+        Map<String, List<Integer>> byKey = list.stream().collect(Collectors.groupingBy(s -> s.split("-")[0],
+                Collectors.mapping(s -> Integer.parseInt(s.split("-")[1]), Collectors.toList())));
+        assertThat(byKey).hasSize(KEYS);
+        byKey.values().forEach(values -> assertThat(values).isSorted());
+    }
+
+    @ApplicationScoped
+    public static class ProduceIn {
+        private final List<String> acked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Flow.Publisher<Message<String>> produce() {
+            return Multi.createFrom().items(IntStream.range(0, COUNT).boxed())
+                    .map(i -> {
+                        String payload = "k" + (i % KEYS) + "-" + i;
+                        return Message.of(payload, () -> {
+                            acked.add(payload);
+                            return CompletableFuture.completedFuture(null);
+                        });
+                    });
+        }
+
+        public List<String> acked() {
+            return acked;
+        }
+    }
+
+    @ApplicationScoped
+    public static class PrefixExtractor implements KeyValueExtractor {
+
+        @Override
+        public boolean canExtract(Message<?> first, Type keyType, Type valueType) {
+            return first.getPayload() instanceof String;
+        }
+
+        @Override
+        public Object extractKey(Message<?> message, Type keyType) {
+            return ((String) message.getPayload()).split("-")[0];
+        }
+
+        @Override
+        public Object extractValue(Message<?> message, Type valueType) {
+            return message.getPayload();
+        }
+    }
+
+    /**
+     * Like the Kafka extractors, checks the value type against the payload received from the connector.
+     */
+    @ApplicationScoped
+    public static class RawPayloadExtractor implements KeyValueExtractor {
+
+        @Override
+        public boolean canExtract(Message<?> first, Type keyType, Type valueType) {
+            return first.getMetadata(RawPayload.class)
+                    .filter(raw -> TypeUtils.isAssignable(raw.value().getClass(), valueType))
+                    .isPresent();
+        }
+
+        @Override
+        public Object extractKey(Message<?> message, Type keyType) {
+            return message.getMetadata(RawPayload.class).orElseThrow().value().split("-")[0];
+        }
+
+        @Override
+        public Object extractValue(Message<?> message, Type valueType) {
+            return message.getPayload();
+        }
+    }
+
+    public static class RawPayload {
+        private final String value;
+
+        public RawPayload(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
+
+    public static class Item {
+        private final String value;
+
+        public Item(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
+
+    @ApplicationScoped
+    public static class StringToItemConverter implements MessageConverter {
+
+        @Override
+        public boolean canConvert(Message<?> in, Type target) {
+            return target == Item.class && in.getPayload() instanceof String;
+        }
+
+        @Override
+        public Message<?> convert(Message<?> in, Type target) {
+            return in.withPayload(new Item((String) in.getPayload()))
+                    .addMetadata(new RawPayload((String) in.getPayload()));
+        }
+    }
+
+    static class ConcurrencyTracker {
+        private final Random random = new Random();
+        private final Map<String, Boolean> running = new ConcurrentHashMap<>();
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        void track(String s) {
+            String key = s.split("-")[0];
+            // the same key is never processed concurrently
+            assertThat(running.putIfAbsent(key, true)).isNull();
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(random.nextInt(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current.decrementAndGet();
+            running.remove(key);
+        }
+
+        int max() {
+            return max.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class SubscriberBean extends ConcurrencyTracker {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Blocking(ordered = false)
+        @KeyOrdered
+        public void consume(String s) {
+            track(s);
+            list.add(s);
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ItemSubscriberBean extends ConcurrencyTracker {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Blocking(ordered = false)
+        @KeyOrdered
+        public void consume(Item item) {
+            track(item.value());
+            list.add(item.value());
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ProcessorBean extends ConcurrencyTracker {
+
+        @Incoming("in")
+        @Outgoing("out")
+        @Blocking(ordered = false)
+        @KeyOrdered(PrefixExtractor.class)
+        public String process(String s) {
+            track(s);
+            return s;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("out")
+        public void consume(String s) {
+            list.add(s);
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBean {
+
+        @Incoming("in")
+        @Blocking
+        @KeyOrdered
+        public void consume(String s) {
+            // Do nothing
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.smallrye.reactive.messaging.blocking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.DeploymentException;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.providers.connectors.ExecutionHolder;
+import io.smallrye.reactive.messaging.providers.locals.LocalContextMetadata;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+class RunOnVirtualThreadTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 20;
+
+    @BeforeEach
+    void setupConfig() {
+        installConfig("src/test/resources/config/virtual-thread-config.properties");
+    }
+
+    @AfterEach
+    void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testSubscriberRunningOnVirtualThreads() {
+        addBeanClass(ProduceIn.class);
+        addBeanClass(SubscriberBean.class);
+        initialize();
+
+        SubscriberBean bean = get(SubscriberBean.class);
+        await().until(() -> bean.list().size() == COUNT);
+
+        assertThat(bean.threads()).allSatisfy(name -> assertThat(name).startsWith("smallrye-virtual-thread-"));
+        // configured with smallrye.messaging.virtual-threads.max-concurrency
+        assertThat(bean.max()).isEqualTo(5);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testProcessorRunningOnVirtualThreads() {
+        addBeanClass(ProduceIn.class);
+        addBeanClass(ProcessorBean.class);
+        addBeanClass(Sink.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.list().size() == COUNT);
+
+        assertThat(sink.list()).hasSize(COUNT).allSatisfy(s -> assertThat(s).startsWith("V-"));
+        assertThat(get(ProcessorBean.class).threads())
+                .allSatisfy(name -> assertThat(name).startsWith("smallrye-virtual-thread-"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testMessageContextIsPropagated() {
+        addBeanClass(ProduceMessagesWithContext.class);
+        addBeanClass(ContextBean.class);
+        initialize();
+
+        ProduceMessagesWithContext producer = get(ProduceMessagesWithContext.class);
+        ContextBean bean = get(ContextBean.class);
+        await().until(() -> bean.contexts().size() == COUNT);
+
+        assertThat(bean.contexts()).isEqualTo(producer.contexts());
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void testVirtualThreadsNotSupported() {
+        addBeanClass(ProduceIn.class);
+        addBeanClass(SubscriberBean.class);
+        assertThatThrownBy(this::initialize).isInstanceOf(DeploymentException.class);
+    }
+
+    @Test
+    void testRunOnVirtualThreadWithoutIncomingOrOutgoing() {
+        addBeanClass(InvalidBean.class);
+        assertThatThrownBy(this::initialize).isInstanceOf(DeploymentException.class);
+    }
+
+    @ApplicationScoped
+    public static class ProduceIn {
+        @Outgoing("in")
+        public Flow.Publisher<String> produce() {
+            return Multi.createFrom().range(0, COUNT).map(i -> "v-" + i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class SubscriberBean {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        @Incoming("in")
+        @RunOnVirtualThread
+        public void consume(String s) throws InterruptedException {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(50);
+            list.add(s);
+            current.decrementAndGet();
+        }
+
+        public List<String> list() {
+            return list;
+        }
+
+        public List<String> threads() {
+            return threads;
+        }
+
+        public int max() {
+            return max.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ProcessorBean {
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Outgoing("out")
+        @RunOnVirtualThread
+        public String process(String s) throws InterruptedException {
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(10);
+            return s.toUpperCase();
+        }
+
+        public List<String> threads() {
+            return threads;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("out")
+        public void consume(String s) {
+            list.add(s);
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ProduceMessagesWithContext {
+        private final Map<Integer, Context> contexts = new ConcurrentHashMap<>();
+
+        @Inject
+        ExecutionHolder holder;
+
+        @Outgoing("in")
+        public Flow.Publisher<Message<Integer>> produce() {
+            Vertx vertx = holder.vertx().getDelegate();
+            return Multi.createFrom().range(0, COUNT).map(i -> {
+                Context context = io.smallrye.common.vertx.VertxContext
+                        .createNewDuplicatedContext(vertx.getOrCreateContext());
+                contexts.put(i, context);
+                return Message.of(i).addMetadata(new LocalContextMetadata(context));
+            });
+        }
+
+        public Map<Integer, Context> contexts() {
+            return contexts;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ContextBean {
+        private final Map<Integer, Context> contexts = new ConcurrentHashMap<>();
+
+        @Incoming("in")
+        @RunOnVirtualThread
+        public void consume(int i) {
+            contexts.put(i, Vertx.currentContext());
+        }
+
+        public Map<Integer, Context> contexts() {
+            return contexts;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBean {
+
+        @RunOnVirtualThread
+        public void consume(String s) {
+            // Do nothing
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.smallrye.reactive.messaging.providers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.reactive.messaging.Invoker;
+
+class MethodHandleInvokerTest {
+
+    private final Target target = new Target();
+
+    @Test
+    void testArity0() throws Exception {
+        Invoker invoker = create("hello");
+        assertThat(invoker.invoke()).isEqualTo("hello");
+    }
+
+    @Test
+    void testArity1() throws Exception {
+        MethodHandleInvoker invoker = create("upper", String.class);
+        assertThat(invoker.invoke("a")).isEqualTo("A");
+        assertThat(invoker.invoke(new Object[] { "b" })).isEqualTo("B");
+        assertThatThrownBy(() -> invoker.invoke("a", "b")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testArity2WithPrimitives() throws Exception {
+        MethodHandleInvoker invoker = create("repeat", String.class, int.class);
+        assertThat(invoker.invoke("a", 3)).isEqualTo("aaa");
+        assertThat(invoker.invoke(new Object[] { "b", 2 })).isEqualTo("bb");
+    }
+
+    @Test
+    void testArityN() throws Exception {
+        Invoker invoker = create("join", String.class, String.class, String.class);
+        assertThat(invoker.invoke("a", "b", "c")).isEqualTo("a-b-c");
+    }
+
+    @Test
+    void testVoidMethod() throws Exception {
+        MethodHandleInvoker invoker = create("consume", String.class);
+        assertThat(invoker.invoke("a")).isNull();
+        assertThat(target.consumed).containsExactly("a");
+    }
+
+    @Test
+    void testStaticMethod() throws Exception {
+        MethodHandleInvoker invoker = create("lower", String.class);
+        assertThat(invoker.invoke("A")).isEqualTo("a");
+    }
+
+    @Test
+    void testFailureIsWrapped() throws Exception {
+        MethodHandleInvoker invoker = create("fail", String.class);
+        assertThatThrownBy(() -> invoker.invoke("boom"))
+                .isInstanceOf(ProcessingException.class)
+                .hasCauseInstanceOf(InvocationTargetException.class)
+                .hasRootCauseMessage("boom");
+    }
+
+    private MethodHandleInvoker create(String name, Class<?>... parameterTypes) throws Exception {
+        Method method = Target.class.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return MethodHandleInvoker.create(name, method, target);
+    }
+
+    @SuppressWarnings("unused")
+    static class Target {
+        private final List<String> consumed = new ArrayList<>();
+
+        public String hello() {
+            return "hello";
+        }
+
+        public String upper(String s) {
+            return s.toUpperCase();
+        }
+
+        String repeat(String s, int times) {
+            return s.repeat(times);
+        }
+
+        private String join(String a, String b, String c) {
+            return a + "-" + b + "-" + c;
+        }
+
+        public void consume(String s) {
+            consumed.add(s);
+        }
+
+        public static String lower(String s) {
+            return s.toLowerCase();
+        }
+
+        public String fail(String message) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.smallrye.reactive.messaging.providers.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AcknowledgementCoordinatorTest {
+
+    private final AtomicInteger acked = new AtomicInteger();
+    private final AtomicInteger nacked = new AtomicInteger();
+    private final AtomicReference<Throwable> reason = new AtomicReference<>();
+    private AcknowledgementCoordinator coordinator;
+
+    @BeforeEach
+    void setup() {
+        Message<String> input = Message.of("input", () -> {
+            acked.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }, failure -> {
+            nacked.incrementAndGet();
+            reason.set(failure);
+            return CompletableFuture.completedFuture(null);
+        });
+        coordinator = new AcknowledgementCoordinator(input);
+    }
+
+    @Test
+    void testAckedWhenAllTrackedMessagesAreAcked() {
+        List<Message<?>> children = track(3);
+
+        children.get(0).ack();
+        children.get(2).ack();
+        // acking the same message twice must not count twice
+        children.get(2).ack();
+        assertThat(acked).hasValue(0);
+
+        children.get(1).ack();
+        assertThat(acked).hasValue(1);
+        assertThat(nacked).hasValue(0);
+    }
+
+    @Test
+    void testNackedOnFirstNack() {
+        List<Message<?>> children = track(3);
+        Exception first = new Exception("first");
+
+        children.get(0).ack();
+        children.get(1).nack(first);
+        children.get(2).nack(new Exception("second"));
+        children.get(2).ack();
+
+        assertThat(nacked).hasValue(1);
+        assertThat(reason).hasValue(first);
+        assertThat(acked).hasValue(0);
+    }
+
+    @Test
+    void testNackAfterAckIsIgnored() {
+        List<Message<?>> children = track(2);
+
+        children.get(0).ack();
+        children.get(1).ack();
+        children.get(1).nack(new Exception("too late"));
+
+        assertThat(acked).hasValue(1);
+        assertThat(nacked).hasValue(0);
+    }
+
+    @Test
+    void testConcurrentAcks() throws InterruptedException {
+        int count = 10_000;
+        List<Message<?>> children = track(count);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch latch = new CountDownLatch(count);
+        try {
+            for (Message<?> child : children) {
+                executor.execute(() -> {
+                    child.ack();
+                    latch.countDown();
+                });
+            }
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(acked).hasValue(1);
+        assertThat(nacked).hasValue(0);
+    }
+
+    private List<Message<?>> track(int count) {
+        List<Message<?>> children = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            children.add(coordinator.track(Message.of(i)));
+        }
+        return children;
+    }
+}